@@ -0,0 +1,259 @@
+/*
+* @(#) GameThroughput.java 1.0 2017/04/01
+*
+* Copyright (c) 2017 Aberystwyth University.
+* All rights reserved.
+*
+*/
+
+package uk.ac.aber.cs221.group16.bench;
+
+import uk.ac.aber.cs221.group16.game.Game;
+import uk.ac.aber.cs221.group16.game.bots.Bot;
+import uk.ac.aber.cs221.group16.game.bots.BotGame;
+import uk.ac.aber.cs221.group16.game.bots.GreedyBot;
+import uk.ac.aber.cs221.group16.game.map.BitBoard;
+import uk.ac.aber.cs221.group16.game.map.Board;
+import uk.ac.aber.cs221.group16.game.map.Orientation;
+import uk.ac.aber.cs221.group16.game.players.Player;
+import uk.ac.aber.cs221.group16.game.utils.GameRandom;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Plays the same set of seeded games between {@link GreedyBot}s on one thread, from making each game to its end, and
+ * measures how fast the rules run: games and turns per second, the median and 99th percentile time of a turn and the
+ * bytes allocated per turn. The games are played a few times to warm up and then a number of rounds, and the best of
+ * each measurement over the rounds is reported as JSON. The times depend on the machine, so the baseline should be made
+ * on the machine it is compared on.
+ * <p>
+ * Usage: {@code java -cp <classpath> uk.ac.aber.cs221.group16.bench.GameThroughput [games] [rounds] [baseline]
+ * [tolerance]}, run from the project root. The baseline defaults to {@code bench/throughput.json} and the tolerance to
+ * 0.1. If there is no baseline the results are written as the baseline, otherwise they are compared against it and
+ * the program exits with status 1 if any measurement is worse than the baseline by more than the tolerance. Delete the
+ * baseline and run again to replace it.
+ * <p>
+ * The number of turns played is part of the results. If it differs from the baseline the rules have changed how the
+ * games go, so games per second can't be compared, but the per turn measurements still can.
+ *
+ * @author Group 16
+ * @version 1.1 Valid move masks.
+ */
+public class GameThroughput {
+
+   // Constants
+   private static final List<String> names = Arrays.asList("Bot 1", "Bot 2", "Bot 3", "Bot 4");
+   private static final long seed = 2017;
+   private static final int maxTurns = 1000;
+   private static final int warmupRounds = 5;
+   // the measurements which are better when higher, the rest are better when lower.
+   private static final Set<String> higherIsBetter = Set.of("gamesPerSecond", "turnsPerSecond");
+   private static final Pattern jsonNumber = Pattern.compile("\"(\\w+)\"\\s*:\\s*(-?[0-9.]+(?:[eE][-+]?[0-9]+)?)");
+
+   // Instance Variables
+   private long[] gameSeeds;
+   private long[] botSeeds;
+   private long[] turnTimes;
+   private int turnCount;
+   private com.sun.management.ThreadMXBean threads =
+           (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+   // Constructors
+
+   /**
+    * Draws the seeds of the games from a fixed seed, so every run plays the same games.
+    *
+    * @param games The number of games to play in each round.
+    */
+   public GameThroughput(int games) {
+      GameRandom random = new GameRandom(seed);
+      gameSeeds = new long[games];
+      botSeeds = new long[games];
+      for (int i = 0; i < games; i++) {
+         gameSeeds[i] = random.nextLong();
+         botSeeds[i] = random.nextLong();
+      }
+      turnTimes = new long[games * maxTurns];
+   }
+
+   // Public Methods
+
+   /**
+    * Plays every game once.
+    *
+    * @return The measurements of the round, by name.
+    */
+   public Map<String, Double> round() {
+      long threadId = Thread.currentThread().getId();
+      turnCount = 0;
+      long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+      long start = System.nanoTime();
+      for (int i = 0; i < gameSeeds.length; i++)
+         playGame(gameSeeds[i], botSeeds[i]);
+      double seconds = (System.nanoTime() - start) / 1e9;
+      long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+      long[] sorted = Arrays.copyOf(turnTimes, turnCount);
+      Arrays.sort(sorted);
+      Map<String, Double> results = new LinkedHashMap<>();
+      results.put("games", (double) gameSeeds.length);
+      results.put("turns", (double) turnCount);
+      results.put("gamesPerSecond", gameSeeds.length / seconds);
+      results.put("turnsPerSecond", turnCount / seconds);
+      results.put("p50TurnMicros", percentile(sorted, 0.5) / 1e3);
+      results.put("p99TurnMicros", percentile(sorted, 0.99) / 1e3);
+      results.put("bytesPerTurn", (double) allocated / turnCount);
+      return results;
+   }
+
+   // Private Methods
+
+   /**
+    * Plays a game as {@link BotGame#play()} does, timing each turn. A turn lasts until the turn number changes, so
+    * it includes the player's moves, rotation and everything which happens at the end of their path.
+    *
+    * @param gameSeed The seed of the game.
+    * @param botSeed  The seed the bots' random number generators are split from.
+    */
+   private void playGame(long gameSeed, long botSeed) {
+      GameRandom botRandom = new GameRandom(botSeed);
+      Bot[] bots = new Bot[Game.numPlayers];
+      for (int i = 0; i < bots.length; i++)
+         bots[i] = new GreedyBot(botRandom.split());
+      Game game = new BotGame(names, bots, maxTurns, gameSeed).getGame();
+      Board board = game.getBoard();
+      long[] moves = BitBoard.newMask();
+      game.start();
+      long turnStart = System.nanoTime();
+      int turn = game.getTurnNumber();
+      while (!game.isGameOver() && game.getTurnNumber() < maxTurns) {
+         Player player = board.getCurrentPlayer();
+         Bot bot = bots[player.getId()];
+         if (!board.getValidMoves(moves)) {
+            List<Orientation> rotations = board.getValidRotations();
+            board.rotate(bot.chooseRotation(board, player, rotations));
+         } else {
+            board.sail(bot.chooseMove(board, player, moves));
+         }
+         if (game.getTurnNumber() != turn || game.isGameOver()) {
+            long now = System.nanoTime();
+            turnTimes[turnCount++] = now - turnStart;
+            turnStart = now;
+            turn = game.getTurnNumber();
+         }
+      }
+   }
+
+   // Static Methods
+
+   public static void main(String[] args) throws IOException {
+      int games = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+      int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+      Path baselinePath = Paths.get(args.length > 2 ? args[2] : "bench/throughput.json");
+      double tolerance = args.length > 3 ? Double.parseDouble(args[3]) : 0.1;
+
+      GameThroughput benchmark = new GameThroughput(games);
+      for (int r = 0; r < warmupRounds; r++)
+         benchmark.round();
+      Map<String, double[]> byRound = new LinkedHashMap<>();
+      for (int r = 0; r < rounds; r++) {
+         for (Map.Entry<String, Double> result : benchmark.round().entrySet())
+            byRound.computeIfAbsent(result.getKey(), k -> new double[rounds])[r] = result.getValue();
+      }
+      // the best round is the one least disturbed by anything else running, so it varies least between runs.
+      Map<String, Double> results = new LinkedHashMap<>();
+      for (Map.Entry<String, double[]> entry : byRound.entrySet()) {
+         double[] values = entry.getValue();
+         Arrays.sort(values);
+         results.put(entry.getKey(), higherIsBetter.contains(entry.getKey()) ? values[values.length - 1] : values[0]);
+      }
+      String json = toJson(results);
+      System.out.println(json);
+
+      if (!Files.exists(baselinePath)) {
+         Files.write(baselinePath, (json + "\n").getBytes(StandardCharsets.UTF_8));
+         System.out.println("No baseline, wrote " + baselinePath);
+         return;
+      }
+      Map<String, Double> baseline = fromJson(new String(Files.readAllBytes(baselinePath), StandardCharsets.UTF_8));
+      boolean sameGames = Objects.equals(baseline.get("games"), results.get("games")) &&
+              Objects.equals(baseline.get("turns"), results.get("turns"));
+      if (!sameGames)
+         System.out.println("The games played differently to the baseline, games per second can't be compared");
+      boolean regressed = false;
+      for (Map.Entry<String, Double> result : results.entrySet()) {
+         String name = result.getKey();
+         Double before = baseline.get(name);
+         if (before == null || before == 0 || name.equals("games") || name.equals("turns"))
+            continue;
+         double change = result.getValue() / before - 1;
+         boolean worse = higherIsBetter.contains(name) ? change < -tolerance : change > tolerance;
+         if (name.equals("gamesPerSecond") && !sameGames)
+            worse = false;
+         regressed |= worse;
+         System.out.printf("%-16s %12.2f -> %12.2f (%+.1f%%)%s%n", name, before, result.getValue(), change * 100,
+                 worse ? "  REGRESSED" : "");
+      }
+      if (regressed) {
+         System.out.printf("Slower than the baseline by more than %.0f%%%n", tolerance * 100);
+         System.exit(1);
+      }
+   }
+
+   /**
+    * Gets a percentile of some sorted times.
+    *
+    * @param sorted   The times, in ascending order.
+    * @param fraction The percentile as a fraction, e.g. 0.99.
+    * @return The time at the percentile, 0 if there are none.
+    */
+   private static double percentile(long[] sorted, double fraction) {
+      if (sorted.length == 0)
+         return 0;
+      return sorted[Math.min(sorted.length - 1, (int) Math.ceil(fraction * sorted.length) - 1)];
+   }
+
+   /**
+    * Writes measurements as a flat JSON object.
+    *
+    * @param results The measurements by name.
+    * @return The JSON.
+    */
+   private static String toJson(Map<String, Double> results) {
+      StringBuilder json = new StringBuilder("{");
+      for (Map.Entry<String, Double> result : results.entrySet()) {
+         if (json.length() > 1)
+            json.append(",");
+         json.append("\n  \"").append(result.getKey()).append("\": ").append(String.format(Locale.ROOT, "%.3f", result.getValue()));
+      }
+      return json.append("\n}").toString();
+   }
+
+   /**
+    * Reads measurements from a flat JSON object, as written by {@link #toJson(Map)}.
+    *
+    * @param json The JSON.
+    * @return The measurements by name.
+    */
+   private static Map<String, Double> fromJson(String json) {
+      Map<String, Double> results = new LinkedHashMap<>();
+      Matcher matcher = jsonNumber.matcher(json);
+      while (matcher.find())
+         results.put(matcher.group(1), Double.parseDouble(matcher.group(2)));
+      return results;
+   }
+}
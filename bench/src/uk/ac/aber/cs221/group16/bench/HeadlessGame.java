@@ -0,0 +1,90 @@
+/*
+* @(#) HeadlessGame.java 1.0 2017/04/01
+*
+* Copyright (c) 2017 Aberystwyth University.
+* All rights reserved.
+*
+*/
+
+package uk.ac.aber.cs221.group16.bench;
+
+import uk.ac.aber.cs221.group16.game.Game;
+import uk.ac.aber.cs221.group16.game.Interaction;
+import uk.ac.aber.cs221.group16.game.Trade;
+import uk.ac.aber.cs221.group16.game.players.Player;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This class makes games for the benchmarks to run against. The games have no display, every message is ignored and
+ * every decision is answered the same way so that nothing blocks.
+ * <p>
+ * The map and card files are loaded from relative paths, so benchmarks must be run from the project root.
+ *
+ * @author Group 16
+ * @version 1.0 Precomputed move rays.
+ */
+public class HeadlessGame {
+
+   // Constants
+   private static final List<String> names = Arrays.asList("Player 1", "Player 2", "Player 3", "Player 4");
+   private static final long seed = 2017;
+
+   // Static Methods
+
+   /**
+    * Makes a new game which has been started, so the first player is the current player. The same seed is always used
+    * so every run measures the same game.
+    *
+    * @return The started game.
+    */
+   public static Game newGame() {
+      Game game = new Game(names, new SilentInteraction(), seed);
+      game.start();
+      return game;
+   }
+
+   // Inner Classes
+
+   /**
+    * Ignores every message and always makes the first choice offered.
+    */
+   private static class SilentInteraction implements Interaction {
+
+      @Override
+      public void inform(String message) {
+      }
+
+      @Override
+      public boolean engage(Player defender, Player attacker) {
+         return false;
+      }
+
+      @Override
+      public boolean chooseTreasure(Player player, String question) {
+         return true;
+      }
+
+      @Override
+      public Player selectPlayer(Player chooser, List<Player> candidates, String message) {
+         for (Player candidate : candidates) {
+            if (candidate.getCrewCards().size() > 0)
+               return candidate;
+         }
+         return candidates.get(0);
+      }
+
+      @Override
+      public void trade(Trade trade) {
+      }
+
+      @Override
+      public void currentPlayerChanged(Player previous, Player current) {
+      }
+
+      @Override
+      public void gameOver(Player winner) {
+      }
+   }
+}
@@ -0,0 +1,73 @@
+/*
+* @(#) LoadingBenchmark.java 1.0 2017/04/01
+*
+* Copyright (c) 2017 Aberystwyth University.
+* All rights reserved.
+*
+*/
+
+package uk.ac.aber.cs221.group16.bench;
+
+import org.openjdk.jmh.annotations.*;
+import uk.ac.aber.cs221.group16.game.items.cards.CardFactory;
+import uk.ac.aber.cs221.group16.game.map.Board;
+import uk.ac.aber.cs221.group16.game.map.MapBuilder;
+import uk.ac.aber.cs221.group16.game.utils.GameRandom;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the parts of making a game which read the config files, the chance cards and the map. These are run for
+ * every new game, including every game played by {@link uk.ac.aber.cs221.group16.game.bots.BotGame}.
+ * <p>
+ * Run along with {@link RulesBenchmark}, which describes how to compare against the baseline.
+ *
+ * @author Group 16
+ * @version 1.0 Rules benchmarks.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoadingBenchmark {
+
+   // Instance Variables
+   private CardFactory cardFactory;
+
+   // Public Methods
+
+   /**
+    * Makes the card factory with six of each crew card, as a game does.
+    */
+   @Setup
+   public void setup() {
+      cardFactory = new CardFactory(6, new GameRandom(2017));
+   }
+
+   /**
+    * Reads the chance card file and makes the deck.
+    *
+    * @return The deck.
+    */
+   @Benchmark
+   public Object inOrderChanceCards() {
+      return cardFactory.getInOrderChanceCards();
+   }
+
+   /**
+    * Reads the map file and makes its tiles, with empty containers.
+    *
+    * @return The map.
+    */
+   @Benchmark
+   public Object loadMap() {
+      MapBuilder builder = new MapBuilder(Board.gridWidth, Board.gridHeight, new ArrayList<>(), new LinkedList<>(),
+              new LinkedList<>());
+      builder.loadCSV(MapBuilder.defaultMapPath);
+      return builder.toMap();
+   }
+}
@@ -0,0 +1,82 @@
+/*
+* @(#) MoveGenerationAllocationCheck.java 1.0 2017/04/01
+*
+* Copyright (c) 2017 Aberystwyth University.
+* All rights reserved.
+*
+*/
+
+package uk.ac.aber.cs221.group16.bench;
+
+import uk.ac.aber.cs221.group16.game.map.BitBoard;
+import uk.ac.aber.cs221.group16.game.map.Board;
+import uk.ac.aber.cs221.group16.game.map.Orientation;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Asserts that move generation does not allocate. Moves are generated from every sailable tile, in every direction and
+ * for every movement distance, once to warm up and then again while the bytes allocated by this thread are measured.
+ * Exits with an AssertionError if anything was allocated.
+ * <p>
+ * Run from the project root with {@code java -cp <classpath> uk.ac.aber.cs221.group16.bench.MoveGenerationAllocationCheck}.
+ *
+ * @author Group 16
+ * @version 1.0 Precomputed move rays.
+ */
+public class MoveGenerationAllocationCheck {
+
+   // Constants
+   private static final int warmupRounds = 200;
+   private static final int measuredRounds = 50;
+   private static final int maxMoveDist = 12;
+
+   // Static Methods
+
+   public static void main(String[] args) {
+      com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+      long threadId = Thread.currentThread().getId();
+      BitBoard bitBoard = HeadlessGame.newGame().getBoard().getBitBoard();
+      long[] mask = BitBoard.newMask();
+
+      long sink = run(bitBoard, mask, warmupRounds);
+
+      long before = threads.getThreadAllocatedBytes(threadId);
+      sink += run(bitBoard, mask, measuredRounds);
+      long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+      System.out.println(allocated + " bytes allocated over " + measuredRounds + " rounds (checksum " + sink + ")");
+      if (allocated != 0)
+         throw new AssertionError("Move generation allocated " + allocated + " bytes");
+   }
+
+   /**
+    * Generates moves from every sailable tile a number of times.
+    *
+    * @param bitBoard The bitboards of the map.
+    * @param mask     The mask to generate into.
+    * @param rounds   The number of times to go over the map.
+    * @return A checksum of the moves so the work can't be removed.
+    */
+   private static long run(BitBoard bitBoard, long[] mask, int rounds) {
+      Orientation[] all = Orientation.getAll();
+      long sink = 0;
+      for (int r = 0; r < rounds; r++) {
+         for (int x = 0; x < Board.gridWidth; x++) {
+            for (int y = 0; y < Board.gridHeight; y++) {
+               if (!bitBoard.isSailable(x, y))
+                  continue;
+               for (Orientation facing : all) {
+                  for (int dist = 1; dist <= maxMoveDist; dist++) {
+                     bitBoard.generateMoves(x, y, facing, dist, false, mask);
+                     sink += mask[0];
+                     bitBoard.generateMoves(x, y, facing, dist, true, mask);
+                     sink += mask[mask.length - 1];
+                  }
+               }
+            }
+         }
+      }
+      return sink;
+   }
+}
@@ -0,0 +1,115 @@
+/*
+* @(#) MoveGenerationBenchmark.java 1.0 2017/04/01
+*
+* Copyright (c) 2017 Aberystwyth University.
+* All rights reserved.
+*
+*/
+
+package uk.ac.aber.cs221.group16.bench;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import uk.ac.aber.cs221.group16.game.map.BitBoard;
+import uk.ac.aber.cs221.group16.game.map.Board;
+import uk.ac.aber.cs221.group16.game.map.Orientation;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures move generation from the precomputed rays of {@link BitBoard}. Each call generates the moves from the next
+ * sailable tile of the map, cycling through all of them.
+ * <p>
+ * Run from the project root with {@code java -cp <classpath> org.openjdk.jmh.Main MoveGenerationBenchmark -prof gc},
+ * gc.alloc.rate.norm should be 0 bytes per operation.
+ *
+ * @author Group 16
+ * @version 1.0 Precomputed move rays.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveGenerationBenchmark {
+
+   // Instance Variables
+   private BitBoard bitBoard;
+   private int[] xs, ys;
+   private Orientation[] facings;
+   private long[] mask;
+   private int next;
+
+   @Param({"1", "3", "8"})
+   public int moveDist;
+
+   // Public Methods
+
+   /**
+    * Makes a game and collects every sailable tile to generate moves from.
+    */
+   @Setup
+   public void setup() {
+      Board board = HeadlessGame.newGame().getBoard();
+      bitBoard = board.getBitBoard();
+      mask = BitBoard.newMask();
+      Orientation[] all = Orientation.getAll();
+      int count = 0;
+      for (int x = 0; x < Board.gridWidth; x++)
+         for (int y = 0; y < Board.gridHeight; y++)
+            if (bitBoard.isSailable(x, y))
+               count++;
+      xs = new int[count];
+      ys = new int[count];
+      facings = new Orientation[count];
+      int i = 0;
+      for (int x = 0; x < Board.gridWidth; x++) {
+         for (int y = 0; y < Board.gridHeight; y++) {
+            if (bitBoard.isSailable(x, y)) {
+               xs[i] = x;
+               ys[i] = y;
+               facings[i] = all[i % all.length];
+               i++;
+            }
+         }
+      }
+   }
+
+   /**
+    * Generates the moves of a ship which may only sail forwards.
+    *
+    * @param bh Consumes the result.
+    */
+   @Benchmark
+   public void forwardMoves(Blackhole bh) {
+      int i = advance();
+      bitBoard.generateMoves(xs[i], ys[i], facings[i], moveDist, false, mask);
+      bh.consume(mask);
+   }
+
+   /**
+    * Generates the moves of a ship which may sail in any direction, as after a battle.
+    *
+    * @param bh Consumes the result.
+    */
+   @Benchmark
+   public void anyDirectionMoves(Blackhole bh) {
+      int i = advance();
+      bitBoard.generateMoves(xs[i], ys[i], facings[i], moveDist, true, mask);
+      bh.consume(mask);
+   }
+
+   // Private Methods
+
+   /**
+    * Moves on to the next tile.
+    *
+    * @return The index of the tile to use.
+    */
+   private int advance() {
+      int i = next;
+      next = (i + 1 == xs.length) ? 0 : i + 1;
+      return i;
+   }
+}
@@ -0,0 +1,186 @@
+/*
+* @(#) RulesBenchmark.java 1.0 2017/04/01
+*
+* Copyright (c) 2017 Aberystwyth University.
+* All rights reserved.
+*
+*/
+
+package uk.ac.aber.cs221.group16.bench;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import uk.ac.aber.cs221.group16.game.Battle;
+import uk.ac.aber.cs221.group16.game.Game;
+import uk.ac.aber.cs221.group16.game.container.TreasureIslandContainer;
+import uk.ac.aber.cs221.group16.game.map.BitBoard;
+import uk.ac.aber.cs221.group16.game.map.Board;
+import uk.ac.aber.cs221.group16.game.map.tiles.Tile;
+import uk.ac.aber.cs221.group16.game.players.Player;
+import uk.ac.aber.cs221.group16.game.utils.MoveAssistance;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the rules which are run on every move of every game, by the players and by the bots' searches: finding the
+ * valid moves, the islands around a tile, a player's fighting strength, taking treasure from Treasure Island and
+ * handing over the loot of a battle. Each call uses the next player, tile or value, cycling through all of them.
+ * <p>
+ * Run from the project root with
+ * {@code java -cp <classpath> org.openjdk.jmh.Main "RulesBenchmark|LoadingBenchmark" -prof gc -rf text -rff bench/baseline.txt}
+ * to replace the checked in baseline, or without {@code -rf} and {@code -rff} to compare against it.
+ *
+ * @author Group 16
+ * @version 1.2 Valid move masks.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RulesBenchmark {
+
+   // Instance Variables
+   private Board board;
+   private Player[] players;
+   private Tile[][] grid;
+   private TreasureIslandContainer treasureIsland;
+   private long[] moves = BitBoard.newMask();
+   private int nextPlayer;
+   private int nextTile;
+   private int nextValue;
+
+   // Public Methods
+
+   /**
+    * Makes a started game.
+    */
+   @Setup
+   public void setup() {
+      Game game = HeadlessGame.newGame();
+      board = game.getBoard();
+      players = game.getPlayers();
+      grid = board.getGrid();
+      treasureIsland = board.getTreasureIslandContainer();
+   }
+
+   /**
+    * Finds the moves of each player's ship from its home port, as at the start of their first turn.
+    *
+    * @param bh Consumes the result.
+    */
+   @Benchmark
+   public void validMoves(Blackhole bh) {
+      board.setCurrentPlayer(players[advancePlayer()]);
+      bh.consume(board.getValidMoves());
+   }
+
+   /**
+    * Finds the same moves as {@link #validMoves(Blackhole)} into a mask, as the bots do.
+    *
+    * @param bh Consumes the result.
+    */
+   @Benchmark
+   public void validMoveMask(Blackhole bh) {
+      board.setCurrentPlayer(players[advancePlayer()]);
+      bh.consume(board.getValidMoves(moves));
+      bh.consume(moves);
+   }
+
+   /**
+    * Finds the islands around a tile, as is done for every ship which finishes a move.
+    *
+    * @return The islands.
+    */
+   @Benchmark
+   public Object surroundingIslandTiles() {
+      int i = nextTile;
+      nextTile = (i + 1 == Board.gridWidth * Board.gridHeight) ? 0 : i + 1;
+      return MoveAssistance.getSurroundingIslandTiles(i % Board.gridWidth, i / Board.gridWidth, grid);
+   }
+
+   /**
+    * Works out a player's fighting strength from their crew.
+    *
+    * @return The strength.
+    */
+   @Benchmark
+   public int fightingStrength() {
+      return players[advancePlayer()].getFightingStrength();
+   }
+
+   /**
+    * Looks for the treasure nearest to a value which would fit in an empty ship, leaving it on the island.
+    *
+    * @return The treasures.
+    */
+   @Benchmark
+   public Object treasuresOfValue() {
+      int value = nextValue;
+      nextValue = (value == 20) ? 1 : value + 1;
+      return treasureIsland.getTreasuresOfValue(value, 2, false);
+   }
+
+   /**
+    * Fights a battle and hands the loot to the winner, then gives it back so the next battle is the same.
+    *
+    * @param battle The players fighting.
+    */
+   @Benchmark
+   public void battleLoot(BattleState battle) {
+      new Battle(battle.attacker, battle.defender, battle.board).engage();
+      battle.loser.getShip().load(battle.winner.getShip().unload());
+   }
+
+   // Private Methods
+
+   /**
+    * Moves on to the next player.
+    *
+    * @return The index of the player to use.
+    */
+   private int advancePlayer() {
+      int i = nextPlayer;
+      nextPlayer = (i + 1 == players.length) ? 0 : i + 1;
+      return i;
+   }
+
+   // Inner Classes
+
+   /**
+    * Two players of a new game who will not draw, the loser of whom is carrying treasure. A new game is made for each
+    * iteration so that the game log, which every battle is added to, stays small.
+    */
+   @State(Scope.Thread)
+   public static class BattleState {
+
+      private Board board;
+      private Player attacker, defender, winner, loser;
+
+      /**
+       * Makes a game and picks the first two of its players whose strengths differ.
+       */
+      @Setup(Level.Iteration)
+      public void setup() {
+         Game game = HeadlessGame.newGame();
+         board = game.getBoard();
+         // the players of the last iteration's game must not be kept.
+         attacker = null;
+         defender = null;
+         for (Player a : game.getPlayers()) {
+            for (Player d : game.getPlayers()) {
+               if (a != d && a.getFightingStrength() != d.getFightingStrength() && attacker == null) {
+                  attacker = a;
+                  defender = d;
+               }
+            }
+         }
+         if (attacker == null)
+            throw new IllegalStateException("Every player has the same fighting strength");
+         loser = attacker.attack(defender);
+         winner = loser == attacker ? defender : attacker;
+         loser.getShip().load(board.getTreasureIslandContainer().getTreasuresOfValue(100, 2, true));
+      }
+   }
+}
@@ -3,4 +3,7 @@ module group.project {
     requires javafx.controls;
     requires javafx.graphics;
     requires javafx.media;
+    requires java.desktop;
+    requires jdk.management;
+    requires jdk.jfr;
     opens sample;}
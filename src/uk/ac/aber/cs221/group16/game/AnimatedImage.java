@@ -0,0 +1,265 @@
+/*
+* @(#) AnimatedImage.java 1.0 2017/04/01
+*
+* Copyright (c) 2017 Aberystwyth University.
+* All rights reserved.
+*
+*/
+
+package uk.ac.aber.cs221.group16.game;
+
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import org.w3c.dom.Node;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * This class holds the frames of an animated GIF as separate still images, decoded once when it is loaded. A GIF
+ * loaded straight into an {@link Image} runs its own timer and changes frame by itself, so every animated tile on the
+ * board would change at a different time. Views instead pick the frame to show for a time from a shared clock, so all
+ * of the animated tiles change together.
+ * <p>
+ * Frames are built up the way a browser shows them: each is drawn over what the previous frames left behind, then
+ * cleared or restored as its disposal method says.
+ *
+ * @author Group 16
+ * @version 1.1 Sprite pack.
+ */
+public class AnimatedImage {
+
+   // Constants
+   // browsers show frames with no delay for this long, as such GIFs were made expecting it.
+   private static final int defaultDelay = 100;
+   private static final String imageFormat = "javax_imageio_gif_image_1.0";
+   private static final String streamFormat = "javax_imageio_gif_stream_1.0";
+
+   // Instance Variables
+   private final Image[] frames;
+   private final int[] delays;
+   private final int duration;
+
+   // Constructors
+
+   /**
+    * Creates an animation from its frames.
+    *
+    * @param frames The frames.
+    * @param delays How long each frame is shown for, in milliseconds.
+    */
+   public AnimatedImage(Image[] frames, int[] delays) {
+      this.frames = frames;
+      this.delays = delays;
+      this.duration = Arrays.stream(delays).sum();
+   }
+
+   // Public Methods
+
+   /**
+    * Gets the number of frames.
+    *
+    * @return The frame count.
+    */
+   public int getFrameCount() {
+      return frames.length;
+   }
+
+   /**
+    * Gets a frame.
+    *
+    * @param index The index of the frame.
+    * @return The frame.
+    */
+   public Image getFrame(int index) {
+      return frames[index];
+   }
+
+   /**
+    * Gets how long a frame is shown for.
+    *
+    * @param index The index of the frame.
+    * @return The delay in milliseconds.
+    */
+   public int getDelay(int index) {
+      return delays[index];
+   }
+
+   /**
+    * Works out which frame is showing a time after the animation started, the animation loops forever.
+    *
+    * @param millis The time in milliseconds.
+    * @return The index of the frame.
+    */
+   public int frameAt(long millis) {
+      if (frames.length == 1)
+         return 0;
+      long time = Math.floorMod(millis, (long) duration);
+      int index = 0;
+      while (time >= delays[index])
+         time -= delays[index++];
+      return index;
+   }
+
+   // Static Methods
+
+   /**
+    * Loads a GIF from the resources. If it can't be decoded frame by frame it is loaded as a still image.
+    *
+    * @param path The path of the resource.
+    * @return The animation.
+    */
+   public static AnimatedImage load(String path) {
+      try (InputStream in = AnimatedImage.class.getResourceAsStream(path)) {
+         if (in != null)
+            return decode(in);
+      } catch (IOException | RuntimeException e) {
+         System.err.println("Could not decode " + path + ": " + e);
+      }
+      return new AnimatedImage(new Image[]{new Image(path)}, new int[]{defaultDelay});
+   }
+
+   /**
+    * Decodes the frames of a GIF.
+    *
+    * @param in The GIF.
+    * @return The animation.
+    * @throws IOException If the GIF can't be read.
+    */
+   private static AnimatedImage decode(InputStream in) throws IOException {
+      List<Frame> gif = readGif(in);
+      Image[] frames = new Image[gif.size()];
+      int[] delays = new int[gif.size()];
+      for (int i = 0; i < frames.length; i++) {
+         Frame frame = gif.get(i);
+         WritableImage image = new WritableImage(frame.width, frame.height);
+         image.getPixelWriter().setPixels(0, 0, frame.width, frame.height, PixelFormat.getIntArgbInstance(),
+                 frame.pixels, 0, frame.width);
+         frames[i] = image;
+         delays[i] = frame.delay;
+      }
+      return new AnimatedImage(frames, delays);
+   }
+
+   /**
+    * Reads the frames of a GIF as whole pictures, each the size of the GIF, without making any JavaFX images, so it
+    * can be used by the {@link SpritePacker} too.
+    *
+    * @param in The GIF.
+    * @return The frames.
+    * @throws IOException If the GIF can't be read.
+    */
+   static List<Frame> readGif(InputStream in) throws IOException {
+      Iterator<ImageReader> readers = ImageIO.getImageReadersByFormatName("gif");
+      if (!readers.hasNext())
+         throw new IOException("No GIF reader");
+      ImageReader reader = readers.next();
+      try (ImageInputStream stream = ImageIO.createImageInputStream(in)) {
+         reader.setInput(stream, false);
+         Node screen = child(reader.getStreamMetadata().getAsTree(streamFormat), "LogicalScreenDescriptor");
+         int width = attribute(screen, "logicalScreenWidth");
+         int height = attribute(screen, "logicalScreenHeight");
+         int count = reader.getNumImages(true);
+         List<Frame> frames = new ArrayList<>();
+         int[] pixels = new int[width * height];
+
+         for (int i = 0; i < count; i++) {
+            BufferedImage frame = reader.read(i);
+            Node metadata = reader.getImageMetadata(i).getAsTree(imageFormat);
+            Node descriptor = child(metadata, "ImageDescriptor");
+            Node control = child(metadata, "GraphicControlExtension");
+            int left = attribute(descriptor, "imageLeftPosition");
+            int top = attribute(descriptor, "imageTopPosition");
+            String disposal = control == null ? "none" : ((IIOMetadataNode) control).getAttribute("disposalMethod");
+            int delay = control == null ? 0 : attribute(control, "delayTime") * 10;
+
+            int[] previous = disposal.equals("restoreToPrevious") ? pixels.clone() : null;
+            int frameWidth = Math.min(frame.getWidth(), width - left);
+            int frameHeight = Math.min(frame.getHeight(), height - top);
+            for (int y = 0; y < frameHeight; y++) {
+               for (int x = 0; x < frameWidth; x++) {
+                  int argb = frame.getRGB(x, y);
+                  // GIF pixels are either transparent, showing what was there before, or solid.
+                  if (argb >>> 24 != 0)
+                     pixels[(top + y) * width + left + x] = argb;
+               }
+            }
+            frames.add(new Frame(width, height, pixels.clone(), delay > 0 ? delay : defaultDelay));
+
+            if (disposal.equals("restoreToBackgroundColor")) {
+               for (int y = 0; y < frameHeight; y++)
+                  Arrays.fill(pixels, (top + y) * width + left, (top + y) * width + left + frameWidth, 0);
+            } else if (previous != null) {
+               pixels = previous;
+            }
+         }
+         return frames;
+      } finally {
+         reader.dispose();
+      }
+   }
+
+   /**
+    * Finds a child of a metadata node by name.
+    *
+    * @param node The node.
+    * @param name The name of the child.
+    * @return The child, or null if there isn't one.
+    */
+   private static Node child(Node node, String name) {
+      for (Node child = node.getFirstChild(); child != null; child = child.getNextSibling()) {
+         if (child.getNodeName().equals(name))
+            return child;
+      }
+      return null;
+   }
+
+   /**
+    * Gets a number from a metadata node.
+    *
+    * @param node The node.
+    * @param name The name of the attribute.
+    * @return The number.
+    */
+   private static int attribute(Node node, String name) {
+      return Integer.parseInt(((IIOMetadataNode) node).getAttribute(name));
+   }
+
+   // Inner Classes
+
+   /**
+    * A frame of a GIF, as ARGB pixels, and how long it is shown for.
+    */
+   static class Frame {
+
+      final int width;
+      final int height;
+      final int[] pixels;
+      final int delay;
+
+      /**
+       * Creates a frame.
+       *
+       * @param width  The width of the frame.
+       * @param height The height of the frame.
+       * @param pixels The pixels, a row at a time.
+       * @param delay  How long the frame is shown for, in milliseconds.
+       */
+      Frame(int width, int height, int[] pixels, int delay) {
+         this.width = width;
+         this.height = height;
+         this.pixels = pixels;
+         this.delay = delay;
+      }
+   }
+}
@@ -11,17 +11,16 @@ import uk.ac.aber.cs221.group16.game.items.cards.CrewCard;
 import uk.ac.aber.cs221.group16.game.items.treasures.Treasure;
 import uk.ac.aber.cs221.group16.game.map.Board;
 import uk.ac.aber.cs221.group16.game.players.Player;
-import uk.ac.aber.cs221.group16.game.windows.GenericMsg;
+import uk.ac.aber.cs221.group16.game.profiling.BattleEvent;
 
-import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
 
 /**
  * This class handles engagements between two players, performing the checks necessary to calculate the winner and
- * also handle the distribution of loot afterwards.
+ * also handle the distribution of loot afterwards. Each battle is timed as a {@link BattleEvent}.
  *
  * @author Josh Smith
+ * @version 1.2 Flight recorder events.
  */
 public class Battle {
 
@@ -52,8 +51,10 @@ public class Battle {
     * Performs the logic of the battle to see who wins, also leads into distribution of the loot afterwards.
     */
    public void engage() {
+      BattleEvent event = new BattleEvent(attacker, defender);
       Player loser = attacker.attack(defender);
       Player winner = loser == null ? null : attacker == loser ? defender : attacker;
+      board.getLog().battle(attacker, defender, winner);
       informBattleOutcome(winner, loser);
 
       if (loser != null) {
@@ -62,7 +63,7 @@ public class Battle {
       } else {
          board.setCurrentPlayer(defender);
       }
-
+      event.finish(winner);
    }
 
    /**
@@ -80,7 +81,7 @@ public class Battle {
          whoMoves = loser;
          informMessageBuilder.append(winner.getName()).append(" Wins!\n");
       }
-      new GenericMsg(Controller.stage, informMessageBuilder.append(whoMoves.getName())
+      board.getInteraction().inform(informMessageBuilder.append(whoMoves.getName())
               .append(" Must move!").toString());
    }
 
@@ -93,38 +94,23 @@ public class Battle {
     * @param loser  The loser of the battle.
     */
    private void distributeLoot(Player winner, Player loser) {
-      Iterator<Treasure> treasures = loser.getShip().getCargo().stream()
-              .sorted(Treasure::valueComp).iterator();
       if (loser.getShip().getCargo().size() > 0) {
-         List<Treasure> spoils = new ArrayList<>();
-         List<Treasure> returned = new ArrayList<>();
-         while (treasures.hasNext()) {
-            Treasure t = treasures.next();
-            // If the ship rejects the treasure, send it to treasure island.
-            if (!winner.getShip().addTreasure(t)) {
-               returned.add(t);
-               board.getTreasureIslandContainer().addTreasure(t);
-            } else spoils.add(t);
-            loser.getShip().getCargo().remove(t);
-            // UI Popup for details
-         }
+         // the loot changes hands in one go, highest value first, so each ship's display only changes once.
+         List<Treasure> spoils = loser.getShip().unload();
+         spoils.sort(Treasure::valueComp);
+         List<Treasure> returned = winner.getShip().load(spoils);
+         // Any treasure the ship rejects is sent to treasure island.
+         spoils.removeAll(returned);
+         returned.forEach(board.getTreasureIslandContainer()::addTreasure);
+         // UI Popup for details
          informOfSpoils(spoils, returned, winner, loser);
       } else if (loser.getCrewCards().size() > 0) { // Cards instead of treasure, 2 lowest
-         List<CrewCard> spoils = new ArrayList<>();
-         List<CrewCard> crewCards = loser.getCrewCards();
-         // sort so we can grab the two lowest
-         crewCards.sort((c1, c2) -> c1.getValue() > c2.getValue() ? 1 : -1);
-         // take two crew cards, if possible
-         for (int i = 0; i < 2; i++)
-            if (crewCards.size() > 0)
-               spoils.add(crewCards.remove(0));
-            else
-               break;
+         List<CrewCard> spoils = loser.takeLowestCrewCards(2);
          spoils.forEach(winner::addCrewCard);
          // UI popup for details
          informOfSpoils(spoils, winner, loser);
       } else { // if no treasure or crew cards
-         new GenericMsg(Controller.stage, loser + " has no Treasure or Crew Cards\n" +
+         board.getInteraction().inform(loser + " has no Treasure or Crew Cards\n" +
                  "Why are you being so mean? :(");
       }
    }
@@ -140,7 +126,7 @@ public class Battle {
       StringBuilder stringBuilder = new StringBuilder(loser.getName()).append(" had no treasure.\n")
               .append(winner.getName()).append(" takes the two lowest valued crew cards:\n");
       spoils.forEach(c -> stringBuilder.append(c.toString()).append("\n"));
-      new GenericMsg(Controller.stage, stringBuilder.toString());
+      board.getInteraction().inform(stringBuilder.toString());
    }
 
    /**
@@ -163,6 +149,6 @@ public class Battle {
          stringBuilder.append("\nThe treasures below were returned to Treasure Island!\n");
          returned.forEach(t -> stringBuilder.append("\t").append(t.getType()).append("\n"));
       }
-      new GenericMsg(Controller.stage, stringBuilder.toString());
+      board.getInteraction().inform(stringBuilder.toString());
    }
 }
@@ -13,28 +13,52 @@ import javafx.scene.input.KeyEvent;
 import javafx.stage.Screen;
 import javafx.stage.Stage;
 import javafx.stage.StageStyle;
+import uk.ac.aber.cs221.group16.game.view.GameView;
+import uk.ac.aber.cs221.group16.game.view.Renderer;
 import uk.ac.aber.cs221.group16.game.windows.Choice;
+import uk.ac.aber.cs221.group16.game.windows.GenericMsg;
 import uk.ac.aber.cs221.group16.game.windows.Help;
 import uk.ac.aber.cs221.group16.game.windows.StartScreen;
 
+import java.io.IOException;
 import java.util.ArrayList;
 
 /**
- * This class starts the JavaFX UI and makes calls to start scenes.
+ * This class starts the JavaFX UI and makes calls to start scenes. If a game was left unfinished it is offered to
+ * the players before the start screen.
+ * <p>
+ * The board is drawn with nodes unless the program is run with {@code --renderer=canvas}, and {@code --frame-stats}
+ * prints how long frames take to draw. {@code --frame-stats=idle} prints how much the board costs while nothing is
+ * happening on it. {@code --speed=2} makes ships sail twice as fast and {@code --turbo} plays computer players' moves
+ * without sailing along the path.
  *
  * @author Josh Smith
  * @author Alex Toop
  * @author Kamyab Sherafat
- * @version 1.0 JavaFX First Implementation.
+ * @version 1.6 Computer seats.
  */
 public class Controller extends Application {
 
    // TODO: Create popup helper singleton which handles popups and keeps track of the stage. (Priority : LOW)
    public static Stage stage;
+   private GameView gameView;
+   private Renderer renderer;
+   private boolean showFrameStats;
+   private boolean idleFrameStats;
+   private double moveSpeed;
+   private boolean turboComputers;
 
    @Override
    public void start(Stage primaryStage) throws Exception {
       stage = primaryStage;
+      // starts loading the graphics in the background, so the board is ready by the time the names are entered.
+      GraphicLoader.getInstance();
+      renderer = Renderer.parse(getParameters().getNamed().get("renderer"));
+      idleFrameStats = "idle".equals(getParameters().getNamed().get("frame-stats"));
+      showFrameStats = idleFrameStats || getParameters().getUnnamed().contains("--frame-stats");
+      String speed = getParameters().getNamed().get("speed");
+      moveSpeed = speed == null ? 1 : Double.parseDouble(speed);
+      turboComputers = getParameters().getUnnamed().contains("--turbo");
       //stage.setMaximized(true);
       /*
       // if running on linux, this line is needed.
@@ -70,27 +94,44 @@ public class Controller extends Application {
          event.consume();
       });
 
+      if (GameView.canResume() && new Choice(stage, "A game was left unfinished.\nWould you like to carry on " +
+              "with it?", new String[]{"Carry On", "New Game"}).getAnswer()) {
+         try {
+            gameView = GameView.resume(stage);
+            startView();
+            return;
+         } catch (IOException error) {
+            new GenericMsg(stage, "The unfinished game could not be loaded.\nA new game will be started.");
+         }
+      }
+
       ArrayList<String> pNames = null;
+      boolean[] computers = null;
       try {
          // Shows the start screen to get user names
-         pNames = new StartScreen().getNames();
+         StartScreen startScreen = new StartScreen();
+         pNames = startScreen.getNames();
+         computers = startScreen.getComputers();
       } catch (RuntimeException error) {
          System.err.print(error.toString());
       }
       // This then triggers the game scene to start once the form is submitted.
       if (pNames != null && pNames.size() == Game.numPlayers)
-         newGame(pNames);
+         newGame(pNames, computers);
    }
 
    // Private Methods
 
    /**
-    * Displays an exit popup and if yes is pressed then it closes the stage.
+    * Displays an exit popup and if yes is pressed then it closes the stage. The game is autosaved first so it can be
+    * carried on next time.
     *
     * @param stage The stage instance.
     */
    private void displayExitPopup(Stage stage) {
       if (new Choice(stage, "Would you like to exit?", new String[]{"No", "Yes"}).getAnswer() == false) {
+         if (gameView != null)
+            gameView.close();
          stage.close();
       }
    }
@@ -99,20 +140,33 @@ public class Controller extends Application {
     * Starts a new game and sets the scene to start it.
     *
     * @param names        The names of the players to be put into the game
+    * @param computers    Whether each player is played by the computer
     * @param primaryStage The primary stage of the JavaFX application
     */
-   private void newGame(ArrayList<String> names, Stage primaryStage) {
-      Game game = new Game(names, primaryStage);
-      game.start();
+   private void newGame(ArrayList<String> names, boolean[] computers, Stage primaryStage) {
+      gameView = new GameView(names, computers, primaryStage);
+      startView();
+   }
+
+   /**
+    * Starts showing the game view, drawn the way chosen when the program was run.
+    */
+   private void startView() {
+      gameView.setRenderer(renderer);
+      gameView.setShowFrameStats(showFrameStats, idleFrameStats);
+      gameView.setMoveSpeed(moveSpeed);
+      gameView.setTurboComputers(turboComputers);
+      gameView.start();
    }
 
    /**
     * calls parent method with a default stage if only names are passed in
     *
-    * @param names The names of the players to be put into the game
+    * @param names     The names of the players to be put into the game
+    * @param computers Whether each player is played by the computer
     */
-   private void newGame(ArrayList<String> names) {
-      newGame(names, stage);
+   private void newGame(ArrayList<String> names, boolean[] computers) {
+      newGame(names, computers, stage);
    }
 
    // Static Methods
@@ -8,77 +8,140 @@
 
 package uk.ac.aber.cs221.group16.game;
 
-import javafx.beans.property.SimpleBooleanProperty;
-import javafx.scene.ImageCursor;
-import javafx.scene.Scene;
-import javafx.scene.control.Label;
-import javafx.scene.layout.*;
 import javafx.scene.paint.Color;
-import javafx.stage.Stage;
+import uk.ac.aber.cs221.group16.game.items.Tradable;
 import uk.ac.aber.cs221.group16.game.items.cards.CardFactory;
 import uk.ac.aber.cs221.group16.game.items.cards.ChanceCard;
 import uk.ac.aber.cs221.group16.game.items.cards.CrewCard;
+import uk.ac.aber.cs221.group16.game.items.treasures.Treasure;
 import uk.ac.aber.cs221.group16.game.items.treasures.TreasureFactory;
+import uk.ac.aber.cs221.group16.game.log.GameLog;
+import uk.ac.aber.cs221.group16.game.log.Journal;
+import uk.ac.aber.cs221.group16.game.log.RecordingInteraction;
+import uk.ac.aber.cs221.group16.game.log.Snapshot;
 import uk.ac.aber.cs221.group16.game.map.Board;
 import uk.ac.aber.cs221.group16.game.map.tiles.PortTile;
 import uk.ac.aber.cs221.group16.game.players.Player;
 import uk.ac.aber.cs221.group16.game.states.GameState;
 import uk.ac.aber.cs221.group16.game.states.State;
-import uk.ac.aber.cs221.group16.game.windows.Choice;
-import uk.ac.aber.cs221.group16.game.windows.GenericMsg;
+import uk.ac.aber.cs221.group16.game.utils.GameRandom;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Queue;
 
 /**
- * This class oversees the game and its functionality in its entirety.
+ * This class oversees the game and its functionality in its entirety. It does not depend on a JavaFX stage, everything
+ * shown to or asked of the players goes through the {@link Interaction} passed in, which allows games to be played
+ * headless as well as through {@link uk.ac.aber.cs221.group16.game.view.GameView}.
+ * <p>
+ * Every move, rotation and decision is recorded in the game's {@link GameLog}, which along with the seed is enough to
+ * play the game again with {@link uk.ac.aber.cs221.group16.game.log.Replay}.
  *
  * @author Josh Smith
  * @author Alex Toop
  * @author Kamyab Sherafat
  * @author Luke Revill
- * @version 1.3 Random player assignment Alpha.
+ * @version 1.11 Computer seats.
  */
 public class Game {
 
    // Constants
-   static final int numPlayers = 4;
-   private static final int gridSize = 20;
+   public static final int numPlayers = 4;
 
    // Instance Variables
 
    private Board board;
    private Player[] players;
-   private Stage primaryStage;
-   private Scene gameScene;
-   private SimpleBooleanProperty gameOver;
+   private List<Tradable> pieces;
    private GameState state;
+   private Interaction interaction;
+   private Player winner;
+   private long seed;
+   private GameRandom random;
+   private GameLog log;
+   private Journal journal;
+   private Snapshot turnStart;
+   private int turnStartPosition;
 
    // Constructors
 
    /**
     * This default constructor initialises the game including setting up the Players, Board, CardPacks and Treasures.
+    * A new seed is picked for the game, see {@link #getSeed()}.
     *
-    * @param names        The list of names of players.
-    * @param primaryStage The primary stage for the JavaFX application.
+    * @param names       The list of names of players.
+    * @param interaction The interaction used to inform the players and ask for their decisions.
     */
-   public Game(ArrayList<String> names, Stage primaryStage) {
-      this.primaryStage = primaryStage;
-      initGame(names);
+   public Game(List<String> names, Interaction interaction) {
+      this(names, interaction, GameRandom.newSeed());
+   }
+
+   /**
+    * Initialises a game from a seed, games with the same names and seed are always set up the same way.
+    *
+    * @param names       The list of names of players.
+    * @param interaction The interaction used to inform the players and ask for their decisions.
+    * @param seed        The seed for all of the game's randomness.
+    */
+   public Game(List<String> names, Interaction interaction, long seed) {
+      this(names, new boolean[names.size()], interaction, seed);
+   }
+
+   /**
+    * Initialises a game where some of the players are played by the computer, see {@link Player#isComputer()}. A new
+    * seed is picked for the game.
+    *
+    * @param names       The list of names of players.
+    * @param computers   Whether each player is played by the computer, in the same order as the names.
+    * @param interaction The interaction used to inform the players and ask for their decisions.
+    */
+   public Game(List<String> names, boolean[] computers, Interaction interaction) {
+      this(names, computers, interaction, GameRandom.newSeed());
+   }
+
+   /**
+    * Initialises a game from a seed where some of the players are played by the computer. Which players are computers
+    * doesn't change how the game is set up.
+    *
+    * @param names       The list of names of players.
+    * @param computers   Whether each player is played by the computer, in the same order as the names.
+    * @param interaction The interaction used to inform the players and ask for their decisions.
+    * @param seed        The seed for all of the game's randomness.
+    */
+   public Game(List<String> names, boolean[] computers, Interaction interaction, long seed) {
+      this.log = new GameLog(seed, names);
+      // decisions are recorded on their way back to the rules.
+      this.interaction = new RecordingInteraction(interaction, log);
+      this.seed = seed;
+      this.random = new GameRandom(seed);
+      initGame(names, computers);
    }
    // Public Methods
 
    /**
-    * Sets the primaryStage's scene to the gameScene, if the gameScene is not initialized {@link #initScene()} will be called.
+    * Starts the game by giving the first player their turn.
     */
    public void start() {
-      initScene();
-      gameScene.setCursor(new ImageCursor(GraphicLoader.getInstance().getDefaultCursor()));
-      primaryStage.setScene(gameScene);
       board.setCurrentPlayer(players[0]);
-      primaryStage.show();
-      primaryStage.requestFocus();
+      markTurnStart();
+   }
+
+   /**
+    * Starts the game part of the way through, once the players and board have been restored to how they were at the
+    * start of a turn. The player whose turn it is is worked out from the turn number, and a game which had been won
+    * is carried on as though it hadn't.
+    *
+    * @param turnNumber  The number of turns which had been taken.
+    * @param battleCount The number of battles which had been fought.
+    */
+   public void resume(int turnNumber, int battleCount) {
+      winner = null;
+      state.setCounts(turnNumber, battleCount);
+      state.setCurrentState(State.Move);
+      board.setCurrentPlayer(players[turnNumber % numPlayers]);
+      markTurnStart();
    }
 
    /**
@@ -89,7 +152,7 @@ public class Game {
    public Player nextPlayer() {
       state.incrementTurnNumber();
       Player newPlayer = players[state.getTurnNumber() % numPlayers];
-      new GenericMsg(Controller.stage, "End of Turn!\n" +
+      interaction.inform("End of Turn!\n" +
               "It is now " + newPlayer.getName() + "'s turn.");
       return newPlayer;
    }
@@ -113,157 +176,163 @@ public class Game {
    }
 
    /**
-    * Gets the players.
+    * Gets the number of turns which have been taken so far.
     *
-    * @return The array of players.
+    * @return The turn number.
     */
-   public Player[] getPlayers() {
-      return players;
+   public int getTurnNumber() {
+      return state.getTurnNumber();
    }
 
    /**
-    * Gets the board
+    * Gets the number of battles which have been fought so far.
     *
-    * @return board
+    * @return The battle count.
     */
-   public Board getBoard() {
-      return board;
+   public int getBattleCount() {
+      return state.getBattleCount();
    }
 
    /**
-    * Gets the primary stage which the Game runs on.
+    * Records that a battle has been fought.
+    */
+   public void battleFought() {
+      state.incrementBattleCount();
+   }
+
+   /**
+    * Gets the seed the game was made from, passing it to {@link #Game(List, Interaction, long)} with the same names
+    * will set up the same game again.
     *
-    * @return The Stage which the game is running on.
+    * @return The seed.
     */
-   public Stage getPrimaryStage() {
-      return primaryStage;
+   public long getSeed() {
+      return seed;
    }
 
+   /**
+    * Gets the log of everything which has happened in the game so far.
+    *
+    * @return The game log.
+    */
+   public GameLog getLog() {
+      return log;
+   }
 
    /**
-    * Handles ending the game and informing the players of who won. Also asks whether they want to play another game
-    * or exit.
+    * Sets the journal the game is autosaved to, see {@link Journal#start(java.nio.file.Path, Game)}.
     *
-    * @param winner The winner of the game.
+    * @param journal The journal, or null to stop autosaving.
     */
-   public void endGameQuery(Player winner) {
-      boolean playAgain;
-      playAgain = new Choice(Controller.stage, winner.getName() + " Wins! They have obtained "
-              + winner.getHomePort().getTotalValue() + " treasure in " +
-              "their home port!\nWould you like to play again or quit?", new String[]{"Play Again", "Quit"}).getAnswer();
-
-      ArrayList<String> playerNames = new ArrayList<>();
-      for (Player p : players) {
-         playerNames.add(p.getName());
-      }
-      if (playAgain) {
-         initGame(playerNames);
-         start();
-      } else {
-         primaryStage.close();
-      }
+   public void setJournal(Journal journal) {
+      this.journal = journal;
    }
 
    /**
-    * Triggers the end of the game.
+    * Called by the board once a move or rotation, and everything it led to, is over and the game is waiting for a
+    * player again. The action is autosaved if there is a journal.
     */
-   public void triggerGameOver() {
-      this.gameOver.set(true);
+   public void actionCompleted() {
+      if (Snapshot.canCapture(this))
+         markTurnStart();
+      if (journal != null)
+         journal.actionCompleted();
    }
 
+   /**
+    * Gets a snapshot of the game at the start of the current turn, which along with the events logged since
+    * {@link #getTurnStartPosition()} can make a copy of the game as it is now, see
+    * {@link uk.ac.aber.cs221.group16.game.log.Fork}.
+    *
+    * @return The snapshot, or null if the game hasn't started.
+    */
+   public Snapshot getTurnStart() {
+      return turnStart;
+   }
 
-   // Private Methods
+   /**
+    * Gets the position in the log of the first event of the current turn.
+    *
+    * @return The position, see {@link GameLog.Reader#getPosition()}.
+    */
+   public int getTurnStartPosition() {
+      return turnStartPosition;
+   }
 
    /**
-    * Initializes the {@link #gameScene} for the game. Linking all of the necessary parts such as players and the board
-    * to the UI.
-    * <p>
-    * // TODO: Possibly tidy up and break down this function.
+    * Gets the players.
+    *
+    * @return The array of players.
     */
-   private void initScene() {
-      BorderPane uiRootNode = new BorderPane();
-      uiRootNode.getStylesheets().add("css/border_pane_style.css");
-      gameScene = new Scene(uiRootNode, 800, 600);
-
-      // Get Side Panels
-      VBox left = makeSidePane();
-      VBox right = makeSidePane();
-
-      // Add and set up side panels.
-      uiRootNode.setLeft(left);
-      uiRootNode.setRight(right);
-
-      for (int i = 0; i < 4; i++) {
-         this.players[i].pairToUI((i < 2) ? (VBox) left.getChildren().get((i % 2 == 0) ? 0 : 1) :
-                 (VBox) right.getChildren().get((i % 2 == 0) ? 1 : 0), primaryStage, board);
-      }
+   public Player[] getPlayers() {
+      return players;
+   }
 
-      GridPane center = new GridPane();
-      center.getStylesheets().add("/css/center_style.css");
-      //center.setGridLinesVisible(true); for debugging
-      uiRootNode.setCenter(center);
-      // Add constraints of width and height to each node in the grid.
-      for (int i = 0; i < gridSize + 2; i++) {
-         ColumnConstraints colCs = new ColumnConstraints();
-         colCs.setPercentWidth(4.54545454545);
-         center.getColumnConstraints().add(colCs);
-
-         RowConstraints rowCs = new RowConstraints();
-         rowCs.setPercentHeight(4.54545454545);
-         center.getRowConstraints().add(rowCs);
-      }
+   /**
+    * Gets every card and treasure the game was set up with, wherever they are now, see
+    * {@link Snapshot#restore(Game)}.
+    *
+    * @return The cards and treasures.
+    */
+   public List<Tradable> getPieces() {
+      return pieces;
+   }
 
-      labelBoard(center);
+   /**
+    * Gets the board
+    *
+    * @return board
+    */
+   public Board getBoard() {
+      return board;
+   }
 
-      // Add and set up board.
-      board.pairToUI(center);
+   /**
+    * Gets the interaction used to inform the players and ask them for decisions.
+    *
+    * @return The interaction passed in when the game was made, wrapped so that decisions are recorded.
+    */
+   public Interaction getInteraction() {
+      return interaction;
    }
 
    /**
-    * Makes and returns the side pane containing two gridpanes which occupy the top and bottom half of the VBox.
+    * Checks whether the game has been won.
     *
-    * @return The VBox containing two grid panes, top at children index 0 and bottom at children index 1
+    * @return True if the game is over.
     */
-   private VBox makeSidePane() {
-      VBox sidePane = new VBox();
-      for (int i = 0; i < 2; i++) {
-         VBox vbox = new VBox();
-         vbox.prefHeightProperty().bind(primaryStage.heightProperty().multiply(0.5));
-         sidePane.getChildren().add(vbox);
-      }
-      sidePane.prefWidthProperty().bind(primaryStage.widthProperty().multiply(0.2));
-      return sidePane;
+   public boolean isGameOver() {
+      return winner != null;
    }
 
    /**
-    * Takes the center grid pane and places labels along the border to represent the axis. 1..gridSize
+    * Gets the winner of the game.
     *
-    * @param gridPane The Center grid pane to label the axis.
+    * @return The player who won, or null if the game is not over.
     */
-   private void labelBoard(GridPane gridPane) {
-      for (Integer i = 1; i <= gridSize; i++) {
-         // Create labels, For some reason we can't just use one label multiple times.
-         Label label1 = new Label(i.toString());
-         Label label2 = new Label(i.toString());
-
-         // set max size of grid pane labels
-         for (int j = 0; j < 2; j++) {
-            ((j > 0) ? label2 : label1).maxHeightProperty().bind(
-                    gridPane.heightProperty().multiply(4.54545454545));
-            ((j > 0) ? label2 : label1).maxWidthProperty().bind(
-                    gridPane.widthProperty().multiply(4.54545454545));
-         }
+   public Player getWinner() {
+      return winner;
+   }
 
-         /*// Align labels
-         for (int j = 0; j < 2; j++) {
-            GridPane.setHalignment((j < 1) ? label1 : label2, HPos.CENTER);
-            GridPane.setValignment((j < 1) ? label1 : label2, VPos.CENTER);
-         }*/
+   /**
+    * Triggers the end of the game.
+    *
+    * @param winner The player who won the game.
+    */
+   public void triggerGameOver(Player winner) {
+      this.winner = winner;
+      interaction.gameOver(winner);
+   }
 
-         // Add labels
-         gridPane.add(label1, i, gridSize + 1); // bottom
-         gridPane.add(label2, 0, gridSize - i + 1); // left
-      }
+
+   // Private Methods
+
+   /**
+    * Takes a snapshot of the game as the current turn starts.
+    */
+   private void markTurnStart() {
+      turnStart = Snapshot.capture(this);
+      turnStartPosition = log.getSize();
    }
 
    /**
@@ -271,47 +340,54 @@ public class Game {
     * for each of them with a unique color and home port. The array of
     * instantiated players will then be returned in a shuffled order.
     *
-    * @param names  The list of names.
-    * @param ports  The array of home ports
-    * @param colors The array of colors
-    * @param board  The board which the players will play on.
+    * @param names     The list of names.
+    * @param computers Whether each name is a computer player.
+    * @param ports     The array of home ports
+    * @param colors    The array of colors
+    * @param board     The board which the players will play on.
     * @return A shuffled array of players in respect to the names that went in. * Ports/Colors of respective Players will still be in order.
     */
-   private Player[] makePlayers(ArrayList<String> names, PortTile[] ports, Color[] colors, Board board) {
-      Collections.shuffle(names);
+   private Player[] makePlayers(List<String> names, boolean[] computers, PortTile[] ports, Color[] colors,
+                                Board board) {
+      // the places of the names are shuffled, so each keeps whether it is a computer. This shuffles them the same as
+      // shuffling the names themselves.
+      List<Integer> seats = new ArrayList<>();
+      for (int i = 0; i < names.size(); i++)
+         seats.add(i);
+      random.shuffle(seats);
       Player[] players = new Player[numPlayers];
       for (int i = 0; i < ports.length; i++) {
-         players[i] = new Player(i, names.get(i), ports[i], colors[i], board);
+         players[i] = new Player(i, names.get(seats.get(i)), ports[i], colors[i], board);
+         players[i].setComputer(computers[seats.get(i)]);
       }
       return players;
    }
 
    /**
-    * Initialises the game, can be ran again during the game to restart the game.
+    * Initialises the game.
     *
-    * @param names Names of the players.
+    * @param names     Names of the players.
+    * @param computers Whether each of the players is played by the computer.
     */
-   private void initGame(ArrayList<String> names) {
-      gameOver = new SimpleBooleanProperty(false);
-      gameOver.addListener((observable, oldValue, newValue) -> {
-         if (newValue) {
-            endGameQuery(getPlayers()[state.getTurnNumber() % numPlayers]);
-         }
-      });
-
-      CardFactory cf = new CardFactory(6); // 6 of each card
+   private void initGame(List<String> names, boolean[] computers) {
+      // each part of the setup gets its own stream, so adding randomness to one doesn't change the others.
+      CardFactory cf = new CardFactory(6, random.split()); // 6 of each card
       TreasureFactory tf = new TreasureFactory(4); // 4 of each treasure
 
       Queue<CrewCard> crewCardPack = cf.getShuffledCrewCards();
       Queue<ChanceCard> chanceCardPack = cf.getShuffledChanceCards();
-      // TODO: Initialize treasures.
-      board = new Board(tf.genTreasureList(), crewCardPack, chanceCardPack, this);
+      List<Treasure> treasures = tf.genTreasureList();
+      List<Tradable> pieces = new ArrayList<>(treasures);
+      pieces.addAll(crewCardPack);
+      pieces.addAll(chanceCardPack);
+      this.pieces = Collections.unmodifiableList(pieces);
+      board = new Board(treasures, crewCardPack, chanceCardPack, this);
       PortTile[] ports = board.getHomePorts();
       state = new GameState();
       Color[] colors = {Color.RED, Color.YELLOW, Color.LIME, Color.ORANGE};
 
       // Shuffles names and gives players different home ports
-      players = makePlayers(names, ports, colors, board);
+      players = makePlayers(names, computers, ports, colors, board);
 
       for (int i = 0; i < 5; i++) { // 5 cards for each player.
          for (Player player : players) {
@@ -7,17 +7,46 @@
 */
 package uk.ac.aber.cs221.group16.game;
 
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyDoubleProperty;
+import javafx.beans.property.ReadOnlyDoubleWrapper;
 import javafx.scene.image.Image;
+import uk.ac.aber.cs221.group16.game.profiling.AssetLoadEvent;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * This singleton provides a single point of loading for all graphics within the game. Graphics can be accessed with
  * GraphicLoader.getInstance().get...
+ * <p>
+ * The sea and bay tiles are animated. Their getters return the first frame as a still image, and the whole
+ * animation is found with {@link #getAnimation(Image)}, for the view to change frames on its own clock.
+ * <p>
+ * The sprites are read from the {@link SpritePack} made by the {@link SpritePacker} when there is one, which is much
+ * quicker than opening each file. Anything missing from it, or everything if there is no pack, is loaded from its own
+ * file as before. The pack is trusted, {@link SpritePacker#check(java.nio.file.Path, java.nio.file.Path)} finds
+ * sprites changed since it was written.
+ * <p>
+ * Only the cursors are loaded when the loader is made. Everything else is loaded in the background in a few groups,
+ * the tiles, the pieces and the cards, while the start screen shows {@link #progressProperty()}. A getter only waits
+ * if its own group hasn't finished loading yet.
+ * <p>
+ * Every file loaded by itself is timed as an {@link AssetLoadEvent}, as is every page the pack decodes.
  *
  * @author Josh Smith
- * @version 1.0
+ * @version 1.7 Trusted sprite pack.
  */
 public class GraphicLoader {
 
+   // Constants
+   private static final int groupCount = 3;
+
    private static GraphicLoader instance;
 
    // Static functions
@@ -57,90 +86,121 @@ public class GraphicLoader {
    private Image chanceCardStack;
 
    private Image focusCursor;
+   private Map<Image, AnimatedImage> animations = new IdentityHashMap<>();
+
    private Image defaultCursor;
    private Image brokenCursor;
 
+   private Map<String, Long> loadTimes = Collections.synchronizedMap(new LinkedHashMap<>());
+   private long totalLoadTime;
+
+   private CompletableFuture<Void> tilesLoaded;
+   private CompletableFuture<Void> piecesLoaded;
+   private CompletableFuture<Void> cardsLoaded;
+   private CompletableFuture<Void> allLoaded;
+   private AtomicInteger steps = new AtomicInteger();
+   // a step for each page of the pack, added once the pack is open, and one for each group.
+   private volatile int totalSteps = groupCount;
+   private ReadOnlyDoubleWrapper progress = new ReadOnlyDoubleWrapper();
+
    // Constructors
 
    /**
     * This constructor is private so that Graphic Loader can only be instantiated by itself as a singleton.
-    * Loads all of the images used within the game so that they can be accessed via getter methods.
+    * Loads the cursors, and starts loading the rest of the images in the background so that they can be accessed via
+    * getter methods.
     */
    private GraphicLoader() {
-      System.out.println("Loading Graphics!:\n");
-      String basePath = "/graphics/";
-      System.out.println("Loading Ships");
-      ships = new Image[]{
-              new Image(basePath + "sprites/ships/Ship Red.png"),
-              new Image(basePath + "sprites/ships/Ship Yellow.png"),
-              new Image(basePath + "sprites/ships/Ship Green.png"),
-              new Image(basePath + "sprites/ships/Ship Orange.png"),
-      };
-      System.out.println("Loading Sea Tile");
-      seaTile = new Image(basePath + "sprites/SeaTile.gif");
-      System.out.println("Loading Treasure Island Tiles");
-      treasureIslandTiles = loadTreasureIslandTiles();
-      System.out.println("Loading Flat Island Tiles.");
-      flatIslandTiles = loadFlatIslandTiles();
-      System.out.println("Loading Pirate Island Tiles");
-      pirateIslandTiles = loadPirateIslandTiles();
-      System.out.println("Loading London Tile");
-      londonTile = new Image(basePath + "sprites/PortLondon.png");
-      System.out.println("Loading Cadiz Tile");
-      cadizTile = new Image(basePath + "sprites/PortCadiz.png");
-      System.out.println("Loading Marseilles Tile");
-      marseillesTile = new Image(basePath + "sprites/PortMarseilles.png");
-      System.out.println("Loading Genoa Tile");
-      genoaTile = new Image(basePath + "sprites/PortGenoa.png");
-      System.out.println("Loading Venice Tile");
-      veniceTile = new Image(basePath + "sprites/PortVenice.png");
-      System.out.println("Loading Amsterdam Tile");
-      amsterdamTile = new Image(basePath + "sprites/PortAmsterdam.png");
-      System.out.println("Loading CliffCreek Tile");
-      cliffCreekTile = new Image(basePath + "sprites/CliffCreekGif.gif");
-      System.out.println("Loading AnchorBay Tile");
-      anchorBayTile = new Image(basePath + "sprites/AnchorBayGif.gif");
-      System.out.println("Loading Mud Bay Tile");
-      mudBayTile = new Image(basePath + "sprites/MudBayGif.gif");
-
-      System.out.println("Loading Rotate Triangle");
-      rotateTriangle = new Image(basePath + "sprites/triangle.png", 20, 20, true, true);
-      System.out.println("Loading Crew Card Stack");
-      crewCardStack = new Image("/graphics/sprites/CrewCard.png");
-      System.out.println("Loading Chance Card Stack");
-      chanceCardStack = new Image("/graphics/sprites/ChanceCard.png");
+      long start = System.nanoTime();
 
       // mac os will use the image size as the cursor size hence we need to
       // set a standard 32 x 32 image size for MacOS and 64 x 64 for other to
       // maintain a better image quality
       int size = (!System.getProperty("os.name").contains("Mac OS") == false) ? 32 : 64;
 
-      defaultCursor = new Image("/graphics/sprites/MouseCursor.png",
-              size, size, true, true);
-      focusCursor = new Image("/graphics/sprites/MouseCursorHighlight.gif",
-              size, size, true, true);
-      brokenCursor = new Image("/graphics/sprites/MouseCursorBroken.png",
-              size, size, true, true);
-
+      // every window needs the cursors as soon as it opens, so they are loaded straight away.
+      defaultCursor = scaledImage("/graphics/sprites/MouseCursor.png", size);
+      focusCursor = scaledImage("/graphics/sprites/MouseCursorHighlight.gif", size);
+      brokenCursor = scaledImage("/graphics/sprites/MouseCursorBroken.png", size);
+
+      CompletableFuture<SpritePack> packLoaded = CompletableFuture.supplyAsync(this::loadPack);
+      tilesLoaded = packLoaded.thenAcceptAsync(this::loadTiles);
+      piecesLoaded = packLoaded.thenAcceptAsync(this::loadPieces);
+      cardsLoaded = packLoaded.thenAcceptAsync(this::loadCards);
+      allLoaded = CompletableFuture.allOf(tilesLoaded, piecesLoaded, cardsLoaded)
+              .thenRun(() -> totalLoadTime = System.nanoTime() - start);
    }
 
    // Public Methods
 
+   /**
+    * Gets the animation an image is the first frame of. Images come from the getters, which wait for the animations
+    * to be loaded.
+    *
+    * @param image The image, e.g. from {@link #getSeaTile()}.
+    * @return The animation, or null if the image isn't animated.
+    */
+   public AnimatedImage getAnimation(Image image) {
+      return animations.get(image);
+   }
+
+   /**
+    * Gets every animation.
+    *
+    * @return The animations.
+    */
+   public Collection<AnimatedImage> getAnimations() {
+      await(tilesLoaded);
+      return animations.values();
+   }
+
+   /**
+    * Gets how much of the loading is done, which is updated on the JavaFX thread.
+    *
+    * @return The progress, from 0 to 1.
+    */
+   public ReadOnlyDoubleProperty progressProperty() {
+      return progress.getReadOnlyProperty();
+   }
+
+   /**
+    * Gets how long each graphic took to load, waiting for them all to finish loading. When the graphics come from the {@link SpritePack} this is the time to
+    * copy each one off its page, and the time to decode each page is listed as well.
+    *
+    * @return The times in nanoseconds, by resource path or page.
+    */
+   public Map<String, Long> getLoadTimes() {
+      await(allLoaded);
+      return Collections.unmodifiableMap(loadTimes);
+   }
+
+   /**
+    * Gets how long loading all of the graphics took, waiting for them to finish loading.
+    *
+    * @return The time in nanoseconds.
+    */
+   public long getTotalLoadTime() {
+      await(allLoaded);
+      return totalLoadTime;
+   }
+
    /**
     * returns an image of the ship
     *
     * @return graphic for the ship.
     */
    public Image[] getShips() {
+      await(piecesLoaded);
       return ships;
    }
 
    /**
     * returns an image for the sea tile
     *
-    * @return graphic for sea tile.
+    * @return graphic for sea tile, the first frame of its animation.
     */
    public Image getSeaTile() {
+      await(tilesLoaded);
       return seaTile;
    }
 
@@ -150,6 +210,7 @@ public class GraphicLoader {
     * @return graphic for treasure island.
     */
    public Image[][] getTreasureIslandTiles() {
+      await(tilesLoaded);
       return treasureIslandTiles;
    }
 
@@ -159,6 +220,7 @@ public class GraphicLoader {
     * @return graphic for flat island.
     */
    public Image[][] getFlatIslandTiles() {
+      await(tilesLoaded);
       return flatIslandTiles;
    }
 
@@ -168,6 +230,7 @@ public class GraphicLoader {
     * @return graphic for pirate island.
     */
    public Image[][] getPirateIslandTiles() {
+      await(tilesLoaded);
       return pirateIslandTiles;
    }
 
@@ -177,6 +240,7 @@ public class GraphicLoader {
     * @return graphic for london.
     */
    public Image getLondonTile() {
+      await(tilesLoaded);
       return londonTile;
    }
 
@@ -186,6 +250,7 @@ public class GraphicLoader {
     * @return graphic for cadiz.
     */
    public Image getCadizTile() {
+      await(tilesLoaded);
       return cadizTile;
    }
 
@@ -195,6 +260,7 @@ public class GraphicLoader {
     * @return graphic for marseilles.
     */
    public Image getMarseillesTile() {
+      await(tilesLoaded);
       return marseillesTile;
    }
 
@@ -204,6 +270,7 @@ public class GraphicLoader {
     * @return graphic for genoa.
     */
    public Image getGenoaTile() {
+      await(tilesLoaded);
       return genoaTile;
    }
 
@@ -213,6 +280,7 @@ public class GraphicLoader {
     * @return graphic for venice.
     */
    public Image getVeniceTile() {
+      await(tilesLoaded);
       return veniceTile;
    }
 
@@ -222,33 +290,37 @@ public class GraphicLoader {
     * @return graphic for amersterdam.
     */
    public Image getAmsterdamTile() {
+      await(tilesLoaded);
       return amsterdamTile;
    }
 
    /**
     * returns an image for the cliff creek tile
     *
-    * @return graphic for cliff creek.
+    * @return graphic for cliff creek, the first frame of its animation.
     */
    public Image getCliffCreekTile() {
+      await(tilesLoaded);
       return cliffCreekTile;
    }
 
    /**
     * returns the image for the anchor bay tile
     *
-    * @return graphic for anchor bay.
+    * @return graphic for anchor bay, the first frame of its animation.
     */
    public Image getAnchorBayTile() {
+      await(tilesLoaded);
       return anchorBayTile;
    }
 
    /**
     * returns the image for the mud bay tile
     *
-    * @return graphic for mud bay.
+    * @return graphic for mud bay, the first frame of its animation.
     */
    public Image getMudBayTile() {
+      await(tilesLoaded);
       return mudBayTile;
    }
 
@@ -258,6 +330,7 @@ public class GraphicLoader {
     * @return graphic for the triangle icon to rotate ships.
     */
    public Image getRotateTriangle() {
+      await(piecesLoaded);
       return rotateTriangle;
    }
 
@@ -267,6 +340,7 @@ public class GraphicLoader {
     * @return graphic for a stack of crew cards.
     */
    public Image getCrewCardStack() {
+      await(cardsLoaded);
       return crewCardStack;
    }
 
@@ -276,36 +350,180 @@ public class GraphicLoader {
     * @return graphic for a stack of chance cards.
     */
    public Image getChanceCardStack() {
+      await(cardsLoaded);
       return chanceCardStack;
    }
 
    // Private Methods
 
+   /**
+    * Waits for a group of images to finish loading.
+    *
+    * @param group The group.
+    */
+   private void await(CompletableFuture<Void> group) {
+      group.join();
+   }
+
+   /**
+    * Opens the pack and decodes its pages.
+    *
+    * @return The pack, or null if there isn't one.
+    */
+   private SpritePack loadPack() {
+      SpritePack pack = SpritePack.open(SpritePack.defaultPath);
+      if (pack != null) {
+         totalSteps = groupCount + pack.getPageCount();
+         pack.decode(this::step);
+         loadTimes.putAll(pack.getLoadTimes());
+      }
+      return pack;
+   }
+
+   /**
+    * Loads the sea, island, port and bay tiles.
+    *
+    * @param pack The pack, or null if there isn't one.
+    */
+   private void loadTiles(SpritePack pack) {
+      String basePath = "/graphics/sprites/";
+      seaTile = loadAnimation(pack, basePath + "SeaTile.gif");
+      treasureIslandTiles = loadTreasureIslandTiles(pack);
+      flatIslandTiles = loadFlatIslandTiles(pack);
+      pirateIslandTiles = loadPirateIslandTiles(pack);
+      londonTile = image(pack, basePath + "PortLondon.png");
+      cadizTile = image(pack, basePath + "PortCadiz.png");
+      marseillesTile = image(pack, basePath + "PortMarseilles.png");
+      genoaTile = image(pack, basePath + "PortGenoa.png");
+      veniceTile = image(pack, basePath + "PortVenice.png");
+      amsterdamTile = image(pack, basePath + "PortAmsterdam.png");
+      cliffCreekTile = loadAnimation(pack, basePath + "CliffCreekGif.gif");
+      anchorBayTile = loadAnimation(pack, basePath + "AnchorBayGif.gif");
+      mudBayTile = loadAnimation(pack, basePath + "MudBayGif.gif");
+      step();
+   }
+
+   /**
+    * Loads the ships and the rotate triangle.
+    *
+    * @param pack The pack, or null if there isn't one.
+    */
+   private void loadPieces(SpritePack pack) {
+      String basePath = "/graphics/sprites/";
+      ships = new Image[]{
+              image(pack, basePath + "ships/Ship Red.png"),
+              image(pack, basePath + "ships/Ship Yellow.png"),
+              image(pack, basePath + "ships/Ship Green.png"),
+              image(pack, basePath + "ships/Ship Orange.png"),
+      };
+      // scaled as it is loaded, so it can't come out of the pack.
+      rotateTriangle = scaledImage(basePath + "triangle.png", 20);
+      step();
+   }
+
+   /**
+    * Loads the card stacks.
+    *
+    * @param pack The pack, or null if there isn't one.
+    */
+   private void loadCards(SpritePack pack) {
+      crewCardStack = image(pack, "/graphics/sprites/CrewCard.png");
+      chanceCardStack = image(pack, "/graphics/sprites/ChanceCard.png");
+      step();
+   }
+
+   /**
+    * Counts a step of loading as done and shows the progress.
+    */
+   private void step() {
+      double done = (double) steps.incrementAndGet() / totalSteps;
+      // steps finish on different threads, so they may be shown out of order.
+      Platform.runLater(() -> progress.set(Math.max(progress.get(), done)));
+   }
+
+   /**
+    * Gets an image from the pack, or loads it from its own file if there is no pack or it isn't in it.
+    *
+    * @param pack The pack, or null if there isn't one.
+    * @param path The resource path of the image.
+    * @return The image.
+    */
+   private Image image(SpritePack pack, String path) {
+      Image image = pack == null ? null : pack.getImage(path);
+      if (image == null) {
+         AssetLoadEvent event = new AssetLoadEvent(path, 1);
+         long start = System.nanoTime();
+         image = new Image(path);
+         loadTimes.put(path, System.nanoTime() - start);
+         event.commit();
+      }
+      return image;
+   }
+
+   /**
+    * Loads an image from its own file, scaled to fit a square keeping its shape.
+    *
+    * @param path The resource path of the image.
+    * @param size The width and height of the square.
+    * @return The image.
+    */
+   private Image scaledImage(String path, int size) {
+      AssetLoadEvent event = new AssetLoadEvent(path, 1);
+      long start = System.nanoTime();
+      Image image = new Image(path, size, size, true, true);
+      loadTimes.put(path, System.nanoTime() - start);
+      event.commit();
+      return image;
+   }
+
+   /**
+    * Loads an animated GIF, keeping its animation for {@link #getAnimation(Image)}.
+    *
+    * @param pack The pack, or null if there isn't one.
+    * @param path The path of the GIF.
+    * @return The first frame.
+    */
+   private Image loadAnimation(SpritePack pack, String path) {
+      AnimatedImage animation = pack == null ? null : pack.getAnimation(path);
+      if (animation == null) {
+         AssetLoadEvent event = new AssetLoadEvent(path, 1);
+         long start = System.nanoTime();
+         animation = AnimatedImage.load(path);
+         loadTimes.put(path, System.nanoTime() - start);
+         event.commit();
+      }
+      animations.put(animation.getFrame(0), animation);
+      return animation.getFrame(0);
+   }
+
    /**
     * Retrieves the Treasure Island tiles into a 4x4 array of Images.
     *
+    * @param pack The pack, or null if there isn't one.
     * @return A two dimensional array of images x by y.
     */
-   private Image[][] loadTreasureIslandTiles() {
-      return loadIslandTiles("TreasureIsland", 4, 4);
+   private Image[][] loadTreasureIslandTiles(SpritePack pack) {
+      return loadIslandTiles(pack, "TreasureIsland", 4, 4);
    }
 
    /**
     * Retrieves the Flat Island tiles into a 3x4 array of Images.
     *
+    * @param pack The pack, or null if there isn't one.
     * @return A two dimensional array of images x by y.
     */
-   private Image[][] loadFlatIslandTiles() {
-      return loadIslandTiles("FlatIsland", 3, 4);
+   private Image[][] loadFlatIslandTiles(SpritePack pack) {
+      return loadIslandTiles(pack, "FlatIsland", 3, 4);
    }
 
    /**
     * Retrieves the Pirate Island tiles into a 3x4 array of Images.
     *
+    * @param pack The pack, or null if there isn't one.
     * @return A two dimensional array of images x by y.
     */
-   private Image[][] loadPirateIslandTiles() {
-      return loadIslandTiles("PirateIsland", 3, 4);
+   private Image[][] loadPirateIslandTiles(SpritePack pack) {
+      return loadIslandTiles(pack, "PirateIsland", 3, 4);
    }
 
    /**
@@ -339,17 +557,18 @@ public class GraphicLoader {
     * Loads island images into a two dimensional array using a given island prefix e.g FlatIsland and the
     * width and height.
     *
+    * @param pack         The pack, or null if there isn't one.
     * @param islandPrefix The prefix of the Island image files.
     * @param width        The number of different images going across. e.g FlatIsland_y-x.png
     * @param height       The number of different images going down. e.g FlatIsland_y-x.png
     * @return The two dimensional array of images of size width by height.
     */
-   private Image[][] loadIslandTiles(String islandPrefix, int width, int height) {
+   private Image[][] loadIslandTiles(SpritePack pack, String islandPrefix, int width, int height) {
       Image[][] tiles = new Image[width][height];
       String islandPath = "/graphics/sprites/islands/";
       for (int x = 0; x < width; x++) {
          for (int y = 0; y < height; y++) {
-            tiles[x][y] = new Image(islandPath + islandPrefix + "_" + y + "-" + x + ".png");
+            tiles[x][y] = image(pack, islandPath + islandPrefix + "_" + y + "-" + x + ".png");
          }
       }
       return tiles;
@@ -0,0 +1,84 @@
+/*
+* @(#) Interaction.java 1.0 2017/04/01
+*
+* Copyright (c) 2017 Aberystwyth University.
+* All rights reserved.
+*
+*/
+package uk.ac.aber.cs221.group16.game;
+
+import uk.ac.aber.cs221.group16.game.players.Player;
+
+import java.util.List;
+
+/**
+ * This interface is the only way the rules of the game talk to the outside world. Every message the rules want to show
+ * and every decision they need a player to make goes through it, so the same {@link Game} can be played through the
+ * JavaFX UI or with no display at all.
+ * <p>
+ * Implementations are called synchronously from the rules and must return an answer before the rules carry on.
+ *
+ * @author Group 16
+ * @version 1.1 Game log and replay.
+ * @see uk.ac.aber.cs221.group16.game.view.GameView
+ */
+public interface Interaction {
+
+   /**
+    * Informs the players of something which has happened, e.g. the outcome of a battle or a chance card being drawn.
+    *
+    * @param message The message to show.
+    */
+   void inform(String message);
+
+   /**
+    * Asks a player who has been sailed over whether they want to attack the passing ship.
+    *
+    * @param defender The player whose ship was sailed over, they make the decision.
+    * @param attacker The player who is currently moving.
+    * @return True if the defender chooses to engage in combat.
+    */
+   boolean engage(Player defender, Player attacker);
+
+   /**
+    * Asks a player whether they would prefer to take treasure or crew cards from a chance card.
+    *
+    * @param player   The player who drew the chance card.
+    * @param question The question to present to the player.
+    * @return True if the player wants treasure, false if they want crew cards.
+    */
+   boolean chooseTreasure(Player player, String question);
+
+   /**
+    * Asks a player to choose another player, e.g. to steal crew cards from.
+    *
+    * @param chooser    The player who is making the choice.
+    * @param candidates The players which can be chosen.
+    * @param message    The message explaining what the choice is for.
+    * @return One of the candidates.
+    */
+   Player selectPlayer(Player chooser, List<Player> candidates, String message);
+
+   /**
+    * Lets a player trade with a port they have arrived at. A trade is made by calling {@link Trade#accept}, doing
+    * nothing declines the trade.
+    *
+    * @param trade The trade offered to the player who has arrived in the port.
+    */
+   void trade(Trade trade);
+
+   /**
+    * Called whenever the player whose turn it is changes, including after a battle.
+    *
+    * @param previous The player who was previously the current player, null at the start of the game.
+    * @param current  The new current player.
+    */
+   void currentPlayerChanged(Player previous, Player current);
+
+   /**
+    * Called once a player has stored enough treasure in their home port to win.
+    *
+    * @param winner The player who won the game.
+    */
+   void gameOver(Player winner);
+}
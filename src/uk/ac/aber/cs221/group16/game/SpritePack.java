@@ -0,0 +1,350 @@
+/*
+* @(#) SpritePack.java 1.0 2017/04/01
+*
+* Copyright (c) 2017 Aberystwyth University.
+* All rights reserved.
+*
+*/
+package uk.ac.aber.cs221.group16.game;
+
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelReader;
+import javafx.scene.image.WritableImage;
+import uk.ac.aber.cs221.group16.game.profiling.AssetLoadEvent;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32;
+
+/**
+ * This class reads the sprites written by the {@link SpritePacker}. A pack is an index of the files the sprites were
+ * packed from and where each sprite is, followed by a few PNG pages with the sprites drawn on them:
+ * <pre>
+ * int magic, short version, short pages, int length of each page,
+ * short files, for each file: short name length, name in UTF-8, int CRC-32 of the file,
+ * short sprites, for each sprite: short file, short frame, short delay, short page, short x, short y, short width,
+ * short height,
+ * the bytes of each page.
+ * </pre>
+ * The CRC-32 of each file is kept for {@link SpritePacker#check(Path, Path)}, which finds the sprites changed since the
+ * pack was written. The game trusts the pack and never reads the files it was packed from.
+ * <p>
+ * When the pack is a file it is mapped into memory rather than read. Opening a pack only reads its index, then
+ * {@link #decode(Runnable)} decodes the pages at the same time on the common fork join pool, copying each sprite off its
+ * page as soon as the page is decoded. How long each page and sprite took is kept for {@link #getLoadTimes()}, and each
+ * page is timed as an {@link AssetLoadEvent}.
+ *
+ * @author Group 16
+ * @version 1.4 Trusted sprite pack.
+ */
+public class SpritePack {
+
+   // Constants
+   public static final String defaultPath = "/graphics/sprites.pack";
+   static final int magic = 0x42554347; // "BUCG"
+   static final int version = 2;
+
+   // Instance Variables
+   private final Map<String, Image[]> images = new HashMap<>();
+   private final Map<String, int[]> delays = new HashMap<>();
+   private final Map<String, Long> loadTimes = Collections.synchronizedMap(new LinkedHashMap<>());
+   private final Map<String, Long> checksums = new LinkedHashMap<>();
+   private final List<List<Entry>> byPage = new ArrayList<>();
+   private ByteBuffer[] pages;
+
+   // Constructors
+
+   /**
+    * Reads the index of a pack, the pages are decoded by {@link #decode(Runnable)}.
+    *
+    * @param buffer The whole pack.
+    * @throws IOException If it isn't a pack or is corrupt.
+    */
+   private SpritePack(ByteBuffer buffer) throws IOException {
+      Map<String, Integer> frameCounts = new HashMap<>();
+      try {
+         if (buffer.remaining() < Integer.BYTES || buffer.getInt() != magic)
+            throw new IOException("Not a sprite pack");
+         int fileVersion = buffer.getShort();
+         if (fileVersion != version)
+            throw new IOException("Unsupported sprite pack version " + fileVersion);
+         pages = new ByteBuffer[buffer.getShort()];
+         int[] lengths = new int[pages.length];
+         for (int i = 0; i < pages.length; i++) {
+            lengths[i] = buffer.getInt();
+            byPage.add(new ArrayList<>());
+         }
+         String[] files = new String[buffer.getShort()];
+         for (int i = 0; i < files.length; i++) {
+            byte[] name = new byte[buffer.getShort()];
+            buffer.get(name);
+            files[i] = new String(name, StandardCharsets.UTF_8);
+            checksums.put(files[i], buffer.getInt() & 0xFFFFFFFFL);
+         }
+         int count = buffer.getShort();
+         for (int i = 0; i < count; i++) {
+            String name = files[buffer.getShort()];
+            int frame = buffer.getShort();
+            int delay = buffer.getShort();
+            int page = buffer.getShort();
+            Entry entry = new Entry(name, frame, delay, buffer.getShort(), buffer.getShort(), buffer.getShort(),
+                    buffer.getShort());
+            byPage.get(page).add(entry);
+            frameCounts.merge(entry.name, frame + 1, Math::max);
+         }
+         for (int i = 0; i < pages.length; i++) {
+            pages[i] = buffer.slice();
+            pages[i].limit(lengths[i]);
+            buffer.position(buffer.position() + lengths[i]);
+         }
+      } catch (BufferUnderflowException | IllegalArgumentException | IndexOutOfBoundsException e) {
+         throw new IOException("Sprite pack is corrupt", e);
+      }
+
+      for (Map.Entry<String, Integer> count : frameCounts.entrySet()) {
+         images.put(count.getKey(), new Image[count.getValue()]);
+         delays.put(count.getKey(), new int[count.getValue()]);
+      }
+      for (List<Entry> entries : byPage) {
+         for (Entry entry : entries)
+            delays.get(entry.name)[entry.frame] = entry.delay;
+      }
+   }
+
+   // Public Methods
+
+   /**
+    * Decodes every page at the same time and copies the sprites off them.
+    *
+    * @param onPage Run on the decoding thread as each page is done, e.g. to show progress.
+    */
+   public void decode(Runnable onPage) {
+      // every page fills in its own frames, which the arrays have room for already.
+      IntStream.range(0, pages.length).parallel().forEach(i -> {
+         decodePage(i, pages[i], byPage.get(i));
+         onPage.run();
+      });
+   }
+
+   /**
+    * Gets the number of pages, which is how many times {@link #decode(Runnable)} will report progress.
+    *
+    * @return The page count.
+    */
+   public int getPageCount() {
+      return pages.length;
+   }
+
+   /**
+    * Checks whether a sprite was packed.
+    *
+    * @param name The resource path of the sprite.
+    * @return True if it is in the pack.
+    */
+   public boolean contains(String name) {
+      return images.containsKey(name);
+   }
+
+   /**
+    * Gets a still sprite, or the first frame of an animated one, once the pack is decoded.
+    *
+    * @param name The resource path the sprite was packed from.
+    * @return The sprite, or null if it isn't in the pack or its page couldn't be decoded.
+    */
+   public Image getImage(String name) {
+      Image[] frames = images.get(name);
+      return frames == null ? null : frames[0];
+   }
+
+   /**
+    * Gets every frame of a sprite as an animation, once the pack is decoded.
+    *
+    * @param name The resource path the sprite was packed from.
+    * @return The animation, or null if it isn't in the pack or one of its pages couldn't be decoded.
+    */
+   public AnimatedImage getAnimation(String name) {
+      Image[] frames = images.get(name);
+      if (frames == null || Arrays.asList(frames).contains(null))
+         return null;
+      return new AnimatedImage(frames, delays.get(name));
+   }
+
+   /**
+    * Gets the files the sprites were packed from.
+    *
+    * @return The CRC-32 of each file when it was packed, by its resource path.
+    */
+   Map<String, Long> getChecksums() {
+      return Collections.unmodifiableMap(checksums);
+   }
+
+   /**
+    * Gets how long each page took to decode and each sprite took to copy off its page.
+    *
+    * @return The times in nanoseconds, by the name of the page or sprite.
+    */
+   public Map<String, Long> getLoadTimes() {
+      return loadTimes;
+   }
+
+   // Private Methods
+
+   /**
+    * Decodes a page and copies its sprites off it.
+    *
+    * @param index   The index of the page.
+    * @param page    The PNG of the page.
+    * @param entries The sprites on the page.
+    */
+   private void decodePage(int index, ByteBuffer page, List<Entry> entries) {
+      AssetLoadEvent event = new AssetLoadEvent("sprite pack page " + index, entries.size());
+      long start = System.nanoTime();
+      Image image = new Image(new BufferInputStream(page));
+      PixelReader reader = image.getPixelReader();
+      loadTimes.put("page " + index, System.nanoTime() - start);
+      if (reader == null) {
+         event.commit();
+         return;
+      }
+      for (Entry entry : entries) {
+         start = System.nanoTime();
+         images.get(entry.name)[entry.frame] = new WritableImage(reader, entry.x, entry.y, entry.width, entry.height);
+         loadTimes.merge(entry.name, System.nanoTime() - start, Long::sum);
+      }
+      event.commit();
+   }
+
+   // Static Methods
+
+   /**
+    * Works out the CRC-32 of a file, which the pack keeps for each file so the packer can tell when it has changed.
+    *
+    * @param bytes The contents of the file.
+    * @return The CRC-32.
+    */
+   static long checksum(byte[] bytes) {
+      CRC32 crc = new CRC32();
+      crc.update(bytes);
+      return crc.getValue();
+   }
+
+   /**
+    * Opens a pack from the resources, reading its index but not decoding it yet.
+    *
+    * @param path The resource path of the pack, e.g. {@link #defaultPath}.
+    * @return The pack, or null if there isn't one or it can't be read.
+    */
+   public static SpritePack open(String path) {
+      URL url = SpritePack.class.getResource(path);
+      if (url == null)
+         return null;
+      try {
+         if (url.getProtocol().equals("file"))
+            return read(Paths.get(url.toURI()));
+         try (InputStream in = url.openStream()) {
+            return new SpritePack(ByteBuffer.wrap(in.readAllBytes()));
+         }
+      } catch (IOException | URISyntaxException e) {
+         System.err.println("Could not read " + path + ": " + e);
+         return null;
+      }
+   }
+
+   /**
+    * Opens a pack from a file, mapping it into memory and reading its index but not decoding it yet.
+    *
+    * @param file The pack.
+    * @return The pack.
+    * @throws IOException If the file can't be read or isn't a pack.
+    */
+   static SpritePack read(Path file) throws IOException {
+      try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+         return new SpritePack(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+      }
+   }
+
+   // Inner Classes
+
+   /**
+    * Where a sprite is in the pack.
+    */
+   private static class Entry {
+
+      private final String name;
+      private final int frame;
+      private final int delay;
+      private final int x;
+      private final int y;
+      private final int width;
+      private final int height;
+
+      /**
+       * Creates an entry.
+       *
+       * @param name   The resource path the sprite was packed from.
+       * @param frame  The index of the frame.
+       * @param delay  How long the frame is shown for in milliseconds, 0 for a still sprite.
+       * @param x      The left of the sprite on its page.
+       * @param y      The top of the sprite on its page.
+       * @param width  The width of the sprite.
+       * @param height The height of the sprite.
+       */
+      private Entry(String name, int frame, int delay, int x, int y, int width, int height) {
+         this.name = name;
+         this.frame = frame;
+         this.delay = delay;
+         this.x = x;
+         this.y = y;
+         this.width = width;
+         this.height = height;
+      }
+   }
+
+   /**
+    * Reads a buffer as a stream, for the image decoder.
+    */
+   private static class BufferInputStream extends InputStream {
+
+      private final ByteBuffer buffer;
+
+      /**
+       * Creates a stream of the rest of a buffer.
+       *
+       * @param buffer The buffer, which is read from its position to its limit.
+       */
+      private BufferInputStream(ByteBuffer buffer) {
+         this.buffer = buffer;
+      }
+
+      @Override
+      public int read() {
+         return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+      }
+
+      @Override
+      public int read(byte[] bytes, int offset, int length) {
+         if (!buffer.hasRemaining())
+            return -1;
+         length = Math.min(length, buffer.remaining());
+         buffer.get(bytes, offset, length);
+         return length;
+      }
+   }
+}
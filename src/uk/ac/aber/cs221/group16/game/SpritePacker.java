@@ -0,0 +1,300 @@
+/*
+* @(#) SpritePacker.java 1.0 2017/04/01
+*
+* Copyright (c) 2017 Aberystwyth University.
+* All rights reserved.
+*
+*/
+package uk.ac.aber.cs221.group16.game;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * This class packs every sprite of the game into a {@link SpritePack}, which the {@link GraphicLoader} reads at start
+ * up instead of opening each file by itself. It has to be run again whenever a sprite is added or changed, the game
+ * trusts the pack. The pack keeps the CRC-32 of each file, so {@code --check} can tell whether it is out of date.
+ * <p>
+ * Usage: {@code java uk.ac.aber.cs221.group16.game.SpritePacker [--check] [resources] [pack]}, run from the project
+ * root. The resources default to {@code res} and the pack to {@code res/graphics/sprites.pack}. Every PNG and GIF under
+ * {@code graphics/sprites} in the resources is packed, named by its resource path. Each frame of a GIF is packed as a
+ * sprite of its own. With {@code --check} the pack is not written, every sprite added, changed or removed since it
+ * was is listed instead and the exit status is 1 if there are any.
+ * <p>
+ * Sprites are laid out in rows on square pages, tallest first, starting a new row when one is full and a new page
+ * when one runs out of rows. Several small pages are used rather than one big one so the pages can be decoded at the
+ * same time.
+ *
+ * @author Group 16
+ * @version 1.2 Pack check.
+ */
+public class SpritePacker {
+
+   // Constants
+   private static final int pageSize = 512;
+   private static final String spritesPath = "graphics/sprites";
+
+   // Instance Variables
+   private Map<String, Long> checksums = new LinkedHashMap<>();
+   private List<Sprite> sprites = new ArrayList<>();
+   private List<BufferedImage> pages = new ArrayList<>();
+
+   // Public Methods
+
+   /**
+    * Adds every sprite under a resources directory.
+    *
+    * @param resources The resources directory.
+    * @throws IOException If a sprite can't be read.
+    */
+   public void addAll(Path resources) throws IOException {
+      for (Map.Entry<String, Path> sprite : listSprites(resources).entrySet())
+         add(sprite.getKey(), sprite.getValue());
+   }
+
+   /**
+    * Adds a sprite, or each frame of a GIF.
+    *
+    * @param name The resource path the sprite is found by.
+    * @param file The file to read it from.
+    * @throws IOException If the file can't be read.
+    */
+   public void add(String name, Path file) throws IOException {
+      byte[] bytes = Files.readAllBytes(file);
+      checksums.put(name, SpritePack.checksum(bytes));
+      if (name.endsWith(".gif")) {
+         List<AnimatedImage.Frame> frames = AnimatedImage.readGif(new ByteArrayInputStream(bytes));
+         for (int i = 0; i < frames.size(); i++) {
+            AnimatedImage.Frame frame = frames.get(i);
+            sprites.add(new Sprite(name, i, frame.delay, frame.width, frame.height, frame.pixels));
+         }
+         return;
+      }
+      BufferedImage image = ImageIO.read(new ByteArrayInputStream(bytes));
+      if (image == null)
+         throw new IOException("Can't read " + file);
+      int width = image.getWidth();
+      int height = image.getHeight();
+      sprites.add(new Sprite(name, 0, 0, width, height, image.getRGB(0, 0, width, height, null, 0, width)));
+   }
+
+   /**
+    * Lays out the sprites and writes the pack.
+    *
+    * @param out The file to write to.
+    * @throws IOException If the file can't be written.
+    */
+   public void write(Path out) throws IOException {
+      layOut();
+      List<byte[]> pageBytes = new ArrayList<>();
+      for (BufferedImage page : pages) {
+         ByteArrayOutputStream png = new ByteArrayOutputStream();
+         ImageIO.write(page, "png", png);
+         pageBytes.add(png.toByteArray());
+      }
+
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      DataOutputStream data = new DataOutputStream(bytes);
+      data.writeInt(SpritePack.magic);
+      data.writeShort(SpritePack.version);
+      data.writeShort(pageBytes.size());
+      for (byte[] page : pageBytes)
+         data.writeInt(page.length);
+      Map<String, Integer> fileIndexes = new HashMap<>();
+      data.writeShort(checksums.size());
+      for (Map.Entry<String, Long> file : checksums.entrySet()) {
+         byte[] name = file.getKey().getBytes(StandardCharsets.UTF_8);
+         data.writeShort(name.length);
+         data.write(name);
+         data.writeInt(file.getValue().intValue());
+         fileIndexes.put(file.getKey(), fileIndexes.size());
+      }
+      data.writeShort(sprites.size());
+      for (Sprite sprite : sprites) {
+         data.writeShort(fileIndexes.get(sprite.name));
+         data.writeShort(sprite.frame);
+         data.writeShort(sprite.delay);
+         data.writeShort(sprite.page);
+         data.writeShort(sprite.x);
+         data.writeShort(sprite.y);
+         data.writeShort(sprite.width);
+         data.writeShort(sprite.height);
+      }
+      for (byte[] page : pageBytes)
+         data.write(page);
+      data.flush();
+
+      Path temp = out.resolveSibling(out.getFileName() + ".tmp");
+      Files.write(temp, bytes.toByteArray());
+      Files.move(temp, out, StandardCopyOption.REPLACE_EXISTING);
+      System.out.printf("Packed %d sprites onto %d pages, %d bytes%n", sprites.size(), pages.size(), bytes.size());
+   }
+
+   // Private Methods
+
+   /**
+    * Places every sprite on a page, in rows, and draws it there.
+    *
+    * @throws IOException If a sprite is bigger than a page.
+    */
+   private void layOut() throws IOException {
+      List<Sprite> byHeight = new ArrayList<>(sprites);
+      byHeight.sort(Comparator.comparingInt((Sprite s) -> s.height).thenComparingInt(s -> s.width).reversed());
+      int x = pageSize;
+      int y = 0;
+      int rowHeight = 0;
+      BufferedImage page = null;
+      for (Sprite sprite : byHeight) {
+         if (sprite.width > pageSize || sprite.height > pageSize)
+            throw new IOException(sprite.name + " is bigger than a page");
+         if (x + sprite.width > pageSize) {
+            x = 0;
+            y += rowHeight;
+            rowHeight = 0;
+         }
+         if (page == null || y + sprite.height > pageSize) {
+            page = new BufferedImage(pageSize, pageSize, BufferedImage.TYPE_INT_ARGB);
+            pages.add(page);
+            x = 0;
+            y = 0;
+            rowHeight = 0;
+         }
+         sprite.page = pages.size() - 1;
+         sprite.x = x;
+         sprite.y = y;
+         page.setRGB(x, y, sprite.width, sprite.height, sprite.pixels, 0, sprite.width);
+         x += sprite.width;
+         rowHeight = Math.max(rowHeight, sprite.height);
+      }
+   }
+
+   // Static Methods
+
+   /**
+    * Checks whether a pack is up to date with the sprites under a resources directory, printing every sprite which has
+    * been added, changed or removed since it was written.
+    *
+    * @param resources The resources directory.
+    * @param pack      The pack to check.
+    * @return True if the pack is up to date.
+    * @throws IOException If a sprite or the pack can't be read.
+    */
+   public static boolean check(Path resources, Path pack) throws IOException {
+      Map<String, Long> packed = new LinkedHashMap<>(SpritePack.read(pack).getChecksums());
+      int stale = 0;
+      for (Map.Entry<String, Path> sprite : listSprites(resources).entrySet()) {
+         Long checksum = packed.remove(sprite.getKey());
+         if (checksum == null) {
+            System.out.println("Added: " + sprite.getKey());
+            stale++;
+         } else if (checksum != SpritePack.checksum(Files.readAllBytes(sprite.getValue()))) {
+            System.out.println("Changed: " + sprite.getKey());
+            stale++;
+         }
+      }
+      for (String name : packed.keySet())
+         System.out.println("Removed: " + name);
+      stale += packed.size();
+      if (stale == 0)
+         System.out.println(pack + " is up to date");
+      else
+         System.out.println(pack + " is out of date, run SpritePacker to update it");
+      return stale == 0;
+   }
+
+   /**
+    * Finds every sprite under a resources directory.
+    *
+    * @param resources The resources directory.
+    * @return The file of each sprite by its resource path, in order.
+    * @throws IOException If the directory can't be read.
+    */
+   private static Map<String, Path> listSprites(Path resources) throws IOException {
+      List<Path> files;
+      try (Stream<Path> walk = Files.walk(resources.resolve(spritesPath))) {
+         files = walk.filter(p -> p.toString().endsWith(".png") || p.toString().endsWith(".gif"))
+                 .sorted().collect(Collectors.toList());
+      }
+      Map<String, Path> sprites = new LinkedHashMap<>();
+      for (Path file : files)
+         sprites.put("/" + resources.relativize(file).toString().replace('\\', '/'), file);
+      return sprites;
+   }
+
+   /**
+    * Packs the sprites, or checks the pack is up to date.
+    *
+    * @param args {@code --check} to only check the pack, then the resources directory and the pack, all optional.
+    * @throws IOException If a sprite can't be read or the pack can't be read or written.
+    */
+   public static void main(String[] args) throws IOException {
+      boolean check = args.length > 0 && args[0].equals("--check");
+      if (check)
+         args = Arrays.copyOfRange(args, 1, args.length);
+      Path resources = Paths.get(args.length > 0 ? args[0] : "res");
+      Path out = args.length > 1 ? Paths.get(args[1]) : resources.resolve(SpritePack.defaultPath.substring(1));
+      if (check) {
+         if (!check(resources, out))
+            System.exit(1);
+         return;
+      }
+      SpritePacker packer = new SpritePacker();
+      packer.addAll(resources);
+      packer.write(out);
+   }
+
+   // Inner Classes
+
+   /**
+    * A sprite, or frame of an animation, and where it goes in the pack.
+    */
+   private static class Sprite {
+
+      private final String name;
+      private final int frame;
+      private final int delay;
+      private final int width;
+      private final int height;
+      private final int[] pixels;
+      private int page;
+      private int x;
+      private int y;
+
+      /**
+       * Creates a sprite which hasn't been placed yet.
+       *
+       * @param name   The resource path.
+       * @param frame  The index of the frame, 0 for a still sprite.
+       * @param delay  How long the frame is shown for in milliseconds, 0 for a still sprite.
+       * @param width  The width.
+       * @param height The height.
+       * @param pixels The ARGB pixels, a row at a time.
+       */
+      private Sprite(String name, int frame, int delay, int width, int height, int[] pixels) {
+         this.name = name;
+         this.frame = frame;
+         this.delay = delay;
+         this.width = width;
+         this.height = height;
+         this.pixels = pixels;
+      }
+   }
+}
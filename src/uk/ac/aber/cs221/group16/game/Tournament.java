@@ -0,0 +1,234 @@
+/*
+* @(#) Tournament.java 1.0 2017/04/01
+*
+* Copyright (c) 2017 Aberystwyth University.
+* All rights reserved.
+*
+*/
+package uk.ac.aber.cs221.group16.game;
+
+import uk.ac.aber.cs221.group16.game.bots.Bot;
+import uk.ac.aber.cs221.group16.game.bots.BotGame;
+import uk.ac.aber.cs221.group16.game.bots.GreedyBot;
+import uk.ac.aber.cs221.group16.game.map.tiles.PortTile;
+import uk.ac.aber.cs221.group16.game.players.Player;
+import uk.ac.aber.cs221.group16.game.utils.GameRandom;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * This class plays many games between bots with no display, spread across every core, and prints statistics about
+ * them. It is used to see how changes to the rules affect the game.
+ * <p>
+ * Usage: {@code java uk.ac.aber.cs221.group16.game.Tournament [games] [threads] [seed] [maxTurns]}, run from the
+ * project root. The seeds of every game and its bots are drawn in order from the tournament seed before any game
+ * starts, so the results don't depend on the number of threads and any game can be replayed from its seed.
+ *
+ * @author Group 16
+ * @version 1.1 Seeded randomness.
+ */
+public class Tournament {
+
+   // Constants
+   private static final List<String> names = Arrays.asList("Bot 1", "Bot 2", "Bot 3", "Bot 4");
+
+   // Instance Variables
+   private int games;
+   private int threads;
+   private long seed;
+   private int maxTurns;
+
+   // Constructors
+
+   /**
+    * Creates a tournament.
+    *
+    * @param games    The number of games to play.
+    * @param threads  The number of games to play at once.
+    * @param seed     The seed the random number generator of each game is made from.
+    * @param maxTurns The number of turns after which a game is abandoned.
+    */
+   public Tournament(int games, int threads, long seed, int maxTurns) {
+      this.games = games;
+      this.threads = threads;
+      this.seed = seed;
+      this.maxTurns = maxTurns;
+   }
+
+   // Public Methods
+
+   /**
+    * Plays every game of the tournament.
+    *
+    * @return The combined results of the games.
+    * @throws InterruptedException If interrupted while waiting for the games.
+    * @throws ExecutionException   If a game throws an exception.
+    */
+   public Results run() throws InterruptedException, ExecutionException {
+      GameRandom random = new GameRandom(seed);
+      long[] gameSeeds = new long[games];
+      long[] botSeeds = new long[games];
+      for (int i = 0; i < games; i++) {
+         gameSeeds[i] = random.nextLong();
+         botSeeds[i] = random.nextLong();
+      }
+      ForkJoinPool pool = new ForkJoinPool(threads);
+      try {
+         return pool.submit(() -> IntStream.range(0, games).parallel()
+                 .mapToObj(i -> playGame(gameSeeds[i], botSeeds[i]))
+                 .collect(Results::new, Results::add, Results::addAll)).get();
+      } finally {
+         pool.shutdown();
+      }
+   }
+
+   // Private Methods
+
+   /**
+    * Plays a single game.
+    *
+    * @param gameSeed The seed of the game.
+    * @param botSeed  The seed the bots' random number generators are split from.
+    * @return The result of the game.
+    */
+   private GameResult playGame(long gameSeed, long botSeed) {
+      GameRandom botRandom = new GameRandom(botSeed);
+      Bot[] bots = new Bot[Game.numPlayers];
+      for (int i = 0; i < bots.length; i++)
+         bots[i] = new GreedyBot(botRandom.split());
+      BotGame botGame = new BotGame(names, bots, maxTurns, gameSeed);
+      Player winner = botGame.play();
+      Game game = botGame.getGame();
+
+      GameResult result = new GameResult();
+      result.winningPort = winner == null ? null : winner.getHomePort().getName();
+      result.turns = game.getTurnNumber();
+      result.battles = game.getBattleCount();
+      result.homePorts = game.getBoard().getHomePorts();
+      return result;
+   }
+
+   // Static Methods
+
+   public static void main(String args[]) throws Exception {
+      int games = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+      int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+      long seed = args.length > 2 ? Long.parseLong(args[2]) : 1;
+      int maxTurns = args.length > 3 ? Integer.parseInt(args[3]) : 1000;
+
+      long start = System.nanoTime();
+      Results results = new Tournament(games, threads, seed, maxTurns).run();
+      double seconds = (System.nanoTime() - start) / 1e9;
+
+      System.out.println(results);
+      System.out.printf("%d games on %d threads in %.2fs (%.1f games/s)%n", games, threads, seconds, games / seconds);
+   }
+
+   // Inner Classes
+
+   /**
+    * The result of a single game.
+    */
+   private static class GameResult {
+      private String winningPort;
+      private int turns;
+      private int battles;
+      private PortTile[] homePorts;
+   }
+
+   /**
+    * The combined results of many games.
+    */
+   public static class Results {
+
+      private int games;
+      private int unfinished;
+      private long turns;
+      private long battles;
+      private Map<String, Integer> wins = new LinkedHashMap<>();
+
+      /**
+       * Adds the result of a game.
+       *
+       * @param result The result to add.
+       */
+      private void add(GameResult result) {
+         games++;
+         turns += result.turns;
+         battles += result.battles;
+         for (PortTile port : result.homePorts)
+            wins.putIfAbsent(port.getName(), 0);
+         if (result.winningPort == null)
+            unfinished++;
+         else
+            wins.merge(result.winningPort, 1, Integer::sum);
+      }
+
+      /**
+       * Adds the results of other games.
+       *
+       * @param other The results to add.
+       */
+      private void addAll(Results other) {
+         games += other.games;
+         unfinished += other.unfinished;
+         turns += other.turns;
+         battles += other.battles;
+         other.wins.forEach((port, count) -> wins.merge(port, count, Integer::sum));
+      }
+
+      /**
+       * Gets the number of games played.
+       *
+       * @return The number of games.
+       */
+      public int getGames() {
+         return games;
+      }
+
+      /**
+       * Gets the fraction of games won by the player starting at a home port.
+       *
+       * @param port The name of the home port.
+       * @return The win rate between 0 and 1.
+       */
+      public double getWinRate(String port) {
+         return games == 0 ? 0 : wins.getOrDefault(port, 0) / (double) games;
+      }
+
+      /**
+       * Gets the average number of turns per game.
+       *
+       * @return The average turns.
+       */
+      public double getAverageTurns() {
+         return games == 0 ? 0 : turns / (double) games;
+      }
+
+      /**
+       * Gets the average number of battles per game.
+       *
+       * @return The average battles.
+       */
+      public double getAverageBattles() {
+         return games == 0 ? 0 : battles / (double) games;
+      }
+
+      @Override
+      public String toString() {
+         StringBuilder sBuilder = new StringBuilder();
+         sBuilder.append(String.format("Games: %d (%d reached the turn limit)%n", games, unfinished));
+         for (String port : wins.keySet())
+            sBuilder.append(String.format("  %-10s win rate %5.1f%%%n", port, getWinRate(port) * 100));
+         sBuilder.append(String.format("Average turns: %.1f%n", getAverageTurns()));
+         sBuilder.append(String.format("Average battles per game: %.2f", getAverageBattles()));
+         return sBuilder.toString();
+      }
+   }
+}
@@ -0,0 +1,217 @@
+/*
+* @(#) Trade.java 1.0 2017/04/01
+*
+* Copyright (c) 2017 Aberystwyth University.
+* All rights reserved.
+*
+*/
+
+package uk.ac.aber.cs221.group16.game;
+
+import uk.ac.aber.cs221.group16.game.items.Tradable;
+import uk.ac.aber.cs221.group16.game.items.treasures.Treasure;
+import uk.ac.aber.cs221.group16.game.log.GameLog;
+import uk.ac.aber.cs221.group16.game.map.tiles.PortTile;
+import uk.ac.aber.cs221.group16.game.players.Player;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * This class holds the rules of a trade between a player and a port they have arrived at. The items each side can
+ * offer are listed when the trade is made, a trade is then accepted by giving the indexes of the items chosen from
+ * each list, which is also how the trade is recorded in the {@link GameLog}.
+ *
+ * @author Kamyab Sherafat
+ * @author Josh Smith
+ * @version 1.2 Checked trade indexes.
+ */
+public class Trade {
+
+   // Instance Variables
+   private Player player;
+   private PortTile port;
+   private GameLog log;
+
+   private List<Tradable> playerTradables;
+   private List<Tradable> portTradables;
+   private boolean accepted;
+
+   // Constructors
+
+   /**
+    * Creates a trade, listing the items the player and port have to offer.
+    *
+    * @param player The player who has arrived in the port.
+    * @param port   The port which the player may trade with.
+    * @param log    The log to record an accepted trade in.
+    */
+   public Trade(Player player, PortTile port, GameLog log) {
+      this.player = player;
+      this.port = port;
+      this.log = log;
+
+      // add all of the cards and treasures into lists of tradables.
+      playerTradables = new ArrayList<>(player.getShip().getCargo());
+      playerTradables.addAll(player.getCrewCards());
+      // adds all chance cards which have a value.
+      player.getChanceCards().stream().filter(c -> c.getValue() > 0).forEach(playerTradables::add);
+
+      portTradables = new ArrayList<>(port.getTreasureSet());
+      portTradables.addAll(port.getCrewCardSet());
+
+      // Sort the Lists, highest value first. The sort is stable so the order is the same every time.
+      playerTradables.sort(Comparator.reverseOrder());
+      portTradables.sort(Comparator.reverseOrder());
+   }
+
+   // Public Methods
+
+   /**
+    * Checks the trade is fair and the player can carry the outcome, then exchanges the items and records the trade.
+    *
+    * @param fromPlayer The indexes of the items in {@link #getPlayerTradables()} to give to the port, in ascending
+    *                   order.
+    * @param fromPort   The indexes of the items in {@link #getPortTradables()} to take from the port, in ascending
+    *                   order.
+    * @return True if the trade was made, false if an index is out of range, repeated or out of order, the trade was
+    * unfair, the ship can't hold the treasure or a trade has already been made.
+    */
+   public boolean accept(int[] fromPlayer, int[] fromPort) {
+      // the indexes are checked before the values are added up, a repeated index would count an item twice.
+      if (accepted || !isAscending(fromPlayer, playerTradables.size()) || !isAscending(fromPort, portTradables.size()))
+         return false;
+      if (sum(playerTradables, fromPlayer) != sum(portTradables, fromPort) ||
+              !hasSpaceForTreasure(fromPlayer, fromPort))
+         return false;
+
+      // trade the items between the player and the port, the displays of both are updated once at the end.
+      port.changeTreasure(() -> player.getShip().changeCargo(() -> {
+         for (int i : fromPlayer) {
+            Tradable item = playerTradables.get(i);
+            port.addTradable(item);
+            player.removeTradable(item);
+         }
+         for (int i : fromPort) {
+            Tradable item = portTradables.get(i);
+            player.addTradable(item);
+            port.removeTradable(item);
+         }
+      }));
+      log.trade(player, fromPlayer, fromPort);
+      accepted = true;
+      return true;
+   }
+
+   /**
+    * Records that the player chose not to trade, unless a trade has already been accepted. Declining is recorded as an
+    * empty trade so a replay knows the decision has been made.
+    */
+   public void close() {
+      if (!accepted)
+         log.trade(player, new int[0], new int[0]);
+      accepted = true;
+   }
+
+   /**
+    * Checks that the outcome of the trade will not cause the number of Treasures on the ship to exceed it's capacity.
+    *
+    * @param fromPlayer The indexes of the items to go from the player to the port.
+    * @param fromPort   The indexes of the items to go from the port to the player.
+    * @return True if the trade outcome does not cause the ship to have more treasures than it's capacity allows.
+    */
+   public boolean hasSpaceForTreasure(int[] fromPlayer, int[] fromPort) {
+      int playerOutcomeTreasures = player.getShip().getCargo().size();
+      // subtract the number of treasures that are being sent to the port.
+      for (int i : fromPlayer) {
+         if (playerTradables.get(i) instanceof Treasure)
+            playerOutcomeTreasures--;
+      }
+      // add the number of treasures that are being taken from the port.
+      for (int i : fromPort) {
+         if (portTradables.get(i) instanceof Treasure)
+            playerOutcomeTreasures++;
+      }
+      return playerOutcomeTreasures <= player.getShip().getCapacity();
+   }
+
+   /**
+    * Checks whether a trade has been made.
+    *
+    * @return True if {@link #accept(int[], int[])} has succeeded.
+    */
+   public boolean isAccepted() {
+      return accepted;
+   }
+
+   /**
+    * Gets the player who is trading.
+    *
+    * @return The player.
+    */
+   public Player getPlayer() {
+      return player;
+   }
+
+   /**
+    * Gets the port being traded with.
+    *
+    * @return The port.
+    */
+   public PortTile getPort() {
+      return port;
+   }
+
+   /**
+    * Gets the items the player can offer, highest value first.
+    *
+    * @return The player's tradables.
+    */
+   public List<Tradable> getPlayerTradables() {
+      return Collections.unmodifiableList(playerTradables);
+   }
+
+   /**
+    * Gets the items the port can offer, highest value first.
+    *
+    * @return The port's tradables.
+    */
+   public List<Tradable> getPortTradables() {
+      return Collections.unmodifiableList(portTradables);
+   }
+
+   // Private Methods
+
+   /**
+    * Checks that some indexes are each within a list and in strictly ascending order, so no item is chosen twice.
+    *
+    * @param indexes The indexes of the items chosen.
+    * @param size    The size of the list they are chosen from.
+    * @return True if every index is in range and greater than the one before it.
+    */
+   private boolean isAscending(int[] indexes, int size) {
+      int previous = -1;
+      for (int i : indexes) {
+         if (i <= previous || i >= size)
+            return false;
+         previous = i;
+      }
+      return true;
+   }
+
+   /**
+    * Adds up the value of some of the items in a list.
+    *
+    * @param tradables The list of items.
+    * @param indexes   The indexes of the items to add up.
+    * @return The total value.
+    */
+   private int sum(List<Tradable> tradables, int[] indexes) {
+      int total = 0;
+      for (int i : indexes)
+         total += tradables.get(i).getValue();
+      return total;
+   }
+}
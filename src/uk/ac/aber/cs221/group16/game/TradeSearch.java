@@ -0,0 +1,484 @@
+/*
+* @(#) TradeSearch.java 1.0 2017/04/01
+*
+* Copyright (c) 2017 Aberystwyth University.
+* All rights reserved.
+*
+*/
+
+package uk.ac.aber.cs221.group16.game;
+
+import uk.ac.aber.cs221.group16.game.items.Tradable;
+import uk.ac.aber.cs221.group16.game.items.cards.CrewCard;
+import uk.ac.aber.cs221.group16.game.items.treasures.Treasure;
+
+import java.util.*;
+
+/**
+ * This class finds the fair exchanges a player could make in a {@link Trade}, so they can be suggested rather than
+ * found by ticking boxes until the totals match. An exchange is fair when both sides are worth the same, and it is
+ * only suggested if the ship can hold the treasure the player would end up with.
+ * <p>
+ * Items which play the same, e.g. two red crew cards of value 2, are grouped into kinds, and exchanges are found as a
+ * count of each kind so the same exchange is never listed twice with different cards. The totals each side can make
+ * are worked out first as bitsets, one for each number of treasures moved, and the bitsets of the two sides are
+ * ANDed to find the totals both can make without overloading the ship. Then each side on its own works through its
+ * kinds keeping only the best few ways of making each total, and the two sides meet on equal totals. Neither step
+ * looks at every subset of the items, so even a port holding most of the game's cards is searched in a few
+ * milliseconds.
+ * <p>
+ * Exchanges are ranked by net gain, which is the value of treasure the player comes away with less the treasure they
+ * give up, as treasure is what wins the game. Of exchanges with the same gain, the one moving fewer items comes first.
+ *
+ * @author Group 16
+ * @version 1.1 No rawtypes warnings.
+ */
+public class TradeSearch {
+
+   // Constants
+   public static final int defaultLimit = 10;
+
+   // Instance Variables
+   private int capacity;
+   private int cargo;
+   private Side give;
+   private Side take;
+
+   // Constructors
+
+   /**
+    * Sets up a search of a trade's exchanges, grouping each side's items and working out the totals they can make.
+    *
+    * @param trade The trade.
+    */
+   public TradeSearch(Trade trade) {
+      this.capacity = trade.getPlayer().getShip().getCapacity();
+      this.cargo = trade.getPlayer().getShip().getCargo().size();
+      this.give = new Side(trade.getPlayerTradables(), Math.min(cargo, capacity), 1);
+      this.take = new Side(trade.getPortTradables(), capacity, -1);
+   }
+
+   // Public Methods
+
+   /**
+    * Finds the best fair exchanges.
+    *
+    * @param limit The most exchanges to return.
+    * @return The exchanges, best first, empty if no fair exchange fits on the ship.
+    */
+   public List<Suggestion> search(int limit) {
+      // common[tg][tt] marks the totals the player can give with tg treasures and the port can match with tt.
+      long[][][] common = new long[give.maxTreasures + 1][take.maxTreasures + 1][];
+      int maxTotal = 0;
+      for (int tg = 0; tg <= give.maxTreasures; tg++) {
+         for (int tt = 0; tt <= take.maxTreasures; tt++) {
+            if (cargo - tg + tt > capacity)
+               continue;
+            common[tg][tt] = and(give.reach[tg], take.reach[tt]);
+            common[tg][tt][0] &= ~1L;
+            maxTotal = Math.max(maxTotal, highestBit(common[tg][tt]));
+         }
+      }
+      if (maxTotal <= 0 || limit <= 0)
+         return new ArrayList<>();
+
+      List<Choice>[][] gives = give.rank(maxTotal, limit);
+      List<Choice>[][] takes = take.rank(maxTotal, limit);
+      // the best pairs found so far, best first. Both lists are best first, so once a pair can't make the best
+      // pairs, no later pair with the same choice from the player can either.
+      List<Choice[]> pairs = new ArrayList<>();
+      for (int tg = 0; tg <= give.maxTreasures; tg++) {
+         for (int tt = 0; tt <= take.maxTreasures; tt++) {
+            if (common[tg][tt] == null)
+               continue;
+            for (int total = 1; total <= maxTotal; total++) {
+               if (!test(common[tg][tt], total))
+                  continue;
+               for (Choice g : gives[tg][total]) {
+                  for (Choice t : takes[tt][total]) {
+                     if (!offer(pairs, new Choice[]{g, t}, limit))
+                        break;
+                  }
+               }
+            }
+         }
+      }
+      List<Suggestion> found = new ArrayList<>();
+      for (Choice[] pair : pairs) {
+         int total = 0;
+         int[] fromPlayer = give.indexes(pair[0]);
+         for (int i : fromPlayer)
+            total += give.values[i];
+         found.add(new Suggestion(fromPlayer, take.indexes(pair[1]), total, pair[0].gain + pair[1].gain));
+      }
+      return found;
+   }
+
+   // Private Methods
+
+   /**
+    * Adds a pair of choices to the best pairs if it is one of them.
+    *
+    * @param pairs The best pairs, best first.
+    * @param pair  The pair to add, the player's choice then the port's.
+    * @param limit The number of pairs to keep.
+    * @return True if the pair was added.
+    */
+   private boolean offer(List<Choice[]> pairs, Choice[] pair, int limit) {
+      int at = pairs.size();
+      while (at > 0 && better(pair, pairs.get(at - 1)))
+         at--;
+      if (at >= limit)
+         return false;
+      pairs.add(at, pair);
+      if (pairs.size() > limit)
+         pairs.remove(limit);
+      return true;
+   }
+
+   /**
+    * Checks whether one pair of choices makes a better exchange than another: a higher net gain, or the same gain
+    * moving fewer items.
+    *
+    * @param a A pair.
+    * @param b Another pair.
+    * @return True if a is better than b.
+    */
+   private boolean better(Choice[] a, Choice[] b) {
+      int gainA = a[0].gain + a[1].gain;
+      int gainB = b[0].gain + b[1].gain;
+      return gainA != gainB ? gainA > gainB : a[0].items + a[1].items < b[0].items + b[1].items;
+   }
+
+   // Static Methods
+
+   /**
+    * ANDs two bitsets.
+    *
+    * @param a A bitset.
+    * @param b Another bitset.
+    * @return A new bitset, as long as the shorter.
+    */
+   private static long[] and(long[] a, long[] b) {
+      long[] out = new long[Math.min(a.length, b.length)];
+      for (int i = 0; i < out.length; i++)
+         out[i] = a[i] & b[i];
+      return out;
+   }
+
+   /**
+    * Checks a bit.
+    *
+    * @param bits The bitset.
+    * @param i    The bit.
+    * @return True if it is set.
+    */
+   private static boolean test(long[] bits, int i) {
+      return (i >>> 6) < bits.length && (bits[i >>> 6] & 1L << i) != 0;
+   }
+
+   /**
+    * Finds the highest set bit.
+    *
+    * @param bits The bitset.
+    * @return The bit, -1 if none are set.
+    */
+   private static int highestBit(long[] bits) {
+      for (int i = bits.length - 1; i >= 0; i--) {
+         if (bits[i] != 0)
+            return (i << 6) + 63 - Long.numberOfLeadingZeros(bits[i]);
+      }
+      return -1;
+   }
+
+   // Inner Classes
+
+   /**
+    * The items one side of the trade can offer, grouped into kinds.
+    */
+   private static class Side {
+
+      private int sign;
+      private int maxTreasures;
+      private int[] values;
+      private int[] kindValue;
+      private boolean[] kindTreasure;
+      private int[] kindCount;
+      private int[][] kindIndexes;
+      // reach[t] marks the totals the side can make with exactly t treasures.
+      private long[][] reach;
+
+      /**
+       * Groups the items of a side into kinds and works out the totals they can make.
+       *
+       * @param items        The items, in the order of the trade's list.
+       * @param maxTreasures The most treasures which can move from this side.
+       * @param sign         1 if the side is the player's, -1 if it is the port's, for working out the gain.
+       */
+      private Side(List<Tradable> items, int maxTreasures, int sign) {
+         this.sign = sign;
+         Map<Integer, List<Integer>> kinds = new LinkedHashMap<>();
+         int total = 0;
+         int treasures = 0;
+         values = new int[items.size()];
+         for (int i = 0; i < items.size(); i++) {
+            Tradable item = items.get(i);
+            values[i] = item.getValue();
+            kinds.computeIfAbsent(kindOf(item), k -> new ArrayList<>()).add(i);
+            total += item.getValue();
+            if (item instanceof Treasure)
+               treasures++;
+         }
+         this.maxTreasures = Math.min(maxTreasures, treasures);
+
+         int n = kinds.size();
+         kindValue = new int[n];
+         kindTreasure = new boolean[n];
+         kindCount = new int[n];
+         kindIndexes = new int[n][];
+         int k = 0;
+         for (List<Integer> indexes : kinds.values()) {
+            Tradable first = items.get(indexes.get(0));
+            kindValue[k] = first.getValue();
+            kindTreasure[k] = first instanceof Treasure;
+            kindCount[k] = kindTreasure[k] ? Math.min(indexes.size(), this.maxTreasures) : indexes.size();
+            kindIndexes[k] = indexes.stream().mapToInt(Integer::intValue).toArray();
+            k++;
+         }
+
+         reach = new long[this.maxTreasures + 1][(total >>> 6) + 1];
+         reach[0][0] = 1;
+         for (k = 0; k < n; k++) {
+            long[][] next = new long[reach.length][reach[0].length];
+            for (int t = 0; t <= this.maxTreasures; t++) {
+               for (int count = 0; count <= kindCount[k]; count++) {
+                  int from = kindTreasure[k] ? t - count : t;
+                  if (from < 0)
+                     break;
+                  shiftOr(next[t], reach[from], count * kindValue[k]);
+               }
+            }
+            reach = next;
+         }
+      }
+
+      /**
+       * Finds the best few ways this side can make every total up to a limit, for each number of treasures. The kinds
+       * are added one at a time, and for each number of treasures and total only the best ways so far are kept, as a
+       * way which isn't one of the best can't become one by adding the same items as the others.
+       *
+       * @param maxTotal The highest total worth finding.
+       * @param limit    The number of ways to keep for each number of treasures and total.
+       * @return The ways, best first, indexed by number of treasures then total.
+       */
+      @SuppressWarnings({"unchecked", "rawtypes"})
+      private List<Choice>[][] rank(int maxTotal, int limit) {
+         List<Choice>[][] ways = new List[maxTreasures + 1][maxTotal + 1];
+         for (List<Choice>[] row : ways)
+            Arrays.fill(row, Collections.emptyList());
+         ways[0][0] = Collections.singletonList(new Choice(null, -1, 0, 0, 0));
+         for (int k = 0; k < kindValue.length; k++) {
+            List<Choice>[][] next = new List[maxTreasures + 1][maxTotal + 1];
+            for (int t = 0; t <= maxTreasures; t++) {
+               for (int total = 0; total <= maxTotal; total++)
+                  next[t][total] = merge(ways, k, t, total, limit);
+            }
+            ways = next;
+         }
+         return ways;
+      }
+
+      /**
+       * Finds the best ways of making a total with a kind added, from the best ways without it. The ways without it
+       * for each count of the kind are already in order, so they are merged by repeatedly taking the best of their
+       * heads.
+       *
+       * @param ways  The best ways made from the kinds before this one.
+       * @param k     The kind to add.
+       * @param t     The number of treasures.
+       * @param total The total.
+       * @param limit The number of ways to keep.
+       * @return The best ways, best first.
+       */
+      private List<Choice> merge(List<Choice>[][] ways, int k, int t, int total, int limit) {
+         int counts = 0;
+         while (counts <= kindCount[k]) {
+            int from = kindTreasure[k] ? t - counts : t;
+            if (from < 0 || total - counts * kindValue[k] < 0)
+               break;
+            counts++;
+         }
+         int[] heads = new int[counts];
+         int gainEach = kindTreasure[k] ? -sign * kindValue[k] : 0;
+         List<Choice> best = null;
+         while (best == null || best.size() < limit) {
+            int bestCount = -1;
+            Choice bestChoice = null;
+            int bestGain = 0;
+            for (int count = 0; count < counts; count++) {
+               List<Choice> from = ways[kindTreasure[k] ? t - count : t][total - count * kindValue[k]];
+               if (heads[count] == from.size())
+                  continue;
+               Choice choice = from.get(heads[count]);
+               int gain = choice.gain + count * gainEach;
+               if (bestChoice == null || gain > bestGain ||
+                       gain == bestGain && choice.items + count < bestChoice.items + bestCount) {
+                  bestCount = count;
+                  bestChoice = choice;
+                  bestGain = gain;
+               }
+            }
+            if (bestChoice == null)
+               break;
+            if (best == null)
+               best = new ArrayList<>(2);
+            heads[bestCount]++;
+            // a way not using the kind is the same choice, only ways using it need a new link.
+            best.add(bestCount == 0 ? bestChoice :
+                    new Choice(bestChoice, k, bestCount, bestGain, bestChoice.items + bestCount));
+         }
+         return best == null ? Collections.emptyList() : best;
+      }
+
+      /**
+       * Turns a choice into the indexes of the items, taking the first items of each kind.
+       *
+       * @param choice The choice.
+       * @return The indexes in ascending order.
+       */
+      private int[] indexes(Choice choice) {
+         int[] indexes = new int[choice.items];
+         int i = 0;
+         for (Choice link = choice; link.previous != null; link = link.previous) {
+            for (int c = 0; c < link.count; c++)
+               indexes[i++] = kindIndexes[link.kind][c];
+         }
+         Arrays.sort(indexes);
+         return indexes;
+      }
+
+      /**
+       * ORs a bitset shifted up into another of the same length.
+       *
+       * @param into  The bitset to OR into.
+       * @param from  The bitset to shift.
+       * @param shift The amount to shift up by.
+       */
+      private static void shiftOr(long[] into, long[] from, int shift) {
+         int words = shift >>> 6;
+         int bits = shift & 63;
+         for (int i = into.length - 1; i >= words; i--) {
+            long shifted = from[i - words] << bits;
+            if (bits != 0 && i - words - 1 >= 0)
+               shifted |= from[i - words - 1] >>> (64 - bits);
+            into[i] |= shifted;
+         }
+      }
+
+      /**
+       * Gets the kind of an item, items of the same kind are worth the same in a trade and play the same afterwards.
+       *
+       * @param item The item.
+       * @return The kind.
+       */
+      private static int kindOf(Tradable item) {
+         if (item instanceof Treasure)
+            return item.getValue();
+         if (item instanceof CrewCard)
+            return 100 + ((CrewCard) item).getColorIndex() * 10 + item.getValue();
+         return 200 + item.getValue();
+      }
+   }
+
+   /**
+    * One way a side could make a total, as a chain of how many of each kind it uses, kinds it doesn't use are left
+    * out of the chain. Ways sharing their first kinds share the links for them.
+    */
+   private static class Choice {
+
+      private Choice previous;
+      private int kind;
+      private int count;
+      private int gain;
+      private int items;
+
+      /**
+       * Creates a link of a choice.
+       *
+       * @param previous The choice of the earlier kinds, null for the empty choice.
+       * @param kind     The kind this link adds.
+       * @param count    How many of the kind are used.
+       * @param gain     The treasure this side adds to the net gain, negative for treasure the player gives.
+       * @param items    The number of items in the whole choice.
+       */
+      private Choice(Choice previous, int kind, int count, int gain, int items) {
+         this.previous = previous;
+         this.kind = kind;
+         this.count = count;
+         this.gain = gain;
+         this.items = items;
+      }
+   }
+
+   /**
+    * A fair exchange which could be made.
+    */
+   public static class Suggestion {
+
+      private int[] fromPlayer;
+      private int[] fromPort;
+      private int value;
+      private int gain;
+
+      /**
+       * Creates a suggestion.
+       *
+       * @param fromPlayer The indexes of the player's items to give.
+       * @param fromPort   The indexes of the port's items to take.
+       * @param value      The value of each side.
+       * @param gain       The net gain in treasure.
+       */
+      private Suggestion(int[] fromPlayer, int[] fromPort, int value, int gain) {
+         this.fromPlayer = fromPlayer;
+         this.fromPort = fromPort;
+         this.value = value;
+         this.gain = gain;
+      }
+
+      /**
+       * Gets the items to give, as for {@link Trade#accept(int[], int[])}.
+       *
+       * @return The indexes in {@link Trade#getPlayerTradables()}, ascending.
+       */
+      public int[] getFromPlayer() {
+         return fromPlayer;
+      }
+
+      /**
+       * Gets the items to take, as for {@link Trade#accept(int[], int[])}.
+       *
+       * @return The indexes in {@link Trade#getPortTradables()}, ascending.
+       */
+      public int[] getFromPort() {
+         return fromPort;
+      }
+
+      /**
+       * Gets the value of each side of the exchange.
+       *
+       * @return The value.
+       */
+      public int getValue() {
+         return value;
+      }
+
+      /**
+       * Gets the value of treasure the player gains, less the treasure they give up.
+       *
+       * @return The net gain.
+       */
+      public int getGain() {
+         return gain;
+      }
+   }
+}
@@ -0,0 +1,84 @@
+/*
+* @(#) Bot.java 1.0 2017/04/01
+*
+* Copyright (c) 2017 Aberystwyth University.
+* All rights reserved.
+*
+*/
+
+package uk.ac.aber.cs221.group16.game.bots;
+
+import uk.ac.aber.cs221.group16.game.Trade;
+import uk.ac.aber.cs221.group16.game.map.Board;
+import uk.ac.aber.cs221.group16.game.map.Orientation;
+import uk.ac.aber.cs221.group16.game.map.tiles.Tile;
+import uk.ac.aber.cs221.group16.game.players.Player;
+
+import java.util.List;
+
+/**
+ * This interface is for computer controlled players. A bot makes every decision a human player would make through the
+ * UI, its moves and rotations are played by {@link BotGame} and the rest are asked for through {@link BotInteraction}.
+ *
+ * @author Group 16
+ * @version 1.3 Valid move masks.
+ */
+public interface Bot {
+
+   /**
+    * Chooses the tile to sail to.
+    *
+    * @param board      The board being played on.
+    * @param player     The player the bot is playing for.
+    * @param validMoves The mask of the tiles which may be sailed to, see {@link Board#getValidMoves(long[])}, never
+    *                   empty.
+    * @return One of the valid moves.
+    */
+   Tile chooseMove(Board board, Player player, long[] validMoves);
+
+   /**
+    * Chooses which way to face at the end of a move.
+    *
+    * @param board     The board being played on.
+    * @param player    The player the bot is playing for.
+    * @param rotations The orientations which may be chosen, never empty.
+    * @return One of the rotations.
+    */
+   Orientation chooseRotation(Board board, Player player, List<Orientation> rotations);
+
+   /**
+    * Chooses whether to attack a ship which sailed over this player's ship.
+    *
+    * @param defender The player the bot is playing for.
+    * @param attacker The player who sailed over.
+    * @return True to engage in combat.
+    */
+   boolean engage(Player defender, Player attacker);
+
+   /**
+    * Chooses between treasure and crew cards from a chance card.
+    *
+    * @param player The player the bot is playing for.
+    * @return True for treasure, false for crew cards.
+    */
+   boolean chooseTreasure(Player player);
+
+   /**
+    * Chooses another player, e.g. to steal crew cards from.
+    *
+    * @param chooser    The player the bot is playing for.
+    * @param candidates The players which can be chosen.
+    * @return One of the candidates.
+    */
+   Player selectPlayer(Player chooser, List<Player> candidates);
+
+   /**
+    * Chooses what to trade with a port. The trade is made by the caller, so a bot only looks at the game while it
+    * decides.
+    *
+    * @param trade The trade offered to the player the bot is playing for.
+    * @return The indexes of the items to give and take, as passed to {@link Trade#accept(int[], int[])}, or null to
+    * not trade.
+    */
+   int[][] chooseTrade(Trade trade);
+}
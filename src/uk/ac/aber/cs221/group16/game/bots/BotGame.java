@@ -0,0 +1,82 @@
+/*
+* @(#) BotGame.java 1.0 2017/04/01
+*
+* Copyright (c) 2017 Aberystwyth University.
+* All rights reserved.
+*
+*/
+
+package uk.ac.aber.cs221.group16.game.bots;
+
+import uk.ac.aber.cs221.group16.game.Game;
+import uk.ac.aber.cs221.group16.game.map.BitBoard;
+import uk.ac.aber.cs221.group16.game.map.Board;
+import uk.ac.aber.cs221.group16.game.map.Orientation;
+import uk.ac.aber.cs221.group16.game.players.Player;
+
+import java.util.List;
+
+/**
+ * This class plays a game between bots with no display. Each call to {@link #play()} runs the game on the calling
+ * thread until someone wins or the turn limit is reached, so many games can be played in parallel.
+ *
+ * @author Group 16
+ * @version 1.2 Valid move masks.
+ */
+public class BotGame {
+
+   // Instance Variables
+   private Game game;
+   private BotInteraction interaction;
+   private int maxTurns;
+
+   // Constructors
+
+   /**
+    * Creates a game between bots, the bot for each player is chosen by the player's ID.
+    *
+    * @param names    The names of the players.
+    * @param bots     The bots, indexed by player ID.
+    * @param maxTurns The number of turns after which the game is abandoned.
+    * @param seed     The seed of the game, see {@link Game#getSeed()}.
+    */
+   public BotGame(List<String> names, Bot[] bots, int maxTurns, long seed) {
+      interaction = new BotInteraction(bots);
+      game = new Game(names, interaction, seed);
+      this.maxTurns = maxTurns;
+   }
+
+   // Public Methods
+
+   /**
+    * Plays the game until it is won or {@link #maxTurns} turns have been taken.
+    *
+    * @return The winner, or null if the turn limit was reached.
+    */
+   public Player play() {
+      Board board = game.getBoard();
+      long[] moves = BitBoard.newMask();
+      game.start();
+      while (!game.isGameOver() && game.getTurnNumber() < maxTurns) {
+         Player player = board.getCurrentPlayer();
+         Bot bot = interaction.getBot(player);
+         if (!board.getValidMoves(moves)) {
+            // either the move is over or the ship is facing land next to Treasure Island, so it can only turn.
+            List<Orientation> rotations = board.getValidRotations();
+            board.rotate(bot.chooseRotation(board, player, rotations));
+         } else {
+            board.sail(bot.chooseMove(board, player, moves));
+         }
+      }
+      return game.getWinner();
+   }
+
+   /**
+    * Gets the game being played.
+    *
+    * @return The game.
+    */
+   public Game getGame() {
+      return game;
+   }
+}
@@ -0,0 +1,85 @@
+/*
+* @(#) BotInteraction.java 1.0 2017/04/01
+*
+* Copyright (c) 2017 Aberystwyth University.
+* All rights reserved.
+*
+*/
+
+package uk.ac.aber.cs221.group16.game.bots;
+
+import uk.ac.aber.cs221.group16.game.Interaction;
+import uk.ac.aber.cs221.group16.game.Trade;
+import uk.ac.aber.cs221.group16.game.players.Player;
+
+import java.util.List;
+
+/**
+ * This class answers the game's {@link Interaction} calls for a table of bots. Messages are ignored and each decision
+ * is passed to the bot of the player who has to make it, found by the player's ID.
+ *
+ * @author Group 16
+ * @version 1.1 MCTS bot.
+ */
+public class BotInteraction implements Interaction {
+
+   // Instance Variables
+   private Bot[] bots;
+
+   // Constructors
+
+   /**
+    * Creates an interaction for a table of bots.
+    *
+    * @param bots The bots indexed by the ID of the player they play for.
+    */
+   public BotInteraction(Bot[] bots) {
+      this.bots = bots;
+   }
+
+   // Public Methods
+
+   /**
+    * Gets the bot playing for a player.
+    *
+    * @param player The player.
+    * @return The bot which makes the player's decisions.
+    */
+   public Bot getBot(Player player) {
+      return bots[player.getId()];
+   }
+
+   @Override
+   public void inform(String message) {
+   }
+
+   @Override
+   public boolean engage(Player defender, Player attacker) {
+      return getBot(defender).engage(defender, attacker);
+   }
+
+   @Override
+   public boolean chooseTreasure(Player player, String question) {
+      return getBot(player).chooseTreasure(player);
+   }
+
+   @Override
+   public Player selectPlayer(Player chooser, List<Player> candidates, String message) {
+      return getBot(chooser).selectPlayer(chooser, candidates);
+   }
+
+   @Override
+   public void trade(Trade trade) {
+      int[][] chosen = getBot(trade.getPlayer()).chooseTrade(trade);
+      if (chosen != null)
+         trade.accept(chosen[0], chosen[1]);
+   }
+
+   @Override
+   public void currentPlayerChanged(Player previous, Player current) {
+   }
+
+   @Override
+   public void gameOver(Player winner) {
+   }
+}
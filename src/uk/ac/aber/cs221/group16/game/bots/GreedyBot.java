@@ -0,0 +1,198 @@
+/*
+* @(#) GreedyBot.java 1.0 2017/04/01
+*
+* Copyright (c) 2017 Aberystwyth University.
+* All rights reserved.
+*
+*/
+
+package uk.ac.aber.cs221.group16.game.bots;
+
+import uk.ac.aber.cs221.group16.game.Trade;
+import uk.ac.aber.cs221.group16.game.map.BitBoard;
+import uk.ac.aber.cs221.group16.game.map.Board;
+import uk.ac.aber.cs221.group16.game.map.Orientation;
+import uk.ac.aber.cs221.group16.game.map.tiles.FlatIslandTile;
+import uk.ac.aber.cs221.group16.game.map.tiles.IslandTile;
+import uk.ac.aber.cs221.group16.game.map.tiles.Tile;
+import uk.ac.aber.cs221.group16.game.players.Player;
+import uk.ac.aber.cs221.group16.game.utils.GameRandom;
+import uk.ac.aber.cs221.group16.game.utils.MoveAssistance;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A simple bot which always heads for the nearest place to get treasure. With an empty hold it sails towards Treasure
+ * Island, or Flat Island if there is treasure there, and once it is carrying treasure it sails home to deposit it.
+ * Ties are broken randomly. It only fights back when it is at least as strong as the attacker and never trades.
+ *
+ * @author Group 16
+ * @version 1.3 Valid move masks.
+ */
+public class GreedyBot implements Bot {
+
+   // Instance Variables
+   private GameRandom random;
+   private Board targetsBoard;
+   private List<Tile> treasureIslandTargets;
+   private List<Tile> flatIslandTargets;
+
+   // Constructors
+
+   /**
+    * Creates a bot which uses the random number generator given to break ties.
+    *
+    * @param random The random number generator.
+    */
+   public GreedyBot(GameRandom random) {
+      this.random = random;
+   }
+
+   // Public Methods
+
+   @Override
+   public Tile chooseMove(Board board, Player player, long[] validMoves) {
+      List<Tile> targets = getTargets(board, player);
+      int best = -1;
+      int bestDist = Integer.MAX_VALUE;
+      int ties = 0;
+      for (int move = BitBoard.nextSetBit(validMoves, 0); move >= 0; move = BitBoard.nextSetBit(validMoves, move + 1)) {
+         int dist = distance(BitBoard.xOf(move), BitBoard.yOf(move), targets);
+         if (dist < bestDist) {
+            best = move;
+            bestDist = dist;
+            ties = 1;
+         } else if (dist == bestDist && random.nextInt(++ties) == 0) {
+            // reservoir sample so each tied move is equally likely.
+            best = move;
+         }
+      }
+      return board.getGrid()[BitBoard.xOf(best)][BitBoard.yOf(best)];
+   }
+
+   @Override
+   public Orientation chooseRotation(Board board, Player player, List<Orientation> rotations) {
+      List<Tile> targets = getTargets(board, player);
+      int moveDist = player.getMovementDistance();
+      Orientation best = null;
+      int bestDist = Integer.MAX_VALUE;
+      int ties = 0;
+      for (Orientation o : rotations) {
+         int x = clamp(player.getShip().getX() + o.getDx() * moveDist, Board.gridWidth);
+         int y = clamp(player.getShip().getY() + o.getDy() * moveDist, Board.gridHeight);
+         int dist = distance(x, y, targets);
+         if (dist < bestDist) {
+            best = o;
+            bestDist = dist;
+            ties = 1;
+         } else if (dist == bestDist && random.nextInt(++ties) == 0) {
+            best = o;
+         }
+      }
+      return best;
+   }
+
+   @Override
+   public boolean engage(Player defender, Player attacker) {
+      return defender.getFightingStrength() >= attacker.getFightingStrength();
+   }
+
+   @Override
+   public boolean chooseTreasure(Player player) {
+      return player.getShip().getRemainingCapacity() > 0;
+   }
+
+   @Override
+   public Player selectPlayer(Player chooser, List<Player> candidates) {
+      Player best = candidates.get(0);
+      for (Player candidate : candidates) {
+         if (candidate.getCrewCards().size() > best.getCrewCards().size())
+            best = candidate;
+      }
+      return best;
+   }
+
+   @Override
+   public int[][] chooseTrade(Trade trade) {
+      return null;
+   }
+
+   // Private Methods
+
+   /**
+    * Gets the tiles the player should be heading for.
+    *
+    * @param board  The board being played on.
+    * @param player The player.
+    * @return The home port if the player is carrying treasure, otherwise the tiles where treasure can be found.
+    */
+   private List<Tile> getTargets(Board board, Player player) {
+      if (board != targetsBoard)
+         findTargets(board);
+      if (player.getShip().getCargo().size() > 0) {
+         List<Tile> home = new ArrayList<>();
+         home.add(player.getHomePort());
+         return home;
+      }
+      if (board.getFlatIslandContainer().getTreasurePile().size() > 0) {
+         List<Tile> targets = new ArrayList<>(treasureIslandTargets);
+         targets.addAll(flatIslandTargets);
+         return targets;
+      }
+      return treasureIslandTargets;
+   }
+
+   /**
+    * Finds the sailable tiles next to Treasure Island and Flat Island, these don't change during a game.
+    *
+    * @param board The board being played on.
+    */
+   private void findTargets(Board board) {
+      targetsBoard = board;
+      treasureIslandTargets = new ArrayList<>();
+      flatIslandTargets = new ArrayList<>();
+      BitBoard bitBoard = board.getBitBoard();
+      for (int x = 0; x < Board.gridWidth; x++) {
+         for (int y = 0; y < Board.gridHeight; y++) {
+            if (!bitBoard.isSailable(x, y))
+               continue;
+            if (bitBoard.isNextToTreasureIsland(x, y))
+               treasureIslandTargets.add(board.getGrid()[x][y]);
+            for (IslandTile islandTile : MoveAssistance.getSurroundingIslandTiles(x, y, board.getGrid())) {
+               if (islandTile instanceof FlatIslandTile) {
+                  flatIslandTargets.add(board.getGrid()[x][y]);
+                  break;
+               }
+            }
+         }
+      }
+   }
+
+   /**
+    * Gets the number of moves a ship at a coordinate is from the nearest target, ignoring land.
+    *
+    * @param x       The x coordinate.
+    * @param y       The y coordinate.
+    * @param targets The targets.
+    * @return The smallest distance.
+    */
+   private int distance(int x, int y, List<Tile> targets) {
+      int best = Integer.MAX_VALUE;
+      for (Tile t : targets) {
+         best = Math.min(best, Math.max(Math.abs(t.getX() - x), Math.abs(t.getY() - y)));
+      }
+      return best;
+   }
+
+   /**
+    * Keeps a coordinate on the board.
+    *
+    * @param v    The coordinate.
+    * @param size The size of the board in that dimension.
+    * @return The coordinate moved onto the board if it was off it.
+    */
+   private int clamp(int v, int size) {
+      return Math.max(0, Math.min(size - 1, v));
+   }
+}
@@ -0,0 +1,676 @@
+/*
+* @(#) MctsBot.java 1.0 2017/04/01
+*
+* Copyright (c) 2017 Aberystwyth University.
+* All rights reserved.
+*
+*/
+
+package uk.ac.aber.cs221.group16.game.bots;
+
+import uk.ac.aber.cs221.group16.game.Game;
+import uk.ac.aber.cs221.group16.game.Trade;
+import uk.ac.aber.cs221.group16.game.TradeSearch;
+import uk.ac.aber.cs221.group16.game.items.cards.ChanceCard;
+import uk.ac.aber.cs221.group16.game.items.cards.CrewCard;
+import uk.ac.aber.cs221.group16.game.items.treasures.Treasure;
+import uk.ac.aber.cs221.group16.game.log.Fork;
+import uk.ac.aber.cs221.group16.game.log.Replay;
+import uk.ac.aber.cs221.group16.game.map.BitBoard;
+import uk.ac.aber.cs221.group16.game.map.Board;
+import uk.ac.aber.cs221.group16.game.map.Orientation;
+import uk.ac.aber.cs221.group16.game.map.tiles.Tile;
+import uk.ac.aber.cs221.group16.game.players.Player;
+import uk.ac.aber.cs221.group16.game.utils.GameRandom;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * A bot which plans with Information Set Monte Carlo Tree Search. For every decision it copies the game with a
+ * {@link Fork} and plays it on many times, each time with the hidden order of the chance card deck and Pirate Island's
+ * crew cards shuffled, so it never plans around cards it couldn't know about. The moves and rotations of every player
+ * for the first few actions are chosen by a search tree shared between the copies, where each player picks what is
+ * best for them, and the rest of each copy is played out for {@link #rolloutTurns} turns by {@link GreedyBot}s. The
+ * choice which was tried the most is made.
+ * <p>
+ * The same search is used for deciding whether to engage, treasure or crew cards, which player to choose and what to
+ * trade, the copy is taken part of the way through the action and each option is tried in it.
+ * <p>
+ * The copies are played on several threads at once, each decision takes {@link #getBudget()} milliseconds whatever the
+ * number of threads. Bots made with {@link #MctsBot(GameRandom)} all search on one shared pool of threads, so making
+ * new bots for every game doesn't start more threads. A thread counts its visit to a part of the tree before it knows
+ * the result, so other threads are less likely to all try the same thing. Each thread makes all of its copies in one
+ * game of its own, which is restored from the fork every time rather than set up again.
+ * <p>
+ * The same position is often reached by different choices, e.g. sailing the same tiles in a different order, and is
+ * searched again a turn later. The results of positions are kept in a {@link TranspositionTable} by their hash for the
+ * whole game, and a choice leading to a position which is known better than the choice itself is judged by the table.
+ *
+ * @author Group 16
+ * @version 1.6 Valid move masks.
+ */
+public class MctsBot implements Bot {
+
+   // Constants
+   public static final long defaultBudget = 1000;
+   private static final double exploration = 0.7;
+   private static final int rolloutTurns = 12;
+   private static final int maxTradeOptions = 16;
+
+   // Static Variables
+   private static ForkJoinPool sharedPool;
+
+   // Instance Variables
+   private GameRandom random;
+   private long budget;
+   private int threads;
+   private ForkJoinPool pool;
+   private GreedyBot fallback;
+   private TranspositionTable table = new TranspositionTable();
+   private Game game;
+   private int lastIterations;
+
+   // Constructors
+
+   /**
+    * Creates a bot which takes {@link #defaultBudget} milliseconds for each decision and searches on the pool shared by
+    * all such bots, which has a thread for every core.
+    *
+    * @param random The random number generator.
+    */
+   public MctsBot(GameRandom random) {
+      this(random, defaultBudget, getSharedPool());
+   }
+
+   /**
+    * Creates a bot which searches with as many threads as the pool's parallelism. The bot never shuts the pool down, so
+    * it can be shared by several bots, which then take turns to use it.
+    *
+    * @param random The random number generator.
+    * @param budget The number of milliseconds to spend on each decision.
+    * @param pool   The pool to search on.
+    */
+   public MctsBot(GameRandom random, long budget, ForkJoinPool pool) {
+      if (budget < 1)
+         throw new IllegalArgumentException("Budget must be at least 1");
+      this.random = random;
+      this.budget = budget;
+      this.threads = pool.getParallelism();
+      this.pool = pool;
+      this.fallback = new GreedyBot(random.split());
+   }
+
+   // Public Methods
+
+   @Override
+   public Tile chooseMove(Board board, Player player, long[] validMoves) {
+      game = board.getGame();
+      int[] actions = encode(validMoves, Collections.emptyList());
+      int best = actions.length == 1 ? actions[0] : search(new Search(Decision.Action, player, actions));
+      return board.getGrid()[best / Board.gridHeight][best % Board.gridHeight];
+   }
+
+   @Override
+   public Orientation chooseRotation(Board board, Player player, List<Orientation> rotations) {
+      game = board.getGame();
+      if (rotations.size() == 1)
+         return rotations.get(0);
+      int[] actions = new int[rotations.size()];
+      for (int i = 0; i < actions.length; i++)
+         actions[i] = encode(rotations.get(i));
+      return Orientation.values()[-1 - search(new Search(Decision.Action, player, actions))];
+   }
+
+   @Override
+   public boolean engage(Player defender, Player attacker) {
+      if (!isPlaying(defender))
+         return fallback.engage(defender, attacker);
+      return search(new Search(Decision.Engage, defender, new int[]{1, 0})) == 1;
+   }
+
+   @Override
+   public boolean chooseTreasure(Player player) {
+      if (!isPlaying(player))
+         return fallback.chooseTreasure(player);
+      return search(new Search(Decision.ChooseTreasure, player, new int[]{1, 0})) == 1;
+   }
+
+   @Override
+   public Player selectPlayer(Player chooser, List<Player> candidates) {
+      // choosing a player with no crew cards only gets the question asked again, and searched again.
+      candidates = withCrew(candidates);
+      if (!isPlaying(chooser) || candidates.size() == 1)
+         return fallback.selectPlayer(chooser, candidates);
+      int[] ids = new int[candidates.size()];
+      for (int i = 0; i < ids.length; i++)
+         ids[i] = candidates.get(i).getId();
+      int best = search(new Search(Decision.SelectPlayer, chooser, ids));
+      for (Player candidate : candidates) {
+         if (candidate.getId() == best)
+            return candidate;
+      }
+      return candidates.get(0);
+   }
+
+   @Override
+   public int[][] chooseTrade(Trade trade) {
+      List<int[][]> options = tradeOptions(trade);
+      if (!isPlaying(trade.getPlayer()) || options.size() == 1)
+         return null;
+      int[] keys = new int[options.size()];
+      for (int i = 0; i < keys.length; i++)
+         keys[i] = i;
+      Search search = new Search(Decision.Trade, trade.getPlayer(), keys);
+      search.tradeOptions = options;
+      return options.get(search(search));
+   }
+
+   /**
+    * Gets the number of milliseconds spent on each decision.
+    *
+    * @return The budget.
+    */
+   public long getBudget() {
+      return budget;
+   }
+
+   /**
+    * Gets the number of copies of the game played out for the last decision which was searched.
+    *
+    * @return The iteration count.
+    */
+   public int getLastIterations() {
+      return lastIterations;
+   }
+
+   // Private Methods
+
+   /**
+    * Checks the bot knows the game a player is in, which it finds out from the board given with its first move.
+    *
+    * @param player The player.
+    * @return True if the bot can search the player's game.
+    */
+   private boolean isPlaying(Player player) {
+      return game != null && game.getPlayers()[player.getId()] == player;
+   }
+
+   /**
+    * Searches from the current moment of the game for the budget, then gives the option which was tried the most.
+    *
+    * @param search The decision to search.
+    * @return The key of the chosen option.
+    */
+   private int search(Search search) {
+      long deadline = System.nanoTime() + budget * 1000000L;
+      List<ForkJoinTask<Integer>> tasks = new ArrayList<>();
+      for (int i = 0; i < threads; i++) {
+         GameRandom threadRandom = random.split();
+         tasks.add(pool.submit(() -> {
+            // every copy the thread plays out is made in the same game, rather than setting up a new one each time.
+            Replay replay = search.fork.newReplay();
+            int iterations = 0;
+            do {
+               iterate(search, threadRandom, replay);
+               iterations++;
+            } while (System.nanoTime() < deadline);
+            return iterations;
+         }));
+      }
+      lastIterations = 0;
+      for (ForkJoinTask<Integer> task : tasks)
+         lastIterations += task.join();
+      return search.root.mostVisited(search.keys);
+   }
+
+   /**
+    * Plays out one copy of the game, going down the tree while it can, then with greedy bots, and adds the result to
+    * every choice on the way.
+    *
+    * @param search The decision being searched.
+    * @param random The random number generator of the thread.
+    * @param replay The replay of the thread, which the copy is made in.
+    */
+   private void iterate(Search search, GameRandom random, Replay replay) {
+      List<Node> path = new ArrayList<>();
+      List<Integer> actors = new ArrayList<>();
+      boolean[] expanded = new boolean[1];
+      Node node = search.root;
+      boolean inTree = true;
+
+      Bot[] bots = new Bot[Game.numPlayers];
+      for (int i = 0; i < bots.length; i++)
+         bots[i] = new GreedyBot(random.split());
+      SimulatedInteraction interaction = new SimulatedInteraction(bots);
+      if (search.decision != Decision.Action) {
+         // the option is given to the copy when it asks for the decision the fork was taken during.
+         node = node.select(search.keys, expanded, table);
+         path.add(node);
+         actors.add(search.playerId);
+         inTree = !expanded[0];
+         interaction.setAnswer(search, node.key);
+      }
+      Game copy = search.fork.make(interaction, replay);
+      determinize(copy, random);
+
+      Board board = copy.getBoard();
+      if (!path.isEmpty())
+         node.setHash(board.getHash());
+      int lastTurn = copy.getTurnNumber() + rolloutTurns;
+      long[] moves = BitBoard.newMask();
+      while (!copy.isGameOver() && copy.getTurnNumber() < lastTurn) {
+         Player player = board.getCurrentPlayer();
+         boolean canMove = board.getValidMoves(moves);
+         List<Orientation> rotations = canMove ? Collections.emptyList() : board.getValidRotations();
+         if (!canMove && rotations.isEmpty())
+            break;
+         int action;
+         Node chosen = null;
+         if (inTree) {
+            node = node.select(encode(moves, rotations), expanded, table);
+            path.add(node);
+            actors.add(player.getId());
+            inTree = !expanded[0];
+            action = node.key;
+            chosen = node;
+         } else if (!canMove) {
+            action = encode(bots[player.getId()].chooseRotation(board, player, rotations));
+         } else {
+            action = encode(bots[player.getId()].chooseMove(board, player, moves));
+         }
+         if (action >= 0)
+            board.sail(board.getGrid()[action / Board.gridHeight][action % Board.gridHeight]);
+         else
+            board.rotate(Orientation.values()[-1 - action]);
+         if (chosen != null)
+            chosen.setHash(board.getHash());
+      }
+
+      double[] rewards = evaluate(copy);
+      for (int i = 0; i < path.size(); i++) {
+         Node visited = path.get(i);
+         double reward = rewards[actors.get(i)];
+         visited.addReward(reward);
+         if (visited.hash != 0)
+            table.add(visited.hash, reward);
+      }
+   }
+
+   // Static Methods
+
+   /**
+    * Gets the pool shared by bots made with {@link #MctsBot(GameRandom)}, making it the first time. Its threads are
+    * daemons which end by themselves once they have been idle for a while, so it is never shut down.
+    *
+    * @return The pool, with a thread for every core.
+    */
+   private static synchronized ForkJoinPool getSharedPool() {
+      if (sharedPool == null)
+         sharedPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+      return sharedPool;
+   }
+
+   /**
+    * Encodes a move as the index of the tile.
+    *
+    * @param tile The tile to move to.
+    * @return The action, which is never negative.
+    */
+   private static int encode(Tile tile) {
+      return tile.getX() * Board.gridHeight + tile.getY();
+   }
+
+   /**
+    * Encodes a rotation.
+    *
+    * @param orientation The orientation to rotate to.
+    * @return The action, which is always negative.
+    */
+   private static int encode(Orientation orientation) {
+      return -1 - orientation.ordinal();
+   }
+
+   /**
+    * Encodes the actions a player can take, their moves or if they can't move their rotations.
+    *
+    * @param moves     The mask of the valid moves.
+    * @param rotations The valid rotations, used if there are no moves.
+    * @return The actions.
+    */
+   private static int[] encode(long[] moves, List<Orientation> rotations) {
+      int count = BitBoard.count(moves);
+      int[] actions = new int[count == 0 ? rotations.size() : count];
+      int i = 0;
+      if (count == 0) {
+         for (Orientation o : rotations)
+            actions[i++] = encode(o);
+      } else {
+         for (int cell = BitBoard.nextSetBit(moves, 0); cell >= 0; cell = BitBoard.nextSetBit(moves, cell + 1))
+            actions[i++] = BitBoard.xOf(cell) * Board.gridHeight + BitBoard.yOf(cell);
+      }
+      return actions;
+   }
+
+   /**
+    * Shuffles everything in a copy of the game which the players can't see, which is the order of the chance card
+    * deck and of the crew cards on Pirate Island.
+    *
+    * @param copy   The copy.
+    * @param random The random number generator.
+    */
+   private static void determinize(Game copy, GameRandom random) {
+      Queue<ChanceCard> deck = copy.getBoard().getTreasureIslandContainer().getChanceCards();
+      List<ChanceCard> chanceCards = new ArrayList<>(deck);
+      random.shuffle(chanceCards);
+      deck.clear();
+      deck.addAll(chanceCards);
+
+      Queue<CrewCard> pile = copy.getBoard().getPirateIslandContainer().getCrewCards();
+      List<CrewCard> crewCards = new ArrayList<>(pile);
+      random.shuffle(crewCards);
+      pile.clear();
+      pile.addAll(crewCards);
+   }
+
+   /**
+    * Scores the end of a copy for each player. A win is 1 and a loss 0, otherwise a player is scored on how far ahead
+    * of their closest rival they are, counting treasure at home and half of the treasure on their ship.
+    *
+    * @param copy The copy.
+    * @return The score of each player between 0 and 1, indexed by ID.
+    */
+   private static double[] evaluate(Game copy) {
+      Player[] players = copy.getPlayers();
+      double[] rewards = new double[players.length];
+      if (copy.isGameOver()) {
+         rewards[copy.getWinner().getId()] = 1;
+         return rewards;
+      }
+      double[] progress = new double[players.length];
+      for (Player player : players) {
+         double cargo = 0;
+         for (Treasure treasure : player.getShip().getCargo())
+            cargo += treasure.getValue();
+         progress[player.getId()] = Math.min(1, (player.getHomePort().getTotalValue() + cargo / 2) /
+                 Board.treasureValueToWin);
+      }
+      for (int i = 0; i < players.length; i++) {
+         double rival = 0;
+         for (int j = 0; j < players.length; j++) {
+            if (j != i)
+               rival = Math.max(rival, progress[j]);
+         }
+         rewards[i] = 0.5 + 0.5 * (progress[i] - rival);
+      }
+      return rewards;
+   }
+
+   /**
+    * Lists the trades to try, which are declining and the best fair trades found by a {@link TradeSearch}.
+    *
+    * @param trade The trade offered.
+    * @return The options, the first of which is null for declining.
+    */
+   private static List<int[][]> tradeOptions(Trade trade) {
+      List<int[][]> options = new ArrayList<>();
+      options.add(null);
+      for (TradeSearch.Suggestion suggestion : new TradeSearch(trade).search(maxTradeOptions - 1))
+         options.add(new int[][]{suggestion.getFromPlayer(), suggestion.getFromPort()});
+      return options;
+   }
+
+   /**
+    * Leaves out the players with no crew cards, which a card can't steal from.
+    *
+    * @param candidates The players which can be chosen.
+    * @return The candidates with crew cards, or all of them if none have any.
+    */
+   private static List<Player> withCrew(List<Player> candidates) {
+      List<Player> withCrew = new ArrayList<>();
+      for (Player candidate : candidates) {
+         if (!candidate.getCrewCards().isEmpty())
+            withCrew.add(candidate);
+      }
+      return withCrew.isEmpty() ? candidates : withCrew;
+   }
+
+   // Inner Classes
+
+   /**
+    * The kinds of decision which can be searched.
+    */
+   private enum Decision {
+      Action, Engage, ChooseTreasure, SelectPlayer, Trade
+   }
+
+   /**
+    * A decision being searched, with the fork the copies are made from and the root of the tree.
+    */
+   private class Search {
+
+      private Decision decision;
+      private int playerId;
+      private int[] keys;
+      private Fork fork;
+      private Node root = new Node(0);
+      private List<int[][]> tradeOptions;
+
+      /**
+       * Sets up a search, taking the fork of the game as it is now.
+       *
+       * @param decision The kind of decision.
+       * @param player   The player deciding.
+       * @param keys     The options, actions for moves and rotations, otherwise as described by the decision.
+       */
+      private Search(Decision decision, Player player, int[] keys) {
+         this.decision = decision;
+         this.playerId = player.getId();
+         this.keys = keys;
+         this.fork = new Fork(game);
+      }
+   }
+
+   /**
+    * A choice in the search tree, which is shared between threads.
+    */
+   private static class Node {
+
+      private int key;
+      private volatile long hash;
+      private int visits;
+      private double reward;
+      private Map<Integer, Node> children = new HashMap<>();
+
+      /**
+       * Creates a node.
+       *
+       * @param key The choice which leads to the node.
+       */
+      private Node(int key) {
+         this.key = key;
+      }
+
+      /**
+       * Picks the child to go down to. A choice which hasn't been tried is tried first, otherwise the child with the
+       * best upper confidence bound is picked. The visit is counted straight away.
+       *
+       * @param keys     The choices which can be made in the copy being played.
+       * @param expanded Set to whether the child was just added to the tree.
+       * @param table    The results of positions.
+       * @return The child.
+       */
+      private synchronized Node select(int[] keys, boolean[] expanded, TranspositionTable table) {
+         visits++;
+         Node best = null;
+         double bestScore = Double.NEGATIVE_INFINITY;
+         for (int key : keys) {
+            Node child = children.get(key);
+            if (child == null) {
+               child = new Node(key);
+               children.put(key, child);
+               child.visit();
+               expanded[0] = true;
+               return child;
+            }
+            double score = child.score(visits, table);
+            if (score > bestScore) {
+               best = child;
+               bestScore = score;
+            }
+         }
+         best.visit();
+         expanded[0] = false;
+         return best;
+      }
+
+      /**
+       * Sets the hash of the position the choice leads to, once it is known.
+       *
+       * @param hash The hash.
+       */
+      private void setHash(long hash) {
+         this.hash = hash;
+      }
+
+      /**
+       * Counts a visit before its result is known.
+       */
+      private synchronized void visit() {
+         visits++;
+      }
+
+      /**
+       * Adds the result of a visit.
+       *
+       * @param value The score of the player who made the choice.
+       */
+      private synchronized void addReward(double value) {
+         reward += value;
+      }
+
+      /**
+       * Gets the upper confidence bound of the node. If the position the choice leads to has been visited more often
+       * than the choice, by other choices or earlier searches, its average in the table is used instead.
+       *
+       * @param parentVisits The number of visits to the parent.
+       * @param table        The results of positions.
+       * @return The score.
+       */
+      private synchronized double score(int parentVisits, TranspositionTable table) {
+         double mean = reward / visits;
+         if (hash != 0) {
+            long known = table.probe(hash);
+            int knownVisits = TranspositionTable.getVisits(known);
+            if (knownVisits > visits)
+               mean = TranspositionTable.getReward(known) / knownVisits;
+         }
+         return mean + exploration * Math.sqrt(Math.log(parentVisits) / visits);
+      }
+
+      /**
+       * Gets the choice which was tried the most.
+       *
+       * @param keys The choices, the first is picked if none were tried.
+       * @return The key of the choice.
+       */
+      private synchronized int mostVisited(int[] keys) {
+         int best = keys[0];
+         int bestVisits = 0;
+         for (int key : keys) {
+            Node child = children.get(key);
+            if (child != null && child.visits > bestVisits) {
+               best = key;
+               bestVisits = child.visits;
+            }
+         }
+         return best;
+      }
+   }
+
+   /**
+    * Answers the decisions of a copy with greedy bots, except the decision being searched which is given the option
+    * being tried.
+    */
+   private static class SimulatedInteraction extends BotInteraction {
+
+      private Decision decision;
+      private int playerId = -1;
+      private int answer;
+      private List<int[][]> tradeOptions;
+
+      /**
+       * Creates an interaction.
+       *
+       * @param bots The bots, indexed by player ID.
+       */
+      private SimulatedInteraction(Bot[] bots) {
+         super(bots);
+      }
+
+      /**
+       * Sets the option to answer the decision being searched with.
+       *
+       * @param search The search.
+       * @param answer The key of the option.
+       */
+      private void setAnswer(Search search, int answer) {
+         this.decision = search.decision;
+         this.playerId = search.playerId;
+         this.answer = answer;
+         this.tradeOptions = search.tradeOptions;
+      }
+
+      /**
+       * Checks whether a decision is the one being searched, which is only answered once.
+       *
+       * @param type   The kind of decision.
+       * @param player The player deciding.
+       * @return True if the option should be used.
+       */
+      private boolean isSearched(Decision type, Player player) {
+         if (decision != type || player.getId() != playerId)
+            return false;
+         decision = null;
+         return true;
+      }
+
+      @Override
+      public boolean engage(Player defender, Player attacker) {
+         if (isSearched(Decision.Engage, defender))
+            return answer == 1;
+         return super.engage(defender, attacker);
+      }
+
+      @Override
+      public boolean chooseTreasure(Player player, String question) {
+         if (isSearched(Decision.ChooseTreasure, player))
+            return answer == 1;
+         return super.chooseTreasure(player, question);
+      }
+
+      @Override
+      public Player selectPlayer(Player chooser, List<Player> candidates, String message) {
+         // the question is asked again if the chosen player had no crew cards, the greedy bot answers it then.
+         if (isSearched(Decision.SelectPlayer, chooser)) {
+            for (Player candidate : withCrew(candidates)) {
+               if (candidate.getId() == answer)
+                  return candidate;
+            }
+         }
+         return super.selectPlayer(chooser, withCrew(candidates), message);
+      }
+
+      @Override
+      public void trade(Trade trade) {
+         if (isSearched(Decision.Trade, trade.getPlayer())) {
+            int[][] chosen = tradeOptions.get(answer);
+            if (chosen != null)
+               trade.accept(chosen[0], chosen[1]);
+            return;
+         }
+         super.trade(trade);
+      }
+   }
+}
@@ -0,0 +1,181 @@
+/*
+* @(#) TranspositionTable.java 1.0 2017/04/01
+*
+* Copyright (c) 2017 Aberystwyth University.
+* All rights reserved.
+*
+*/
+
+package uk.ac.aber.cs221.group16.game.bots;
+
+import uk.ac.aber.cs221.group16.game.utils.Zobrist;
+
+import java.util.Arrays;
+
+/**
+ * This class remembers how well positions have done in searches, by their {@link Zobrist} hash, so a position reached
+ * by different choices, or searched again on a later turn, starts from what is already known about it. Each entry
+ * holds the number of visits to a position and the total reward they scored.
+ * <p>
+ * The table is a fixed number of entries in one long array, two longs per entry: the hash XORed with the data, then
+ * the data. Threads share it without locks. A thread reading an entry while another writes it may see half of each
+ * write, the check that the first long XOR the second is the hash fails and the entry is treated as missing. Two
+ * threads adding to the same entry at once can lose one of the results, which a search doesn't notice.
+ * <p>
+ * Entries are grouped in pairs. A new position replaces whichever of the pair has fewer visits.
+ *
+ * @author Group 16
+ * @version 1.0 Transposition table.
+ */
+public class TranspositionTable {
+
+   // Constants
+   public static final int defaultBits = 18;
+   private static final long visitMask = 0xFFFFFFFFL;
+
+   // Instance Variables
+   private final long[] entries;
+   private final int mask;
+
+   // Constructors
+
+   /**
+    * Creates a table with room for 2^{@link #defaultBits} positions.
+    */
+   public TranspositionTable() {
+      this(defaultBits);
+   }
+
+   /**
+    * Creates a table.
+    *
+    * @param bits The table has room for 2^bits positions.
+    */
+   public TranspositionTable(int bits) {
+      if (bits < 1 || bits > 28)
+         throw new IllegalArgumentException("Table size must be between 2^1 and 2^28 entries");
+      entries = new long[2 << bits];
+      mask = (1 << bits) - 2;
+   }
+
+   // Public Methods
+
+   /**
+    * Looks up a position.
+    *
+    * @param hash The hash of the position.
+    * @return The data of the position, 0 if it isn't in the table.
+    */
+   public long probe(long hash) {
+      int slot = find(hash);
+      return slot < 0 ? 0 : entries[slot + 1];
+   }
+
+   /**
+    * Adds the result of a visit to a position, putting it into the table if it isn't there.
+    *
+    * @param hash   The hash of the position.
+    * @param reward The reward of the visit.
+    */
+   public void add(long hash, double reward) {
+      int slot = find(hash);
+      long data;
+      if (slot < 0) {
+         slot = replace(hash);
+         data = pack(1, reward);
+      } else {
+         long old = entries[slot + 1];
+         data = pack(getVisits(old) + 1, getReward(old) + reward);
+      }
+      entries[slot] = hash ^ data;
+      entries[slot + 1] = data;
+   }
+
+   /**
+    * Empties the table.
+    */
+   public void clear() {
+      Arrays.fill(entries, 0);
+   }
+
+   /**
+    * Gets the number of positions the table has room for.
+    *
+    * @return The capacity.
+    */
+   public int getCapacity() {
+      return entries.length / 2;
+   }
+
+   // Private Methods
+
+   /**
+    * Finds the entry of a position.
+    *
+    * @param hash The hash of the position.
+    * @return The index of the entry's first long, or -1 if the position isn't in the table.
+    */
+   private int find(long hash) {
+      int slot = index(hash);
+      for (int i = 0; i < 2; i++, slot += 2) {
+         long data = entries[slot + 1];
+         if ((entries[slot] ^ data) == hash && data != 0)
+            return slot;
+      }
+      return -1;
+   }
+
+   /**
+    * Picks the entry a new position goes in, the one of its pair with fewer visits.
+    *
+    * @param hash The hash of the position.
+    * @return The index of the entry's first long.
+    */
+   private int replace(long hash) {
+      int slot = index(hash);
+      return getVisits(entries[slot + 1]) <= getVisits(entries[slot + 3]) ? slot : slot + 2;
+   }
+
+   /**
+    * Gets where the pair of entries a position can be in starts.
+    *
+    * @param hash The hash of the position.
+    * @return The index of the first long of the pair.
+    */
+   private int index(long hash) {
+      return ((int) (hash ^ hash >>> 32) & mask) << 1;
+   }
+
+   // Static Methods
+
+   /**
+    * Gets the number of visits from an entry's data.
+    *
+    * @param data The data, from {@link #probe(long)}.
+    * @return The number of visits.
+    */
+   public static int getVisits(long data) {
+      return (int) (data & visitMask);
+   }
+
+   /**
+    * Gets the total reward from an entry's data.
+    *
+    * @param data The data, from {@link #probe(long)}.
+    * @return The total reward of the visits.
+    */
+   public static double getReward(long data) {
+      return Float.intBitsToFloat((int) (data >>> 32));
+   }
+
+   /**
+    * Packs the visits and total reward of a position into a long.
+    *
+    * @param visits The number of visits.
+    * @param reward The total reward.
+    * @return The data.
+    */
+   private static long pack(int visits, double reward) {
+      return (long) Float.floatToRawIntBits((float) reward) << 32 | visits & visitMask;
+   }
+}
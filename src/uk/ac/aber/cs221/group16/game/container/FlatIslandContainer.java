@@ -12,22 +12,22 @@ import uk.ac.aber.cs221.group16.game.items.cards.CrewCard;
 import uk.ac.aber.cs221.group16.game.items.treasures.Treasure;
 
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.Queue;
 
 /**
  * A class to contain the data relating to a Flat Island group of tiles.
- * Each tile should hold a reference to their container.
+ * Each tile should hold a reference to their container. The treasure pile is kept in {@link TreasureBuckets} so the
+ * most valuable treasure can be taken without sorting the pile.
  *
  * @author Josh Smith
- * @version 1.0 Initial Design.
+ * @version 1.1 Treasure buckets.
  * @see uk.ac.aber.cs221.group16.game.map.tiles.FlatIslandTile
  */
 public class FlatIslandContainer {
 
    // Instance variables
-   private ArrayList<Treasure> treasurePile;
+   private TreasureBuckets treasurePile;
    private Queue<CrewCard> crewCards;
 
    // Constructors
@@ -36,7 +36,7 @@ public class FlatIslandContainer {
     * This default constructor initialises the container with empty collections of crewCards and treasures.
     */
    public FlatIslandContainer() {
-      this.treasurePile = new ArrayList<>();
+      this.treasurePile = new TreasureBuckets();
       this.crewCards = new LinkedList<>();
    }
 
@@ -45,9 +45,9 @@ public class FlatIslandContainer {
    /**
     * Gets the treasure pile from the container.
     *
-    * @return An ArrayList storing the treasure
+    * @return The treasure, which iterates from the most valuable to the least.
     */
-   public ArrayList<Treasure> getTreasurePile() {
+   public TreasureBuckets getTreasurePile() {
       return treasurePile;
    }
 
@@ -59,7 +59,8 @@ public class FlatIslandContainer {
     * @param treasurePile The new ArrayList of Treasure to be used.
     */
    public void setTreasurePile(ArrayList<Treasure> treasurePile) {
-      this.treasurePile = treasurePile;
+      this.treasurePile.clear();
+      this.treasurePile.addAll(treasurePile);
    }
 
    /**
@@ -103,22 +104,14 @@ public class FlatIslandContainer {
    }
 
    /**
-    * Takes all the treasures from the container.
+    * Takes the most valuable treasures from the container, of treasures of the same value the one left there first is
+    * taken first.
     *
     * @param n The number of treasures to take.
-    * @return All of the Treasures from the container as an ArrayList of Treasure.
+    * @return The Treasures taken, most valuable first, as an ArrayList of Treasure.
     */
    public ArrayList<Treasure> takeTreasure(int n) {
-      ArrayList<Treasure> taken = new ArrayList<>();
-      if (n > treasurePile.size()) n = treasurePile.size();
-      if (n > 0) {
-         Iterator<Treasure> treasures = treasurePile.stream().sorted(Treasure::valueComp).iterator();
-         while (n-- > 0)
-            taken.add(treasures.next());
-         // remove all the taken treasures from the pile on the island.
-         taken.forEach(treasurePile::remove);
-      }
-      return taken;
+      return treasurePile.takeMostValuable(n);
    }
 
    /**
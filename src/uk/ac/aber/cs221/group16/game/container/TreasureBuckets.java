@@ -0,0 +1,302 @@
+/*
+* @(#) TreasureBuckets.java 1.0 2017/04/01
+*
+* Copyright (c) 2017 Aberystwyth University.
+* All rights reserved.
+*
+*/
+
+package uk.ac.aber.cs221.group16.game.container;
+
+import uk.ac.aber.cs221.group16.game.items.treasures.Treasure;
+
+import java.util.*;
+
+/**
+ * A collection of treasure kept in one bucket per value, used by the islands so they can pick out treasure by value
+ * without sorting. Within a bucket treasures are kept in the order they were added, and the collection iterates from
+ * the most valuable bucket to the least, so it reads the same as a list of the treasures stably sorted from highest
+ * value to lowest.
+ * <p>
+ * The rules only look at the value of a treasure, so treasures of the same value, e.g. diamonds and rubies, share a
+ * bucket. Chance cards let a player take treasure up to a value, the best treasures for every value and ship capacity
+ * are worked out together by a small knapsack over the bucket counts the first time they are asked for, and kept
+ * until the treasure changes. Asking again is a table lookup which doesn't allocate.
+ *
+ * @author Group 16
+ * @version 1.1 Treasure knapsack.
+ */
+public class TreasureBuckets extends AbstractCollection<Treasure> {
+
+   // Constants
+   public static final int maxValue = 5;
+   private static final int maxPicks = 2;
+   private static final int maxTotal = maxValue * maxPicks;
+   private static final int pickBits = 4;
+   private static final int pickMask = (1 << pickBits) - 1;
+
+   // Instance Variables
+   private final List<List<Treasure>> buckets = new ArrayList<>();
+   private int size;
+   private int totalValue;
+   // changes whenever treasure is added or removed, the answers are worked out again when it has changed.
+   private int version;
+   private int solvedVersion = -1;
+   // exact[c][v] is a set of c treasures worth exactly v, see solve(), or -1 if there isn't one.
+   private final int[][] exact = new int[maxPicks + 1][maxTotal + 1];
+   private final int[][] answers = new int[maxPicks + 1][maxTotal + 1];
+
+   // Constructors
+
+   /**
+    * Creates an empty collection.
+    */
+   public TreasureBuckets() {
+      for (int value = 0; value <= maxValue; value++)
+         buckets.add(new ArrayList<>());
+   }
+
+   // Public Methods
+
+   @Override
+   public boolean add(Treasure treasure) {
+      buckets.get(treasure.getValue()).add(treasure);
+      size++;
+      version++;
+      totalValue += treasure.getValue();
+      return true;
+   }
+
+   @Override
+   public boolean remove(Object o) {
+      if (!(o instanceof Treasure) || ((Treasure) o).getValue() > maxValue)
+         return false;
+      Treasure treasure = (Treasure) o;
+      if (!buckets.get(treasure.getValue()).remove(treasure))
+         return false;
+      size--;
+      version++;
+      totalValue -= treasure.getValue();
+      return true;
+   }
+
+   @Override
+   public void clear() {
+      for (List<Treasure> bucket : buckets)
+         bucket.clear();
+      size = 0;
+      version++;
+      totalValue = 0;
+   }
+
+   @Override
+   public int size() {
+      return size;
+   }
+
+   @Override
+   public Iterator<Treasure> iterator() {
+      return new Iterator<Treasure>() {
+         private int value = maxValue + 1;
+         private Iterator<Treasure> current = Collections.emptyIterator();
+         private Iterator<Treasure> last;
+         private int lastValue;
+
+         @Override
+         public boolean hasNext() {
+            while (!current.hasNext() && value > 0)
+               current = buckets.get(--value).iterator();
+            return current.hasNext();
+         }
+
+         @Override
+         public Treasure next() {
+            if (!hasNext())
+               throw new NoSuchElementException();
+            last = current;
+            lastValue = value;
+            return current.next();
+         }
+
+         @Override
+         public void remove() {
+            if (last == null)
+               throw new IllegalStateException();
+            last.remove();
+            last = null;
+            size--;
+            version++;
+            totalValue -= lastValue;
+         }
+      };
+   }
+
+   /**
+    * Gets the number of treasures of a value.
+    *
+    * @param value The value.
+    * @return The count.
+    */
+   public int count(int value) {
+      return buckets.get(value).size();
+   }
+
+   /**
+    * Gets the total value of every treasure.
+    *
+    * @return The total.
+    */
+   public int getTotalValue() {
+      return totalValue;
+   }
+
+   /**
+    * Works out the value of the treasures {@link #takeUpTo(int, int)} would take, without taking them.
+    *
+    * @param value    The most value to take.
+    * @param capacity The number of treasures there is room for.
+    * @return The value of the treasures which would be taken.
+    */
+   public int valueUpTo(int value, int capacity) {
+      int best = solve(value, capacity);
+      int total = 0;
+      for (; best != 0; best >>>= pickBits)
+         total += best & pickMask;
+      return total;
+   }
+
+   /**
+    * Takes the best treasures worth up to a value: the set of at most two treasures with the highest total value which
+    * isn't more than the value and fits in the space left. Of sets worth the same, the one with fewer treasures is
+    * taken, then the one with the most valuable treasure. Of treasures of the same value, the one added first is
+    * taken first.
+    *
+    * @param value    The most value to take.
+    * @param capacity The number of treasures there is room for.
+    * @return The treasures taken, most valuable first.
+    */
+   public Set<Treasure> takeUpTo(int value, int capacity) {
+      return collect(solve(value, capacity), true);
+   }
+
+   /**
+    * Gets the treasures {@link #takeUpTo(int, int)} would take, without taking them.
+    *
+    * @param value    The most value to take.
+    * @param capacity The number of treasures there is room for.
+    * @return The treasures, most valuable first.
+    */
+   public Set<Treasure> peekUpTo(int value, int capacity) {
+      return collect(solve(value, capacity), false);
+   }
+
+   /**
+    * Takes the most valuable treasures. Of treasures of the same value, the one added first is taken first.
+    *
+    * @param n The number of treasures to take, fewer are taken if there aren't enough.
+    * @return The treasures, most valuable first.
+    */
+   public ArrayList<Treasure> takeMostValuable(int n) {
+      ArrayList<Treasure> taken = new ArrayList<>();
+      for (int value = maxValue; value > 0 && taken.size() < n; value--) {
+         List<Treasure> bucket = buckets.get(value);
+         while (!bucket.isEmpty() && taken.size() < n) {
+            taken.add(bucket.remove(0));
+            size--;
+            version++;
+            totalValue -= value;
+         }
+      }
+      return taken;
+   }
+
+   // Private Methods
+
+   /**
+    * Gets the best set of treasures for a value and capacity from the table of answers, working the table out again
+    * first if the treasure has changed since it was last worked out.
+    *
+    * @param value    The most value to take.
+    * @param capacity The number of treasures there is room for.
+    * @return The values of the treasures in the set, packed {@link #pickBits} bits each with the most valuable in
+    * the lowest bits, 0 for no treasure.
+    */
+   private int solve(int value, int capacity) {
+      if (value <= 0 || capacity <= 0)
+         return 0;
+      if (solvedVersion != version) {
+         fillAnswers();
+         solvedVersion = version;
+      }
+      return answers[Math.min(capacity, maxPicks)][Math.min(value, maxTotal)];
+   }
+
+   /**
+    * Works out the best set for every value and capacity. First a 0/1 knapsack over the treasures, where only up to
+    * {@link #maxPicks} of each value are worth considering, finds a set of exactly c treasures worth exactly v for
+    * each c and v it can. Values are tried from the highest down and the first set found is kept, so sets favour
+    * valuable treasures. Then the answer for at most c treasures worth at most v is the reachable set with the
+    * highest value, using the fewest treasures.
+    */
+   private void fillAnswers() {
+      for (int[] row : exact)
+         Arrays.fill(row, -1);
+      exact[0][0] = 0;
+      for (int value = maxValue; value > 0; value--) {
+         for (int copy = Math.min(count(value), maxPicks); copy > 0; copy--) {
+            for (int c = maxPicks; c > 0; c--) {
+               for (int v = maxTotal; v >= value; v--) {
+                  if (exact[c][v] < 0 && exact[c - 1][v - value] >= 0)
+                     exact[c][v] = exact[c - 1][v - value] | value << (c - 1) * pickBits;
+               }
+            }
+         }
+      }
+      for (int capacity = 0; capacity <= maxPicks; capacity++) {
+         for (int limit = 0; limit <= maxTotal; limit++) {
+            answers[capacity][limit] = best(capacity, limit);
+         }
+      }
+   }
+
+   /**
+    * Finds the best set of exactly worked out sets for a capacity and value.
+    *
+    * @param capacity The most treasures to take.
+    * @param limit    The most value to take.
+    * @return The packed set.
+    */
+   private int best(int capacity, int limit) {
+      for (int v = limit; v > 0; v--) {
+         for (int c = 1; c <= capacity; c++) {
+            if (exact[c][v] >= 0)
+               return exact[c][v];
+         }
+      }
+      return 0;
+   }
+
+   /**
+    * Gets the treasures of a set, taking them out of the buckets if asked to.
+    *
+    * @param set    The packed values of the set.
+    * @param remove Whether to take them out.
+    * @return The treasures, most valuable first.
+    */
+   private Set<Treasure> collect(int set, boolean remove) {
+      Set<Treasure> picked = new LinkedHashSet<>();
+      int lastValue = 0;
+      int index = 0;
+      for (; set != 0; set >>>= pickBits) {
+         int value = set & pickMask;
+         index = value == lastValue ? index + 1 : 0;
+         lastValue = value;
+         picked.add(buckets.get(value).get(index));
+      }
+      if (remove) {
+         for (Treasure treasure : picked)
+            remove(treasure);
+      }
+      return picked;
+   }
+}
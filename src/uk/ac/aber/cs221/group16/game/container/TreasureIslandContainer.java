@@ -15,16 +15,17 @@ import java.util.*;
 
 /**
  * A class to contain the data relating to a Treasure Island group of tiles.
- * Each tile should hold a reference to their container.
+ * Each tile should hold a reference to their container. The treasure is kept in {@link TreasureBuckets} so the best
+ * treasure up to a value can be found without sorting it.
  *
  * @author Josh Smith
- * @version 1.0 Initial Design
+ * @version 1.2 Treasure knapsack.
  * @see uk.ac.aber.cs221.group16.game.map.tiles.TreasureIslandTile
  */
 public class TreasureIslandContainer {
 
    // Instance variables
-   private List<Treasure> treasures;
+   private TreasureBuckets treasures = new TreasureBuckets();
    private Queue<ChanceCard> chanceCards;
 
    // Constructors
@@ -36,7 +37,7 @@ public class TreasureIslandContainer {
     * @param chanceCards The Queue of ChanceCards to be used.
     */
    public TreasureIslandContainer(List<Treasure> treasure, Queue<ChanceCard> chanceCards) {
-      this.treasures = treasure;
+      this.treasures.addAll(treasure);
       this.chanceCards = chanceCards;
    }
 
@@ -44,11 +45,11 @@ public class TreasureIslandContainer {
    // Public Methods
 
    /**
-    * Gets the Treasure Collection as an ArrayList.
+    * Gets the Treasure Collection, which iterates from the most valuable treasure to the least.
     *
-    * @return An ArrayList of Treasures.
+    * @return The Treasures.
     */
-   public List<Treasure> getTreasures() {
+   public TreasureBuckets getTreasures() {
       return treasures;
    }
 
@@ -60,7 +61,8 @@ public class TreasureIslandContainer {
     * @param treasure The ArrayList of Treasure to be stored within the container.
     */
    public void setTreasure(ArrayList<Treasure> treasure) {
-      this.treasures = treasure;
+      treasures.clear();
+      treasures.addAll(treasure);
    }
 
    /**
@@ -113,7 +115,7 @@ public class TreasureIslandContainer {
 
    /**
     * Gets treasures of a specific value from the TreasureIsland, or the closest obtainable value from the available
-    * treasures.
+    * treasures, see {@link TreasureBuckets#takeUpTo(int, int)}.
     *
     * @param value The value to try and obtain in treasures.
     * @param shipRemCapacity The space available to fill with this treasure.
@@ -121,29 +123,20 @@ public class TreasureIslandContainer {
     * @return The set of treasures of value or as close as possible to the desired value.
     */
    public Set<Treasure> getTreasuresOfValue(int value, int shipRemCapacity, boolean andRemoveThem) {
-      Set<Treasure> obtained = new HashSet<>();
-      treasures.sort(Comparator.reverseOrder());
-      if (value == 6) {
-         Treasure pleaseBe2 = treasures.remove(treasures.size() - 1);
-         if (pleaseBe2.getValue() == 2) {
-            obtained.add(pleaseBe2);
-            value -= pleaseBe2.getValue();
-            shipRemCapacity--;
-         }
-      }
-      for (Treasure treasure : this.getTreasures()) {
-         if (obtained.size() == 2) break;
-         if (treasure.getValue() <= value && shipRemCapacity > 0) {
-            obtained.add(treasure);
-            value -= treasure.getValue();
-            shipRemCapacity--;
-         }
-      }
-      if (andRemoveThem) {
-         for (Treasure treasure : obtained) {
-            this.getTreasures().remove(treasure);
-         }
-      }
-      return obtained;
+      if (andRemoveThem)
+         return treasures.takeUpTo(value, shipRemCapacity);
+      return treasures.peekUpTo(value, shipRemCapacity);
+   }
+
+   /**
+    * Gets the value of the treasures {@link #getTreasuresOfValue(int, int, boolean)} would give, without making a set
+    * of them.
+    *
+    * @param value           The value to try and obtain in treasures.
+    * @param shipRemCapacity The space available to fill with this treasure.
+    * @return The value of the treasures which would be obtained.
+    */
+   public int getValueObtainable(int value, int shipRemCapacity) {
+      return treasures.valueUpTo(value, shipRemCapacity);
    }
 }
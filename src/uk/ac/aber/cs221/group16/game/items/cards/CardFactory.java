@@ -8,7 +8,6 @@
 package uk.ac.aber.cs221.group16.game.items.cards;
 
 import javafx.scene.paint.Color;
-import uk.ac.aber.cs221.group16.game.Controller;
 import uk.ac.aber.cs221.group16.game.items.Tradable;
 import uk.ac.aber.cs221.group16.game.items.treasures.Treasure;
 import uk.ac.aber.cs221.group16.game.map.Board;
@@ -16,10 +15,8 @@ import uk.ac.aber.cs221.group16.game.map.tiles.IslandTile;
 import uk.ac.aber.cs221.group16.game.map.tiles.Tile;
 import uk.ac.aber.cs221.group16.game.map.tiles.TreasureIslandTile;
 import uk.ac.aber.cs221.group16.game.players.Player;
+import uk.ac.aber.cs221.group16.game.utils.GameRandom;
 import uk.ac.aber.cs221.group16.game.utils.MoveAssistance;
-import uk.ac.aber.cs221.group16.game.windows.Choice;
-import uk.ac.aber.cs221.group16.game.windows.GenericMsg;
-import uk.ac.aber.cs221.group16.game.windows.PlayerSelection;
 
 import java.io.IOException;
 import java.nio.file.Files;
@@ -34,15 +31,17 @@ import java.util.stream.Collectors;
  * @author Alex Toop
  * @author Dylan Lewis
  * @author Filip Koziel
- * @version 1.0
+ * @version 1.1 Card texts read once.
  */
 public class CardFactory {
 
    // Static Variables
    private static Color[] cols = {Color.RED, Color.BLACK};
+   private static List<String> cardTexts;
 
    // Instance Variables
    private int numRepeatsCrewCards;
+   private GameRandom random;
 
    // Constructors
 
@@ -51,9 +50,11 @@ public class CardFactory {
     * n copies of a Black Value 1 crew card, pass n to the constructor.
     *
     * @param copiesOfCrewCards The number of copies of each crew card to generate into a deck.
+    * @param random            The generator used to shuffle the decks.
     */
-   public CardFactory(int copiesOfCrewCards) {
+   public CardFactory(int copiesOfCrewCards, GameRandom random) {
       this.numRepeatsCrewCards = copiesOfCrewCards;
+      this.random = random;
    }
 
    // Public Methods
@@ -66,7 +67,7 @@ public class CardFactory {
    public Queue<CrewCard> getShuffledCrewCards() {
       ArrayList<CrewCard> crewCards = getInOrderCrewCards();
 
-      Collections.shuffle(crewCards);
+      random.shuffle(crewCards);
 
       Queue<CrewCard> shuffledCards = new LinkedList<>();
 
@@ -103,9 +104,8 @@ public class CardFactory {
       // get chance cards in order.
       List<ChanceCard> inOrder = getInOrderChanceCards();
 
-      Random r = new Random();
       // shuffle
-      Collections.shuffle(inOrder, r);
+      random.shuffle(inOrder);
 
       // add each to queue
       inOrder.forEach(chanceCards::add);
@@ -120,13 +120,7 @@ public class CardFactory {
     */
    public List<ChanceCard> getInOrderChanceCards() {
       ArrayList<ChanceCard> chanceCards = new ArrayList<>();
-      List<String> cardTexts;
-      try {
-         cardTexts = Files.readAllLines(Paths.get("res/config/ChanceCards.txt"));
-      } catch (IOException e) {
-         System.out.println("LOG: Failed to read chance card file.");
-         cardTexts = new ArrayList<>();
-      }
+      List<String> cardTexts = getCardTexts();
 
       // Card 1 - Blown 5 squares away.
       chanceCards.add(new ChanceCard(1, cardTexts.get(1), (player, board) -> blowAway(5, board, player)));
@@ -136,7 +130,7 @@ public class CardFactory {
          if (checkOthersHaveCrew(board, player)) {
             stealFromChosen(3, board, player);
          } else {
-            new GenericMsg(Controller.stage, "Skipped as no other players have crew cards!!");
+            board.getInteraction().inform("Skipped as no other players have crew cards!!");
          }
       }));
 
@@ -183,7 +177,7 @@ public class CardFactory {
          if (closestPlayer != null) {
             List<Tradable> treasure = new ArrayList<>(player.getShip().getCargo());
             if (!lowestTreasureToPlayer(treasure, board, player, closestPlayer)) {
-               lowestCrewCardsToPlayer(2, player, closestPlayer);
+               lowestCrewCardsToPlayer(2, board, player, closestPlayer);
             }
          }
       }));
@@ -274,10 +268,10 @@ public class CardFactory {
 
       // Card 22 - YELLOW FEVER
       chanceCards.add(new ChanceCard(22, cardTexts.get(22), (player, board) -> {
-         Set<Player> affectedPlayers = new HashSet<>();
+         Set<Player> affectedPlayers = new LinkedHashSet<>();
          StringBuilder sBuilder = new StringBuilder("The following players lost the following cards:\n");
          for (Player p : board.getPlayers()) {
-            Set<CrewCard> toRemove = new HashSet<>();
+            Set<CrewCard> toRemove = new LinkedHashSet<>();
             Iterator<CrewCard> sortedCards = p.getCrewCards().stream()
                     .sorted(Comparator.naturalOrder()).iterator();
             while (p.getCrewCards().size() > 7) {
@@ -292,7 +286,7 @@ public class CardFactory {
             board.getPirateIslandContainer().getCrewCards().addAll(toRemove);
          }
          if (affectedPlayers.size() > 0) {
-            new GenericMsg(Controller.stage, sBuilder.append("\n").toString());
+            board.getInteraction().inform(sBuilder.append("\n").toString());
          }
       }));
 
@@ -337,8 +331,8 @@ public class CardFactory {
       Player exchangeWith = null;
       for (Player p : board.getPlayers()) {
          Tile shipTile = p.getShip().getTile();
-         boolean nextToTreasureIsland = board.nextToTreasureIsland(shipTile.getX(),
-                 shipTile.getY()) != null;
+         boolean nextToTreasureIsland = board.getBitBoard().isNextToTreasureIsland(shipTile.getX(),
+                 shipTile.getY());
          if (p != player && nextToTreasureIsland) {
             exchangeWith = p;
             break;
@@ -346,8 +340,8 @@ public class CardFactory {
       }
       Iterator<CrewCard> curPlayerCards = player.getCrewCards().iterator();
       if (exchangeWith != null) {
-         Set<CrewCard> toCurPlayer = new HashSet<>();
-         Set<CrewCard> toOtherPlayer = new HashSet<>();
+         Set<CrewCard> toCurPlayer = new LinkedHashSet<>();
+         Set<CrewCard> toOtherPlayer = new LinkedHashSet<>();
          sBuilder.append("You exchange cards with " + exchangeWith.getName() + ":\n\n");
          Iterator<CrewCard> otherPlayerCards = exchangeWith.getCrewCards().iterator();
          while (numCardsToSwap > 0) {
@@ -376,7 +370,7 @@ public class CardFactory {
          player.getCrewCards().addAll(toCurPlayer);
          exchangeWith.getCrewCards().addAll(toOtherPlayer);
 
-         new GenericMsg(Controller.stage, sBuilder.toString());
+         board.getInteraction().inform(sBuilder.toString());
       } else { // No other players at Treasure Island
          sBuilder.append("No other player adjacent to Treasure Island!\nYou discard the following cards to Pirate Island.\n");
          for (int i = 0; i < numCardsToSwap; i++) {
@@ -435,11 +429,13 @@ public class CardFactory {
    /**
     * Asks the user whether they want to receive treasure or cards.
     *
+    * @param passedMsg The question to ask.
+    * @param board     The board.
+    * @param player    The player who is choosing.
     * @return True if the player wants treasure, false if they want cards.
     */
-   private boolean treasureOrCards(String passedMsg) {
-      return new Choice(Controller.stage, passedMsg,
-              new String[]{"Treasure", "Crew Cards"}).getAnswer();
+   private boolean treasureOrCards(String passedMsg, Board board, Player player) {
+      return board.getInteraction().chooseTreasure(player, passedMsg);
    }
 
    /**
@@ -478,11 +474,8 @@ public class CardFactory {
     * @return true if there is the correct treasure to get the desired value. False otherwise.
     */
    private boolean notExactValueOfTreasure(int desiredValue, Player player, Board b) {
-      int sum = 0;
-      for (Treasure treasure : b.getTreasureIslandContainer().getTreasuresOfValue(desiredValue, player.getShip().getRemainingCapacity(), false)) {
-         sum += treasure.getValue();
-      }
-      return sum != desiredValue;
+      return b.getTreasureIslandContainer().getValueObtainable(desiredValue,
+              player.getShip().getRemainingCapacity()) != desiredValue;
    }
 
 
@@ -506,25 +499,25 @@ public class CardFactory {
          notEnoughCards = true;
 
       if (noCards && noTreasure) {
-         new GenericMsg(Controller.stage, "No crew cards or treasures.");
+         board.getInteraction().inform("No crew cards or treasures.");
          return;
       } else if (noCards) {
-         new GenericMsg(Controller.stage, "There are no Crew Cards available! Treasure to be taken.");
+         board.getInteraction().inform("There are no Crew Cards available! Treasure to be taken.");
          takeTreasure(maxTreasureValue, board, player);
          return;
       } else if (noTreasure) {
-         new GenericMsg(Controller.stage, "There are no treasures available! Crew cards to be taken instead.");
+         board.getInteraction().inform("There are no treasures available! Crew cards to be taken instead.");
          cardsFromPirateIsland(maxCrewCards, board, player);
       } else if (notEnoughCards) {
-         new GenericMsg(Controller.stage, "WARNING: There are not enough cards, Taking Cards will give you what remains!");
+         board.getInteraction().inform("WARNING: There are not enough cards, Taking Cards will give you what remains!");
       } else if (notExactTreasure) {
-         new GenericMsg(Controller.stage, "WARNING: From the remaining Treasure you can not obtain the maximum value" +
+         board.getInteraction().inform("WARNING: From the remaining Treasure you can not obtain the maximum value" +
                  " you are allowed! Taking Treasure will give you the next best thing.");
       }
 
       if (!shipNotFull) {
-         new GenericMsg(Controller.stage, "You currently carry " + player.getShip().getCapacity() + "Treasures and therefore can only take Cards!");
-      } else if (!noTreasure && shipNotFull && treasureOrCards("Do you want Treasures or Crew Cards?")) {
+         board.getInteraction().inform("You currently carry " + player.getShip().getCapacity() + "Treasures and therefore can only take Cards!");
+      } else if (!noTreasure && shipNotFull && treasureOrCards("Do you want Treasures or Crew Cards?", board, player)) {
          takeTreasure(maxTreasureValue, board, player);
          return;
       }
@@ -543,7 +536,7 @@ public class CardFactory {
     */
    private void cardsFromPirateIsland(int numCards, Board board, Player player) {
       if (board.getPirateIslandContainer().getCrewCards().size() == 0) {
-         new GenericMsg(Controller.stage, "No crew cards. Sorry. :(");
+         board.getInteraction().inform("No crew cards. Sorry. :(");
          return;
       }
       StringBuilder sBuilder = new StringBuilder("You have picked up: \n");
@@ -557,7 +550,7 @@ public class CardFactory {
             break; // no more cards :(
          }
       }
-      new GenericMsg(Controller.stage, sBuilder.toString());
+      board.getInteraction().inform(sBuilder.toString());
    }
 
    /**
@@ -578,9 +571,9 @@ public class CardFactory {
          }
       }
       if (taken > 0) {
-         new GenericMsg(Controller.stage, sBuilder.toString());
+         board.getInteraction().inform(sBuilder.toString());
       } else {
-         new GenericMsg(Controller.stage, "Your ship is full!");
+         board.getInteraction().inform("Your ship is full!");
       }
    }
 
@@ -645,7 +638,7 @@ public class CardFactory {
                newY = curTile.getY() + (dy * i + 1);
                dest = board.getGrid()[newX][newY];
             }
-            if (MoveAssistance.isSailableCoordinate(newX, newY, board.getGrid())) {
+            if (board.getBitBoard().isSailable(newX, newY)) {
                player.getShip().moveTo(dest, board);
                // break once found a valid move.
                break;
@@ -737,10 +730,11 @@ public class CardFactory {
    /**
     * Add lowest value crew card to the a passed player.
     *
+    * @param board         The board.
     * @param player        Player giving the card away.
     * @param closestPlayer Closest player to the player who picks up the chance card.
     */
-   private void lowestCrewCardsToPlayer(int numCards, Player player, Player closestPlayer) {
+   private void lowestCrewCardsToPlayer(int numCards, Board board, Player player, Player closestPlayer) {
       List<Tradable> cards = new ArrayList<>(player.getCrewCards());
       StringBuilder sBuilder = new StringBuilder("The following Crew cards have been washed overboard to " + closestPlayer.getName()).append("\n");
       boolean takenOne = false;
@@ -755,9 +749,9 @@ public class CardFactory {
          }
       }
       if (takenOne) {
-         new GenericMsg(Controller.stage, sBuilder.toString());
+         board.getInteraction().inform(sBuilder.toString());
       } else {
-         new GenericMsg(Controller.stage, player.getName() + " has no Crew cards to give!");
+         board.getInteraction().inform(player.getName() + " has no Crew cards to give!");
       }
 
    }
@@ -776,7 +770,7 @@ public class CardFactory {
          Treasure lowest = (Treasure) getLowestTradable(treasure);
          player.getShip().getCargo().remove(lowest);
          closestPlayer.getShip().addTreasure(lowest);
-         new GenericMsg(Controller.stage, lowest.getType() +
+         board.getInteraction().inform(lowest.getType() +
                  " has washed overboard to " + closestPlayer.getName() +
                  "'s ship.");
          return true;
@@ -880,17 +874,20 @@ public class CardFactory {
     * @return boolean that allows us to report if no players can be stolen from.
     */
    private boolean stealFromChosen(int num, Board board, Player player) {
+      List<Player> candidates = new ArrayList<>();
+      for (Player p : board.getPlayers()) {
+         if (p != player)
+            candidates.add(p);
+      }
       // selectedPlayer is the player chosen from the choices presented
-      Player selectedPlayer = new
-              PlayerSelection(Controller.stage, board,
-              ("Steal " + num + " crew cards from a player of choice:")).getSelectedPlayer();
+      Player selectedPlayer = board.getInteraction().selectPlayer(player, candidates,
+              "Steal " + num + " crew cards from a player of choice:");
       // Loops through until cards have been successfully stolen
       boolean done = false;
       while (!done) {
          if (selectedPlayer.getCrewCards().size() == 0) {
-            selectedPlayer = new
-                    PlayerSelection(Controller.stage, board,
-                    "There was no cards to steal! \nChoose a different player:").getSelectedPlayer();
+            selectedPlayer = board.getInteraction().selectPlayer(player, candidates,
+                    "There was no cards to steal! \nChoose a different player:");
          } else {
             StringBuilder stringBuilder = new StringBuilder("You stole the following cards from ").append(selectedPlayer.getName()).append(":\n");
             // entered when the player can have cards stolen
@@ -905,7 +902,7 @@ public class CardFactory {
                }
             }
             done = true;
-            new GenericMsg(Controller.stage, stringBuilder.toString());
+            board.getInteraction().inform(stringBuilder.toString());
          }
       }
       return true;
@@ -931,8 +928,27 @@ public class CardFactory {
          stringBuilder.append(cardToRemove).append("\n");
       }
       if (reduced) {
-         new GenericMsg(Controller.stage, stringBuilder.toString());
+         board.getInteraction().inform(stringBuilder.toString());
       }
    }
 
+   // Static Methods
+
+   /**
+    * Gets the text of each chance card, which is read from the file the first time it is asked for and kept, as a
+    * deck is made for every copy of a game the bots play out.
+    *
+    * @return The lines of the chance card file, which can't be changed, or none if it couldn't be read.
+    */
+   private static synchronized List<String> getCardTexts() {
+      if (cardTexts == null) {
+         try {
+            cardTexts = Collections.unmodifiableList(Files.readAllLines(Paths.get("res/config/ChanceCards.txt")));
+         } catch (IOException e) {
+            System.out.println("LOG: Failed to read chance card file.");
+            return Collections.emptyList();
+         }
+      }
+      return cardTexts;
+   }
 }
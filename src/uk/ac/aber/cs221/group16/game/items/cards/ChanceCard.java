@@ -11,14 +11,15 @@ package uk.ac.aber.cs221.group16.game.items.cards;
 import uk.ac.aber.cs221.group16.game.items.Tradable;
 import uk.ac.aber.cs221.group16.game.map.Board;
 import uk.ac.aber.cs221.group16.game.players.Player;
+import uk.ac.aber.cs221.group16.game.profiling.ChanceCardEvent;
 
 /**
  * A class for ChanceCards, they have a string of text to be shown to users and an action which will perform
- * the necessary changes to the board or ship.
+ * the necessary changes to the board or ship. Each action is timed as a {@link ChanceCardEvent}.
  *
  * @author Josh Smith
  * @author Luke Revill
- * @version 1.0 Initial design.
+ * @version 1.1 Flight recorder events.
  * @see Card
  * @see CardAction
  */
@@ -105,7 +106,9 @@ public class ChanceCard
 
 
    public void performAction(Player p, Board b) {
+      ChanceCardEvent event = new ChanceCardEvent(this, p);
       if (action != null) action.perform(p, b);
+      event.commit();
    }
 
    /**
@@ -15,12 +15,18 @@ import uk.ac.aber.cs221.group16.game.items.Tradable;
  * A class for Crew cards which contains the color of the card.
  *
  * @author Josh Smith
- * @version 1.0 Initial design.
+ * @version 1.1 Crew count matrix.
  * @see Card
  */
 public class CrewCard
         implements Card, Tradable {
 
+   // Constants
+   public static final int red = 0;
+   public static final int black = 1;
+   public static final int colors = 2;
+   public static final int maxValue = 3;
+
    // Instance variables
 
    /**
@@ -28,6 +34,7 @@ public class CrewCard
     */
    private Color color;
    private int value;
+   private int colorIndex;
 
    // Constructors
 
@@ -40,6 +47,7 @@ public class CrewCard
    public CrewCard(Color color, int value) {
       this.color = color;
       this.value = value;
+      this.colorIndex = color == Color.RED ? red : black;
    }
 
    // Public Methods
@@ -53,6 +61,15 @@ public class CrewCard
       return color;
    }
 
+   /**
+    * Gets the color of the card as an index, which is cheaper to compare than the color.
+    *
+    * @return {@link #red} or {@link #black}.
+    */
+   public int getColorIndex() {
+      return colorIndex;
+   }
+
    /**
     * Gets the value of the card.
     *
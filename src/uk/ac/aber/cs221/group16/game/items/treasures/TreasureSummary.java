@@ -0,0 +1,79 @@
+/*
+* @(#) TreasureSummary.java 1.0 2017/04/01
+*
+* Copyright (c) 2017 Aberystwyth University.
+* All rights reserved.
+*
+*/
+
+package uk.ac.aber.cs221.group16.game.items.treasures;
+
+import javafx.beans.binding.StringBinding;
+
+import java.util.Set;
+
+/**
+ * This class is the display string of a set of treasures, see {@link Treasure#setToString(Set)}. The string is only
+ * rebuilt when it is read after the set has changed, so a set which nothing displays, such as one in a bot's copy of
+ * the game, is never summarised.
+ * <p>
+ * The owner of the set calls {@link #changed()} for each change. Changes made inside {@link #batch(Runnable)} are told
+ * to anything listening once, when the outermost batch ends.
+ *
+ * @author Group 16
+ * @version 1.0 Coalesced updates.
+ */
+public class TreasureSummary extends StringBinding {
+
+   // Instance Variables
+   private Set<Treasure> treasures;
+   private int batches;
+   private boolean changedInBatch;
+
+   // Constructors
+
+   /**
+    * Creates the summary of a set of treasures.
+    *
+    * @param treasures The set, which is read each time the summary is rebuilt.
+    */
+   public TreasureSummary(Set<Treasure> treasures) {
+      this.treasures = treasures;
+   }
+
+   // Public Methods
+
+   /**
+    * Marks the summary out of date, unless a batch is being made in which case it is marked when the batch ends.
+    */
+   public void changed() {
+      if (batches > 0)
+         changedInBatch = true;
+      else
+         invalidate();
+   }
+
+   /**
+    * Makes several changes to the set, which anything listening to the summary is only told about once.
+    *
+    * @param changes The changes.
+    */
+   public void batch(Runnable changes) {
+      batches++;
+      try {
+         changes.run();
+      } finally {
+         if (--batches == 0 && changedInBatch) {
+            changedInBatch = false;
+            invalidate();
+         }
+      }
+   }
+
+   // Protected Methods
+
+   @Override
+   protected String computeValue() {
+      return Treasure.setToString(treasures);
+   }
+}
@@ -0,0 +1,50 @@
+/*
+* @(#) EventType.java 1.0 2017/04/01
+*
+* Copyright (c) 2017 Aberystwyth University.
+* All rights reserved.
+*
+*/
+
+package uk.ac.aber.cs221.group16.game.log;
+
+/**
+ * The kinds of event stored in a {@link GameLog}.
+ * <p>
+ * Moves and rotations are the actions a player takes on their turn. Engagements, treasure choices, player selections
+ * and trades are the answers given to the game's {@link uk.ac.aber.cs221.group16.game.Interaction}. Battles and
+ * chance cards are outcomes which follow from the seed and the events before them, they are only recorded so a replay
+ * can be checked against the original game.
+ *
+ * @author Group 16
+ * @version 1.0 Game log and replay.
+ */
+public enum EventType {
+   Move, Rotate, Engage, ChooseTreasure, SelectPlayer, Trade, Battle, ChanceCard;
+
+   // Constants
+   private static final EventType[] all = values();
+
+   // Public Methods
+
+   /**
+    * Checks whether this event is an outcome of the rules rather than something a player chose.
+    *
+    * @return True for battles and chance cards.
+    */
+   public boolean isOutcome() {
+      return this == Battle || this == ChanceCard;
+   }
+
+   // Static Methods
+
+   /**
+    * Gets the event type with the code given, the code of a type is its ordinal.
+    *
+    * @param code The code.
+    * @return The event type.
+    */
+   public static EventType fromCode(int code) {
+      return all[code];
+   }
+}
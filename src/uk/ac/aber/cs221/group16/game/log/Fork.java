@@ -0,0 +1,93 @@
+/*
+* @(#) Fork.java 1.0 2017/04/01
+*
+* Copyright (c) 2017 Aberystwyth University.
+* All rights reserved.
+*
+*/
+
+package uk.ac.aber.cs221.group16.game.log;
+
+import uk.ac.aber.cs221.group16.game.Game;
+import uk.ac.aber.cs221.group16.game.Interaction;
+
+/**
+ * This class makes copies of a game as it was at one moment, so bots can try out what might happen next without
+ * touching the real game. It holds the snapshot the game took at the start of the turn and the events logged since, a
+ * copy is made by restoring the snapshot and replaying the events.
+ * <p>
+ * A fork can be taken part of the way through an action, e.g. while a player is deciding whether to trade. The copy
+ * then asks its own interaction for that decision, and any others left in the action, and is returned once the
+ * action is finished. A fork holds no reference to the game so copies can be made on any thread.
+ * <p>
+ * Setting up a game takes longer than replaying a turn, so a thread making many copies should make each in the same
+ * {@link Replay}, see {@link #newReplay()}.
+ *
+ * @author Group 16
+ * @version 1.1 Reused copies.
+ */
+public class Fork {
+
+   // Instance Variables
+   private Snapshot turnStart;
+   private GameLog turn;
+
+   // Constructors
+
+   /**
+    * Takes a fork of a game, this must be done on the game's thread.
+    *
+    * @param game The game, which must have started.
+    */
+   public Fork(Game game) {
+      if (game.getTurnStart() == null)
+         throw new IllegalStateException("Game has not started");
+      turnStart = game.getTurnStart();
+      turn = new GameLog(game.getSeed(), game.getLog().getNames());
+      turn.append(game.getLog().copyFrom(game.getTurnStartPosition()));
+   }
+
+   // Public Methods
+
+   /**
+    * Makes a copy of the game.
+    *
+    * @param interaction The interaction for the copy, which is asked for every decision after the fork was taken.
+    * @return The copy, at the moment the fork was taken or at the end of the action it was taken during.
+    */
+   public Game make(Interaction interaction) {
+      return new Replay(turn, turnStart, 0, interaction).play();
+   }
+
+   /**
+    * Makes a copy of the game in the game of a replay, which is restored and replays the turn again. The copy made
+    * before in the replay is lost.
+    *
+    * @param interaction The interaction for the copy, which is asked for every decision after the fork was taken.
+    * @param replay      A replay made by {@link #newReplay()}, from this fork or another fork of the same game.
+    * @return The copy, at the moment the fork was taken or at the end of the action it was taken during.
+    */
+   public Game make(Interaction interaction, Replay replay) {
+      replay.restart(turn, turnStart, 0, interaction);
+      return replay.play();
+   }
+
+   /**
+    * Makes a replay for {@link #make(Interaction, Replay)} to make copies in. A replay can only be used by one thread
+    * at a time.
+    *
+    * @return The replay.
+    */
+   public Replay newReplay() {
+      return new Replay(turn, turnStart, 0, null);
+   }
+
+   /**
+    * Gets the turn the fork was taken during.
+    *
+    * @return The turn number.
+    */
+   public int getTurnNumber() {
+      return turnStart.getTurnNumber();
+   }
+}
@@ -0,0 +1,467 @@
+/*
+* @(#) GameLog.java 1.0 2017/04/01
+*
+* Copyright (c) 2017 Aberystwyth University.
+* All rights reserved.
+*
+*/
+
+package uk.ac.aber.cs221.group16.game.log;
+
+import uk.ac.aber.cs221.group16.game.items.cards.ChanceCard;
+import uk.ac.aber.cs221.group16.game.map.Orientation;
+import uk.ac.aber.cs221.group16.game.map.tiles.Tile;
+import uk.ac.aber.cs221.group16.game.players.Player;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This class is an append-only record of everything that happened in a game. Together with the seed and the names
+ * the game was made from it is enough to play the whole game again, see {@link Replay}.
+ * <p>
+ * Events are packed into a byte array as a type code, a length and then one byte per argument. Every argument is a
+ * player ID, a coordinate, an orientation, a card ID or an index into a short list, so a byte is always enough and a
+ * full game takes a few kilobytes.
+ *
+ * @author Group 16
+ * @version 1.2 Reused copies.
+ */
+public class GameLog {
+
+   // Constants
+   private static final int magic = 0x4255434C; // "BUCL"
+   // bumped whenever a rule changes, as logs of older versions would play differently: version 2 changed which crew
+   // cards a battle loser gives up and version 3 how treasure is picked for chance cards.
+   private static final int version = 3;
+   private static final int headerSize = 2;
+
+   // Instance Variables
+   private long seed;
+   private List<String> names;
+   private byte[] data = new byte[1024];
+   private int size;
+   private int eventCount;
+
+   // Constructors
+
+   /**
+    * Creates an empty log for a game.
+    *
+    * @param seed  The seed the game was made from.
+    * @param names The names the game was made from, in the order they were passed to the game.
+    */
+   public GameLog(long seed, List<String> names) {
+      this.seed = seed;
+      this.names = Collections.unmodifiableList(new ArrayList<>(names));
+   }
+
+   // Public Methods
+
+   /**
+    * Records a player choosing a tile to move to, including choosing to stay where they are.
+    *
+    * @param player The player moving.
+    * @param to     The tile chosen.
+    */
+   public void move(Player player, Tile to) {
+      begin(EventType.Move, 3);
+      put(player.getId());
+      put(to.getX());
+      put(to.getY());
+   }
+
+   /**
+    * Records a player rotating their ship.
+    *
+    * @param player      The player rotating.
+    * @param orientation The new orientation of the ship.
+    */
+   public void rotate(Player player, Orientation orientation) {
+      begin(EventType.Rotate, 2);
+      put(player.getId());
+      put(orientation.ordinal());
+   }
+
+   /**
+    * Records whether a player who was sailed over chose to attack.
+    *
+    * @param defender The player who was sailed over.
+    * @param engaged  True if they attacked.
+    */
+   public void engage(Player defender, boolean engaged) {
+      begin(EventType.Engage, 2);
+      put(defender.getId());
+      put(engaged ? 1 : 0);
+   }
+
+   /**
+    * Records whether a player chose treasure or crew cards from a chance card.
+    *
+    * @param player   The player choosing.
+    * @param treasure True if they chose treasure.
+    */
+   public void chooseTreasure(Player player, boolean treasure) {
+      begin(EventType.ChooseTreasure, 2);
+      put(player.getId());
+      put(treasure ? 1 : 0);
+   }
+
+   /**
+    * Records a player choosing another player.
+    *
+    * @param chooser The player choosing.
+    * @param chosen  The player chosen.
+    */
+   public void selectPlayer(Player chooser, Player chosen) {
+      begin(EventType.SelectPlayer, 2);
+      put(chooser.getId());
+      put(chosen.getId());
+   }
+
+   /**
+    * Records a trade at a port, the items are given as indexes into the lists of tradables offered, see
+    * {@link uk.ac.aber.cs221.group16.game.Trade}.
+    *
+    * @param player     The player trading.
+    * @param fromPlayer The indexes of the items given to the port.
+    * @param fromPort   The indexes of the items taken from the port.
+    */
+   public void trade(Player player, int[] fromPlayer, int[] fromPort) {
+      begin(EventType.Trade, 3 + fromPlayer.length + fromPort.length);
+      put(player.getId());
+      put(fromPlayer.length);
+      for (int i : fromPlayer)
+         put(i);
+      put(fromPort.length);
+      for (int i : fromPort)
+         put(i);
+   }
+
+   /**
+    * Records the outcome of a battle.
+    *
+    * @param attacker The attacking player.
+    * @param defender The defending player.
+    * @param winner   The winner, or null for a draw.
+    */
+   public void battle(Player attacker, Player defender, Player winner) {
+      begin(EventType.Battle, 3);
+      put(attacker.getId());
+      put(defender.getId());
+      put(winner == null ? -1 : winner.getId());
+   }
+
+   /**
+    * Records a player drawing a chance card.
+    *
+    * @param player The player who drew the card.
+    * @param card   The card drawn.
+    */
+   public void chanceCard(Player player, ChanceCard card) {
+      begin(EventType.ChanceCard, 2);
+      put(player.getId());
+      put(card.getCardID());
+   }
+
+   /**
+    * Gets a reader positioned before the first event.
+    *
+    * @return The reader.
+    */
+   public Reader reader() {
+      return new Reader(0);
+   }
+
+   /**
+    * Gets a reader positioned part of the way through the log.
+    *
+    * @param position The position of an event, as returned by {@link Reader#getPosition()}.
+    * @return The reader.
+    */
+   public Reader reader(int position) {
+      if (position < 0 || position > size)
+         throw new IllegalArgumentException("Position " + position + " is outside the log");
+      return new Reader(position);
+   }
+
+   /**
+    * Gets the seed of the game.
+    *
+    * @return The seed.
+    */
+   public long getSeed() {
+      return seed;
+   }
+
+   /**
+    * Gets the names of the players, in the order they were passed to the game.
+    *
+    * @return The names.
+    */
+   public List<String> getNames() {
+      return names;
+   }
+
+   /**
+    * Gets the number of events recorded.
+    *
+    * @return The event count.
+    */
+   public int getEventCount() {
+      return eventCount;
+   }
+
+   /**
+    * Gets the number of bytes the events take up.
+    *
+    * @return The size in bytes.
+    */
+   public int getSize() {
+      return size;
+   }
+
+   /**
+    * Writes the log to a file, replacing anything already there.
+    *
+    * @param path The file to write to.
+    * @throws IOException If the file can't be written.
+    */
+   public void write(Path path) throws IOException {
+      try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+         write(out);
+      }
+   }
+
+   /**
+    * Writes the log to a stream.
+    *
+    * @param out The stream to write to.
+    * @throws IOException If the stream can't be written to.
+    */
+   public void write(DataOutput out) throws IOException {
+      out.writeInt(magic);
+      out.writeShort(version);
+      out.writeLong(seed);
+      out.writeByte(names.size());
+      for (String name : names)
+         out.writeUTF(name);
+      out.writeInt(eventCount);
+      out.writeInt(size);
+      out.write(data, 0, size);
+   }
+
+   /**
+    * Checks whether another log is of the same game with the same events.
+    *
+    * @param o The other log.
+    * @return True if the logs are the same.
+    */
+   @Override
+   public boolean equals(Object o) {
+      if (this == o)
+         return true;
+      if (!(o instanceof GameLog))
+         return false;
+      GameLog other = (GameLog) o;
+      return seed == other.seed && names.equals(other.names) && eventCount == other.eventCount &&
+              Arrays.equals(data, 0, size, other.data, 0, other.size);
+   }
+
+   @Override
+   public int hashCode() {
+      int hash = Long.hashCode(seed) * 31 + names.hashCode();
+      for (int i = 0; i < size; i++)
+         hash = hash * 31 + data[i];
+      return hash;
+   }
+
+   /**
+    * Removes every event, so a game which is restored from a snapshot can be recorded again, see
+    * {@link Snapshot#restore(uk.ac.aber.cs221.group16.game.Game)}.
+    */
+   void clear() {
+      size = 0;
+      eventCount = 0;
+   }
+
+   /**
+    * Copies the events recorded from a position onwards, so they can be added to another log with
+    * {@link #append(byte[])}.
+    *
+    * @param position The position of an event, as returned by {@link Reader#getPosition()}.
+    * @return The encoded events.
+    */
+   byte[] copyFrom(int position) {
+      return Arrays.copyOfRange(data, position, size);
+   }
+
+   /**
+    * Adds events copied from another log by {@link #copyFrom(int)} to the end of this one.
+    *
+    * @param events The encoded events.
+    * @throws IllegalArgumentException If the events don't end on an event boundary.
+    */
+   void append(byte[] events) {
+      int count = 0;
+      for (int i = 0; i < events.length; i += headerSize + events[i + 1]) {
+         if (i + headerSize > events.length || events[i + 1] < 0 || i + headerSize + events[i + 1] > events.length)
+            throw new IllegalArgumentException("Events are cut short");
+         count++;
+      }
+      if (size + events.length > data.length)
+         data = Arrays.copyOf(data, Math.max(data.length * 2, size + events.length));
+      System.arraycopy(events, 0, data, size, events.length);
+      size += events.length;
+      eventCount += count;
+   }
+
+   // Private Methods
+
+   /**
+    * Starts a new event, making sure there is room for it.
+    *
+    * @param type   The type of the event.
+    * @param length The number of arguments the event has.
+    */
+   private void begin(EventType type, int length) {
+      if (size + headerSize + length > data.length)
+         data = Arrays.copyOf(data, Math.max(data.length * 2, size + headerSize + length));
+      put(type.ordinal());
+      put(length);
+      eventCount++;
+   }
+
+   /**
+    * Appends a byte to the log.
+    *
+    * @param value The value, which must fit in a byte.
+    */
+   private void put(int value) {
+      data[size++] = (byte) value;
+   }
+
+   // Static Methods
+
+   /**
+    * Reads a log from a file written by {@link #write(Path)}.
+    *
+    * @param path The file to read.
+    * @return The log.
+    * @throws IOException If the file can't be read or isn't a game log.
+    */
+   public static GameLog read(Path path) throws IOException {
+      try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+         return read(in);
+      }
+   }
+
+   /**
+    * Reads a log from a stream written by {@link #write(DataOutput)}.
+    *
+    * @param in The stream to read from.
+    * @return The log.
+    * @throws IOException If the stream can't be read or isn't a game log.
+    */
+   public static GameLog read(DataInput in) throws IOException {
+      if (in.readInt() != magic)
+         throw new IOException("Not a game log");
+      int fileVersion = in.readShort();
+      if (fileVersion != version)
+         throw new IOException("Unsupported game log version " + fileVersion);
+      long seed = in.readLong();
+      int nameCount = in.readUnsignedByte();
+      List<String> names = new ArrayList<>();
+      for (int i = 0; i < nameCount; i++)
+         names.add(in.readUTF());
+      GameLog log = new GameLog(seed, names);
+      log.eventCount = in.readInt();
+      log.size = in.readInt();
+      log.data = new byte[Math.max(log.size, 16)];
+      in.readFully(log.data, 0, log.size);
+      return log;
+   }
+
+   // Inner Classes
+
+   /**
+    * Reads the events of the log in order. Events recorded after the reader was made are also read.
+    */
+   public class Reader {
+
+      private int position;
+      private int current = -1;
+
+      /**
+       * Creates a reader.
+       *
+       * @param position The position of the first event to read.
+       */
+      private Reader(int position) {
+         this.position = position;
+      }
+
+      /**
+       * Gets the position of the next event, which can be passed to {@link GameLog#reader(int)} to carry on reading
+       * from the same place later.
+       *
+       * @return The position in bytes.
+       */
+      public int getPosition() {
+         return position;
+      }
+
+      /**
+       * Checks whether there is another event to read.
+       *
+       * @return True if {@link #next()} can be called.
+       */
+      public boolean hasNext() {
+         return position < size;
+      }
+
+      /**
+       * Moves on to the next event.
+       *
+       * @return The type of the event.
+       */
+      public EventType next() {
+         current = position;
+         position += headerSize + data[position + 1];
+         return EventType.fromCode(data[current]);
+      }
+
+      /**
+       * Gets the type of the current event.
+       *
+       * @return The event type.
+       */
+      public EventType getType() {
+         return EventType.fromCode(data[current]);
+      }
+
+      /**
+       * Gets the number of arguments of the current event.
+       *
+       * @return The argument count.
+       */
+      public int length() {
+         return data[current + 1];
+      }
+
+      /**
+       * Gets an argument of the current event.
+       *
+       * @param i The index of the argument.
+       * @return The argument.
+       */
+      public int arg(int i) {
+         return data[current + headerSize + i];
+      }
+   }
+}
@@ -0,0 +1,435 @@
+/*
+* @(#) Journal.java 1.0 2017/04/01
+*
+* Copyright (c) 2017 Aberystwyth University.
+* All rights reserved.
+*
+*/
+
+package uk.ac.aber.cs221.group16.game.log;
+
+import uk.ac.aber.cs221.group16.game.Game;
+import uk.ac.aber.cs221.group16.game.Interaction;
+import uk.ac.aber.cs221.group16.game.players.Player;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.zip.CRC32;
+
+/**
+ * This class autosaves a game as it is played, so it can be carried on after the program crashes or is closed. The
+ * file starts with a checkpoint, which is the seed, the names, which players are computers and a {@link Snapshot} of
+ * the game at the start of a turn, and the events of every action since then are appended to it as records. Every
+ * {@link #getCompactInterval()} turns a new checkpoint replaces the file, so it never grows beyond a few turns of
+ * events. Resuming restores the checkpoint and replays the records, which leaves the game just after the last action
+ * which was finished.
+ * <p>
+ * All of the writing is done on a background thread. The game's thread only copies the new events out of the
+ * {@link GameLog}, and takes a snapshot when a checkpoint is due, neither of which touches the disk. Appended records
+ * reach the operating system straight away, so they survive the program crashing, and are forced to the disk at most
+ * every {@link #syncDelay} milliseconds, so a burst of actions costs one sync. Each record has a checksum, a record
+ * which was cut short by a crash is ignored and removed when the journal is resumed.
+ *
+ * @author Group 16
+ * @version 1.1 Computer seats.
+ */
+public class Journal implements Closeable {
+
+   // Constants
+   public static final int defaultCompactInterval = 20;
+   private static final int magic = 0x4255434A; // "BUCJ"
+   // bumped along with the game log version, as journals replay with the same rules, and version 4 added which
+   // players are computers.
+   private static final int version = 4;
+   private static final long syncDelay = 500;
+   private static final long closeTimeout = 2000;
+   private static final int recordHeaderSize = Integer.BYTES * 2;
+
+   // Static Variables
+   // every journal is written by the same thread, so a finished game's journal is deleted before the next one starts.
+   private static final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread thread = new Thread(r, "Journal writer");
+      thread.setDaemon(true);
+      return thread;
+   });
+
+   // Instance Variables
+   private Path path;
+   private Game game;
+   private int compactInterval;
+
+   // only used on the game's thread.
+   private int position;
+   private int checkpointTurn;
+   private boolean closed;
+
+   // only used on the writer thread.
+   private FileChannel channel;
+   private CRC32 crc = new CRC32();
+   private boolean syncPending;
+   private IOException failure;
+
+   // Constructors
+
+   /**
+    * Creates a journal for a game, the checkpoint must already be written or be the next thing written.
+    *
+    * @param path            The file the journal is written to.
+    * @param game            The game being journaled.
+    * @param position        The position in the game's log of the first event which isn't in the file.
+    * @param checkpointTurn  The turn the checkpoint in the file was taken at.
+    * @param compactInterval The number of turns between checkpoints.
+    */
+   private Journal(Path path, Game game, int position, int checkpointTurn, int compactInterval) {
+      this.path = path;
+      this.game = game;
+      this.position = position;
+      this.checkpointTurn = checkpointTurn;
+      this.compactInterval = compactInterval;
+   }
+
+   // Public Methods
+
+   /**
+    * Saves the events of the action which has just finished, and writes a new checkpoint if one is due. This must be
+    * called on the game's thread, and returns without waiting for anything to be written.
+    */
+   public void actionCompleted() {
+      if (closed)
+         return;
+      GameLog log = game.getLog();
+      if (log.getSize() > position) {
+         byte[] events = log.copyFrom(position);
+         position = log.getSize();
+         writer.execute(() -> append(events));
+      }
+      if (!game.isGameOver() && game.getTurnNumber() - checkpointTurn >= compactInterval &&
+              Snapshot.canCapture(game)) {
+         byte[] checkpoint = checkpoint(game);
+         checkpointTurn = game.getTurnNumber();
+         writer.execute(() -> writeCheckpoint(checkpoint));
+      }
+   }
+
+   /**
+    * Gets the game being journaled.
+    *
+    * @return The game.
+    */
+   public Game getGame() {
+      return game;
+   }
+
+   /**
+    * Gets the file the journal is written to.
+    *
+    * @return The path of the file.
+    */
+   public Path getPath() {
+      return path;
+   }
+
+   /**
+    * Gets the number of turns between checkpoints.
+    *
+    * @return The interval.
+    */
+   public int getCompactInterval() {
+      return compactInterval;
+   }
+
+   /**
+    * Stops journaling and deletes the file, for when the game is over and there is nothing to resume.
+    */
+   public void discard() {
+      if (closed)
+         return;
+      closed = true;
+      game.setJournal(null);
+      writer.execute(() -> {
+         try {
+            closeChannel();
+            Files.deleteIfExists(path);
+         } catch (IOException e) {
+            fail(e);
+         }
+      });
+   }
+
+   /**
+    * Stops journaling, waiting for everything to be written and forced to the disk so the game can be resumed
+    * later.
+    *
+    * @throws IOException If the journal couldn't be written.
+    */
+   @Override
+   public void close() throws IOException {
+      if (closed)
+         return;
+      closed = true;
+      game.setJournal(null);
+      Future<?> done = writer.submit(() -> {
+         sync();
+         closeChannel();
+         return null;
+      });
+      try {
+         done.get(closeTimeout, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException | TimeoutException e) {
+         throw new IOException("Journal was not written in time", e);
+      } catch (ExecutionException e) {
+         throw new IOException("Journal could not be closed", e.getCause());
+      }
+      if (failure != null)
+         throw failure;
+   }
+
+   // Private Methods
+
+   /**
+    * Appends the events of an action to the file as a record, and makes sure a sync is coming. Runs on the writer
+    * thread.
+    *
+    * @param events The encoded events.
+    */
+   private void append(byte[] events) {
+      if (failure != null)
+         return;
+      crc.reset();
+      crc.update(events);
+      ByteBuffer record = ByteBuffer.allocate(recordHeaderSize + events.length);
+      record.putInt(events.length);
+      record.putInt((int) crc.getValue());
+      record.put(events);
+      record.flip();
+      try {
+         if (channel == null)
+            channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+         while (record.hasRemaining())
+            channel.write(record);
+      } catch (IOException e) {
+         fail(e);
+         return;
+      }
+      if (!syncPending) {
+         syncPending = true;
+         writer.schedule(this::sync, syncDelay, TimeUnit.MILLISECONDS);
+      }
+   }
+
+   /**
+    * Replaces the file with one holding just a checkpoint. The new file is written beside the old one and moved over
+    * it, so there is always a complete journal on the disk. Runs on the writer thread.
+    *
+    * @param checkpoint The encoded checkpoint.
+    */
+   private void writeCheckpoint(byte[] checkpoint) {
+      if (failure != null)
+         return;
+      Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+      try {
+         try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                 StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(checkpoint);
+            while (buffer.hasRemaining())
+               out.write(buffer);
+            out.force(true);
+         }
+         closeChannel();
+         Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } catch (IOException e) {
+         fail(e);
+      }
+   }
+
+   /**
+    * Forces everything appended so far to the disk. Runs on the writer thread.
+    */
+   private void sync() {
+      syncPending = false;
+      if (failure != null || channel == null)
+         return;
+      try {
+         channel.force(false);
+      } catch (IOException e) {
+         fail(e);
+      }
+   }
+
+   /**
+    * Closes the file if it is open. Runs on the writer thread.
+    *
+    * @throws IOException If the file can't be closed.
+    */
+   private void closeChannel() throws IOException {
+      if (channel != null) {
+         channel.close();
+         channel = null;
+      }
+   }
+
+   /**
+    * Stops the journal after a write fails, the game carries on without it.
+    *
+    * @param e The failure.
+    */
+   private void fail(IOException e) {
+      if (failure == null)
+         System.err.println("Autosave failed: " + e);
+      failure = e;
+   }
+
+   // Static Methods
+
+   /**
+    * Starts journaling a game at the start of a turn, replacing any journal already in the file. The checkpoint is
+    * written in the background like everything else.
+    *
+    * @param path The file to write to.
+    * @param game The game, which must be between turns.
+    * @return The journal, which the game tells about each action.
+    * @throws IllegalStateException If a turn is part of the way through.
+    */
+   public static Journal start(Path path, Game game) {
+      return start(path, game, defaultCompactInterval);
+   }
+
+   /**
+    * Starts journaling a game at the start of a turn, see {@link #start(Path, Game)}.
+    *
+    * @param path            The file to write to.
+    * @param game            The game, which must be between turns.
+    * @param compactInterval The number of turns between checkpoints.
+    * @return The journal.
+    * @throws IllegalStateException If a turn is part of the way through.
+    */
+   public static Journal start(Path path, Game game, int compactInterval) {
+      if (compactInterval < 1)
+         throw new IllegalArgumentException("Interval must be at least 1");
+      byte[] checkpoint = checkpoint(game);
+      Journal journal = new Journal(path, game, game.getLog().getSize(), game.getTurnNumber(), compactInterval);
+      writer.execute(() -> journal.writeCheckpoint(checkpoint));
+      game.setJournal(journal);
+      return journal;
+   }
+
+   /**
+    * Carries on the game in a journal from just after its last finished action, and carries on journaling it. A
+    * record cut short by a crash is removed from the file.
+    *
+    * @param path        The file to resume from.
+    * @param interaction The interaction for the resumed game.
+    * @return The journal, the game is given by {@link #getGame()} and has already been started.
+    * @throws IOException If the file can't be read, isn't a journal, or holds a game which can't be carried on.
+    */
+   public static Journal resume(Path path, Interaction interaction) throws IOException {
+      ByteBuffer in;
+      try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+         in = ByteBuffer.allocate((int) channel.size());
+         while (in.hasRemaining()) {
+            if (channel.read(in) < 0)
+               break;
+         }
+      }
+      in.flip();
+
+      long seed;
+      List<String> names;
+      int computers;
+      byte[] snapshot;
+      try {
+         if (in.remaining() < Integer.BYTES || in.getInt() != magic)
+            throw new IOException("Not a journal");
+         int fileVersion = in.getShort();
+         if (fileVersion != version)
+            throw new IOException("Unsupported journal version " + fileVersion);
+         seed = in.getLong();
+         names = SaveGame.readNames(in);
+         computers = in.get();
+         snapshot = new byte[in.getShort()];
+         in.get(snapshot);
+      } catch (BufferUnderflowException | NegativeArraySizeException e) {
+         throw new EOFException("Journal is truncated");
+      }
+
+      // read records until the end of the file or one which didn't finish being written.
+      GameLog log = new GameLog(seed, names);
+      CRC32 crc = new CRC32();
+      int end = in.position();
+      while (in.remaining() >= recordHeaderSize) {
+         int length = in.getInt();
+         int checksum = in.getInt();
+         if (length < 0 || length > in.remaining())
+            break;
+         byte[] events = new byte[length];
+         in.get(events);
+         crc.reset();
+         crc.update(events);
+         if ((int) crc.getValue() != checksum)
+            break;
+         log.append(events);
+         end = in.position();
+      }
+
+      Game game;
+      try {
+         Replay replay = new Replay(log, new Snapshot(snapshot), 0);
+         replay.play();
+         game = replay.handOver(interaction);
+         for (Player player : game.getPlayers())
+            player.setComputer((computers & 1 << player.getId()) != 0);
+      } catch (IllegalStateException | IllegalArgumentException e) {
+         throw new IOException("Journal can't be replayed", e);
+      }
+      if (game.isGameOver())
+         throw new IOException("Journal is of a finished game");
+
+      if (end < in.limit()) {
+         try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(end);
+         }
+      }
+      Journal journal = new Journal(path, game, game.getLog().getSize(), new Snapshot(snapshot).getTurnNumber(),
+              defaultCompactInterval);
+      game.setJournal(journal);
+      return journal;
+   }
+
+   /**
+    * Encodes a checkpoint of a game, which is the file header, the seed, the names, a byte with a bit set for each
+    * computer player by ID and a snapshot.
+    *
+    * @param game The game, which must be between turns.
+    * @return The encoded checkpoint.
+    * @throws IllegalStateException If a turn is part of the way through.
+    */
+   private static byte[] checkpoint(Game game) {
+      ByteBuffer buffer = ByteBuffer.allocate(Snapshot.maxSize * 2);
+      buffer.putInt(magic);
+      buffer.putShort((short) version);
+      buffer.putLong(game.getSeed());
+      SaveGame.writeNames(buffer, game.getLog().getNames());
+      int computers = 0;
+      for (Player player : game.getPlayers()) {
+         if (player.isComputer())
+            computers |= 1 << player.getId();
+      }
+      buffer.put((byte) computers);
+      int lengthPosition = buffer.position();
+      buffer.putShort((short) 0);
+      Snapshot.write(game, buffer);
+      buffer.putShort(lengthPosition, (short) (buffer.position() - lengthPosition - Short.BYTES));
+      return Arrays.copyOf(buffer.array(), buffer.position());
+   }
+}
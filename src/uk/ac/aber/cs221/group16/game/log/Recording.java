@@ -0,0 +1,266 @@
+/*
+* @(#) Recording.java 1.0 2017/04/01
+*
+* Copyright (c) 2017 Aberystwyth University.
+* All rights reserved.
+*
+*/
+
+package uk.ac.aber.cs221.group16.game.log;
+
+import uk.ac.aber.cs221.group16.game.Game;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This class is a recorded game which can be opened at any turn without replaying it from the start. Along with the
+ * {@link GameLog} it stores a {@link Snapshot} of the game every {@link #getInterval()} turns, and an index of the
+ * snapshots at the end of the file. Seeking to a turn reads the one snapshot at or before it and replays the events
+ * of the few turns in between.
+ * <p>
+ * The file holds a header, the game log, the snapshots and then the index, followed by the position of the index so
+ * it can be found from the end of the file. Only the header, log and index are read when a recording is opened.
+ * <p>
+ * Usage: {@code java uk.ac.aber.cs221.group16.game.log.Recording <game log> <recording> [interval]}, run from the
+ * project root, makes a recording from a game log.
+ *
+ * @author Group 16
+ * @version 1.0 Keyframe recordings.
+ */
+public class Recording implements Closeable {
+
+   // Constants
+   public static final int defaultInterval = 20;
+   private static final int magic = 0x42554352; // "BUCR"
+   // kept the same as the version of the game logs recordings hold.
+   private static final int version = 3;
+   private static final int trailerSize = Long.BYTES + Integer.BYTES;
+   private static final int indexEntrySize = Integer.BYTES * 3 + Long.BYTES;
+
+   // Instance Variables
+   private FileChannel channel;
+   private GameLog log;
+   private int interval;
+   private int[] keyframeTurns;
+   private int[] keyframePositions;
+   private long[] keyframeOffsets;
+   private int[] keyframeLengths;
+
+   // Constructors
+
+   /**
+    * Opens a recording, reading its log and index.
+    *
+    * @param path The file to open.
+    * @throws IOException If the file can't be read or isn't a recording.
+    */
+   public Recording(Path path) throws IOException {
+      channel = FileChannel.open(path, StandardOpenOption.READ);
+      try {
+         // the header and log are read as a stream from the start of the file.
+         DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+         if (in.readInt() != magic)
+            throw new IOException("Not a recording");
+         int fileVersion = in.readShort();
+         if (fileVersion != version)
+            throw new IOException("Unsupported recording version " + fileVersion);
+         interval = in.readInt();
+         log = GameLog.read(in);
+         readIndex();
+      } catch (IOException | RuntimeException e) {
+         channel.close();
+         throw e;
+      }
+   }
+
+   // Public Methods
+
+   /**
+    * Gets the game as it was at the start of a turn, or at the end of the game if the turn is after it. The snapshot
+    * at or before the turn is restored and the turns after it replayed.
+    *
+    * @param turnNumber The turn, where 0 is the start of the game.
+    * @return A game at the start of the turn, whose decisions are answered from the recording.
+    * @throws IOException           If the snapshot can't be read.
+    * @throws IllegalStateException If the recording is corrupt.
+    */
+   public Game seek(int turnNumber) throws IOException {
+      int k = Math.max(0, Math.min(turnNumber / interval, keyframeTurns.length - 1));
+      // keyframes are evenly spaced, this only moves back if the index is not as expected.
+      while (k > 0 && keyframeTurns[k] > turnNumber)
+         k--;
+      Replay replay = new Replay(log, getKeyframe(k), keyframePositions[k]);
+      return replay.playTo(turnNumber);
+   }
+
+   /**
+    * Reads a snapshot from the file.
+    *
+    * @param index The index of the snapshot, the snapshot at index i is of turn {@link #getKeyframeTurn(int)}.
+    * @return The snapshot.
+    * @throws IOException If the snapshot can't be read.
+    */
+   public Snapshot getKeyframe(int index) throws IOException {
+      ByteBuffer buffer = ByteBuffer.allocate(keyframeLengths[index]);
+      readFully(buffer, keyframeOffsets[index]);
+      return new Snapshot(buffer.array());
+   }
+
+   /**
+    * Gets the turn a snapshot was taken at.
+    *
+    * @param index The index of the snapshot.
+    * @return The turn number.
+    */
+   public int getKeyframeTurn(int index) {
+      return keyframeTurns[index];
+   }
+
+   /**
+    * Gets the number of snapshots in the recording.
+    *
+    * @return The snapshot count.
+    */
+   public int getKeyframeCount() {
+      return keyframeTurns.length;
+   }
+
+   /**
+    * Gets the number of turns between snapshots.
+    *
+    * @return The interval.
+    */
+   public int getInterval() {
+      return interval;
+   }
+
+   /**
+    * Gets the log of the recorded game.
+    *
+    * @return The game log.
+    */
+   public GameLog getLog() {
+      return log;
+   }
+
+   @Override
+   public void close() throws IOException {
+      channel.close();
+   }
+
+   // Private Methods
+
+   /**
+    * Reads the index from the end of the file.
+    *
+    * @throws IOException If the index can't be read.
+    */
+   private void readIndex() throws IOException {
+      long fileSize = channel.size();
+      ByteBuffer trailer = ByteBuffer.allocate(trailerSize);
+      readFully(trailer, fileSize - trailerSize);
+      trailer.flip();
+      long indexOffset = trailer.getLong();
+      if (trailer.getInt() != magic || indexOffset < 0 || indexOffset > fileSize - trailerSize)
+         throw new IOException("Recording has no index");
+
+      ByteBuffer index = ByteBuffer.allocate((int) (fileSize - trailerSize - indexOffset));
+      readFully(index, indexOffset);
+      index.flip();
+      int count = index.getInt();
+      if (count < 1 || index.remaining() != count * indexEntrySize)
+         throw new IOException("Recording index is corrupt");
+      keyframeTurns = new int[count];
+      keyframePositions = new int[count];
+      keyframeOffsets = new long[count];
+      keyframeLengths = new int[count];
+      for (int i = 0; i < count; i++) {
+         keyframeTurns[i] = index.getInt();
+         keyframePositions[i] = index.getInt();
+         keyframeOffsets[i] = index.getLong();
+         keyframeLengths[i] = index.getInt();
+      }
+   }
+
+   /**
+    * Fills a buffer from the file.
+    *
+    * @param buffer   The buffer to fill.
+    * @param position The position in the file to read from.
+    * @throws IOException If the file ends first.
+    */
+   private void readFully(ByteBuffer buffer, long position) throws IOException {
+      while (buffer.hasRemaining()) {
+         int read = channel.read(buffer, position);
+         if (read < 0)
+            throw new EOFException("Recording is truncated");
+         position += read;
+      }
+   }
+
+   // Static Methods
+
+   /**
+    * Makes a recording of a game from its log. The log is replayed to take the snapshots, which also checks it.
+    *
+    * @param path     The file to write to, replacing anything already there.
+    * @param log      The log of the game.
+    * @param interval The number of turns between snapshots.
+    * @throws IOException           If the file can't be written.
+    * @throws IllegalStateException If the log can't be replayed.
+    */
+   public static void write(Path path, GameLog log, int interval) throws IOException {
+      if (interval < 1)
+         throw new IllegalArgumentException("Interval must be at least 1");
+      try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+         out.writeInt(magic);
+         out.writeShort(version);
+         out.writeInt(interval);
+         log.write((DataOutput) out);
+
+         // take a snapshot at the start of every interval'th turn.
+         Replay replay = new Replay(log);
+         Game game = replay.getGame();
+         ByteArrayOutputStream index = new ByteArrayOutputStream();
+         DataOutputStream indexOut = new DataOutputStream(index);
+         int count = 0;
+         do {
+            if (game.getTurnNumber() == count * interval && !game.isGameOver()) {
+               byte[] snapshot = Snapshot.capture(game).getData();
+               indexOut.writeInt(game.getTurnNumber());
+               indexOut.writeInt(replay.getPosition());
+               indexOut.writeLong(out.size());
+               indexOut.writeInt(snapshot.length);
+               out.write(snapshot);
+               count++;
+            }
+         } while (replay.step());
+         if (!game.getLog().equals(log))
+            throw new IllegalStateException("Replay is different from the recording");
+
+         long indexOffset = out.size();
+         out.writeInt(count);
+         index.writeTo(out);
+         out.writeLong(indexOffset);
+         out.writeInt(magic);
+      }
+   }
+
+   public static void main(String args[]) throws IOException {
+      GameLog log = GameLog.read(Paths.get(args[0]));
+      Path path = Paths.get(args[1]);
+      int interval = args.length > 2 ? Integer.parseInt(args[2]) : defaultInterval;
+      write(path, log, interval);
+      try (Recording recording = new Recording(path)) {
+         System.out.printf("%d events and %d snapshots in %d bytes%n", log.getEventCount(),
+                 recording.getKeyframeCount(), Files.size(path));
+      }
+   }
+}
@@ -0,0 +1,85 @@
+/*
+* @(#) RecordingInteraction.java 1.0 2017/04/01
+*
+* Copyright (c) 2017 Aberystwyth University.
+* All rights reserved.
+*
+*/
+
+package uk.ac.aber.cs221.group16.game.log;
+
+import uk.ac.aber.cs221.group16.game.Interaction;
+import uk.ac.aber.cs221.group16.game.Trade;
+import uk.ac.aber.cs221.group16.game.players.Player;
+
+import java.util.List;
+
+/**
+ * This class wraps the interaction a game was made with and records every decision it returns in the game's
+ * {@link GameLog}. Trades record themselves when they are accepted, see {@link Trade#accept}.
+ *
+ * @author Group 16
+ * @version 1.0 Game log and replay.
+ */
+public class RecordingInteraction implements Interaction {
+
+   // Instance Variables
+   private Interaction interaction;
+   private GameLog log;
+
+   // Constructors
+
+   /**
+    * Creates an interaction which records the decisions of another.
+    *
+    * @param interaction The interaction to pass every call on to.
+    * @param log         The log to record decisions in.
+    */
+   public RecordingInteraction(Interaction interaction, GameLog log) {
+      this.interaction = interaction;
+      this.log = log;
+   }
+
+   // Public Methods
+
+   @Override
+   public void inform(String message) {
+      interaction.inform(message);
+   }
+
+   @Override
+   public boolean engage(Player defender, Player attacker) {
+      boolean engaged = interaction.engage(defender, attacker);
+      log.engage(defender, engaged);
+      return engaged;
+   }
+
+   @Override
+   public boolean chooseTreasure(Player player, String question) {
+      boolean treasure = interaction.chooseTreasure(player, question);
+      log.chooseTreasure(player, treasure);
+      return treasure;
+   }
+
+   @Override
+   public Player selectPlayer(Player chooser, List<Player> candidates, String message) {
+      Player chosen = interaction.selectPlayer(chooser, candidates, message);
+      log.selectPlayer(chooser, chosen);
+      return chosen;
+   }
+
+   @Override
+   public void trade(Trade trade) {
+      interaction.trade(trade);
+   }
+
+   @Override
+   public void currentPlayerChanged(Player previous, Player current) {
+      interaction.currentPlayerChanged(previous, current);
+   }
+
+   @Override
+   public void gameOver(Player winner) {
+      interaction.gameOver(winner);
+   }
+}
@@ -0,0 +1,376 @@
+/*
+* @(#) Replay.java 1.0 2017/04/01
+*
+* Copyright (c) 2017 Aberystwyth University.
+* All rights reserved.
+*
+*/
+
+package uk.ac.aber.cs221.group16.game.log;
+
+import uk.ac.aber.cs221.group16.game.Game;
+import uk.ac.aber.cs221.group16.game.Interaction;
+import uk.ac.aber.cs221.group16.game.Trade;
+import uk.ac.aber.cs221.group16.game.map.Board;
+import uk.ac.aber.cs221.group16.game.map.Orientation;
+import uk.ac.aber.cs221.group16.game.players.Player;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * This class plays a recorded game again from its {@link GameLog}, with no display and no animation. The game is made
+ * from the seed and names in the log, each move and rotation is played through the {@link Board} and each decision is
+ * answered from the log. Once every event has been played, the log of the replayed game must be identical to the
+ * recording, so a change to the rules which alters the outcome of a recorded game is caught.
+ * <p>
+ * A replay can also start from a {@link Snapshot} part of the way through the recording, see {@link Recording}, and
+ * be stepped one action at a time, and once played it can be handed over to carry on as a live game.
+ * <p>
+ * Usage: {@code java uk.ac.aber.cs221.group16.game.log.Replay <log or directory of logs>...}, run from the project
+ * root. Every log is replayed and checked, and the time taken is printed.
+ *
+ * @author Group 16
+ * @version 1.4 Reused copies.
+ */
+public class Replay {
+
+   // Instance Variables
+   private GameLog recording;
+   private GameLog.Reader reader;
+   private Game game;
+   private boolean fromStart;
+   private Interaction live;
+
+   // Constructors
+
+   /**
+    * Sets up the replay of a recording from the start of the game.
+    *
+    * @param recording The log to replay.
+    */
+   public Replay(GameLog recording) {
+      this.recording = recording;
+      this.reader = recording.reader();
+      this.game = new Game(recording.getNames(), new ReplayInteraction(), recording.getSeed());
+      this.fromStart = true;
+      game.start();
+   }
+
+   /**
+    * Sets up the replay of a recording from part of the way through, the game is restored from a snapshot taken at
+    * the start of a turn and the events played from the position of the first event of that turn.
+    *
+    * @param recording The log to replay.
+    * @param keyframe  The snapshot to start from.
+    * @param position  The position in the log of the first event after the snapshot was taken.
+    */
+   public Replay(GameLog recording, Snapshot keyframe, int position) {
+      this(recording, keyframe, position, null);
+   }
+
+   /**
+    * Sets up the replay of a recording from part of the way through, which may end part of the way through an action.
+    * Any decision the recording runs out before is asked of the live interaction, so the action can be finished, see
+    * {@link Fork}.
+    *
+    * @param recording The log to replay.
+    * @param keyframe  The snapshot to start from.
+    * @param position  The position in the log of the first event after the snapshot was taken.
+    * @param live      The interaction to ask once the recording runs out, or null if it must not run out.
+    */
+   public Replay(GameLog recording, Snapshot keyframe, int position, Interaction live) {
+      this.recording = recording;
+      this.reader = recording.reader(position);
+      this.game = new Game(recording.getNames(), new ReplayInteraction(), recording.getSeed());
+      this.live = live;
+      keyframe.restore(game);
+   }
+
+   // Public Methods
+
+   /**
+    * Starts replaying another recording in the same game, which is restored from a snapshot first. This saves setting
+    * up a new game for every copy a bot plays out, see {@link Fork#make(Interaction, Replay)}.
+    *
+    * @param recording The log to replay, which must have the same seed and names as the one the replay was made for.
+    * @param keyframe  The snapshot to start from.
+    * @param position  The position in the log of the first event after the snapshot was taken.
+    * @param live      The interaction to ask once the recording runs out, or null if it must not run out.
+    * @throws IllegalArgumentException If the recording is of a different game.
+    */
+   public void restart(GameLog recording, Snapshot keyframe, int position, Interaction live) {
+      if (recording.getSeed() != this.recording.getSeed() || !recording.getNames().equals(this.recording.getNames()))
+         throw new IllegalArgumentException("Recording is of a different game");
+      this.recording = recording;
+      this.reader = recording.reader(position);
+      this.fromStart = false;
+      this.live = live;
+      keyframe.restore(game);
+   }
+
+   /**
+    * Plays every event of the recording and checks the replayed game matches it. Only a replay from the start of the
+    * game can be checked.
+    *
+    * @return The replayed game.
+    * @throws IllegalStateException If the recording can't be replayed or the replay is different.
+    */
+   public Game play() {
+      while (step()) {
+         // every event is played, one action at a time.
+      }
+      if (fromStart && !game.getLog().equals(recording))
+         throw new IllegalStateException("Replay is different from the recording");
+      return game;
+   }
+
+   /**
+    * Plays events until the turn given has started or the recording runs out.
+    *
+    * @param turnNumber The turn to stop at.
+    * @return The game at the start of the turn, or at the end of the recording if it ended first.
+    * @throws IllegalStateException If the recording can't be replayed.
+    */
+   public Game playTo(int turnNumber) {
+      while (game.getTurnNumber() < turnNumber && !game.isGameOver()) {
+         if (!step())
+            break;
+      }
+      return game;
+   }
+
+   /**
+    * Plays the next move or rotation of the recording, along with every decision made during it.
+    *
+    * @return False if there were no more events to play.
+    * @throws IllegalStateException If the recording can't be replayed.
+    */
+   public boolean step() {
+      Board board = game.getBoard();
+      while (reader.hasNext()) {
+         EventType type = reader.next();
+         switch (type) {
+            case Move:
+               checkPlayer(board.getCurrentPlayer());
+               if (!board.sail(board.getGrid()[arg(1, Board.gridWidth)][arg(2, Board.gridHeight)]))
+                  throw diverged("invalid move");
+               return true;
+            case Rotate:
+               checkPlayer(board.getCurrentPlayer());
+               if (!board.rotate(Orientation.values()[arg(1, Orientation.values().length)]))
+                  throw diverged("invalid rotation");
+               return true;
+            case Battle:
+            case ChanceCard:
+               // outcomes are checked by comparing the logs at the end.
+               break;
+            default:
+               throw diverged(type + " was not asked for");
+         }
+      }
+      return false;
+   }
+
+   /**
+    * Hands the game over to be played on from where the recording ends, which is how a game is carried on after a
+    * crash, see {@link Journal}. From then on every message and decision goes to the interaction given.
+    *
+    * @param interaction The interaction to play the rest of the game through.
+    * @return The game.
+    * @throws IllegalStateException If there are events which haven't been played.
+    */
+   public Game handOver(Interaction interaction) {
+      if (reader.hasNext())
+         throw new IllegalStateException("Replay has not finished");
+      live = interaction;
+      return game;
+   }
+
+   /**
+    * Gets the position in the recording of the next event to be played.
+    *
+    * @return The position, see {@link GameLog.Reader#getPosition()}.
+    */
+   public int getPosition() {
+      return reader.getPosition();
+   }
+
+   /**
+    * Gets the game being replayed.
+    *
+    * @return The game.
+    */
+   public Game getGame() {
+      return game;
+   }
+
+   // Private Methods
+
+   /**
+    * Moves the reader on to the next decision, skipping outcomes, and checks it is the decision being asked for.
+    *
+    * @param type  The type of decision being asked for.
+    * @param maker The player making the decision.
+    * @return True if the decision is in the recording, false if it has run out and there is a live interaction to
+    * ask instead.
+    */
+   private boolean nextDecision(EventType type, Player maker) {
+      while (reader.hasNext()) {
+         EventType next = reader.next();
+         if (next == type) {
+            checkPlayer(maker);
+            return true;
+         }
+         if (!next.isOutcome())
+            throw diverged("expected " + type + " but found " + next);
+      }
+      if (live != null)
+         return false;
+      throw diverged("recording ended before " + type);
+   }
+
+   /**
+    * Checks the current event was made by the player expected, the first argument of every player event is their ID.
+    *
+    * @param player The player expected.
+    */
+   private void checkPlayer(Player player) {
+      if (reader.arg(0) != player.getId())
+         throw diverged(reader.getType() + " by player " + reader.arg(0) + " but it is player " + player.getId());
+   }
+
+   /**
+    * Gets an argument of the current event, checking it is in range so a corrupt recording is reported rather than
+    * crashing the replay.
+    *
+    * @param i     The index of the argument.
+    * @param bound The number of values the argument can take.
+    * @return The argument.
+    */
+   private int arg(int i, int bound) {
+      if (i >= reader.length())
+         throw diverged(reader.getType() + " is missing arguments");
+      int value = reader.arg(i);
+      if (value < 0 || value >= bound)
+         throw diverged(reader.getType() + " argument " + value + " is out of range");
+      return value;
+   }
+
+   /**
+    * Makes the exception thrown when the replay can't follow the recording.
+    *
+    * @param reason What went wrong.
+    * @return The exception.
+    */
+   private IllegalStateException diverged(String reason) {
+      return new IllegalStateException("Replay diverged on turn " + game.getTurnNumber() + ": " + reason);
+   }
+
+   // Static Methods
+
+   public static void main(String args[]) throws IOException {
+      List<Path> files = new ArrayList<>();
+      for (String arg : args) {
+         Path path = Paths.get(arg);
+         if (Files.isDirectory(path)) {
+            try (Stream<Path> stream = Files.list(path)) {
+               files.addAll(stream.filter(Files::isRegularFile).sorted().collect(Collectors.toList()));
+            }
+         } else {
+            files.add(path);
+         }
+      }
+
+      long turns = 0;
+      int failed = 0;
+      long start = System.nanoTime();
+      for (Path file : files) {
+         try {
+            turns += new Replay(GameLog.read(file)).play().getTurnNumber();
+         } catch (IllegalStateException | IOException e) {
+            failed++;
+            System.out.println(file + ": " + e.getMessage());
+         }
+      }
+      double seconds = (System.nanoTime() - start) / 1e9;
+      System.out.printf("Replayed %d games (%d failed), %d turns in %.3fs (%.0f turns/s)%n",
+              files.size(), failed, turns, seconds, turns / seconds);
+   }
+
+   // Inner Classes
+
+   /**
+    * Answers the game's decisions from the recording and ignores messages, until the game is handed over.
+    */
+   private class ReplayInteraction implements Interaction {
+
+      @Override
+      public void inform(String message) {
+         if (live != null)
+            live.inform(message);
+      }
+
+      @Override
+      public boolean engage(Player defender, Player attacker) {
+         if (!nextDecision(EventType.Engage, defender))
+            return live.engage(defender, attacker);
+         return reader.arg(1) != 0;
+      }
+
+      @Override
+      public boolean chooseTreasure(Player player, String question) {
+         if (!nextDecision(EventType.ChooseTreasure, player))
+            return live.chooseTreasure(player, question);
+         return reader.arg(1) != 0;
+      }
+
+      @Override
+      public Player selectPlayer(Player chooser, List<Player> candidates, String message) {
+         if (!nextDecision(EventType.SelectPlayer, chooser))
+            return live.selectPlayer(chooser, candidates, message);
+         for (Player candidate : candidates) {
+            if (candidate.getId() == reader.arg(1))
+               return candidate;
+         }
+         throw diverged("player " + reader.arg(1) + " can't be chosen");
+      }
+
+      @Override
+      public void trade(Trade trade) {
+         if (!nextDecision(EventType.Trade, trade.getPlayer())) {
+            live.trade(trade);
+            return;
+         }
+         int playerCount = trade.getPlayerTradables().size();
+         int portCount = trade.getPortTradables().size();
+         int[] fromPlayer = new int[arg(1, playerCount + 1)];
+         for (int i = 0; i < fromPlayer.length; i++)
+            fromPlayer[i] = arg(2 + i, playerCount);
+         int[] fromPort = new int[arg(2 + fromPlayer.length, portCount + 1)];
+         for (int i = 0; i < fromPort.length; i++)
+            fromPort[i] = arg(3 + fromPlayer.length + i, portCount);
+         // a declined trade is recorded as an empty one, which is left for the board to record again.
+         if ((fromPlayer.length > 0 || fromPort.length > 0) && !trade.accept(fromPlayer, fromPort))
+            throw diverged("invalid trade");
+      }
+
+      @Override
+      public void currentPlayerChanged(Player previous, Player current) {
+         if (live != null)
+            live.currentPlayerChanged(previous, current);
+      }
+
+      @Override
+      public void gameOver(Player winner) {
+         if (live != null)
+            live.gameOver(winner);
+      }
+   }
+}
@@ -0,0 +1,155 @@
+/*
+* @(#) SaveGame.java 1.0 2017/04/01
+*
+* Copyright (c) 2017 Aberystwyth University.
+* All rights reserved.
+*
+*/
+
+package uk.ac.aber.cs221.group16.game.log;
+
+import uk.ac.aber.cs221.group16.game.Game;
+import uk.ac.aber.cs221.group16.game.Interaction;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class saves games between turns and loads them again. A save holds the seed and names the game was made from
+ * and a {@link Snapshot} of it, which is enough to make the game again and put every card and treasure back where it
+ * was, so a save is under two hundred bytes.
+ * <p>
+ * Files are written and read through a {@link FileChannel} with one buffer which is kept between calls, so saving
+ * every turn doesn't make garbage. A save is written to a temporary file which then replaces the old save, so a crash
+ * part of the way through never leaves a broken save behind. The buffer makes a SaveGame unsafe to share between
+ * threads.
+ * <p>
+ * A loaded game's {@link GameLog} starts from the turn it was loaded at.
+ *
+ * @author Group 16
+ * @version 1.1 Autosave journal.
+ */
+public class SaveGame {
+
+   // Constants
+   private static final int magic = 0x42554353; // "BUCS"
+   private static final int version = 1;
+
+   // Instance Variables
+   private ByteBuffer buffer = ByteBuffer.allocate(Snapshot.maxSize * 2);
+
+   // Public Methods
+
+   /**
+    * Saves a game, replacing any save already in the file.
+    *
+    * @param game The game, which must be between turns.
+    * @param path The file to save to.
+    * @throws IOException           If the file can't be written.
+    * @throws IllegalStateException If a turn is part of the way through.
+    */
+   public void save(Game game, Path path) throws IOException {
+      buffer.clear();
+      buffer.putInt(magic);
+      buffer.putShort((short) version);
+      buffer.putLong(game.getSeed());
+      writeNames(buffer, game.getLog().getNames());
+      Snapshot.write(game, buffer);
+      buffer.flip();
+
+      Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+      try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+              StandardOpenOption.TRUNCATE_EXISTING)) {
+         while (buffer.hasRemaining())
+            channel.write(buffer);
+      }
+      Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+   }
+
+   /**
+    * Loads a saved game, which carries on from the start of the turn it was saved at.
+    *
+    * @param path        The file to load.
+    * @param interaction The interaction for the loaded game.
+    * @return The game, it has already been started.
+    * @throws IOException If the file can't be read or isn't a save.
+    */
+   public Game load(Path path, Interaction interaction) throws IOException {
+      buffer.clear();
+      try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+         if (channel.size() > buffer.capacity())
+            throw new IOException("Save is too large");
+         while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0)
+               break;
+         }
+      }
+      buffer.flip();
+
+      try {
+         if (buffer.remaining() < Integer.BYTES || buffer.getInt() != magic)
+            throw new IOException("Not a save");
+         int fileVersion = buffer.getShort();
+         if (fileVersion != version)
+            throw new IOException("Unsupported save version " + fileVersion);
+         long seed = buffer.getLong();
+         List<String> names = readNames(buffer);
+         Game game = new Game(names, interaction, seed);
+         Snapshot.read(buffer, game);
+         return game;
+      } catch (BufferUnderflowException | NegativeArraySizeException e) {
+         throw new EOFException("Save is truncated");
+      } catch (IllegalStateException e) {
+         throw new IOException("Save is corrupt", e);
+      }
+   }
+
+   // Static Methods
+
+   /**
+    * Writes the names of the players as a count followed by each name in UTF-8.
+    *
+    * @param out   The buffer to write to.
+    * @param names The names, in the order they were passed to the game.
+    */
+   static void writeNames(ByteBuffer out, List<String> names) {
+      out.put((byte) names.size());
+      for (String name : names) {
+         byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+         out.putShort((short) bytes.length);
+         out.put(bytes);
+      }
+   }
+
+   /**
+    * Reads names written by {@link #writeNames(ByteBuffer, List)}.
+    *
+    * @param in The buffer to read from.
+    * @return The names.
+    * @throws IOException                If there isn't a name for every player.
+    * @throws BufferUnderflowException   If the buffer ends first.
+    * @throws NegativeArraySizeException If a length is corrupt.
+    */
+   static List<String> readNames(ByteBuffer in) throws IOException {
+      int nameCount = in.get();
+      if (nameCount != Game.numPlayers)
+         throw new IOException("Wrong number of players " + nameCount);
+      List<String> names = new ArrayList<>();
+      for (int i = 0; i < nameCount; i++) {
+         byte[] bytes = new byte[in.getShort()];
+         in.get(bytes);
+         names.add(new String(bytes, StandardCharsets.UTF_8));
+      }
+      return names;
+   }
+}
@@ -0,0 +1,392 @@
+/*
+* @(#) Snapshot.java 1.0 2017/04/01
+*
+* Copyright (c) 2017 Aberystwyth University.
+* All rights reserved.
+*
+*/
+
+package uk.ac.aber.cs221.group16.game.log;
+
+import uk.ac.aber.cs221.group16.game.Game;
+import uk.ac.aber.cs221.group16.game.container.FlatIslandContainer;
+import uk.ac.aber.cs221.group16.game.container.PirateIslandContainer;
+import uk.ac.aber.cs221.group16.game.container.TreasureIslandContainer;
+import uk.ac.aber.cs221.group16.game.items.Tradable;
+import uk.ac.aber.cs221.group16.game.items.cards.ChanceCard;
+import uk.ac.aber.cs221.group16.game.items.cards.CrewCard;
+import uk.ac.aber.cs221.group16.game.items.treasures.*;
+import uk.ac.aber.cs221.group16.game.map.Board;
+import uk.ac.aber.cs221.group16.game.map.Orientation;
+import uk.ac.aber.cs221.group16.game.map.tiles.PortTile;
+import uk.ac.aber.cs221.group16.game.players.Player;
+import uk.ac.aber.cs221.group16.game.players.Ship;
+import uk.ac.aber.cs221.group16.game.states.State;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.*;
+
+/**
+ * This class is a compact copy of everything in a game which changes between turns: the hands of the players, the
+ * position, orientation and cargo of each ship, the treasure and crew cards in every port and the contents of the
+ * three island containers, along with the turn number and battle count.
+ * <p>
+ * Cards are stored by ID and treasures by type code, a byte each, so a snapshot is a little over a hundred bytes. It is
+ * restored onto a game made from the same seed and names, whose cards and treasures are moved to where the snapshot
+ * says they were, so the objects of the game keep their identity. Snapshots can only be taken between turns.
+ *
+ * @author Group 16
+ * @version 1.2 Reused copies.
+ */
+public class Snapshot {
+
+   // Constants
+   // the turn and battle count, three bytes for each ship and a count and a byte for every card and treasure in the
+   // places they can be, with plenty to spare.
+   public static final int maxSize = 1024;
+   private static final Class<?>[] treasureTypes = {DiamondTreasure.class, RubyTreasure.class, GoldTreasure.class,
+           PearlTreasure.class, RumTreasure.class};
+   private static final int crewCardValues = CrewCard.maxValue;
+
+   // Instance Variables
+   private byte[] data;
+
+   // Constructors
+
+   /**
+    * Creates a snapshot from data returned by {@link #getData()}.
+    *
+    * @param data The encoded snapshot.
+    */
+   public Snapshot(byte[] data) {
+      this.data = data;
+   }
+
+   // Public Methods
+
+   /**
+    * Gets the encoded snapshot.
+    *
+    * @return The data, which must not be modified.
+    */
+   public byte[] getData() {
+      return data;
+   }
+
+   /**
+    * Gets the turn number the snapshot was taken at.
+    *
+    * @return The turn number.
+    */
+   public int getTurnNumber() {
+      return ByteBuffer.wrap(data).getInt(0);
+   }
+
+   /**
+    * Moves every card and treasure of a game to where they were when the snapshot was taken and resumes the game at
+    * the start of that turn. The game must have been made from the same seed and names as the one the snapshot was
+    * taken from, and be between actions. It may have been played before, in which case its log is emptied so it only
+    * holds what happens after the snapshot, as it would for a new game.
+    *
+    * @param game The game to restore onto.
+    * @throws IllegalStateException If the snapshot doesn't fit the game.
+    */
+   public void restore(Game game) {
+      read(ByteBuffer.wrap(data), game);
+   }
+
+   @Override
+   public boolean equals(Object o) {
+      return o instanceof Snapshot && Arrays.equals(data, ((Snapshot) o).data);
+   }
+
+   @Override
+   public int hashCode() {
+      return Arrays.hashCode(data);
+   }
+
+   // Static Methods
+
+   /**
+    * Checks whether a game is between turns, where a snapshot can be taken. A player moving again after losing a
+    * battle is part of the way through the turn.
+    *
+    * @param game The game.
+    * @return True if the game is at the start of a turn.
+    */
+   public static boolean canCapture(Game game) {
+      return game.getState() == State.Move &&
+              game.getBoard().getCurrentPlayer() == game.getPlayers()[game.getTurnNumber() % Game.numPlayers];
+   }
+
+   /**
+    * Takes a snapshot of a game between turns.
+    *
+    * @param game The game.
+    * @return The snapshot.
+    * @throws IllegalStateException If a turn is part of the way through.
+    */
+   public static Snapshot capture(Game game) {
+      ByteBuffer buffer = ByteBuffer.allocate(maxSize);
+      write(game, buffer);
+      return new Snapshot(Arrays.copyOf(buffer.array(), buffer.position()));
+   }
+
+   /**
+    * Writes a snapshot of a game between turns into a buffer, starting at the buffer's position. The buffer needs
+    * at most {@link #maxSize} bytes free.
+    *
+    * @param game The game.
+    * @param out  The buffer to write to.
+    * @throws IllegalStateException If a turn is part of the way through.
+    */
+   public static void write(Game game, ByteBuffer out) {
+      Board board = game.getBoard();
+      if (!canCapture(game))
+         throw new IllegalStateException("Snapshots can only be taken between turns");
+      out.putInt(game.getTurnNumber());
+      out.putInt(game.getBattleCount());
+      for (Player player : game.getPlayers()) {
+         Ship ship = player.getShip();
+         out.put((byte) ship.getX());
+         out.put((byte) ship.getY());
+         out.put((byte) ship.getOrientation().ordinal());
+         writeTreasures(out, ship.getCargo());
+         writeCrewCards(out, player.getCrewCards());
+         writeChanceCards(out, player.getChanceCards());
+      }
+      for (PortTile port : getPorts(board)) {
+         writeTreasures(out, port.getTreasureSet());
+         writeCrewCards(out, port.getCrewCardSet());
+      }
+      writeTreasures(out, board.getTreasureIslandContainer().getTreasures());
+      writeChanceCards(out, board.getTreasureIslandContainer().getChanceCards());
+      writeTreasures(out, board.getFlatIslandContainer().getTreasurePile());
+      writeCrewCards(out, board.getFlatIslandContainer().getCrewCards());
+      writeTreasures(out, board.getPirateIslandContainer().getTreasure());
+      writeCrewCards(out, board.getPirateIslandContainer().getCrewCards());
+   }
+
+   /**
+    * Reads a snapshot from a buffer, starting at the buffer's position, and restores it onto a game, see
+    * {@link #restore(Game)}.
+    *
+    * @param in   The buffer to read from.
+    * @param game The game to restore onto.
+    * @throws IllegalStateException If the snapshot is corrupt or doesn't fit the game.
+    */
+   public static void read(ByteBuffer in, Game game) {
+      Board board = game.getBoard();
+      Pools pools = new Pools(game);
+      try {
+         int turnNumber = in.getInt();
+         int battleCount = in.getInt();
+         for (Player player : game.getPlayers()) {
+            Ship ship = player.getShip();
+            ship.moveTo(board.getGrid()[in.get()][in.get()], board);
+            ship.setOrientation(Orientation.values()[in.get()]);
+            readTreasures(in, pools, ship.getCargo());
+            readCrewCards(in, pools, player.getCrewCards());
+            readChanceCards(in, pools, player.getChanceCards());
+         }
+         for (PortTile port : getPorts(board)) {
+            readTreasures(in, pools, port.getTreasureSet());
+            readCrewCards(in, pools, port.getCrewCardSet());
+         }
+         readTreasures(in, pools, board.getTreasureIslandContainer().getTreasures());
+         readChanceCards(in, pools, board.getTreasureIslandContainer().getChanceCards());
+         readTreasures(in, pools, board.getFlatIslandContainer().getTreasurePile());
+         readCrewCards(in, pools, board.getFlatIslandContainer().getCrewCards());
+         readTreasures(in, pools, board.getPirateIslandContainer().getTreasure());
+         readCrewCards(in, pools, board.getPirateIslandContainer().getCrewCards());
+         game.getLog().clear();
+         game.resume(turnNumber, battleCount);
+      } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+         throw new IllegalStateException("Snapshot is corrupt", e);
+      }
+   }
+
+   /**
+    * Gets the code of a treasure, which is the index of its type in {@link #treasureTypes}.
+    *
+    * @param treasure The treasure.
+    * @return The type code.
+    */
+   public static int treasureCode(Treasure treasure) {
+      for (int i = 0; i < treasureTypes.length; i++) {
+         if (treasureTypes[i] == treasure.getClass())
+            return i;
+      }
+      throw new IllegalArgumentException("Unknown treasure " + treasure.getType());
+   }
+
+   /**
+    * Gets the code of a crew card, red cards are 0 to 2 and black cards 3 to 5 in order of value.
+    *
+    * @param card The crew card.
+    * @return The code.
+    */
+   public static int crewCardCode(CrewCard card) {
+      return card.getColorIndex() * crewCardValues + card.getValue() - 1;
+   }
+
+   /**
+    * Gets every port on the board in a fixed order.
+    *
+    * @param board The board.
+    * @return The ports.
+    */
+   private static PortTile[] getPorts(Board board) {
+      return new PortTile[]{board.getLondonTile(), board.getGenoaTile(), board.getMarseillesTile(),
+              board.getCadizTile(), board.getVeniceTile(), board.getAmsterdamTile()};
+   }
+
+   /**
+    * Writes the number of treasures in a collection followed by the code of each.
+    *
+    * @param out       The buffer to write to.
+    * @param treasures The treasures.
+    */
+   private static void writeTreasures(ByteBuffer out, Collection<Treasure> treasures) {
+      out.put((byte) treasures.size());
+      for (Treasure treasure : treasures)
+         out.put((byte) treasureCode(treasure));
+   }
+
+   /**
+    * Writes the number of crew cards in a collection followed by the code of each.
+    *
+    * @param out   The buffer to write to.
+    * @param cards The crew cards.
+    */
+   private static void writeCrewCards(ByteBuffer out, Collection<CrewCard> cards) {
+      out.put((byte) cards.size());
+      for (CrewCard card : cards)
+         out.put((byte) crewCardCode(card));
+   }
+
+   /**
+    * Writes the number of chance cards in a collection followed by the ID of each.
+    *
+    * @param out   The buffer to write to.
+    * @param cards The chance cards.
+    */
+   private static void writeChanceCards(ByteBuffer out, Collection<ChanceCard> cards) {
+      out.put((byte) cards.size());
+      for (ChanceCard card : cards)
+         out.put((byte) card.getCardID());
+   }
+
+   /**
+    * Reads a list of treasures and adds them to a collection, taking them from the pools.
+    *
+    * @param in    The buffer to read from.
+    * @param pools The treasures of the game.
+    * @param to    The collection to add them to.
+    */
+   private static void readTreasures(ByteBuffer in, Pools pools, Collection<Treasure> to) {
+      int count = in.get() & 0xFF;
+      for (int i = 0; i < count; i++)
+         to.add(take(pools.treasures.get(in.get())));
+   }
+
+   /**
+    * Reads a list of crew cards and adds them to a collection, taking them from the pools.
+    *
+    * @param in    The buffer to read from.
+    * @param pools The crew cards of the game.
+    * @param to    The collection to add them to.
+    */
+   private static void readCrewCards(ByteBuffer in, Pools pools, Collection<CrewCard> to) {
+      int count = in.get() & 0xFF;
+      for (int i = 0; i < count; i++)
+         to.add(take(pools.crewCards.get(in.get())));
+   }
+
+   /**
+    * Reads a list of chance cards and adds them to a collection, taking them from the pools.
+    *
+    * @param in    The buffer to read from.
+    * @param pools The chance cards of the game.
+    * @param to    The collection to add them to.
+    */
+   private static void readChanceCards(ByteBuffer in, Pools pools, Collection<ChanceCard> to) {
+      int count = in.get() & 0xFF;
+      for (int i = 0; i < count; i++) {
+         ChanceCard card = pools.chanceCards.remove((int) in.get());
+         if (card == null)
+            throw new IllegalStateException("Snapshot has a chance card the game doesn't");
+         to.add(card);
+      }
+   }
+
+   /**
+    * Takes an item from a pool.
+    *
+    * @param pool The pool.
+    * @param <T>  The type of item.
+    * @return The item.
+    */
+   private static <T> T take(Deque<T> pool) {
+      if (pool.isEmpty())
+         throw new IllegalStateException("Snapshot has more items than the game");
+      return pool.poll();
+   }
+
+   // Inner Classes
+
+   /**
+    * Every card and treasure of a game, taken out of wherever they were so they can be put back where a snapshot
+    * says. Treasures and crew cards are grouped by code, chance cards are kept by ID.
+    * <p>
+    * The pools are filled from {@link Game#getPieces()} rather than from where the pieces are, so a game which has
+    * been played on can be restored even if a rule lost a piece, e.g. treasure washed overboard to a full ship.
+    */
+   private static class Pools {
+
+      private List<Deque<Treasure>> treasures = new ArrayList<>();
+      private List<Deque<CrewCard>> crewCards = new ArrayList<>();
+      private Map<Integer, ChanceCard> chanceCards = new HashMap<>();
+
+      /**
+       * Empties every hand, ship, port and island of a game and puts all of its pieces into the pools.
+       *
+       * @param game The game.
+       */
+      private Pools(Game game) {
+         for (int i = 0; i < treasureTypes.length; i++)
+            treasures.add(new ArrayDeque<>());
+         for (int i = 0; i < crewCardValues * 2; i++)
+            crewCards.add(new ArrayDeque<>());
+         for (Tradable piece : game.getPieces()) {
+            if (piece instanceof Treasure)
+               treasures.get(treasureCode((Treasure) piece)).add((Treasure) piece);
+            else if (piece instanceof CrewCard)
+               crewCards.get(crewCardCode((CrewCard) piece)).add((CrewCard) piece);
+            else
+               chanceCards.put(((ChanceCard) piece).getCardID(), (ChanceCard) piece);
+         }
+
+         Board board = game.getBoard();
+         for (Player player : game.getPlayers()) {
+            player.getShip().getCargo().clear();
+            player.getCrewCards().clear();
+            player.getChanceCards().clear();
+         }
+         for (PortTile port : getPorts(board)) {
+            port.getTreasureSet().clear();
+            port.getCrewCardSet().clear();
+         }
+         TreasureIslandContainer treasureIsland = board.getTreasureIslandContainer();
+         treasureIsland.getTreasures().clear();
+         treasureIsland.getChanceCards().clear();
+         FlatIslandContainer flatIsland = board.getFlatIslandContainer();
+         flatIsland.getTreasurePile().clear();
+         flatIsland.getCrewCards().clear();
+         PirateIslandContainer pirateIsland = board.getPirateIslandContainer();
+         pirateIsland.getTreasure().clear();
+         pirateIsland.getCrewCards().clear();
+      }
+   }
+}
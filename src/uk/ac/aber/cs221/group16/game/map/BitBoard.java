@@ -0,0 +1,312 @@
+/*
+* @(#) BitBoard.java 1.0 2017/04/01
+*
+* Copyright (c) 2017 Aberystwyth University.
+* All rights reserved.
+*
+*/
+
+package uk.ac.aber.cs221.group16.game.map;
+
+import uk.ac.aber.cs221.group16.game.map.tiles.*;
+import uk.ac.aber.cs221.group16.game.utils.MoveAssistance;
+
+/**
+ * This class packs the {@link Board#gridWidth} by {@link Board#gridHeight} grid into bitboards, a mask of one bit per
+ * tile stored in an array of longs. Cell (x, y) is bit {@link #index(int, int)} which is y * gridWidth + x.
+ * <p>
+ * The masks for sea, ports, bays and tiles next to Treasure Island never change once the map is loaded, the occupancy
+ * mask is kept up to date by {@link uk.ac.aber.cs221.group16.game.players.Ship#moveTo(Tile, Board)}. With these, move
+ * generation (along the rays of a {@link RayTable}) and checking whether combat is allowed on a tile are a few shifts
+ * and ANDs and do not allocate.
+ *
+ * @author Group 16
+ * @version 1.2 Valid move masks.
+ */
+public class BitBoard {
+
+   // Constants
+   public static final int cells = Board.gridWidth * Board.gridHeight;
+   public static final int words = (cells + 63) >>> 6;
+
+   // values() copies the array every call, so keep one.
+   private static final Orientation[] orientations = Orientation.values();
+
+   // Instance Variables
+   private final long[] sea;
+   private final long[] ports;
+   private final long[] bays;
+   private final long[] nextToTreasureIsland;
+   private final long[] noCombat;
+   private final long[] anyDirection;
+   private final long[] occupied;
+   private final RayTable rays;
+
+   // Constructors
+
+   /**
+    * Builds the masks for a map. The occupancy mask starts empty.
+    *
+    * @param grid The two dimensional array of Tiles representing the grid.
+    */
+   public BitBoard(Tile[][] grid) {
+      sea = newMask();
+      ports = newMask();
+      bays = newMask();
+      nextToTreasureIsland = newMask();
+      noCombat = newMask();
+      anyDirection = newMask();
+      occupied = newMask();
+
+      for (int x = 0; x < Board.gridWidth; x++) {
+         for (int y = 0; y < Board.gridHeight; y++) {
+            int i = index(x, y);
+            Tile t = grid[x][y];
+            if (t.isSailable())
+               set(sea, i);
+            if (t instanceof PortTile)
+               set(ports, i);
+            if (t instanceof BayTile)
+               set(bays, i);
+            for (IslandTile islandTile : MoveAssistance.getSurroundingIslandTiles(x, y, grid)) {
+               if (islandTile instanceof TreasureIslandTile) {
+                  set(nextToTreasureIsland, i);
+                  break;
+               }
+            }
+            if (t.isOccupied())
+               set(occupied, i);
+         }
+      }
+      for (int w = 0; w < words; w++) {
+         // combat is never allowed in a port or next to Treasure Island.
+         noCombat[w] = ports[w] | nextToTreasureIsland[w];
+         // ships in a port or bay may leave in any direction.
+         anyDirection[w] = ports[w] | bays[w];
+      }
+      rays = RayTable.of(sea);
+   }
+
+   // Public Methods
+
+   /**
+    * Checks whether the coordinate is on the grid and sailable.
+    *
+    * @param x The x coordinate.
+    * @param y The y coordinate.
+    * @return True if there is a sailable tile at (x, y).
+    */
+   public boolean isSailable(int x, int y) {
+      return MoveAssistance.isValidCoordinate(x, y) && test(sea, index(x, y));
+   }
+
+   /**
+    * Gets the precomputed rays of the map.
+    *
+    * @return The ray table.
+    */
+   public RayTable getRays() {
+      return rays;
+   }
+
+   /**
+    * Checks whether a ship is on the tile at the coordinate.
+    *
+    * @param x The x coordinate.
+    * @param y The y coordinate.
+    * @return True if at least one ship is on the tile.
+    */
+   public boolean isOccupied(int x, int y) {
+      return test(occupied, index(x, y));
+   }
+
+   /**
+    * Checks whether the tile at the coordinate is within one square of Treasure Island.
+    *
+    * @param x The x coordinate.
+    * @param y The y coordinate.
+    * @return True if the tile is next to Treasure Island.
+    */
+   public boolean isNextToTreasureIsland(int x, int y) {
+      return test(nextToTreasureIsland, index(x, y));
+   }
+
+   /**
+    * Checks whether ships may fight on the tile at the coordinate, which is anywhere except a port or next to
+    * Treasure Island.
+    *
+    * @param x The x coordinate.
+    * @param y The y coordinate.
+    * @return True if combat is allowed on the tile.
+    */
+   public boolean isCombatAllowed(int x, int y) {
+      return !test(noCombat, index(x, y));
+   }
+
+   /**
+    * Updates the occupancy bit of a tile, must be called whenever a ship is placed on or removed from a tile.
+    *
+    * @param t The tile which has changed.
+    */
+   public void updateOccupancy(Tile t) {
+      if (t.isOccupied())
+         set(occupied, index(t.getX(), t.getY()));
+      else
+         clear(occupied, index(t.getX(), t.getY()));
+   }
+
+   /**
+    * Generates the valid moves of a ship into a mask. Ships in a port or bay, or which have just lost a battle, may
+    * sail in any direction from 1 square, otherwise they may only sail forwards and may stay where they are. The moves
+    * are read from the {@link RayTable}, then occupied tiles where combat is not allowed are removed.
+    *
+    * @param x          The x coordinate of the ship.
+    * @param y          The y coordinate of the ship.
+    * @param facing     The orientation of the ship.
+    * @param moveDist   The maximum number of squares the ship may sail.
+    * @param postCombat True if the ship must move after a battle.
+    * @param out        The mask to write the moves into, it is cleared first.
+    */
+   public void generateMoves(int x, int y, Orientation facing, int moveDist, boolean postCombat, long[] out) {
+      for (int w = 0; w < words; w++)
+         out[w] = 0L;
+      int cell = index(x, y);
+      boolean anyMove = postCombat || test(anyDirection, cell);
+      if (anyMove) {
+         for (Orientation dir : orientations)
+            addRay(cell, dir, moveDist, out);
+      } else {
+         // a ship which may only sail forwards may also stay where it is.
+         set(out, cell);
+         addRay(cell, facing, moveDist, out);
+      }
+      for (int w = 0; w < words; w++)
+         out[w] &= ~(noCombat[w] & occupied[w]);
+   }
+
+   // Private Methods
+
+   /**
+    * Sets the bits of the first moveDist cells of a ray.
+    *
+    * @param cell     The cell index of the start.
+    * @param dir      The direction of the ray.
+    * @param moveDist The maximum number of squares to sail.
+    * @param out      The mask to set the bits in.
+    */
+   private void addRay(int cell, Orientation dir, int moveDist, long[] out) {
+      short[] cells = rays.getCells();
+      int start = rays.start(cell, dir);
+      int end = start + Math.min(moveDist, rays.length(cell, dir));
+      for (int i = start; i < end; i++)
+         set(out, cells[i]);
+   }
+
+   // Static Methods
+
+   /**
+    * Makes an empty mask.
+    *
+    * @return A mask with every bit cleared.
+    */
+   public static long[] newMask() {
+      return new long[words];
+   }
+
+   /**
+    * Gets the bit index of a coordinate.
+    *
+    * @param x The x coordinate.
+    * @param y The y coordinate.
+    * @return The index of the bit for the tile.
+    */
+   public static int index(int x, int y) {
+      return y * Board.gridWidth + x;
+   }
+
+   /**
+    * Gets the x coordinate of a bit index.
+    *
+    * @param i The bit index.
+    * @return The x coordinate.
+    */
+   public static int xOf(int i) {
+      return i % Board.gridWidth;
+   }
+
+   /**
+    * Gets the y coordinate of a bit index.
+    *
+    * @param i The bit index.
+    * @return The y coordinate.
+    */
+   public static int yOf(int i) {
+      return i / Board.gridWidth;
+   }
+
+   /**
+    * Checks whether a bit is set.
+    *
+    * @param mask The mask.
+    * @param i    The bit index.
+    * @return True if the bit is set.
+    */
+   public static boolean test(long[] mask, int i) {
+      return (mask[i >>> 6] & (1L << i)) != 0;
+   }
+
+   /**
+    * Sets a bit.
+    *
+    * @param mask The mask.
+    * @param i    The bit index.
+    */
+   public static void set(long[] mask, int i) {
+      mask[i >>> 6] |= 1L << i;
+   }
+
+   /**
+    * Clears a bit.
+    *
+    * @param mask The mask.
+    * @param i    The bit index.
+    */
+   public static void clear(long[] mask, int i) {
+      mask[i >>> 6] &= ~(1L << i);
+   }
+
+   /**
+    * Counts the set bits of a mask.
+    *
+    * @param mask The mask.
+    * @return The number of bits set.
+    */
+   public static int count(long[] mask) {
+      int count = 0;
+      for (long word : mask)
+         count += Long.bitCount(word);
+      return count;
+   }
+
+   /**
+    * Finds the next set bit at or after an index, use it to walk the bits of a mask, e.g.
+    * {@code for (int i = nextSetBit(m, 0); i >= 0; i = nextSetBit(m, i + 1))}.
+    *
+    * @param mask The mask.
+    * @param from The index to start from.
+    * @return The index of the next set bit, or -1 if there are none.
+    */
+   public static int nextSetBit(long[] mask, int from) {
+      int w = from >>> 6;
+      if (w >= words)
+         return -1;
+      long word = mask[w] & (-1L << from);
+      while (true) {
+         if (word != 0)
+            return (w << 6) + Long.numberOfTrailingZeros(word);
+         if (++w == words)
+            return -1;
+         word = mask[w];
+      }
+   }
+}
@@ -8,54 +8,63 @@
 
 package uk.ac.aber.cs221.group16.game.map;
 
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
-import javafx.application.Platform;
-import javafx.scene.image.Image;
-import javafx.scene.layout.*;
-import javafx.util.Duration;
 import uk.ac.aber.cs221.group16.game.Battle;
-import uk.ac.aber.cs221.group16.game.Controller;
 import uk.ac.aber.cs221.group16.game.Game;
-import uk.ac.aber.cs221.group16.game.GraphicLoader;
+import uk.ac.aber.cs221.group16.game.Interaction;
+import uk.ac.aber.cs221.group16.game.Trade;
 import uk.ac.aber.cs221.group16.game.container.FlatIslandContainer;
 import uk.ac.aber.cs221.group16.game.container.PirateIslandContainer;
 import uk.ac.aber.cs221.group16.game.container.TreasureIslandContainer;
 import uk.ac.aber.cs221.group16.game.items.cards.ChanceCard;
 import uk.ac.aber.cs221.group16.game.items.cards.CrewCard;
 import uk.ac.aber.cs221.group16.game.items.treasures.Treasure;
+import uk.ac.aber.cs221.group16.game.log.GameLog;
 import uk.ac.aber.cs221.group16.game.map.tiles.*;
 import uk.ac.aber.cs221.group16.game.players.Player;
+import uk.ac.aber.cs221.group16.game.profiling.EndOfPathEvent;
+import uk.ac.aber.cs221.group16.game.profiling.SailEvent;
 import uk.ac.aber.cs221.group16.game.states.State;
+import uk.ac.aber.cs221.group16.game.states.StepResult;
 import uk.ac.aber.cs221.group16.game.utils.Calculations;
 import uk.ac.aber.cs221.group16.game.utils.MoveAssistance;
-import uk.ac.aber.cs221.group16.game.windows.Choice;
-import uk.ac.aber.cs221.group16.game.windows.GenericMsg;
-import uk.ac.aber.cs221.group16.game.windows.TradeWindow;
+import uk.ac.aber.cs221.group16.game.utils.Zobrist;
 
 import java.util.*;
 
 /**
- * This class is used for managing the board and all ports, islands.
+ * This class is used for managing the board and all ports, islands. It holds the rules for moving, fighting and
+ * interacting with islands and ports, but has no UI of its own; anything shown to the players goes through the game's
+ * {@link Interaction}. A view such as {@link uk.ac.aber.cs221.group16.game.view.BoardView} drives a move one square at
+ * a time with {@link #partialMove()} so it can animate it, while a headless game can use {@link #sail(Tile)}.
  * <p>
+ * Each path sailed and the handling of its end are timed as {@link SailEvent}s and {@link EndOfPathEvent}s for the
+ * flight recorder.
  *
  * @author Josh Smith
- * @version 1.2 Move and rotate features Beta.
+ * @version 1.11 Valid move masks.
  */
 public class Board {
 
    // Constants
    public static final int gridWidth = 20;
    public static final int gridHeight = 20;
-   private static final int treasureValueToWin = 20;
+   public static final int treasureValueToWin = 20;
 
 
    // Instance Variables
    private Tile[][] grid;
+   private BitBoard bitBoard;
+   // scratch mask for checking moves without allocating.
+   private long[] moveMask;
 
    private Player currentPlayer;
 
-   private ArrayList<StackPane> rotationPanes;
+   // The path currently being sailed, see movePath.
+   private Player movingPlayer;
+   private Tile pathDestination;
+   private State pathReturnState;
+   private Player interceptedBy;
+   private SailEvent sailEvent;
 
    private Game gameReference;
    private TreasureIslandContainer treasureIslandContainer;
@@ -87,9 +96,9 @@ public class Board {
    public Board(List<Treasure> treasures, Queue<CrewCard> crewCards,
                 Queue<ChanceCard> chanceCards, Game g) {
       grid = newMap("res/config/CSVBUCCMAP.csv", treasures, crewCards, chanceCards);
+      bitBoard = new BitBoard(grid);
+      moveMask = BitBoard.newMask();
       gameReference = g;
-      rotationPanes = new ArrayList<>();
-      initRotatePanes();
    }
 
 
@@ -122,12 +131,193 @@ public class Board {
     * @param newPlayer The player to set as the current player
     */
    public void setCurrentPlayer(Player newPlayer) {
-      if (this.currentPlayer != null) this.currentPlayer.unhighlight();
+      Player previous = this.currentPlayer;
       this.currentPlayer = newPlayer;
-      this.currentPlayer.highlight();
+      getInteraction().currentPlayerChanged(previous, newPlayer);
+   }
+
+   /**
+    * Gets the tiles which the current player can move to in the current state of the game.
+    *
+    * @return The set of valid moves as tiles, empty if the current player is not able to move.
+    */
+   public Set<Tile> getValidMoves() {
+      long[] mask = BitBoard.newMask();
+      if (!getValidMoves(mask))
+         return Collections.emptySet();
+      Set<Tile> validMoves = new LinkedHashSet<>();
+      for (int i = BitBoard.nextSetBit(mask, 0); i >= 0; i = BitBoard.nextSetBit(mask, i + 1))
+         validMoves.add(grid[BitBoard.xOf(i)][BitBoard.yOf(i)]);
+      return validMoves;
+   }
+
+   /**
+    * Writes the tiles which the current player can move to into a mask, see {@link BitBoard#index(int, int)}. Unlike
+    * {@link #getValidMoves()} this doesn't allocate, so it is what the bots use.
+    *
+    * @param out The mask to write the valid moves into, everything else in it is cleared.
+    * @return True if there is at least one valid move.
+    */
+   public boolean getValidMoves(long[] out) {
+      State state = gameReference.getState();
+      if (state != State.Move && state != State.PostCombatMove) {
+         Arrays.fill(out, 0L);
+         return false;
+      }
+      generateMoves(currentPlayer, state, out);
+      return BitBoard.nextSetBit(out, 0) >= 0;
+   }
+
+   /**
+    * Gets the orientations the current player can rotate their ship to, only valid while in the {@link State#Rotate}
+    * state or when the ship has nowhere to sail, e.g. facing land next to Treasure Island. Ordered to match
+    * {@link Orientation#getAll()}.
+    *
+    * @return The list of orientations that point at a sailable tile.
+    */
+   public List<Orientation> getValidRotations() {
+      List<Orientation> rotations = new ArrayList<>();
+      if (gameReference.getState() == State.Rotate || isStuck()) {
+         ArrayList<Tile> tiles = MoveAssistance.getSurroundingTiles(currentPlayer.getShip().getX(),
+                 currentPlayer.getShip().getY(), grid);
+         for (int i = 0; i < tiles.size(); i++) {
+            if (tiles.get(i) != null && tiles.get(i).isSailable())
+               rotations.add(Orientation.getAll()[i]);
+         }
+      }
+      return rotations;
+   }
+
+   /**
+    * Handles the current player choosing a tile to move to, only call if the game is in a state of movement.
+    * <p>
+    * Choosing the tile the ship is already on skips the move and goes straight to {@link State#Rotate}, otherwise the
+    * path is started and the state is changed to {@link State#InMovement} until the path is finished.
+    *
+    * @param to The tile chosen.
+    * @return True if the move was valid and has been started.
+    */
+   public boolean beginMove(Tile to) {
+      if (!isValidMove(currentPlayer, to.getX(), to.getY()))
+         return false;
+      getLog().move(currentPlayer, to);
+      if (to == currentPlayer.getShip().getTile()) {
+         gameReference.changeState(State.Rotate);
+         gameReference.actionCompleted();
+      } else {
+         movePath(currentPlayer, to);
+      }
+      return true;
+   }
+
+   /**
+    * Moves the moving player's ship to the next tile in the current direction.
+    * <p>
+    * Returns {@link StepResult#Intercepted} if an enemy is sailed over where combat is allowed, the move should then
+    * continue with {@link #handleEnemyOnPath()}. Returns {@link StepResult#Arrived} once the destination is reached
+    * or the path is blocked, {@link #finishPath()} should then be called.
+    *
+    * @return The outcome of the step.
+    */
+   public StepResult partialMove() {
+      Player p = movingPlayer;
+      int dx = p.getShip().getOrientation().getDx();
+      int dy = p.getShip().getOrientation().getDy();
+
+      Tile next = grid[p.getShip().getX() + dx][p.getShip().getY() + dy];
+      boolean sailable = bitBoard.isSailable(next.getX(), next.getY());
+      if (sailable) {
+         p.getShip().moveTo(next, this);
+         if (sailEvent != null)
+            sailEvent.stepped();
+      }
+
+      // play the sound clip
+      //SoundLoader.getInstance().getShipMoveSound().play();
+      if (next != pathDestination && sailable) {
+         // check for enemy intercept
+         for (Player enemy : gameReference.getPlayers()) {
+            if (enemy != p && enemy.getShip().getTile() == p.getShip().getTile()) {
+               // check combat validity.
+               if (bitBoard.isCombatAllowed(p.getShip().getX(), p.getShip().getY())) {
+                  interceptedBy = enemy;
+                  return StepResult.Intercepted;
+               }
+            }
+         }
+         return StepResult.Moved;
+      }
+      return StepResult.Arrived;
+   }
+
+   /**
+    * This function handles asking the player who was sailed over whether or not they want to engage in combat.
+    *
+    * @return True if a battle happened and the path is over, false if the move should carry on.
+    */
+   public boolean handleEnemyOnPath() {
+      Player enemy = interceptedBy;
+      interceptedBy = null;
+      if (!getInteraction().engage(enemy, movingPlayer)) {
+         // return to sailing.
+         return false;
+      }
+      endSailEvent(true);
+      // if there is going to be a fight, change currentPlayer to enemy.
+      currentPlayer = enemy;
+      handlePossibleCombat(movingPlayer.getShip().getTile());
+      movingPlayer = null;
+      gameReference.actionCompleted();
+      return true;
+   }
+
+   /**
+    * Finishes the current path, the game state is returned to the state it was in before moving and
+    * {@link #handleEndOfPath(Player)} is called.
+    */
+   public void finishPath() {
+      Player p = movingPlayer;
+      movingPlayer = null;
+      endSailEvent(false);
+      gameReference.changeState(pathReturnState);
+      handleEndOfPath(p);
+      gameReference.actionCompleted();
+   }
 
-      // highlight possible moves for each player
-      MoveAssistance.getValidMoves(newPlayer, gameReference.getState(), grid).forEach(Tile::highlight);
+   /**
+    * Moves the current player to the tile passed without any animation, stopping for any interceptions along the way.
+    * This is used by headless games.
+    *
+    * @param to The tile to move to.
+    * @return True if the move was valid.
+    */
+   public boolean sail(Tile to) {
+      if (!beginMove(to))
+         return false;
+      while (gameReference.getState() == State.InMovement) {
+         StepResult result = partialMove();
+         if (result == StepResult.Arrived)
+            finishPath();
+         else if (result == StepResult.Intercepted && handleEnemyOnPath())
+            break;
+      }
+      return true;
+   }
+
+   /**
+    * Rotates the current player's ship and ends their turn, only valid while in the {@link State#Rotate} state.
+    *
+    * @param o The orientation to rotate the ship to.
+    * @return True if the rotation was valid.
+    */
+   public boolean rotate(Orientation o) {
+      if (!getValidRotations().contains(o))
+         return false;
+      getLog().rotate(currentPlayer, o);
+      currentPlayer.getShip().setOrientation(o);
+      endTurn();
+      gameReference.actionCompleted();
+      return true;
    }
 
    /**
@@ -182,28 +372,12 @@ public class Board {
    }
 
    /**
-    * Initializes the board to work with the UI including pairing each tile and adding the onclick action.
+    * Gets the bitboards of the map, which are used for quick move generation and combat checks.
     *
-    * @param boardPane The GridPane used for the grid.
+    * @return The bitboards of the board.
     */
-   public void pairToUI(GridPane boardPane) {
-      for (int x = 0; x < 20; x++) {
-         for (int y = 0; y < 20; y++) {
-            final Tile t = grid[x][y];
-            grid[x][y].pairToUI(boardPane);
-            grid[x][y].getTilePane().setOnMouseClicked((e) -> {
-               if (gameReference.getState() == State.Move || gameReference.getState() == State.PostCombatMove) {
-                  handleClickMove(t);
-               }
-            });
-         }
-      }
-      /* for debugging
-      for (Tile[] tiles : grid) {
-         for (Tile tile : tiles) {
-            tile.getTilePane().setOpacity(1);
-         }
-      }*/
+   public BitBoard getBitBoard() {
+      return bitBoard;
    }
 
    /**
@@ -233,6 +407,57 @@ public class Board {
       return gameReference.getPlayers();
    }
 
+   /**
+    * Gets the game being played on the board.
+    *
+    * @return The game.
+    */
+   public Game getGame() {
+      return gameReference;
+   }
+
+   /**
+    * Gets the {@link Zobrist} hash of the position: where each ship is and which way it faces, what it carries, the
+    * crew cards of each player, the treasure in every port and whose turn it is. The parts are kept up to date as the
+    * game is played, so this only combines them.
+    *
+    * @return The hash.
+    */
+   public long getHash() {
+      long hash = Zobrist.turn(currentPlayer.getId());
+      for (Player player : gameReference.getPlayers())
+         hash ^= player.getHash();
+      return hash ^ londonTile.getHash() ^ genoaTile.getHash() ^ marseillesTile.getHash() ^ cadizTile.getHash() ^
+              veniceTile.getHash() ^ amsterdamTile.getHash();
+   }
+
+   /**
+    * Gets the interaction used to inform the players and ask them for decisions.
+    *
+    * @return The game's interaction.
+    */
+   public Interaction getInteraction() {
+      return gameReference.getInteraction();
+   }
+
+   /**
+    * Gets the log the game is recorded in.
+    *
+    * @return The game's log.
+    */
+   public GameLog getLog() {
+      return gameReference.getLog();
+   }
+
+   /**
+    * Gets the current state of the game.
+    *
+    * @return The State value currently held by the game.
+    */
+   public State getState() {
+      return gameReference.getState();
+   }
+
    /**
     * Gets a reference to the container used for treasure island.
     *
@@ -344,21 +569,6 @@ public class Board {
 
    // Private Methods
 
-   /**
-    * Handles a click of a certain tile and what should happen, only call if the player is game is in a state of movement.
-    *
-    * @param to The tile clicked on.
-    */
-   private void handleClickMove(Tile to) {
-      if (isValidMove(currentPlayer, to.getX(), to.getY())) {
-         movePath(currentPlayer, to);
-         if (to == currentPlayer.getShip().getTile()) {
-            gameReference.changeState(State.Rotate);
-            handleRotation();
-         }
-      }
-   }
-
    /**
     * This function handles all aspects of a combat engagement, from checking whether an engagement has happened, to assigning a winner/loser.
     * Also sets the {@link #currentPlayer} variable to the loser or defender if a attack actually happens.
@@ -371,10 +581,11 @@ public class Board {
       for (Player player : gameReference.getPlayers()) {
          if (player != currentPlayer) {
             if (player.getShip().getTile() == t) {
-               if (nextToTreasureIsland(t.getX(), t.getY()) == null && !(t instanceof PortTile)) { // if not next to treasure island.
+               if (bitBoard.isCombatAllowed(t.getX(), t.getY())) { // if not next to treasure island or in a port.
                   fightOccurred = true;
                   Player defender = player;
                   Battle battle = new Battle(currentPlayer, defender, this);
+                  gameReference.battleFought();
                   gameReference.changeState(State.PostCombatMove);
                   battle.engage();
                   break; // ONE FIGHT PLS
@@ -385,29 +596,6 @@ public class Board {
       return fightOccurred;
    }
 
-   /**
-    * Places the rotate buttons around the currentPlayer's ship and adds the trigger function for click events.
-    */
-   private void handleRotation() {
-      final ArrayList<Tile> tiles = MoveAssistance.getSurroundingTiles(currentPlayer.getShip().getTile().getX(),
-              currentPlayer.getShip().getTile().getY(), grid);
-
-      for (int i = 0; i < tiles.size(); i++) {
-         if (tiles.get(i) != null && tiles.get(i).isSailable() && gameReference.getState() == State.Rotate) {
-            final Orientation o = Orientation.getAll()[i];
-            rotationPanes.get(i).setOnMouseClicked(e -> {
-               // when a rotation button is clicked, first clear all the rotation buttons from the screen.
-               clearRotationButtons(tiles);
-               currentPlayer.getShip().setOrientation(o);
-               endTurn();
-               // This line is necessary to prevent the parent gridpane consuming the click event and moving the ship.
-               e.consume();
-            });
-            tiles.get(i).getTilePane().getChildren().add(rotationPanes.get(i));
-         }
-      }
-   }
-
    /**
     * Handles the island interaction, aimed to be used at the end of the turn to check for island tiles in surrounding areas
     * and act on anything that should happen when you come into contact e.g. treasure island pick up a chance card and use it.
@@ -421,7 +609,8 @@ public class Board {
             // if its treasure island, pick up a chance card and do the action.
             ChanceCard drawnCard = ((TreasureIslandTile) islandTiles.get(0)).drawChanceCard();
             if (drawnCard != null) {
-               new GenericMsg(gameReference.getPrimaryStage(), "You drew a Chance Card (id: " + drawnCard.getCardID() + ")\n\n" + drawnCard.getText());
+               getLog().chanceCard(currentPlayer, drawnCard);
+               getInteraction().inform("You drew a Chance Card (id: " + drawnCard.getCardID() + ")\n\n" + drawnCard.getText());
                if (drawnCard.performCheck(currentPlayer, this)) {
                   // uses the card if it can be used now.
                   drawnCard.performAction(currentPlayer, this);
@@ -442,7 +631,7 @@ public class Board {
                cardsTaken++;
             }
             if (cardsTaken > 0)
-               new GenericMsg(Controller.stage, sBuilder.toString());
+               getInteraction().inform(sBuilder.toString());
             sBuilder = new StringBuilder("You have taken the following Treasures from Flat Island:\n");
             // take treasures as many treasures as you can store.
             int treasuresTaken = 0;
@@ -454,14 +643,14 @@ public class Board {
                   treasuresTaken++;
                }
                if (treasuresTaken > 0)
-                  new GenericMsg(Controller.stage, sBuilder.toString());
+                  getInteraction().inform(sBuilder.toString());
             }
          }
       }
    }
 
    /**
-    * Begins a path to a destination tile. Unhighlights all valid moves, State is changed to {@link State#InMovement}.
+    * Begins a path to a destination tile. State is changed to {@link State#InMovement} until the path is finished.
     *
     * @param p    The player to move.
     * @param dest The tile which you intend to move to.
@@ -470,95 +659,13 @@ public class Board {
       Tile cur = p.getShip().getTile();
       if (cur != dest)
          p.getShip().setOrientation(Calculations.calculateDirection(cur, dest));
-      MoveAssistance.getValidMoves(p, gameReference.getState(), grid)
-              .forEach(Tile::unhighlight);
 
+      sailEvent = new SailEvent(p, dest.getX(), dest.getY());
       // save state so it can be reverted to after movement.
-      State startState = gameReference.getState();
+      movingPlayer = p;
+      pathDestination = dest;
+      pathReturnState = gameReference.getState();
       gameReference.changeState(State.InMovement);
-
-      // start animation loop
-      partialMove(p, dest, startState);
-   }
-
-   /**
-    * Moves the player's ship to the next tile in the current direction and recursively calls itself if it is not at
-    * the destination. The cycle can also be broken if an enemy ship is intercepted and the player chooses to engage.
-    * <p>
-    * The game state is returned to the returnState once the destination is reached.
-    * <p>
-    * {@link #handleEndOfPath(Player)} is called once the end of the path is reached.
-    *
-    * @param p           The player who is moving.
-    * @param dest        The tile which is the intended destination.
-    * @param returnState The state which the game should return to once the destination is reached.
-    */
-   private void partialMove(Player p, Tile dest, State returnState) {
-      final int delay = 200;
-      new Timeline(new KeyFrame(Duration.millis(delay), event -> {
-         int dx = p.getShip().getOrientation().getDelta().getKey();
-         int dy = p.getShip().getOrientation().getDelta().getValue();
-         Tile cur = p.getShip().getTile();
-
-         // don't bother moving if you're dest is the current location.
-         if (cur != dest) {
-            Tile next = grid[p.getShip().getX() + dx][p.getShip().getY() + dy];
-            boolean sailable = MoveAssistance.isSailableCoordinate(next.getX(), next.getY(), grid);
-            if (sailable)
-               p.getShip().moveTo(next, this);
-
-            // play the sound clip
-            //SoundLoader.getInstance().getShipMoveSound().play();
-            if (next != dest && sailable) {
-               // recursion goes until reached destination
-               boolean foundEnemy = false;
-               // check for enemy intercept
-               for (Player enemy : gameReference.getPlayers()) {
-                  if (enemy != p && enemy.getShip().getTile() == p.getShip().getTile()) {
-                     // check combat validity.
-                     if (nextToTreasureIsland(p.getShip().getX(), p.getShip().getY()) == null &&
-                             !(p.getShip().getTile() instanceof PortTile)) {
-                        // ask the user whether they want to engage. Needs to be run on the GUI thread.
-                        Platform.runLater(() -> handleEnemyOnPath(p, enemy, dest, returnState));
-                        foundEnemy = true;
-                        break;
-                     }
-                  }
-               }
-               if (!foundEnemy)
-                  partialMove(p, dest, returnState);
-            } else {
-               // ends the cycle and tells the GUI to run this code whenever it gets chance (usually instantly)
-               Platform.runLater(() -> {
-                  gameReference.changeState(returnState);
-                  handleEndOfPath(p);
-               });
-            }
-         }
-      })).play();
-   }
-
-   /**
-    * This function handles asking the player whether or not they want to engage in combat.
-    *
-    * @param p           The player who is currently moving.
-    * @param enemy       The enemy who is on the path.
-    * @param dest        The destination tile to continue moving towards if the player decides to keep moving.
-    * @param returnState The state which the game should return to once the destination is reached.
-    */
-   private void handleEnemyOnPath(Player p, Player enemy, Tile dest, State returnState) {
-      // Change this string to direct the question at the enemy player
-      boolean fight = new Choice(Controller.stage, enemy.getName() + ": A player just tried to sail over you!\nWould you like to engage in combat?",
-              new String[]{"yes", "no"}).getAnswer();
-      if (!fight) {
-         // return to sailing.
-         partialMove(p, dest, returnState);
-      } else {
-         // if there is going to be a fight, change currentPlayer to enemy.
-         p.unhighlight();
-         currentPlayer = enemy;
-         handlePossibleCombat(p.getShip().getTile());
-      }
    }
 
    /**
@@ -568,6 +675,7 @@ public class Board {
     * @param player The player who just moved.
     */
    private void handleEndOfPath(Player player) {
+      EndOfPathEvent event = new EndOfPathEvent(player);
       boolean fought = false;
       boolean inAPort = false;
       Tile tileAtEndOfPath = player.getShip().getTile();
@@ -579,12 +687,11 @@ public class Board {
          // filter out cards which cannot be used
          // then performAction on the ones which can be used.
          if (player.getChanceCards().size() > 0) {
-            Set<ChanceCard> toRemove = new HashSet<>();
+            Set<ChanceCard> toRemove = new LinkedHashSet<>();
             player.getChanceCards().stream().filter(c -> c.performCheck(player, this))
                     .forEach(c -> {
                        // Alert the user to the
-                       new GenericMsg(Controller.stage,
-                               "Activated " + c.getType());
+                       getInteraction().inform("Activated " + c.getType());
                        c.performAction(player, this);
 
                        // flags cards for removal after the ForEach
@@ -605,8 +712,7 @@ public class Board {
 
             // If at home port, deposit all the treasures.
             if (player.getShip().getTile() == player.getHomePort()) {
-               player.getShip().getCargo().forEach(t -> player.getHomePort().addTreasure(t));
-               player.getShip().getCargo().clear();
+               player.getHomePort().addTreasures(player.getShip().unload());
             }
 
             handlePortInteraction(player);
@@ -618,11 +724,21 @@ public class Board {
       //  if port or bay, don't rotate
       if (!fought && !(inAPort)) {
          gameReference.changeState(State.Rotate);
-         handleRotation();
       } else if (inAPort) {
          endTurn();
       }
+      event.finish(fought, inAPort);
+   }
 
+   /**
+    * Records the path which has just ended, if it was started in this game rather than before it was copied.
+    *
+    * @param battle True if the path was stopped by a battle.
+    */
+   private void endSailEvent(boolean battle) {
+      if (sailEvent != null)
+         sailEvent.finish(battle);
+      sailEvent = null;
    }
 
    /**
@@ -637,10 +753,13 @@ public class Board {
          // present the trading window if the port and the player both have
          // at least something to trade.
          if ((portTile.getTreasureSet().size() > 0 || portTile.getCrewCardSet().size() > 0) &&
-                 (player.getCrewCards().size() > 0 || player.getShip().getCargo().size() > 0))
-            new TradeWindow(player, (PortTile) player.getShip().getTile()).showAndWait();
-         else
-            new GenericMsg(Controller.stage, "No tradable items are present at this port!");
+                 (player.getCrewCards().size() > 0 || player.getShip().getCargo().size() > 0)) {
+            Trade trade = new Trade(player, portTile, getLog());
+            getInteraction().trade(trade);
+            trade.close();
+         } else {
+            getInteraction().inform("No tradable items are present at this port!");
+         }
       }
    }
 
@@ -666,37 +785,35 @@ public class Board {
     * @return True if the move is valid, false if not,
     */
    private boolean isValidMove(Player player, int toX, int toY) {
-      Set<Tile> validMoves = MoveAssistance.getValidMoves(player, gameReference.getState(), grid);
-      //validMoves.forEach(Tile::highlight);
-      return validMoves.contains(grid[toX][toY]);
+      generateMoves(player, gameReference.getState(), moveMask);
+      return BitBoard.test(moveMask, BitBoard.index(toX, toY));
    }
 
    /**
-    * Removes rotate buttons.
+    * Checks whether the current player is meant to be moving but has nowhere to sail, in which case they may rotate
+    * instead.
     *
-    * @param tiles The tiles ArrayList of surrounding tiles at the time of rotation.
+    * @return True if the current player can't move.
     */
-   private void clearRotationButtons(ArrayList<Tile> tiles) {
-      for (int i = 0; i < tiles.size(); i++) {
-         if (tiles.get(i) != null)
-            tiles.get(i).getTilePane().getChildren().remove(rotationPanes.get(i));
-      }
+   private boolean isStuck() {
+      State state = gameReference.getState();
+      if (state != State.Move && state != State.PostCombatMove)
+         return false;
+      generateMoves(currentPlayer, state, moveMask);
+      return BitBoard.nextSetBit(moveMask, 0) < 0;
    }
 
    /**
-    * Initializes the rotation panes for use throughout the game, Only needs to be run at the start, once.
+    * Generates the valid moves of a player's ship into a mask, based on the ship's location and the player's
+    * movement distance.
+    *
+    * @param player    The player who's ship is being moved.
+    * @param gameState The current state of the game.
+    * @param out       The mask to write the valid moves into.
     */
-   private void initRotatePanes() {
-      rotationPanes = new ArrayList<>();
-      Image im = GraphicLoader.getInstance().getRotateTriangle();
-
-      for (Orientation dir : Orientation.getAll()) {
-         StackPane pane = new StackPane();
-         pane.setBackground(new Background(new BackgroundImage(im, BackgroundRepeat.NO_REPEAT,
-                 BackgroundRepeat.NO_REPEAT, BackgroundPosition.CENTER, BackgroundSize.DEFAULT)));
-         pane.setRotate(dir.getAngle());
-         rotationPanes.add(pane);
-      }
+   private void generateMoves(Player player, State gameState, long[] out) {
+      bitBoard.generateMoves(player.getShip().getX(), player.getShip().getY(), player.getShip().getOrientation(),
+              player.getMovementDistance(), gameState == State.PostCombatMove, out);
    }
 
    /**
@@ -734,10 +851,10 @@ public class Board {
    private void endTurn() {
       // check for end game state.
       if (checkEndGame(currentPlayer)) {
-         gameReference.triggerGameOver();
+         gameReference.triggerGameOver(currentPlayer);
       } else {
          gameReference.changeState(State.Move);
-         // changes player and highlights for new player.
+         // changes player, the interaction is told so the new player can be highlighted.
          setCurrentPlayer(gameReference.nextPlayer());
       }
    }
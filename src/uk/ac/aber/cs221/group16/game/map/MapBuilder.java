@@ -16,25 +16,32 @@ import uk.ac.aber.cs221.group16.game.items.treasures.Treasure;
 import uk.ac.aber.cs221.group16.game.map.tiles.BayTile;
 import uk.ac.aber.cs221.group16.game.map.tiles.PortTile;
 import uk.ac.aber.cs221.group16.game.map.tiles.Tile;
+import uk.ac.aber.cs221.group16.game.profiling.MapLoadEvent;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * This class is intended to assist in building a two dimensional array of Tiles which we call a map.
  *
  * @author Josh Smith
  * @author Dylan Lewis
- * @version 1.0
+ * @version 1.2 Map files read once.
  */
 public class MapBuilder {
 
    // Static Variables
    public static final String defaultMapPath = "res/config/defaultMap.csv";
    private static final String defaultTileType = "Sea";
+   // the rows of each map file read so far, a map is built for every copy of a game the bots play out.
+   private static final Map<String, List<List<String>>> csvRows = new ConcurrentHashMap<>();
 
    // Instance Variables
    private Tile[][] map;
@@ -83,37 +90,32 @@ public class MapBuilder {
 
    /**
     * This function takes a CSV of tile types, these should match the configurations in the TILETYPES properties file
-    * and build the map based on the rows/columns in the CSV.
+    * and build the map based on the rows/columns in the CSV. Each file is only read the first time, see
+    * {@link #readCSV(String)}. Loading is timed as a {@link MapLoadEvent}.
     *
     * @param csvPath The path to the CSV file.
     */
    public void loadCSV(String csvPath) {
-      String line;
+      MapLoadEvent event = new MapLoadEvent(csvPath);
 
+      int tiles = 0;
       int y = 0;
-      try (BufferedReader br = new BufferedReader(new FileReader(csvPath))) {
-         // if you reach the end of the file stop.
-         while ((line = br.readLine()) != null) {
-            int x = 0;
-            // use comma as separator
-            String[] row = line.split(",");
-
-            for (String type : row) {
-               // add a new tile with type from the csv and the x and y based on position in the csv.
-               addTile(type, x, y);
-
-               // if the next column extends further than the width, break;
-               if (++x > width)
-                  break;
-            }
-            // If the next row extends further than the height, break;
-            if (++y > height)
+      for (List<String> row : readCSV(csvPath)) {
+         int x = 0;
+         for (String type : row) {
+            // add a new tile with type from the csv and the x and y based on position in the csv.
+            addTile(type, x, y);
+            tiles++;
+
+            // if the next column extends further than the width, break;
+            if (++x > width)
                break;
          }
-
-      } catch (IOException e) {
-         e.printStackTrace();
+         // If the next row extends further than the height, break;
+         if (++y > height)
+            break;
       }
+      event.finish(tiles);
    }
 
    /**
@@ -282,4 +284,30 @@ public class MapBuilder {
    public BayTile getMudBayTile() {
       return mudBayTile;
    }
+
+   // Static Methods
+
+   /**
+    * Gets the rows of tile types in a CSV file, which is read the first time it is asked for and kept.
+    *
+    * @param csvPath The path to the CSV file.
+    * @return The rows, which can't be changed, or no rows if the file couldn't be read.
+    */
+   private static List<List<String>> readCSV(String csvPath) {
+      List<List<String>> rows = csvRows.get(csvPath);
+      if (rows != null)
+         return rows;
+      try {
+         rows = new ArrayList<>();
+         // use comma as separator
+         for (String line : Files.readAllLines(Paths.get(csvPath)))
+            rows.add(List.of(line.split(",")));
+         rows = Collections.unmodifiableList(rows);
+      } catch (IOException e) {
+         e.printStackTrace();
+         return Collections.emptyList();
+      }
+      csvRows.put(csvPath, rows);
+      return rows;
+   }
 }
@@ -16,11 +16,11 @@ import uk.ac.aber.cs221.group16.game.utils.MoveAssistance;
  * This Enum is for representing the direction of ships within the game.
  *
  * @author Josh Smith
- * @version 1.2 Move and rotate features Beta.
+ * @version 1.3 Precomputed move rays.
  */
 public enum Orientation {
-   N, NE, E, SE,
-   S, SW, W, NW;
+   N(0, -1), NE(1, -1), E(1, 0), SE(1, 1),
+   S(0, 1), SW(-1, 1), W(-1, 0), NW(-1, -1);
 
    /**
     * Directions ordered to match the results of
@@ -30,6 +30,22 @@ public enum Orientation {
            Orientation.E, Orientation.SW, Orientation.S,
            Orientation.SE};
 
+   // Instance Variables
+   private final int dx, dy;
+
+   // Constructors
+
+   /**
+    * Creates an orientation with the change in coordinates of a single square moved in its direction.
+    *
+    * @param dx The change in x.
+    * @param dy The change in y.
+    */
+   Orientation(int dx, int dy) {
+      this.dx = dx;
+      this.dy = dy;
+   }
+
    // Static Methods
 
    /**
@@ -99,26 +115,31 @@ public enum Orientation {
 
    /**
     * Gets the modifier for specific Orientations, e.g the delta for a NE move is (1, -1).
+    * <p>
+    * This makes a new Pair each call, so hot paths such as move generation should use {@link #getDx()} and
+    * {@link #getDy()} instead.
     *
     * @return The delta modifier for the Orientation. e.g. NE is 1, -1
     */
    public Pair<Integer, Integer> getDelta() {
-      if (this.equals(Orientation.N)) {
-         return new Pair<>(0, -1);
-      } else if (this.equals(Orientation.NE)) {
-         return new Pair<>(1, -1);
-      } else if (this.equals(Orientation.E)) {
-         return new Pair<>(1, 0);
-      } else if (this.equals(Orientation.SE)) {
-         return new Pair<>(1, 1);
-      } else if (this.equals(Orientation.S)) {
-         return new Pair<>(0, 1);
-      } else if (this.equals(Orientation.SW)) {
-         return new Pair<>(-1, 1);
-      } else if (this.equals(Orientation.W)) {
-         return new Pair<>(-1, 0);
-      } else if (this.equals(Orientation.NW)) {
-         return new Pair<>(-1, -1);
-      } else return new Pair<>(0, 0);
+      return new Pair<>(dx, dy);
+   }
+
+   /**
+    * Gets the change in x of a single square moved in this direction.
+    *
+    * @return -1, 0 or 1.
+    */
+   public int getDx() {
+      return dx;
+   }
+
+   /**
+    * Gets the change in y of a single square moved in this direction.
+    *
+    * @return -1, 0 or 1.
+    */
+   public int getDy() {
+      return dy;
    }
 }
@@ -0,0 +1,124 @@
+/*
+* @(#) RayTable.java 1.0 2017/04/01
+*
+* Copyright (c) 2017 Aberystwyth University.
+* All rights reserved.
+*
+*/
+
+package uk.ac.aber.cs221.group16.game.map;
+
+import java.util.Arrays;
+
+/**
+ * This class holds the precomputed rays of a map. For every tile and {@link Orientation} it stores the ordered list of
+ * tiles a ship could sail through in that direction, nearest first, stopping before land or the edge of the board.
+ * <p>
+ * All of the rays are kept in one flat array of {@link BitBoard} cell indices, {@link #start(int, Orientation)} and
+ * {@link #length(int, Orientation)} give the part of the array belonging to a ray. A ship with a movement distance of
+ * d can reach the first min(d, length) cells of each ray it may sail along.
+ *
+ * @author Group 16
+ * @version 1.1 Save games.
+ */
+public class RayTable {
+
+   // Constants
+   private static final int directions = Orientation.values().length;
+
+   // Static Variables
+   // every board is loaded from the same map, so the table of the last sea mask is kept for the next board.
+   private static volatile RayTable last;
+
+   // Instance Variables
+   private final long[] sea;
+   private final short[] cells;
+   private final int[] starts;
+   private final byte[] lengths;
+
+   // Constructors
+
+   /**
+    * Builds the rays from the sea mask of a map.
+    *
+    * @param sea The mask of sailable tiles, see {@link BitBoard}.
+    */
+   public RayTable(long[] sea) {
+      this.sea = sea.clone();
+      starts = new int[BitBoard.cells * directions];
+      lengths = new byte[BitBoard.cells * directions];
+      short[] buffer = new short[BitBoard.cells * directions * Math.max(Board.gridWidth, Board.gridHeight)];
+      int size = 0;
+      for (int cell = 0; cell < BitBoard.cells; cell++) {
+         int x = BitBoard.xOf(cell);
+         int y = BitBoard.yOf(cell);
+         for (Orientation dir : Orientation.values()) {
+            int slot = cell * directions + dir.ordinal();
+            starts[slot] = size;
+            int tx = x + dir.getDx();
+            int ty = y + dir.getDy();
+            while (tx >= 0 && tx < Board.gridWidth && ty >= 0 && ty < Board.gridHeight &&
+                    BitBoard.test(sea, BitBoard.index(tx, ty))) {
+               buffer[size++] = (short) BitBoard.index(tx, ty);
+               tx += dir.getDx();
+               ty += dir.getDy();
+            }
+            lengths[slot] = (byte) (size - starts[slot]);
+         }
+      }
+      cells = new short[size];
+      System.arraycopy(buffer, 0, cells, 0, size);
+   }
+
+   // Public Methods
+
+   /**
+    * Gets the position in {@link #getCells()} of the first cell of a ray.
+    *
+    * @param cell The cell index the ray starts from.
+    * @param dir  The direction of the ray.
+    * @return The index of the nearest cell of the ray.
+    */
+   public int start(int cell, Orientation dir) {
+      return starts[cell * directions + dir.ordinal()];
+   }
+
+   /**
+    * Gets the number of sailable cells in a ray before it hits land or the edge of the board.
+    *
+    * @param cell The cell index the ray starts from.
+    * @param dir  The direction of the ray.
+    * @return The length of the ray.
+    */
+   public int length(int cell, Orientation dir) {
+      return lengths[cell * directions + dir.ordinal()];
+   }
+
+   /**
+    * Gets the flat array holding every ray, use with {@link #start(int, Orientation)} and
+    * {@link #length(int, Orientation)}. The array must not be changed.
+    *
+    * @return The cell indices of all of the rays.
+    */
+   public short[] getCells() {
+      return cells;
+   }
+
+   // Static Methods
+
+   /**
+    * Gets the rays for a sea mask, reusing the table made for the last board if it was loaded from the same map. The
+    * table is immutable so it can be shared between games on different threads.
+    *
+    * @param sea The mask of sailable tiles, see {@link BitBoard}.
+    * @return The ray table.
+    */
+   public static RayTable of(long[] sea) {
+      RayTable table = last;
+      if (table == null || !Arrays.equals(table.sea, sea)) {
+         table = new RayTable(sea);
+         last = table;
+      }
+      return table;
+   }
+}
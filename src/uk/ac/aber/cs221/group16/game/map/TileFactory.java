@@ -17,6 +17,7 @@ import uk.ac.aber.cs221.group16.game.map.tiles.*;
 import java.io.FileReader;
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * This class is used to assist in translating the string types of tiles into a subclass of the Tile class. The relevant
@@ -27,12 +28,14 @@ import java.util.*;
  * Loads a properties file containing the tile types and which strings areused to represent specific tiles.
  *
  * @author Josh Smith
- * @version 1.0
+ * @version 1.1 Config files read once.
  */
 public class TileFactory {
 
    // Static Variables
    private static final String defaultConfigPath = "res/config/TILETYPES.properties";
+   // the properties of each config file loaded so far, which are only ever read from.
+   private static final Map<String, Properties> configs = new ConcurrentHashMap<>();
 
    // Instance Variables
    private String configPath;
@@ -173,12 +176,17 @@ public class TileFactory {
    // Private Methods
 
    /**
-    * This simple function loads the properties file with the path as the {@link #configPath} variable.
+    * This simple function loads the properties file with the path as the {@link #configPath} variable. The file is
+    * only read the first time, the properties are shared by every factory with the same path.
     */
    private void loadConfig() {
+      properties = configs.get(configPath);
+      if (properties != null)
+         return;
       properties = new Properties();
-      try {
-         properties.load(new FileReader(configPath));
+      try (FileReader reader = new FileReader(configPath)) {
+         properties.load(reader);
+         configs.put(configPath, properties);
       } catch (IOException e) {
          System.out.println(String.format("Failed to load properties file @ %s", configPath));
       }
@@ -200,7 +208,7 @@ public class TileFactory {
       for (CrewCard c : pt.getCrewCardSet())
          totalValue += c.getValue();
 
-      Set<Treasure> newTreasures = new HashSet<>();
+      Set<Treasure> newTreasures = new LinkedHashSet<>();
 
       // sorts from highest to lowest
       Iterator<Treasure> treasures = treasureIslandContainer.getTreasures()
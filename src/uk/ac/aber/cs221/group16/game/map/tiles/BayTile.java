@@ -8,6 +8,8 @@
 
 package uk.ac.aber.cs221.group16.game.map.tiles;
 
+import javafx.scene.image.Image;
+
 /**
  * A class to be used to represent Bay tiles.
  *
@@ -31,7 +33,7 @@ public class BayTile extends Tile {
     * @param y   The y coordinate of the Tile.
     */
    public BayTile(Bay bay, int x, int y) {
-      super(x, y, bay.getImage());
+      super(x, y);
       this.bay = bay;
       this.sailable = true;
    }
@@ -48,4 +50,9 @@ public class BayTile extends Tile {
    public String getName() {
       return bay.toString();
    }
+
+   @Override
+   public Image getImage() {
+      return bay.getImage();
+   }
 }
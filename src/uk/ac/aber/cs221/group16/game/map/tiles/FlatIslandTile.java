@@ -8,6 +8,7 @@
 
 package uk.ac.aber.cs221.group16.game.map.tiles;
 
+import javafx.scene.image.Image;
 import uk.ac.aber.cs221.group16.game.GraphicLoader;
 import uk.ac.aber.cs221.group16.game.container.FlatIslandContainer;
 import uk.ac.aber.cs221.group16.game.items.cards.CrewCard;
@@ -41,13 +42,17 @@ public class FlatIslandTile extends IslandTile {
     * @param container The container for the Tile to reference.
     */
    public FlatIslandTile(int x, int y, int px, int py, FlatIslandContainer container) {
-      super("FlatIsland", x, y,
-              GraphicLoader.getInstance().getFlatIslandTiles()[px][py]);
+      super("FlatIsland", x, y, px, py);
       this.container = container;
    }
 
    // Public Methods
 
+   @Override
+   public Image getImage() {
+      return GraphicLoader.getInstance().getFlatIslandTiles()[px][py];
+   }
+
    /**
     * Gets all the cards from the Island and removes them from the Island.
     *
@@ -8,8 +8,6 @@
 
 package uk.ac.aber.cs221.group16.game.map.tiles;
 
-import javafx.scene.image.Image;
-
 /**
  * A abstract class used for tiles which make up part of an island.
  *
@@ -21,6 +19,7 @@ public abstract class IslandTile extends Tile {
 
    // Instance Variables
    private String name;
+   protected int px, py;
 
    // Constructors
 
@@ -28,14 +27,17 @@ public abstract class IslandTile extends Tile {
     * This constructor sets the name and coordinates of the Tile.
     * Also sets the sailable attribute to false.
     *
-    * @param name  The name of the Island.
-    * @param x     The x coordinate of the Tile.
-    * @param y     The y coordinate of the Tile.
-    * @param image The image of this specific Island Tile
+    * @param name The name of the Island.
+    * @param x    The x coordinate of the Tile.
+    * @param y    The y coordinate of the Tile.
+    * @param px   The x offset into the island left to right, used to pick this tile's part of the island image.
+    * @param py   The y offset into the island top to bottom, used to pick this tile's part of the island image.
     */
-   public IslandTile(String name, int x, int y, Image image) {
-      super(x, y, image);
+   public IslandTile(String name, int x, int y, int px, int py) {
+      super(x, y);
       this.name = name;
+      this.px = px;
+      this.py = py;
       this.sailable = false;
    }
 
@@ -8,6 +8,7 @@
 
 package uk.ac.aber.cs221.group16.game.map.tiles;
 
+import javafx.scene.image.Image;
 import uk.ac.aber.cs221.group16.game.GraphicLoader;
 import uk.ac.aber.cs221.group16.game.container.PirateIslandContainer;
 import uk.ac.aber.cs221.group16.game.items.cards.CrewCard;
@@ -37,13 +38,17 @@ public class PirateIslandTile extends IslandTile {
     * @param container The container for the Tile to reference.
     */
    public PirateIslandTile(int x, int y, int px, int py, PirateIslandContainer container) {
-      super("PirateIsland", x, y,
-              GraphicLoader.getInstance().getPirateIslandTiles()[px][py]);
+      super("PirateIsland", x, y, px, py);
       this.container = container;
    }
 
    // Public Methods
 
+   @Override
+   public Image getImage() {
+      return GraphicLoader.getInstance().getPirateIslandTiles()[px][py];
+   }
+
    /**
     * Draws a single CrewCard from the Island's pack.
     *
@@ -8,24 +8,30 @@
 
 package uk.ac.aber.cs221.group16.game.map.tiles;
 
-import javafx.beans.property.SimpleStringProperty;
-import javafx.beans.property.StringProperty;
+import javafx.beans.value.ObservableStringValue;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableSet;
 import javafx.collections.SetChangeListener;
+import javafx.scene.image.Image;
 import uk.ac.aber.cs221.group16.game.items.Tradable;
 import uk.ac.aber.cs221.group16.game.items.cards.CrewCard;
 import uk.ac.aber.cs221.group16.game.items.treasures.Treasure;
+import uk.ac.aber.cs221.group16.game.items.treasures.TreasureSummary;
+import uk.ac.aber.cs221.group16.game.log.Snapshot;
 import uk.ac.aber.cs221.group16.game.players.Player;
+import uk.ac.aber.cs221.group16.game.utils.Zobrist;
 
-import java.util.HashSet;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.Set;
 
 /**
- * A class to be used to represent Port tiles, player or otherwise.
+ * A class to be used to represent Port tiles, player or otherwise. The port keeps a {@link Zobrist} hash of its
+ * treasure up to date as treasure is added and removed. The treasure's display string is a {@link TreasureSummary},
+ * so {@link #addTreasures(Collection)} and {@link #changeTreasure(Runnable)} are one change to the display.
  *
  * @author Josh Smith
- * @version 1.0 Initial Design
+ * @version 1.2 Coalesced updates.
  * @see Tile
  */
 public class PortTile extends Tile {
@@ -36,7 +42,8 @@ public class PortTile extends Tile {
    private Player owner;
    private ObservableSet<Treasure> treasureSet;
    private Set<CrewCard> crewCardSet;
-   private StringProperty treasureString = new SimpleStringProperty();
+   private TreasureSummary treasureString;
+   private Zobrist.Counter treasureHash;
 
    // Constructors
 
@@ -48,14 +55,20 @@ public class PortTile extends Tile {
     * @param y    The y coordinate of the Tile.
     */
    public PortTile(Port port, int x, int y) {
-      super(x, y, port.getImage());
+      super(x, y);
       this.port = port;
       this.sailable = true;
-      crewCardSet = new HashSet<>();
-      treasureSet = FXCollections.observableSet();
-      treasureSet.addListener((SetChangeListener<Treasure>) change -> updateTreasureString());
-
-      updateTreasureString();
+      crewCardSet = new LinkedHashSet<>();
+      treasureSet = FXCollections.observableSet(new LinkedHashSet<>());
+      treasureHash = Zobrist.port(port);
+      treasureString = new TreasureSummary(treasureSet);
+      treasureSet.addListener((SetChangeListener<Treasure>) change -> {
+         if (change.wasRemoved())
+            treasureHash.remove(Snapshot.treasureCode(change.getElementRemoved()));
+         if (change.wasAdded())
+            treasureHash.add(Snapshot.treasureCode(change.getElementAdded()));
+         treasureString.changed();
+      });
    }
 
 
@@ -71,6 +84,11 @@ public class PortTile extends Tile {
       return port.toString();
    }
 
+   @Override
+   public Image getImage() {
+      return port.getImage();
+   }
+
    /**
     * Adds a treasure to the treasure set in the port.
     *
@@ -80,6 +98,24 @@ public class PortTile extends Tile {
       treasureSet.add(t);
    }
 
+   /**
+    * Adds several treasures to the port, as one change to the display.
+    *
+    * @param treasures The treasures to add.
+    */
+   public void addTreasures(Collection<Treasure> treasures) {
+      changeTreasure(() -> treasureSet.addAll(treasures));
+   }
+
+   /**
+    * Makes several changes to the port's treasure, which the display is told about once they have all been made.
+    *
+    * @param changes The changes.
+    */
+   public void changeTreasure(Runnable changes) {
+      treasureString.batch(changes);
+   }
+
    /**
     * Adds a crew card to the set of crew cards in the port.
     *
@@ -128,7 +164,21 @@ public class PortTile extends Tile {
       return crewCardSet;
    }
 
-   public StringProperty treasureStringProperty() {
+   /**
+    * Gets the {@link Zobrist} hash of the treasure in the port.
+    *
+    * @return The hash.
+    */
+   public long getHash() {
+      return treasureHash.getHash();
+   }
+
+   /**
+    * Gets the display string of the port's treasure, which is rebuilt when it is read after the treasure has changed.
+    *
+    * @return The treasure display string.
+    */
+   public ObservableStringValue treasureStringProperty() {
       return treasureString;
    }
 
@@ -170,13 +220,4 @@ public class PortTile extends Tile {
          crewCardSet.remove(item);
 
    }
-
-   // Private Methods
-
-   /**
-    * Updates the treasure string property to trigger an update on the UI.
-    */
-   private void updateTreasureString() {
-      this.treasureStringProperty().set(Treasure.setToString(treasureSet));
-   }
 }
@@ -8,6 +8,7 @@
 
 package uk.ac.aber.cs221.group16.game.map.tiles;
 
+import javafx.scene.image.Image;
 import uk.ac.aber.cs221.group16.game.GraphicLoader;
 
 /**
@@ -30,9 +31,14 @@ public class SeaTile extends Tile {
     * @param y The y coordinate of the Tile.
     */
    public SeaTile(int x, int y) {
-      super(x, y, GraphicLoader.getInstance().getSeaTile());
+      super(x, y);
       this.sailable = true;
    }
 
    // Public Methods
+
+   @Override
+   public Image getImage() {
+      return GraphicLoader.getInstance().getSeaTile();
+   }
 }
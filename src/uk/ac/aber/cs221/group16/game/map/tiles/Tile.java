@@ -8,10 +8,7 @@
 
 package uk.ac.aber.cs221.group16.game.map.tiles;
 
-import javafx.scene.ImageCursor;
 import javafx.scene.image.Image;
-import javafx.scene.layout.*;
-import uk.ac.aber.cs221.group16.game.GraphicLoader;
 import uk.ac.aber.cs221.group16.game.players.Ship;
 
 import java.util.ArrayList;
@@ -20,7 +17,7 @@ import java.util.ArrayList;
  * An Abstract Class to be extended by all Tile classes.
  *
  * @author Josh Smith
- * @version 1.1 JavaFX First Implementation.
+ * @version 1.2 Headless rules engine.
  */
 public abstract class Tile {
 
@@ -28,27 +25,20 @@ public abstract class Tile {
 
    protected int x, y;
    protected boolean sailable;
-   protected Image image;
-   private StackPane tilePane;
-   private boolean highlighted;
    private ArrayList<Ship> occupiedBy;
 
    // Constructors
 
    /**
-    * A constructor which takes board coordinates x and y for the Tile. This also takes a file path to the image to display
+    * A constructor which takes board coordinates x and y for the Tile. Tiles hold no UI state, so they can be created
+    * without a running JavaFX application.
     *
-    * @param x     The x coordinate on the board.
-    * @param y     The y coordinate on the board.
-    * @param image The image to use for the tile.
+    * @param x The x coordinate on the board.
+    * @param y The y coordinate on the board.
     */
-   public Tile(int x, int y, Image image) {
+   public Tile(int x, int y) {
       this.x = x;
       this.y = y;
-      tilePane = new StackPane();
-      tilePane.setBackground(new Background(new BackgroundImage(image, BackgroundRepeat.NO_REPEAT,
-              BackgroundRepeat.NO_REPEAT, BackgroundPosition.CENTER,
-              new BackgroundSize(100, 100, true, true, false, true))));
       occupiedBy = new ArrayList<>();
    }
 
@@ -82,13 +72,11 @@ public abstract class Tile {
    }
 
    /**
-    * Gets the pane which displays the tile.
+    * Gets the image used to display the Tile. Images are only loaded when this is first called by a view.
     *
-    * @return The StackPane used to display the Tile.
+    * @return The image to draw for the Tile.
     */
-   public StackPane getTilePane() {
-      return tilePane;
-   }
+   public abstract Image getImage();
 
    /**
     * Places a ship onto the Tile.
@@ -97,7 +85,6 @@ public abstract class Tile {
     */
    public void putShip(Ship s) {
       occupiedBy.add(s);
-      tilePane.getChildren().add(s.getShipPane());
    }
 
    /**
@@ -107,61 +94,14 @@ public abstract class Tile {
     */
    public void removeShip(Ship s) {
       occupiedBy.remove(s);
-      tilePane.getChildren().remove(s.getShipPane());
-   }
-
-   /**
-    * Initializes the Tile to work with the UI, adding the tilePane to the boardPane passed in at the coordinates known
-    * by the tile.
-    *
-    * @param boardPane The gridpane to add the tile to.
-    */
-   public final void pairToUI(GridPane boardPane) {
-      boardPane.add(this.tilePane, this.x + 1, this.y + 1);
    }
 
    /**
     * Checks whether the tile is occupied by a Ship.
     *
-    * @return True if the Tile has a ship drawn onto it's pane, false otherwise.
+    * @return True if a ship has been placed onto the Tile, false otherwise.
     */
    public boolean isOccupied() {
       return occupiedBy.size() > 0;
    }
-
-   // Protected Methods
-
-   /**
-    * Highlights the Tile
-    * Sets the appropriate cursor for highlighted tile
-    */
-   public void highlight() {
-      Pane redShift = new Pane();
-
-      // sets a slight tint over the tile
-      redShift.setStyle("-fx-background-color: rgba(255, 0, 0, 0.5);");
-      tilePane.getChildren().add(0, redShift);
-      highlighted = true;
-      // change the cursor
-      redShift.setCursor(new ImageCursor(
-              GraphicLoader.getInstance().getFocusCursor()
-      ));
-   }
-
-   /**
-    * If the tile is highlighted, unhighlights it.
-    * Sets the appropriate cursor for unhighlighted tile
-    */
-   public void unhighlight() {
-      if (highlighted) {
-         tilePane.getChildren().remove(0);
-         highlighted = false;
-         // reset the cursor back to default when unhighliting
-         tilePane.setCursor(new ImageCursor(
-                 GraphicLoader.getInstance().getDefaultCursor()
-         ));
-      }
-   }
-
-
 }
@@ -8,6 +8,7 @@
 
 package uk.ac.aber.cs221.group16.game.map.tiles;
 
+import javafx.scene.image.Image;
 import uk.ac.aber.cs221.group16.game.GraphicLoader;
 import uk.ac.aber.cs221.group16.game.container.TreasureIslandContainer;
 import uk.ac.aber.cs221.group16.game.items.cards.ChanceCard;
@@ -37,13 +38,17 @@ public class TreasureIslandTile extends IslandTile {
     * @param py        The y offset into the island top to bottom.
     */
    public TreasureIslandTile(int x, int y, int px, int py, TreasureIslandContainer container) {
-      super("TreasureIsland", x, y,
-              GraphicLoader.getInstance().getTreasureIslandTiles()[px][py]);
+      super("TreasureIsland", x, y, px, py);
       this.container = container;
    }
 
    // Public Methods
 
+   @Override
+   public Image getImage() {
+      return GraphicLoader.getInstance().getTreasureIslandTiles()[px][py];
+   }
+
    /**
     * Takes a Chance Card and removes it from Island.
     *
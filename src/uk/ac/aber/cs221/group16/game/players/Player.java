@@ -8,52 +8,51 @@
 
 package uk.ac.aber.cs221.group16.game.players;
 
-import javafx.geometry.Insets;
-import javafx.geometry.Pos;
-import javafx.scene.ImageCursor;
-import javafx.scene.control.Label;
-import javafx.scene.control.ScrollPane;
-import javafx.scene.image.ImageView;
-import javafx.scene.layout.*;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
 import javafx.scene.paint.Color;
-import javafx.stage.Stage;
-import uk.ac.aber.cs221.group16.game.Controller;
-import uk.ac.aber.cs221.group16.game.GraphicLoader;
 import uk.ac.aber.cs221.group16.game.items.Tradable;
 import uk.ac.aber.cs221.group16.game.items.cards.ChanceCard;
 import uk.ac.aber.cs221.group16.game.items.cards.CrewCard;
 import uk.ac.aber.cs221.group16.game.items.treasures.Treasure;
+import uk.ac.aber.cs221.group16.game.log.Snapshot;
 import uk.ac.aber.cs221.group16.game.map.Board;
 import uk.ac.aber.cs221.group16.game.map.tiles.PortTile;
-import uk.ac.aber.cs221.group16.game.windows.GenericMsg;
+import uk.ac.aber.cs221.group16.game.utils.Zobrist;
 
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
 
 /**
  * This class manages Players and functions relating to player hands, while storing necessary information regarding the player,
  * such as homePort tile, player name and color.
+ * <p>
+ * The crew cards in the player's hand are watched, however they are changed, to keep a count of each colour and value
+ * of card, the total value of each colour and a {@link Zobrist} hash of them. Fighting strength and movement distance
+ * come straight from the totals, the cards themselves are kept for display and for rules which pick particular cards.
  *
  * @author Luke Revill
  * @author Josh Smith
  * @author Kamyab Sherafat
  * @author Alex Toop
- * @version 1.1 JavaFX First Implementation.
+ * @version 1.5 Computer players.
  */
 public class Player {
 
-   // Static Variables
-   private static final Color defaultPaneCol = Color.SILVER;
-
    // Instance Variables
+   private int id;
    private String name;
+   private boolean computer;
    private Color color;
    private Ship ship;
    private PortTile homePort;
-   private Pane highlightPane, chanceCard, crewCard;
-   private ArrayList<CrewCard> crew;
+   private ObservableList<CrewCard> crew;
    private ArrayList<ChanceCard> chanceCards;
+   private Zobrist.Counter crewHash;
+   // crewCounts[colour][value - 1] is the number of crew cards of that colour and value in the hand.
+   private int[][] crewCounts = new int[CrewCard.colors][CrewCard.maxValue];
+   private int[] crewTotals = new int[CrewCard.colors];
 
    // Constructors
 
@@ -68,12 +67,22 @@ public class Player {
     * @param board    The board the player is playing on.
     */
    public Player(int id, String name, PortTile homePort, Color col, Board board) {
+      this.id = id;
       this.name = name;
       this.color = col;
       this.homePort = homePort;
       homePort.setOwner(this);
-      ship = new Ship(homePort, board, GraphicLoader.getInstance().getShips()[id]);
-      crew = new ArrayList<>();
+      ship = new Ship(id, homePort, board);
+      crew = FXCollections.observableArrayList();
+      crewHash = Zobrist.crew(id);
+      crew.addListener((ListChangeListener<CrewCard>) c -> {
+         while (c.next()) {
+            for (CrewCard card : c.getRemoved())
+               countCrewCard(card, -1);
+            for (CrewCard card : c.getAddedSubList())
+               countCrewCard(card, 1);
+         }
+      });
       chanceCards = new ArrayList<>();
 
       // for debugging
@@ -100,27 +109,13 @@ public class Player {
       return ship;
    }
 
-   /**
-    * Displays the Hand ??
-    */
-   public void displayHand() {
-      // code to display hand somewhere
-   }
-
-
    /**
     * Calculates and returns the players fighting strength.
     *
     * @return The fighting strength of the players.
     */
    public int getFightingStrength() {
-      int redTotal = 0;
-      int blackTotal = 0;
-      for (CrewCard card : crew) {
-         if (card.getColor() == Color.RED) redTotal += card.getValue();
-         if (card.getColor() == Color.BLACK) blackTotal += card.getValue();
-      }
-      return Math.abs(redTotal - blackTotal);
+      return Math.abs(crewTotals[CrewCard.red] - crewTotals[CrewCard.black]);
    }
 
    /**
@@ -129,173 +124,100 @@ public class Player {
     * @return The Ship's maximum movement distance in number of tiles from the current tile.
     */
    public int getMovementDistance() {
-      int moveDist = 0;
-      for (CrewCard card : crew) {
-         moveDist += card.getValue();
-      }
+      int moveDist = crewTotals[CrewCard.red] + crewTotals[CrewCard.black];
       return moveDist > 0 ? moveDist : 1;
    }
 
    /**
-    * Gets the name of the player.
+    * Gets the number of crew cards of a colour and value in the player's hand.
     *
-    * @return The name.
+    * @param colorIndex The colour, {@link CrewCard#red} or {@link CrewCard#black}.
+    * @param value      The value, from 1 to {@link CrewCard#maxValue}.
+    * @return The number of cards.
     */
-   public String getName() {
-      return name;
+   public int getCrewCount(int colorIndex, int value) {
+      return crewCounts[colorIndex][value - 1];
    }
 
    /**
-    * Gets the Home port of the player.
+    * Takes the lowest value crew cards from the player's hand. The lowest value in the hand is found from the counts,
+    * and of the cards with that value the one the player was given last is taken.
     *
-    * @return The home port of the ship.
+    * @param count The number of cards to take, fewer are taken if the hand runs out.
+    * @return The cards taken, lowest first.
     */
-   public PortTile getHomePort() {
-      return homePort;
+   public List<CrewCard> takeLowestCrewCards(int count) {
+      List<CrewCard> taken = new ArrayList<>();
+      for (int value = 1; value <= CrewCard.maxValue && taken.size() < count; ) {
+         if (crewCounts[CrewCard.red][value - 1] + crewCounts[CrewCard.black][value - 1] == 0) {
+            value++;
+            continue;
+         }
+         for (int i = crew.size() - 1; i >= 0; i--) {
+            if (crew.get(i).getValue() == value) {
+               taken.add(crew.remove(i));
+               break;
+            }
+         }
+      }
+      return taken;
    }
 
+   /**
+    * Gets the ID of the player, this is also the seat used to pick the player's ship graphic.
+    *
+    * @return The ID.
+    */
+   public int getId() {
+      return id;
+   }
 
    /**
-    * Draws the players's information to the screen e.g. Ship, UI details...
+    * Gets the color used to represent the player.
     *
-    * @param pane         The pane to place the Player info onto.
-    * @param primaryStage The primary stage used.
-    * @param board        The board which the game is being played on.
+    * @return The color of the player.
     */
-   public void pairToUI(VBox pane, Stage primaryStage, Board board) {
-      highlightPane = pane;
-
-      Pane headerPane = new GridPane();
-      headerPane.setBackground(new Background(new BackgroundFill(color, CornerRadii.EMPTY, Insets.EMPTY)));
-      headerPane.prefHeightProperty().bind(pane.heightProperty().multiply(0.15));
-      Label playerName = new Label(getName());
-      Label playerLoc = new Label();
-      playerLoc.textProperty().bind(ship.locationStringProperty());
-      Label playerPrt = new Label(getHomePort().getName());
-      headerPane.getChildren().addAll(playerName, playerLoc, playerPrt);
-      GridPane.setConstraints(playerName, 0, 0);
-      GridPane.setConstraints(playerLoc, 1, 0);
-      GridPane.setConstraints(playerPrt, 0, 1);
-
-      HBox playerCards = new HBox();
-      playerCards.prefHeightProperty().bind(pane.heightProperty().multiply(0.35));
-
-      GridPane leftWrapper = new GridPane();
-      leftWrapper.prefWidthProperty().bind(playerCards.widthProperty().multiply(0.5));
-      crewCard = new Pane();
-      crewCard.setCursor(new ImageCursor(GraphicLoader.getInstance().getBrokenCursor()));
-      crewCard.prefHeightProperty().bind(leftWrapper.heightProperty().multiply(0.75));
-      crewCard.prefWidthProperty().bind(leftWrapper.widthProperty().multiply(0.50));
-      ImageView crewCardImg = new ImageView(GraphicLoader.getInstance().getCrewCardStack());
-      crewCardImg.fitWidthProperty().bind(crewCard.widthProperty());
-      crewCardImg.fitHeightProperty().bind(crewCard.heightProperty());
-      crewCard.getChildren().add(crewCardImg);
-      // Clicks crew card stack
-      crewCard.setOnMouseClicked(e -> {
-         // ensure its the current player's crew card stack
-         if (board.getCurrentPlayer() == this) {
-            StringBuilder sBuilder = new StringBuilder();
-            crew.stream().sorted(Comparator.reverseOrder())
-                    .forEach(c -> sBuilder.append(c.toString()).append("\n"));
-            sBuilder.append("Move: ").append(getMovementDistance()).append(" | Attack: ").append(getFightingStrength());
-            new GenericMsg(Controller.stage, sBuilder.toString());
-         }
-      });
-      leftWrapper.getChildren().add(crewCard);
-      leftWrapper.setId("left-wrapper");
-
-      GridPane rightWrapper = new GridPane();
-      rightWrapper.prefWidthProperty().bind(playerCards.widthProperty().multiply(0.5));
-      chanceCard = new Pane();
-      chanceCard.setCursor(new ImageCursor(GraphicLoader.getInstance().getBrokenCursor()));
-      chanceCard.prefHeightProperty().bind(rightWrapper.heightProperty().multiply(0.75));
-      chanceCard.prefWidthProperty().bind(rightWrapper.widthProperty().multiply(0.5));
-      ImageView chanceCardImg = new ImageView(GraphicLoader.getInstance().getChanceCardStack());
-      chanceCardImg.fitWidthProperty().bind(chanceCard.widthProperty());
-      chanceCardImg.fitHeightProperty().bind(chanceCard.heightProperty());
-      chanceCard.getChildren().add(chanceCardImg);
-      // Clicks crew card stack
-      chanceCard.setOnMouseClicked(e -> {
-         // ensure its the current player's crew card stack
-         StringBuilder sBuilder = new StringBuilder();
-         if (board.getCurrentPlayer() == this) {
-            if (chanceCards.size() > 0)
-               chanceCards.forEach(c -> sBuilder.append(c.toString()).append("\n"));
-            else
-               sBuilder.append("No Chance Cards in hand!");
-            new GenericMsg(Controller.stage, sBuilder.toString());
-         }
-      });
-      rightWrapper.getChildren().add(chanceCard);
-      rightWrapper.setId("right-wrapper");
-
-      playerCards.getChildren().addAll(leftWrapper, rightWrapper);
-      playerCards.getStylesheets().add("/css/player_cards.css");
-
-      HBox treasureTxt = new HBox();
-      treasureTxt.setAlignment(Pos.CENTER);
-      treasureTxt.prefHeightProperty().bind(pane.heightProperty().multiply(0.1));
-      Label treasureTtlLabel = new Label("Treasure");
-      treasureTxt.getChildren().add(treasureTtlLabel);
-
-      GridPane treasureHmPrt = new GridPane();
-
-      Label homePort = new Label("Home Port:");
-      Label homePortVal = new Label();
-      homePortVal.textProperty().bind(this.homePort.treasureStringProperty());
-      treasureHmPrt.getChildren().addAll(homePort, homePortVal);
-      GridPane.setConstraints(homePort, 0, 0);
-      GridPane.setConstraints(homePortVal, 0, 1);
-      ScrollPane scrollPaneUp = new ScrollPane(treasureHmPrt);
-      scrollPaneUp.prefHeightProperty().bind(pane.heightProperty().multiply(0.2));
-
-      GridPane treasureShip = new GridPane();
-      Label ship = new Label("Ship:");
-      Label shipVal = new Label();
-      shipVal.textProperty().bind(this.ship.treasureStringProperty());
-      shipVal.textProperty().bind(this.ship.treasureStringProperty());
-      treasureShip.getChildren().addAll(ship, shipVal);
-      GridPane.setConstraints(ship, 0, 0);
-      GridPane.setConstraints(shipVal, 0, 1);
-      ScrollPane scrollPaneDwn = new ScrollPane(treasureShip);
-      scrollPaneDwn.prefHeightProperty().bind(pane.heightProperty().multiply(0.2));
-
-      pane.getChildren().addAll(headerPane, playerCards, treasureTxt, scrollPaneUp, scrollPaneDwn);
-      headerPane.getStyleClass().add("headerPane");
-      treasureHmPrt.getStyleClass().add("treasureHmPrt");
-      treasureShip.getStyleClass().add("treasureShip");
-      scrollPaneDwn.getStyleClass().add("scrollPaneDwn");
-      scrollPaneUp.getStyleClass().add("scrollPaneUp");
-      treasureTxt.getStyleClass().add("treasureTxt");
-      playerCards.getStyleClass().add("playerCards");
-      pane.getStyleClass().add("playerPane");
-      pane.getStylesheets().add("/css/player_pane.css");
+   public Color getColor() {
+      return color;
    }
 
    /**
-    * UnHighlights a Player's info window.
-    * Sets the appropriate cursor for player cards.
+    * Gets the name of the player.
+    *
+    * @return The name.
     */
-   public void unhighlight() {
-      highlightPane.setStyle("-fx-background-color: silver;");
-      for (int i = 0; i < 2; i++) {
-         ((i > 0) ? crewCard : chanceCard).setCursor(
-                 new ImageCursor(GraphicLoader.getInstance().getBrokenCursor()));
-      }
+   public String getName() {
+      return name;
    }
 
    /**
-    * Highlight's a Player's info window.
-    * Sets the appropriate cursor for player cards.
+    * Checks whether the player is played by the computer, which has no effect on the rules.
+    *
+    * @return True if a bot plays for the player.
     */
-   public void highlight() {
-      highlightPane.setStyle("-fx-background-color: white;");
-      for (int i = 0; i < 2; i++) {
-         ((i > 0) ? crewCard : chanceCard).setCursor(
-                 new ImageCursor(GraphicLoader.getInstance().getFocusCursor()));
-      }
+   public boolean isComputer() {
+      return computer;
+   }
+
+   /**
+    * Sets whether the player is played by the computer.
+    *
+    * @param computer True if a bot plays for the player.
+    */
+   public void setComputer(boolean computer) {
+      this.computer = computer;
    }
 
+   /**
+    * Gets the Home port of the player.
+    *
+    * @return The home port of the ship.
+    */
+   public PortTile getHomePort() {
+      return homePort;
+   }
+
+
    /**
     * Adds a crew card to the players hand.
     *
@@ -380,7 +302,16 @@ public class Player {
     * @param newCards The new list of Crew cards to set.
     */
    public void setCrewCards(ArrayList<CrewCard> newCards) {
-      this.crew = newCards;
+      crew.setAll(newCards);
+   }
+
+   /**
+    * Gets the {@link Zobrist} hash of the player's crew cards and ship.
+    *
+    * @return The hash.
+    */
+   public long getHash() {
+      return crewHash.getHash() ^ ship.getHash();
    }
 
    /**
@@ -391,4 +322,21 @@ public class Player {
    public ArrayList<ChanceCard> getChanceCards() {
       return chanceCards;
    }
+
+   // Private Methods
+
+   /**
+    * Counts a crew card coming into or leaving the player's hand.
+    *
+    * @param card  The card.
+    * @param delta 1 if the card was added, -1 if it was removed.
+    */
+   private void countCrewCard(CrewCard card, int delta) {
+      crewCounts[card.getColorIndex()][card.getValue() - 1] += delta;
+      crewTotals[card.getColorIndex()] += delta * card.getValue();
+      if (delta > 0)
+         crewHash.add(Snapshot.crewCardCode(card));
+      else
+         crewHash.remove(Snapshot.crewCardCode(card));
+   }
 }
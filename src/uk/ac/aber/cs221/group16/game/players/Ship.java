@@ -10,62 +10,78 @@ package uk.ac.aber.cs221.group16.game.players;
 
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
+import javafx.beans.value.ObservableStringValue;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableSet;
 import javafx.collections.SetChangeListener;
-import javafx.scene.control.Control;
-import javafx.scene.image.Image;
-import javafx.scene.layout.*;
 import uk.ac.aber.cs221.group16.game.items.treasures.Treasure;
+import uk.ac.aber.cs221.group16.game.items.treasures.TreasureSummary;
+import uk.ac.aber.cs221.group16.game.log.Snapshot;
 import uk.ac.aber.cs221.group16.game.map.Board;
 import uk.ac.aber.cs221.group16.game.map.Orientation;
 import uk.ac.aber.cs221.group16.game.map.tiles.PortTile;
 import uk.ac.aber.cs221.group16.game.map.tiles.Tile;
+import uk.ac.aber.cs221.group16.game.utils.Zobrist;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 
 /**
  * This Class manages the basic operations of the ship e.g. adding and removing Treasures. It also stores the orientation and current
  * position of the ship.
+ * <p>
+ * The ship keeps a {@link Zobrist} hash of its tile, orientation and cargo up to date as they change. The cargo's
+ * display string is a {@link TreasureSummary}, so loading or unloading several treasures at once with
+ * {@link #load(Collection)}, {@link #unload()} or {@link #changeCargo(Runnable)} is one change to the display.
  *
  * @author Josh Smith
- * @version 1.2 Move and rotate features Beta.
+ * @version 1.6 Coalesced updates.
  */
 public class Ship {
 
    // Instance Variables
+   private int id;
    private Tile curTile;
    private int capacity;
    private ObservableSet<Treasure> cargo;
    private Orientation orientation;
-   private Pane shipPane;
    private StringProperty locationString = new SimpleStringProperty();
-   private StringProperty treasureString = new SimpleStringProperty();
+   private TreasureSummary treasureString;
+   private Zobrist.Counter cargoHash;
+   private long hash;
 
    // Constructors
 
    /**
-    * This constructor initializes a ship with coordinates passed in as arguments. This will also add the ship to the
-    * tiles pane.
+    * This constructor initializes a ship with coordinates passed in as arguments. This will also place the ship onto
+    * the tile.
     *
+    * @param id    The ID of the player the ship belongs to.
     * @param t     The tile the Ship will start on.
     * @param board The board the ship is on.
-    * @param image The image to use for the ship.
     */
-   public Ship(Tile t, Board board, Image image) {
+   public Ship(int id, Tile t, Board board) {
       capacity = 2;
-      shipPane = new Pane();
-      shipPane.setBackground(new Background(new BackgroundImage(image, BackgroundRepeat.NO_REPEAT, BackgroundRepeat.NO_REPEAT,
-              BackgroundPosition.CENTER, new BackgroundSize(128, 128, false, false, true, false))));
+      this.id = id;
       this.curTile = t;
-      cargo = FXCollections.observableSet();
-      // listen for changes and update the string
-      cargo.addListener((SetChangeListener<Treasure>) c -> updateTreasureString());
+      cargo = FXCollections.observableSet(new LinkedHashSet<>());
+      cargoHash = Zobrist.cargo(id);
+      treasureString = new TreasureSummary(cargo);
+      // listen for changes and update the hash, the string is only rebuilt when it is next shown.
+      cargo.addListener((SetChangeListener<Treasure>) c -> {
+         if (c.wasRemoved())
+            cargoHash.remove(Snapshot.treasureCode(c.getElementRemoved()));
+         if (c.wasAdded())
+            cargoHash.add(Snapshot.treasureCode(c.getElementAdded()));
+         treasureString.changed();
+      });
+      hash = Zobrist.tile(id, t.getX(), t.getY());
       t.putShip(this);
-      shipPane.setPrefWidth(Control.USE_COMPUTED_SIZE);
-      shipPane.setPrefHeight(Control.USE_COMPUTED_SIZE);
+      board.getBitBoard().updateOccupancy(t);
       updateLocationString(board);
-      updateTreasureString();
 
       // initialise the rotation of the ship in its home port.
       portRotate();
@@ -87,18 +103,60 @@ public class Ship {
       return true;
    }
 
+   /**
+    * Adds treasures to the cargo in order until the hold is full.
+    *
+    * @param treasures The treasures to add.
+    * @return The treasures which didn't fit, in the order they were given.
+    */
+   public List<Treasure> load(Collection<Treasure> treasures) {
+      List<Treasure> rejected = new ArrayList<>();
+      changeCargo(() -> {
+         for (Treasure t : treasures) {
+            if (!addTreasure(t))
+               rejected.add(t);
+         }
+      });
+      return rejected;
+   }
+
+   /**
+    * Removes every treasure from the cargo.
+    *
+    * @return The treasures which were in the cargo, in the order they were added.
+    */
+   public List<Treasure> unload() {
+      List<Treasure> unloaded = new ArrayList<>(cargo);
+      changeCargo(cargo::clear);
+      return unloaded;
+   }
+
+   /**
+    * Makes several changes to the cargo, which the display is told about once they have all been made.
+    *
+    * @param changes The changes.
+    */
+   public void changeCargo(Runnable changes) {
+      treasureString.batch(changes);
+   }
+
    /**
     * Sets the current tile of the Ship. Removing the ship from its current tile and placing it onto the new one.
-    * Also updates the location string.
+    * Also updates the location string, the hash and the occupancy mask of the board's {@link Board#getBitBoard()}.
     *
     * @param board The board that the ship is on.
     * @param t     The tile to place the ship at.
     */
    public void moveTo(Tile t, Board board) {
-      if (curTile != null) // if the curTile is not null, remove the ship from the previous tile first.
+      if (curTile != null) { // if the curTile is not null, remove the ship from the previous tile first.
          curTile.removeShip(this);
+         board.getBitBoard().updateOccupancy(curTile);
+         hash ^= Zobrist.tile(id, curTile.getX(), curTile.getY());
+      }
       curTile = t;
+      hash ^= Zobrist.tile(id, t.getX(), t.getY());
       t.putShip(this);
+      board.getBitBoard().updateOccupancy(t);
       updateLocationString(board);
    }
 
@@ -144,12 +202,17 @@ public class Ship {
     * @param orientation The new Orientation for the ship to rotate towards.
     */
    public void setOrientation(Orientation orientation) {
+      hash ^= Zobrist.orientation(id, this.orientation) ^ Zobrist.orientation(id, orientation);
       this.orientation = orientation;
-      shipPane.setRotate(orientation.getAngle());
-      if (orientation.getAngle() > 180)
-         shipPane.setStyle("-fx-scale-x: -1;");
-      else
-         shipPane.setStyle("-fx-scale-x: 1;");
+   }
+
+   /**
+    * Gets the {@link Zobrist} hash of the ship's tile, orientation and cargo.
+    *
+    * @return The hash.
+    */
+   public long getHash() {
+      return hash ^ cargoHash.getHash();
    }
 
    /**
@@ -170,15 +233,6 @@ public class Ship {
       return curTile.getY();
    }
 
-   /**
-    * Gets the pane which displays the ship.
-    *
-    * @return The pane which has the ship image on it.
-    */
-   public Pane getShipPane() {
-      return shipPane;
-   }
-
    /**
     * Gets the locationStringProperty and follows the javabeans style guide on using properties.
     *
@@ -189,11 +243,12 @@ public class Ship {
    }
 
    /**
-    * Gets the treasureStringProperty and follows the javabeans style guide on using properties.
+    * Gets the treasureStringProperty and follows the javabeans style guide on using properties. The string is rebuilt
+    * when it is read after the cargo has changed.
     *
-    * @return A StringProperty object representing the treasure display string.
+    * @return An observable string representing the treasure display string.
     */
-   public StringProperty treasureStringProperty() {
+   public ObservableStringValue treasureStringProperty() {
       return treasureString;
    }
 
@@ -208,13 +263,6 @@ public class Ship {
       locationString.set(String.format("\t( x:%d, y:%d )", b.getOutputX(getX()), b.getOutputY(getY())));
    }
 
-   /**
-    * Updates the treasure string property to trigger an update on the UI.
-    */
-   private void updateTreasureString() {
-      this.treasureStringProperty().set(Treasure.setToString(cargo));
-   }
-
    public void portRotate() {
       // set ship orientation
 
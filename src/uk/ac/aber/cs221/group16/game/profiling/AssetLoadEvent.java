@@ -0,0 +1,45 @@
+/*
+* @(#) AssetLoadEvent.java 1.0 2017/04/01
+*
+* Copyright (c) 2017 Aberystwyth University.
+* All rights reserved.
+*
+*/
+
+package uk.ac.aber.cs221.group16.game.profiling;
+
+import jdk.jfr.*;
+
+/**
+ * A graphic being loaded from its own file, or a page of the sprite pack being decoded.
+ *
+ * @author Group 16
+ * @version 1.0 Flight recorder events.
+ */
+@Name("buccaneer.AssetLoad")
+@Label("Asset Load")
+@Category({"Buccaneer", "Loading"})
+@StackTrace(false)
+public class AssetLoadEvent extends Event {
+
+   // Instance Variables
+   @Label("Asset")
+   private String asset;
+   @Label("Sprites")
+   @Description("The number of sprites on a page of the pack, 1 for a file")
+   private int sprites;
+
+   // Constructors
+
+   /**
+    * Starts timing a load.
+    *
+    * @param asset   The resource path of the file, or the name of the page.
+    * @param sprites The number of sprites being loaded.
+    */
+   public AssetLoadEvent(String asset, int sprites) {
+      this.asset = asset;
+      this.sprites = sprites;
+      begin();
+   }
+}
@@ -0,0 +1,66 @@
+/*
+* @(#) BattleEvent.java 1.0 2017/04/01
+*
+* Copyright (c) 2017 Aberystwyth University.
+* All rights reserved.
+*
+*/
+
+package uk.ac.aber.cs221.group16.game.profiling;
+
+import jdk.jfr.*;
+import uk.ac.aber.cs221.group16.game.players.Player;
+
+/**
+ * A battle between two ships, including the loot changing hands and the players being told the outcome.
+ *
+ * @author Group 16
+ * @version 1.0 Flight recorder events.
+ */
+@Name("buccaneer.Battle")
+@Label("Battle")
+@Category({"Buccaneer", "Rules"})
+@Threshold("1 ms")
+public class BattleEvent extends Event {
+
+   // Instance Variables
+   @Label("Attacker")
+   private String attacker;
+   @Label("Defender")
+   private String defender;
+   @Label("Attacker Strength")
+   private int attackerStrength;
+   @Label("Defender Strength")
+   private int defenderStrength;
+   @Label("Winner")
+   @Description("The winner, or null for a draw")
+   private String winner;
+
+   // Constructors
+
+   /**
+    * Starts timing a battle.
+    *
+    * @param attacker The attacking player.
+    * @param defender The defending player.
+    */
+   public BattleEvent(Player attacker, Player defender) {
+      this.attacker = attacker.getName();
+      this.defender = defender.getName();
+      this.attackerStrength = attacker.getFightingStrength();
+      this.defenderStrength = defender.getFightingStrength();
+      begin();
+   }
+
+   // Public Methods
+
+   /**
+    * Finishes timing the battle and records it if it took long enough.
+    *
+    * @param winner The winner, or null for a draw.
+    */
+   public void finish(Player winner) {
+      this.winner = winner == null ? null : winner.getName();
+      commit();
+   }
+}
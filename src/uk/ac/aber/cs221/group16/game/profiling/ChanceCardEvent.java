@@ -0,0 +1,49 @@
+/*
+* @(#) ChanceCardEvent.java 1.0 2017/04/01
+*
+* Copyright (c) 2017 Aberystwyth University.
+* All rights reserved.
+*
+*/
+
+package uk.ac.aber.cs221.group16.game.profiling;
+
+import jdk.jfr.*;
+import uk.ac.aber.cs221.group16.game.items.cards.ChanceCard;
+import uk.ac.aber.cs221.group16.game.players.Player;
+
+/**
+ * A chance card's action being carried out, including any choices it asks the players to make.
+ *
+ * @author Group 16
+ * @version 1.0 Flight recorder events.
+ */
+@Name("buccaneer.ChanceCard")
+@Label("Chance Card")
+@Category({"Buccaneer", "Rules"})
+@Threshold("1 ms")
+public class ChanceCardEvent extends Event {
+
+   // Instance Variables
+   @Label("Card ID")
+   private int cardId;
+   @Label("Card")
+   private String card;
+   @Label("Player")
+   private String player;
+
+   // Constructors
+
+   /**
+    * Starts timing a chance card.
+    *
+    * @param card   The card.
+    * @param player The player the card acts on.
+    */
+   public ChanceCardEvent(ChanceCard card, Player player) {
+      this.cardId = card.getCardID();
+      this.card = card.getType();
+      this.player = player.getName();
+      begin();
+   }
+}
@@ -0,0 +1,66 @@
+/*
+* @(#) EndOfPathEvent.java 1.0 2017/04/01
+*
+* Copyright (c) 2017 Aberystwyth University.
+* All rights reserved.
+*
+*/
+
+package uk.ac.aber.cs221.group16.game.profiling;
+
+import jdk.jfr.*;
+import uk.ac.aber.cs221.group16.game.players.Player;
+
+/**
+ * Everything which happens when a ship reaches the end of its path: battles, chance cards, treasure and trading. Any
+ * popups asking a player to choose are answered within it, so a long event points at the choice which held the game up.
+ *
+ * @author Group 16
+ * @version 1.0 Flight recorder events.
+ */
+@Name("buccaneer.EndOfPath")
+@Label("End Of Path")
+@Category({"Buccaneer", "Rules"})
+@Threshold("1 ms")
+public class EndOfPathEvent extends Event {
+
+   // Instance Variables
+   @Label("Player")
+   private String player;
+   @Label("X")
+   private int x;
+   @Label("Y")
+   private int y;
+   @Label("Fought")
+   private boolean fought;
+   @Label("In A Port")
+   private boolean inAPort;
+
+   // Constructors
+
+   /**
+    * Starts timing the end of a path.
+    *
+    * @param player The player who has finished moving.
+    */
+   public EndOfPathEvent(Player player) {
+      this.player = player.getName();
+      this.x = player.getShip().getX();
+      this.y = player.getShip().getY();
+      begin();
+   }
+
+   // Public Methods
+
+   /**
+    * Finishes timing the end of the path and records it if it took long enough.
+    *
+    * @param fought  True if the ship fought a battle.
+    * @param inAPort True if the ship ended up in a port.
+    */
+   public void finish(boolean fought, boolean inAPort) {
+      this.fought = fought;
+      this.inAPort = inAPort;
+      commit();
+   }
+}
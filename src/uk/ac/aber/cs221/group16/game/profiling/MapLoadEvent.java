@@ -0,0 +1,54 @@
+/*
+* @(#) MapLoadEvent.java 1.0 2017/04/01
+*
+* Copyright (c) 2017 Aberystwyth University.
+* All rights reserved.
+*
+*/
+
+package uk.ac.aber.cs221.group16.game.profiling;
+
+import jdk.jfr.*;
+
+/**
+ * The map being read from its CSV file and its tiles being made.
+ *
+ * @author Group 16
+ * @version 1.0 Flight recorder events.
+ */
+@Name("buccaneer.MapLoad")
+@Label("Map Load")
+@Category({"Buccaneer", "Loading"})
+@StackTrace(false)
+public class MapLoadEvent extends Event {
+
+   // Instance Variables
+   @Label("Path")
+   private String path;
+   @Label("Tiles")
+   private int tiles;
+
+   // Constructors
+
+   /**
+    * Starts timing the map being loaded.
+    *
+    * @param path The path of the CSV file.
+    */
+   public MapLoadEvent(String path) {
+      this.path = path;
+      begin();
+   }
+
+   // Public Methods
+
+   /**
+    * Finishes timing the map and records it.
+    *
+    * @param tiles The number of tiles read.
+    */
+   public void finish(int tiles) {
+      this.tiles = tiles;
+      commit();
+   }
+}
@@ -0,0 +1,83 @@
+/*
+* @(#) SailEvent.java 1.0 2017/04/01
+*
+* Copyright (c) 2017 Aberystwyth University.
+* All rights reserved.
+*
+*/
+
+package uk.ac.aber.cs221.group16.game.profiling;
+
+import jdk.jfr.*;
+import uk.ac.aber.cs221.group16.game.players.Player;
+
+/**
+ * A ship sailing a path, from the move being chosen until the ship arrives or is stopped by a battle. In the game
+ * window this includes the ship being animated from tile to tile.
+ * <p>
+ * Paths sailed by the bots' searches take microseconds, so only paths longer than the threshold are recorded. A game is
+ * recorded with {@code java -XX:StartFlightRecording=filename=game.jfr ...}, and every path is recorded if the
+ * threshold is set to 0 in the settings given to the recording, as for the other rules events in this package.
+ *
+ * @author Group 16
+ * @version 1.0 Flight recorder events.
+ */
+@Name("buccaneer.Sail")
+@Label("Sail Path")
+@Category({"Buccaneer", "Rules"})
+@Threshold("1 ms")
+public class SailEvent extends Event {
+
+   // Instance Variables
+   @Label("Player")
+   private String player;
+   @Label("From X")
+   private int fromX;
+   @Label("From Y")
+   private int fromY;
+   @Label("To X")
+   private int toX;
+   @Label("To Y")
+   private int toY;
+   @Label("Tiles Sailed")
+   private int steps;
+   @Label("Ended In Battle")
+   private boolean battle;
+
+   // Constructors
+
+   /**
+    * Starts timing a path.
+    *
+    * @param player The player sailing.
+    * @param toX    The x coordinate of the destination.
+    * @param toY    The y coordinate of the destination.
+    */
+   public SailEvent(Player player, int toX, int toY) {
+      this.player = player.getName();
+      this.fromX = player.getShip().getX();
+      this.fromY = player.getShip().getY();
+      this.toX = toX;
+      this.toY = toY;
+      begin();
+   }
+
+   // Public Methods
+
+   /**
+    * Counts a tile sailed onto.
+    */
+   public void stepped() {
+      steps++;
+   }
+
+   /**
+    * Finishes timing the path and records it if it took long enough.
+    *
+    * @param battle True if the path was stopped by a battle.
+    */
+   public void finish(boolean battle) {
+      this.battle = battle;
+      commit();
+   }
+}
@@ -0,0 +1,67 @@
+/*
+* @(#) TradeWindowEvent.java 1.0 2017/04/01
+*
+* Copyright (c) 2017 Aberystwyth University.
+* All rights reserved.
+*
+*/
+
+package uk.ac.aber.cs221.group16.game.profiling;
+
+import jdk.jfr.*;
+import uk.ac.aber.cs221.group16.game.Trade;
+
+/**
+ * A trading window being open, from when it starts being built until it is closed. How long the window took to build,
+ * which includes searching for the trades to suggest, is recorded separately from the time the player spent in it.
+ *
+ * @author Group 16
+ * @version 1.0 Flight recorder events.
+ */
+@Name("buccaneer.TradeWindow")
+@Label("Trade Window")
+@Category({"Buccaneer", "Windows"})
+public class TradeWindowEvent extends Event {
+
+   // Instance Variables
+   @Label("Player")
+   private String player;
+   @Label("Port")
+   private String port;
+   @Label("Build Time")
+   @Timespan
+   private long buildTime;
+   @Label("Traded")
+   private boolean traded;
+   private transient long start;
+
+   // Constructors
+
+   /**
+    * Starts timing the window.
+    *
+    * @param trade The trade the window is for.
+    */
+   public TradeWindowEvent(Trade trade) {
+      this.player = trade.getPlayer().getName();
+      this.port = trade.getPort().getName();
+      start = System.nanoTime();
+      begin();
+   }
+
+   // Public Methods
+
+   /**
+    * Marks the window as built and about to be shown.
+    */
+   public void built() {
+      buildTime = System.nanoTime() - start;
+   }
+
+   /**
+    * Marks a trade as having been made.
+    */
+   public void traded() {
+      traded = true;
+   }
+}
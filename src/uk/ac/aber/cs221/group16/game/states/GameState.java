@@ -12,13 +12,14 @@ package uk.ac.aber.cs221.group16.game.states;
  * This class stores the details regarding the current state of the game.
  *
  * @author Josh Smith
- * @version 1.2 Move and rotate features Beta.
+ * @version 1.4 Keyframe recordings.
  */
 public class GameState {
 
    // Instance Variables
    private State currentState;
    private int turnNumber = 0;
+   private int battleCount = 0;
 
    // Constructors
 
@@ -65,6 +66,33 @@ public class GameState {
       turnNumber++;
    }
 
+   /**
+    * Gets the number of battles which have been fought so far.
+    *
+    * @return The number of battles.
+    */
+   public int getBattleCount() {
+      return battleCount;
+   }
+
+   /**
+    * Increments the battleCount by 1.
+    */
+   public void incrementBattleCount() {
+      battleCount++;
+   }
+
+   /**
+    * Sets the turn number and battle count, used when a game is restored part of the way through.
+    *
+    * @param turnNumber  The number of turns taken.
+    * @param battleCount The number of battles fought.
+    */
+   public void setCounts(int turnNumber, int battleCount) {
+      this.turnNumber = turnNumber;
+      this.battleCount = battleCount;
+   }
+
 
    // Private Methods
 }
@@ -0,0 +1,22 @@
+/*
+* @(#) StepResult.java 1.0 2017/04/01
+*
+* Copyright (c) 2017 Aberystwyth University.
+* All rights reserved.
+*
+*/
+
+package uk.ac.aber.cs221.group16.game.states;
+
+/**
+ * The values in this ENUM are the possible outcomes of moving a ship a single square along its path.
+ *
+ * @author Group 16
+ * @version 1.0 Headless rules engine.
+ * @see uk.ac.aber.cs221.group16.game.map.Board#partialMove()
+ */
+public enum StepResult {
+   Moved,
+   Intercepted,
+   Arrived
+}
@@ -0,0 +1,113 @@
+/*
+* @(#) GameRandom.java 1.0 2017/04/01
+*
+* Copyright (c) 2017 Aberystwyth University.
+* All rights reserved.
+*
+*/
+
+package uk.ac.aber.cs221.group16.game.utils;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * This class is the source of every random decision in a game, e.g. shuffling the decks and the seating order. A game
+ * made from the same seed will always be set up the same way, so it can be replayed exactly.
+ * <p>
+ * Each part of the game which needs randomness takes its own stream from {@link #split()}, so games played in
+ * parallel never share a generator and the streams are statistically independent.
+ *
+ * @author Group 16
+ * @version 1.0 Seeded randomness.
+ */
+public class GameRandom {
+
+   // Instance Variables
+   private SplittableRandom random;
+
+   // Constructors
+
+   /**
+    * Creates a generator from a seed.
+    *
+    * @param seed The seed.
+    */
+   public GameRandom(long seed) {
+      this(new SplittableRandom(seed));
+   }
+
+   /**
+    * Creates a generator from a stream split from another generator.
+    *
+    * @param random The generator to use.
+    */
+   private GameRandom(SplittableRandom random) {
+      this.random = random;
+   }
+
+   // Public Methods
+
+   /**
+    * Splits off a new independent generator, this one carries on as its own stream.
+    *
+    * @return The new generator.
+    */
+   public GameRandom split() {
+      return new GameRandom(random.split());
+   }
+
+   /**
+    * Gets a random int between 0 (inclusive) and bound (exclusive).
+    *
+    * @param bound The upper bound, must be positive.
+    * @return The random int.
+    */
+   public int nextInt(int bound) {
+      return random.nextInt(bound);
+   }
+
+   /**
+    * Gets a random long.
+    *
+    * @return The random long.
+    */
+   public long nextLong() {
+      return random.nextLong();
+   }
+
+   /**
+    * Gets a random boolean.
+    *
+    * @return The random boolean.
+    */
+   public boolean nextBoolean() {
+      return random.nextBoolean();
+   }
+
+   /**
+    * Shuffles a list in place using the Fisher-Yates shuffle, the same way as
+    * {@link java.util.Collections#shuffle(List, java.util.Random)}.
+    *
+    * @param list The list to shuffle.
+    * @param <T>  The type of the elements.
+    */
+   public <T> void shuffle(List<T> list) {
+      for (int i = list.size() - 1; i > 0; i--) {
+         int j = random.nextInt(i + 1);
+         list.set(i, list.set(j, list.get(i)));
+      }
+   }
+
+   // Static Methods
+
+   /**
+    * Makes a new seed for a game which isn't being replayed.
+    *
+    * @return A random seed.
+    */
+   public static long newSeed() {
+      return ThreadLocalRandom.current().nextLong();
+   }
+}
@@ -0,0 +1,192 @@
+/*
+* @(#) Zobrist.java 1.0 2017/04/01
+*
+* Copyright (c) 2017 Aberystwyth University.
+* All rights reserved.
+*
+*/
+
+package uk.ac.aber.cs221.group16.game.utils;
+
+import uk.ac.aber.cs221.group16.game.Game;
+import uk.ac.aber.cs221.group16.game.map.BitBoard;
+import uk.ac.aber.cs221.group16.game.map.Orientation;
+import uk.ac.aber.cs221.group16.game.map.tiles.Port;
+
+/**
+ * This class holds the random keys used to hash the state of a game. Every fact about a game, e.g. "player 2's ship is
+ * on tile 5, 7" or "Genoa has a second ruby", has its own key and the hash of a game is all of the keys of the facts
+ * which are true XORed together. When something changes the keys of the old fact and the new one are XORed into the
+ * hash, so it is kept up to date as the game is played rather than worked out again.
+ * <p>
+ * Collections of cards and treasure are hashed with a {@link Counter}, which counts each kind of item so that holding
+ * two rubies hashes differently to holding one, and the order items were added in doesn't matter.
+ * <p>
+ * The keys are made from a fixed seed, so the same state hashes the same in every game and copy of a game.
+ *
+ * @author Group 16
+ * @version 1.0 Transposition table.
+ */
+public final class Zobrist {
+
+   // Constants
+   // enough for every crew card in the game to be the same kind, no collection ever holds more items than that.
+   public static final int maxCount = 36;
+   public static final int treasureKinds = 5;
+   public static final int crewCardKinds = 6;
+   private static final long seed = 0x42554343414E4545L;
+   private static final int directions = Orientation.values().length;
+
+   // Static Variables
+   private static final long[] tiles = new long[Game.numPlayers * BitBoard.cells];
+   private static final long[] orientations = new long[Game.numPlayers * directions];
+   private static final long[] cargo = new long[Game.numPlayers * treasureKinds * maxCount];
+   private static final long[] crew = new long[Game.numPlayers * crewCardKinds * maxCount];
+   private static final long[] ports = new long[Port.values().length * treasureKinds * maxCount];
+   private static final long[] turns = new long[Game.numPlayers];
+
+   static {
+      GameRandom random = new GameRandom(seed);
+      for (long[] keys : new long[][]{tiles, orientations, cargo, crew, ports, turns}) {
+         for (int i = 0; i < keys.length; i++)
+            keys[i] = random.nextLong();
+      }
+   }
+
+   // Constructors
+
+   /**
+    * The keys are only used through the static methods.
+    */
+   private Zobrist() {
+   }
+
+   // Static Methods
+
+   /**
+    * Gets the key of a ship being on a tile.
+    *
+    * @param seat The ID of the ship's player.
+    * @param x    The x coordinate of the tile.
+    * @param y    The y coordinate of the tile.
+    * @return The key.
+    */
+   public static long tile(int seat, int x, int y) {
+      return tiles[seat * BitBoard.cells + BitBoard.index(x, y)];
+   }
+
+   /**
+    * Gets the key of a ship facing a direction.
+    *
+    * @param seat        The ID of the ship's player.
+    * @param orientation The direction, null before the ship has been turned to face out of its port.
+    * @return The key, 0 if the orientation is null.
+    */
+   public static long orientation(int seat, Orientation orientation) {
+      return orientation == null ? 0 : orientations[seat * directions + orientation.ordinal()];
+   }
+
+   /**
+    * Gets the keys for the cargo of a ship.
+    *
+    * @param seat The ID of the ship's player.
+    * @return A counter of the treasure on the ship.
+    */
+   public static Counter cargo(int seat) {
+      return new Counter(cargo, seat * treasureKinds * maxCount, treasureKinds);
+   }
+
+   /**
+    * Gets the keys for the crew cards in a player's hand.
+    *
+    * @param seat The ID of the player.
+    * @return A counter of the crew cards.
+    */
+   public static Counter crew(int seat) {
+      return new Counter(crew, seat * crewCardKinds * maxCount, crewCardKinds);
+   }
+
+   /**
+    * Gets the keys for the treasure in a port.
+    *
+    * @param port The port.
+    * @return A counter of the treasure in the port.
+    */
+   public static Counter port(Port port) {
+      return new Counter(ports, port.ordinal() * treasureKinds * maxCount, treasureKinds);
+   }
+
+   /**
+    * Gets the key of it being a player's turn to act.
+    *
+    * @param seat The ID of the player.
+    * @return The key.
+    */
+   public static long turn(int seat) {
+      return turns[seat];
+   }
+
+   // Inner Classes
+
+   /**
+    * Hashes a collection of items by how many of each kind it holds. The count of a kind going from n to n + 1 XORs
+    * the key for the (n + 1)th item of that kind into the hash, and going back XORs it out again.
+    */
+   public static final class Counter {
+
+      private final long[] keys;
+      private final int offset;
+      private final int[] counts;
+      private long hash;
+
+      /**
+       * Creates a counter of an empty collection.
+       *
+       * @param keys   The table of keys.
+       * @param offset Where the keys of this collection start in the table.
+       * @param kinds  The number of kinds of item.
+       */
+      private Counter(long[] keys, int offset, int kinds) {
+         this.keys = keys;
+         this.offset = offset;
+         this.counts = new int[kinds];
+      }
+
+      /**
+       * Counts an item being added.
+       *
+       * @param kind The kind of the item, its treasure or crew card code.
+       */
+      public void add(int kind) {
+         hash ^= keys[offset + kind * maxCount + counts[kind]++];
+      }
+
+      /**
+       * Counts an item being removed.
+       *
+       * @param kind The kind of the item, its treasure or crew card code.
+       */
+      public void remove(int kind) {
+         hash ^= keys[offset + kind * maxCount + --counts[kind]];
+      }
+
+      /**
+       * Gets the number of items of a kind.
+       *
+       * @param kind The kind.
+       * @return The count.
+       */
+      public int getCount(int kind) {
+         return counts[kind];
+      }
+
+      /**
+       * Gets the hash of the collection.
+       *
+       * @return The hash, 0 for an empty collection.
+       */
+      public long getHash() {
+         return hash;
+      }
+   }
+}
@@ -0,0 +1,151 @@
+/*
+* @(#) AnimationClock.java 1.0 2017/04/01
+*
+* Copyright (c) 2017 Aberystwyth University.
+* All rights reserved.
+*
+*/
+
+package uk.ac.aber.cs221.group16.game.view;
+
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.scene.image.Image;
+import javafx.util.Duration;
+import uk.ac.aber.cs221.group16.game.AnimatedImage;
+import uk.ac.aber.cs221.group16.game.GraphicLoader;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * This singleton is the one clock every animated tile is shown by, so all of them change frame at the same moment and
+ * the board is drawn again once for each change rather than once for each GIF.
+ * <p>
+ * The clock ticks as often as the frames of the {@link GraphicLoader}'s animations can change, which is the greatest
+ * common divisor of their delays, and only while something is listening. Listeners are told on every tick and check
+ * {@link #hasChanged(AnimatedImage)} for the animations they show.
+ *
+ * @author Group 16
+ * @version 1.0 Shared animation clock.
+ */
+public class AnimationClock {
+
+   // Static Variables
+   private static AnimationClock instance;
+
+   // Instance Variables
+   private final int step;
+   private final Timeline timeline;
+   private final List<Runnable> listeners = new ArrayList<>();
+   private long time;
+
+   // Constructors
+
+   /**
+    * Sets up the clock to tick whenever any of the animations could change frame.
+    *
+    * @param animations The animations shown by the clock.
+    */
+   private AnimationClock(Collection<AnimatedImage> animations) {
+      int gcd = 0;
+      for (AnimatedImage animation : animations) {
+         for (int i = 0; i < animation.getFrameCount(); i++)
+            gcd = gcd(gcd, animation.getDelay(i));
+      }
+      step = Math.max(gcd, 1);
+      timeline = new Timeline(new KeyFrame(Duration.millis(step), e -> tick()));
+      timeline.setCycleCount(Animation.INDEFINITE);
+   }
+
+   // Public Methods
+
+   /**
+    * Adds something to be told when the clock ticks, starting the clock if it isn't running.
+    *
+    * @param listener The listener.
+    */
+   public void addListener(Runnable listener) {
+      listeners.add(listener);
+      if (listeners.size() == 1)
+         timeline.play();
+   }
+
+   /**
+    * Stops telling something when the clock ticks, stopping the clock if nothing else is listening.
+    *
+    * @param listener The listener.
+    */
+   public void removeListener(Runnable listener) {
+      listeners.remove(listener);
+      if (listeners.isEmpty())
+         timeline.stop();
+   }
+
+   /**
+    * Gets the frame of an animation to show now.
+    *
+    * @param animation The animation.
+    * @return The index of the frame.
+    */
+   public int getFrame(AnimatedImage animation) {
+      return animation.frameAt(time);
+   }
+
+   /**
+    * Gets the image of an animation to show now.
+    *
+    * @param animation The animation.
+    * @return The frame.
+    */
+   public Image getImage(AnimatedImage animation) {
+      return animation.getFrame(getFrame(animation));
+   }
+
+   /**
+    * Checks whether an animation changed frame on the last tick.
+    *
+    * @param animation The animation.
+    * @return True if it needs drawing again.
+    */
+   public boolean hasChanged(AnimatedImage animation) {
+      return animation.frameAt(time) != animation.frameAt(time - step);
+   }
+
+   // Private Methods
+
+   /**
+    * Moves the clock on and tells the listeners.
+    */
+   private void tick() {
+      time += step;
+      for (Runnable listener : new ArrayList<>(listeners))
+         listener.run();
+   }
+
+   // Static Methods
+
+   /**
+    * Gets the clock, making it the first time it is needed.
+    *
+    * @return The clock.
+    */
+   public static AnimationClock getInstance() {
+      if (instance == null)
+         instance = new AnimationClock(GraphicLoader.getInstance().getAnimations());
+      return instance;
+   }
+
+   /**
+    * Finds the greatest common divisor of two numbers.
+    *
+    * @param a A number, 0 to get b.
+    * @param b Another number.
+    * @return The greatest common divisor.
+    */
+   private static int gcd(int a, int b) {
+      return b == 0 ? a : gcd(b, a % b);
+   }
+}
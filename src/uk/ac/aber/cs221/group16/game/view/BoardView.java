@@ -0,0 +1,296 @@
+/*
+* @(#) BoardView.java 1.0 2017/04/01
+*
+* Copyright (c) 2017 Aberystwyth University.
+* All rights reserved.
+*
+*/
+
+package uk.ac.aber.cs221.group16.game.view;
+
+import javafx.application.Platform;
+import javafx.scene.Node;
+import uk.ac.aber.cs221.group16.game.map.Board;
+import uk.ac.aber.cs221.group16.game.map.Orientation;
+import uk.ac.aber.cs221.group16.game.map.tiles.Tile;
+import uk.ac.aber.cs221.group16.game.players.Player;
+import uk.ac.aber.cs221.group16.game.players.Ship;
+import uk.ac.aber.cs221.group16.game.states.State;
+import uk.ac.aber.cs221.group16.game.states.StepResult;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * This class turns clicks on the {@link Board} into moves and rotations, and animates ships along their paths. It
+ * holds no rules of its own, and leaves drawing to its subclasses: after every change it asks them to redraw the
+ * ships, highlights and rotation buttons from the state of the board.
+ * <p>
+ * There are two ways of drawing the board, chosen with {@link Renderer}. A {@link NodeBoardView} gives every tile its
+ * own pane, a {@link CanvasBoardView} paints the whole board onto one canvas.
+ * <p>
+ * Moves and rotations can also be played for computer players with {@link #playMove(Tile)} and
+ * {@link #playRotation(Orientation)}, clicks are ignored while {@link #setInputEnabled(boolean)} is off.
+ * <p>
+ * A moving ship is put on each tile of its path as soon as it gets there, then drawn gliding in from the tile before
+ * by the {@link MoveScheduler}. In turbo mode the path is sailed straight away with nothing drawn in between.
+ *
+ * @author Josh Smith
+ * @version 1.3 Movement scheduler.
+ */
+public abstract class BoardView {
+
+   // Constants
+   private static final int stepDuration = 200;
+
+   // Instance Variables
+   protected Board board;
+   protected FrameStats frameStats;
+   private boolean inputEnabled = true;
+   private boolean turbo;
+   private Runnable onAction;
+   private Player moving;
+   private MoveScheduler.Motion motion;
+
+   // Constructors
+
+   /**
+    * Sets up the view of a board.
+    *
+    * @param board The board to display.
+    */
+   protected BoardView(Board board) {
+      this.board = board;
+   }
+
+   // Public Methods
+
+   /**
+    * Gets the node which shows the board, to be put in the centre of the game scene.
+    *
+    * @return The node.
+    */
+   public abstract Node getNode();
+
+   /**
+    * Moves each ship onto the tile the ship is on and turns it to face the ship's orientation.
+    */
+   public abstract void syncShips();
+
+   /**
+    * Redraws everything which may have changed on the board, the ships, the highlighted moves and the rotation
+    * buttons.
+    */
+   public void refresh() {
+      syncShips();
+      showHighlights(inputEnabled ? board.getValidMoves() : Collections.emptySet());
+      showRotations(inputEnabled ? board.getValidRotations() : Collections.emptyList());
+   }
+
+   /**
+    * Plays a move for the current player, animated the same as a click on the tile.
+    *
+    * @param to The tile to move to, which must be a valid move.
+    */
+   public void playMove(Tile to) {
+      handleClickMove(to);
+   }
+
+   /**
+    * Plays a rotation for the current player, the same as a click on the rotation button.
+    *
+    * @param o The orientation to rotate to, which must be a valid rotation.
+    */
+   public void playRotation(Orientation o) {
+      showRotations(Collections.emptyList());
+      board.rotate(o);
+      finishAction();
+   }
+
+   /**
+    * Sets whether the current player can play by clicking on the board, which is off while a computer player is
+    * playing. The highlights and rotation buttons are only shown while it is on.
+    *
+    * @param inputEnabled True to allow clicks.
+    */
+   public void setInputEnabled(boolean inputEnabled) {
+      this.inputEnabled = inputEnabled;
+      refresh();
+   }
+
+   /**
+    * Sets whether moves are played without animation, e.g. for computer players.
+    *
+    * @param turbo True to move ships straight to the end of their path.
+    */
+   public void setTurbo(boolean turbo) {
+      this.turbo = turbo;
+   }
+
+   /**
+    * Sets what to do once each move or rotation has finished, after the board has been redrawn.
+    *
+    * @param onAction The action handler, or null.
+    */
+   public void setOnAction(Runnable onAction) {
+      this.onAction = onAction;
+   }
+
+   /**
+    * Stops anything the view runs by itself, once it is no longer shown. Subclasses which run anything else must call
+    * this too.
+    */
+   public void close() {
+      if (motion != null)
+         motion.cancel();
+      motion = null;
+   }
+
+   /**
+    * Sets where to count the time spent drawing the board outside of JavaFX's pulses, if the view does any.
+    *
+    * @param frameStats The frame statistics, or null.
+    */
+   public void setFrameStats(FrameStats frameStats) {
+      this.frameStats = frameStats;
+   }
+
+   // Protected Methods
+
+   /**
+    * Shows which tiles the current player can move to, replacing any shown before.
+    *
+    * @param tiles The tiles, empty to show none.
+    */
+   protected abstract void showHighlights(Set<Tile> tiles);
+
+   /**
+    * Shows the buttons for the directions the current player can rotate to around their ship, replacing any shown
+    * before.
+    *
+    * @param orientations The directions, empty to show none.
+    */
+   protected abstract void showRotations(List<Orientation> orientations);
+
+   /**
+    * Draws a ship away from the tile it is on, part of the way back to the tile it came from.
+    *
+    * @param player The player whose ship it is.
+    * @param dx     How far across to draw it from its tile, in tiles.
+    * @param dy     How far down to draw it from its tile, in tiles.
+    */
+   protected abstract void showShipOffset(Player player, double dx, double dy);
+
+   /**
+    * Handles a click on a tile, which moves the current player there if they are moving and input is enabled.
+    *
+    * @param tile The tile clicked on.
+    */
+   protected void tileClicked(Tile tile) {
+      if (inputEnabled && (board.getState() == State.Move || board.getState() == State.PostCombatMove))
+         handleClickMove(tile);
+   }
+
+   /**
+    * Handles a click on a rotation button.
+    *
+    * @param o The direction of the button.
+    */
+   protected void rotationClicked(Orientation o) {
+      if (inputEnabled)
+         playRotation(o);
+   }
+
+   /**
+    * Gets the tile a rotation button goes on, next to the current player's ship in the button's direction.
+    *
+    * @param o The direction of the button.
+    * @return The tile.
+    */
+   protected Tile rotationTile(Orientation o) {
+      Ship ship = board.getCurrentPlayer().getShip();
+      return board.getGrid()[ship.getX() + o.getDx()][ship.getY() + o.getDy()];
+   }
+
+   // Private Methods
+
+   /**
+    * Handles a click of a certain tile and what should happen, only call if the game is in a state of movement.
+    *
+    * @param to The tile clicked on.
+    */
+   private void handleClickMove(Tile to) {
+      moving = board.getCurrentPlayer();
+      if (board.beginMove(to)) {
+         if (board.getState() == State.InMovement) {
+            showHighlights(Collections.emptySet());
+            // start animation loop
+            animateStep();
+         } else {
+            finishAction();
+         }
+      }
+   }
+
+   /**
+    * Redraws the board once a move or rotation has finished and tells the action handler.
+    */
+   private void finishAction() {
+      refresh();
+      if (onAction != null)
+         onAction.run();
+   }
+
+   /**
+    * Moves the ship a single square along its path and draws it gliding there, then carries on until the path is
+    * finished. In turbo mode it carries on straight away. Any popups are run with Platform.runLater as they cannot be
+    * shown during an animation.
+    */
+   private void animateStep() {
+      Ship ship = moving.getShip();
+      int fromX = ship.getX();
+      int fromY = ship.getY();
+      StepResult result = board.partialMove();
+      syncShips();
+      int dx = fromX - ship.getX();
+      int dy = fromY - ship.getY();
+      if (turbo || (dx == 0 && dy == 0)) {
+         stepped(result);
+         return;
+      }
+      Player player = moving;
+      motion = MoveScheduler.getInstance().play(stepDuration,
+              t -> showShipOffset(player, dx * (1 - t), dy * (1 - t)), () -> stepped(result));
+   }
+
+   /**
+    * Carries on once a step of a path has been drawn.
+    *
+    * @param result The outcome of the step.
+    */
+   private void stepped(StepResult result) {
+      motion = null;
+      switch (result) {
+         case Moved:
+            animateStep();
+            break;
+         case Intercepted:
+            // ask the user whether they want to engage. Needs to be run on the GUI thread.
+            Platform.runLater(() -> {
+               if (board.handleEnemyOnPath())
+                  finishAction();
+               else
+                  animateStep();
+            });
+            break;
+         case Arrived:
+            // ends the cycle and tells the GUI to run this code whenever it gets chance (usually instantly)
+            Platform.runLater(() -> {
+               board.finishPath();
+               finishAction();
+            });
+            break;
+      }
+   }
+}
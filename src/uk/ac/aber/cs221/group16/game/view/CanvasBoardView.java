@@ -0,0 +1,529 @@
+/*
+* @(#) CanvasBoardView.java 1.0 2017/04/01
+*
+* Copyright (c) 2017 Aberystwyth University.
+* All rights reserved.
+*
+*/
+
+package uk.ac.aber.cs221.group16.game.view;
+
+import javafx.application.Platform;
+import javafx.geometry.VPos;
+import javafx.scene.ImageCursor;
+import javafx.scene.Node;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.text.TextAlignment;
+import uk.ac.aber.cs221.group16.game.AnimatedImage;
+import uk.ac.aber.cs221.group16.game.GraphicLoader;
+import uk.ac.aber.cs221.group16.game.map.BitBoard;
+import uk.ac.aber.cs221.group16.game.map.Board;
+import uk.ac.aber.cs221.group16.game.map.Orientation;
+import uk.ac.aber.cs221.group16.game.map.tiles.Tile;
+import uk.ac.aber.cs221.group16.game.players.Player;
+import uk.ac.aber.cs221.group16.game.players.Ship;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * This class paints the {@link Board} onto a single canvas, looking the same as a {@link NodeBoardView} without a node
+ * for every tile, ship and button, so there is nothing for JavaFX to lay out or style.
+ * <p>
+ * The board is a grid of cells, the tiles with a row of labels below and a column of labels to the left. When
+ * something changes, only the cells it is on are marked dirty, and the dirty cells are painted again together once the
+ * current event has been handled. Everything in a cell is clipped to the cell, so painting one never touches its
+ * neighbours. The whole canvas is only painted when it is resized.
+ * <p>
+ * The sea and bays are animated, the cells showing an animation are painted again when it changes frame on the
+ * {@link AnimationClock}, all in the same paint.
+ * <p>
+ * Clicks are turned into a tile or rotation button by working out which cell they are in.
+ * <p>
+ * A ship gliding between tiles is painted in every cell it covers, each painting only its own part of it.
+ *
+ * @author Group 16
+ * @version 1.1 Movement scheduler.
+ */
+public class CanvasBoardView extends BoardView {
+
+   // Constants
+   private static final int columns = Board.gridWidth + 2;
+   private static final int rows = Board.gridHeight + 2;
+   private static final Color background = Color.SILVER;
+   private static final Color highlightColor = Color.rgb(255, 0, 0, 0.5);
+
+   // Instance Variables
+   private Pane pane;
+   private Canvas canvas;
+   private GraphicsContext gc;
+   // the edges of the cells, rounded to whole pixels so that painting a cell covers it exactly.
+   private double[] columnEdges = new double[columns + 1];
+   private double[] rowEdges = new double[rows + 1];
+
+   private Image[][] tileImages;
+   private AnimatedImage[][] tileAnimations;
+   private Image[] shipImages;
+   private Image rotateImage;
+   private ImageCursor defaultCursor;
+   private ImageCursor focusCursor;
+
+   // what has been painted, by the BitBoard index of the tile.
+   private int[] shipCells;
+   private Orientation[] shipOrientations;
+   // how far each ship is drawn from its cell while it glides between tiles, in cells.
+   private double[] shipOffsetX;
+   private double[] shipOffsetY;
+   private long[] highlighted = BitBoard.newMask();
+   private Orientation[] rotations = new Orientation[BitBoard.cells];
+
+   // the cells showing each animation.
+   private Map<AnimatedImage, long[]> animated = new IdentityHashMap<>();
+   private Runnable onTick = this::animationTicked;
+
+   private long[] dirty = BitBoard.newMask();
+   private boolean allDirty = true;
+   private boolean paintScheduled;
+   private int mouseCell = -1;
+   private boolean focused;
+
+   // Constructors
+
+   /**
+    * Sets up the canvas to paint a board on, which fills the pane it is put in.
+    *
+    * @param board The board to display.
+    */
+   public CanvasBoardView(Board board) {
+      super(board);
+      GraphicLoader graphics = GraphicLoader.getInstance();
+      tileImages = new Image[Board.gridWidth][Board.gridHeight];
+      tileAnimations = new AnimatedImage[Board.gridWidth][Board.gridHeight];
+      for (int x = 0; x < Board.gridWidth; x++) {
+         for (int y = 0; y < Board.gridHeight; y++) {
+            tileImages[x][y] = board.getGrid()[x][y].getImage();
+            AnimatedImage animation = graphics.getAnimation(tileImages[x][y]);
+            if (animation != null) {
+               tileAnimations[x][y] = animation;
+               BitBoard.set(animated.computeIfAbsent(animation, a -> BitBoard.newMask()), BitBoard.index(x, y));
+            }
+         }
+      }
+      shipImages = graphics.getShips();
+      rotateImage = graphics.getRotateTriangle();
+      defaultCursor = new ImageCursor(graphics.getDefaultCursor());
+      focusCursor = new ImageCursor(graphics.getFocusCursor());
+
+      int players = board.getPlayers().length;
+      shipCells = new int[players];
+      shipOrientations = new Orientation[players];
+      shipOffsetX = new double[players];
+      shipOffsetY = new double[players];
+      Arrays.fill(shipCells, -1);
+
+      canvas = new Canvas();
+      gc = canvas.getGraphicsContext2D();
+      pane = new Pane(canvas);
+      // the pane is sized by the scene, the canvas follows it without affecting its size.
+      canvas.setManaged(false);
+      canvas.widthProperty().bind(pane.widthProperty());
+      canvas.heightProperty().bind(pane.heightProperty());
+      canvas.widthProperty().addListener(o -> resized());
+      canvas.heightProperty().addListener(o -> resized());
+      canvas.setCursor(defaultCursor);
+      canvas.setOnMouseClicked(this::clicked);
+      canvas.setOnMouseMoved(this::moved);
+      syncShips();
+      AnimationClock.getInstance().addListener(onTick);
+   }
+
+   // Public Methods
+
+   @Override
+   public Node getNode() {
+      return pane;
+   }
+
+   /**
+    * Stops painting the animated tiles.
+    */
+   @Override
+   public void close() {
+      super.close();
+      AnimationClock.getInstance().removeListener(onTick);
+   }
+
+   /**
+    * Marks the cells of any ship which has moved or turned since it was last painted as dirty.
+    */
+   @Override
+   public void syncShips() {
+      for (Player player : board.getPlayers()) {
+         Ship ship = player.getShip();
+         int id = player.getId();
+         int cell = BitBoard.index(ship.getX(), ship.getY());
+         if (cell == shipCells[id] && ship.getOrientation() == shipOrientations[id])
+            continue;
+         invalidateShip(id);
+         shipCells[id] = cell;
+         shipOrientations[id] = ship.getOrientation();
+         shipOffsetX[id] = 0;
+         shipOffsetY[id] = 0;
+         invalidateShip(id);
+      }
+   }
+
+   // Protected Methods
+
+   @Override
+   protected void showHighlights(Set<Tile> tiles) {
+      long[] next = BitBoard.newMask();
+      for (Tile tile : tiles)
+         BitBoard.set(next, BitBoard.index(tile.getX(), tile.getY()));
+      boolean changed = false;
+      for (int i = 0; i < next.length; i++) {
+         dirty[i] |= next[i] ^ highlighted[i];
+         changed |= next[i] != highlighted[i];
+      }
+      highlighted = next;
+      if (changed) {
+         schedulePaint();
+         updateCursor();
+      }
+   }
+
+   @Override
+   protected void showRotations(List<Orientation> orientations) {
+      for (int cell = 0; cell < rotations.length; cell++) {
+         if (rotations[cell] != null) {
+            rotations[cell] = null;
+            invalidate(cell);
+         }
+      }
+      for (Orientation o : orientations) {
+         Tile tile = rotationTile(o);
+         int cell = BitBoard.index(tile.getX(), tile.getY());
+         rotations[cell] = o;
+         invalidate(cell);
+      }
+   }
+
+   /**
+    * Marks the cells the ship covers before and after moving it as dirty.
+    *
+    * @param player The player whose ship it is.
+    * @param dx     How far across to draw it from its tile, in tiles.
+    * @param dy     How far down to draw it from its tile, in tiles.
+    */
+   @Override
+   protected void showShipOffset(Player player, double dx, double dy) {
+      int id = player.getId();
+      invalidateShip(id);
+      shipOffsetX[id] = dx;
+      shipOffsetY[id] = dy;
+      invalidateShip(id);
+   }
+
+   // Private Methods
+
+   /**
+    * Marks the cells a ship covers as dirty, which is up to four while it is between tiles.
+    *
+    * @param id The ID of the ship's player.
+    */
+   private void invalidateShip(int id) {
+      if (shipCells[id] < 0)
+         return;
+      double x = BitBoard.xOf(shipCells[id]) + shipOffsetX[id];
+      double y = BitBoard.yOf(shipCells[id]) + shipOffsetY[id];
+      for (int cellX = (int) Math.floor(x); cellX <= (int) Math.ceil(x); cellX++) {
+         for (int cellY = (int) Math.floor(y); cellY <= (int) Math.ceil(y); cellY++) {
+            if (cellX >= 0 && cellX < Board.gridWidth && cellY >= 0 && cellY < Board.gridHeight)
+               invalidate(BitBoard.index(cellX, cellY));
+         }
+      }
+   }
+
+   /**
+    * Checks whether any of a ship is drawn in a cell.
+    *
+    * @param id    The ID of the ship's player.
+    * @param cellX The column of the cell.
+    * @param cellY The row of the cell.
+    * @return True if the ship covers the cell.
+    */
+   private boolean shipCovers(int id, int cellX, int cellY) {
+      if (shipCells[id] < 0)
+         return false;
+      double x = BitBoard.xOf(shipCells[id]) + shipOffsetX[id];
+      double y = BitBoard.yOf(shipCells[id]) + shipOffsetY[id];
+      return cellX >= Math.floor(x) && cellX <= Math.ceil(x) && cellY >= Math.floor(y) && cellY <= Math.ceil(y);
+   }
+
+   /**
+    * Marks a cell as needing to be painted again.
+    *
+    * @param cell The BitBoard index of the tile.
+    */
+   private void invalidate(int cell) {
+      BitBoard.set(dirty, cell);
+      schedulePaint();
+   }
+
+   /**
+    * Marks the cells of every animation which has changed frame as dirty.
+    */
+   private void animationTicked() {
+      AnimationClock clock = AnimationClock.getInstance();
+      for (Map.Entry<AnimatedImage, long[]> entry : animated.entrySet()) {
+         if (!clock.hasChanged(entry.getKey()))
+            continue;
+         long[] cells = entry.getValue();
+         for (int i = 0; i < dirty.length; i++)
+            dirty[i] |= cells[i];
+         schedulePaint();
+      }
+   }
+
+   /**
+    * Works out the new edges of the cells and marks the whole canvas as needing to be painted again.
+    */
+   private void resized() {
+      for (int i = 0; i <= columns; i++)
+         columnEdges[i] = Math.round(canvas.getWidth() * i / columns);
+      for (int i = 0; i <= rows; i++)
+         rowEdges[i] = Math.round(canvas.getHeight() * i / rows);
+      allDirty = true;
+      schedulePaint();
+   }
+
+   /**
+    * Paints the dirty cells once the current event has been handled, so that several changes at once are painted
+    * together.
+    */
+   private void schedulePaint() {
+      if (!paintScheduled) {
+         paintScheduled = true;
+         Platform.runLater(this::paint);
+      }
+   }
+
+   /**
+    * Paints every dirty cell, or the whole canvas if it has been resized.
+    */
+   private void paint() {
+      paintScheduled = false;
+      if (canvas.getWidth() < 1 || canvas.getHeight() < 1)
+         return;
+      long start = System.nanoTime();
+      if (allDirty) {
+         gc.setFill(background);
+         gc.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+         paintLabels();
+         for (int cell = 0; cell < BitBoard.cells; cell++)
+            paintCell(cell);
+         gc.setStroke(Color.BLACK);
+         gc.strokeRect(0.5, 0.5, canvas.getWidth() - 1, canvas.getHeight() - 1);
+      } else {
+         for (int cell = BitBoard.nextSetBit(dirty, 0); cell >= 0; cell = BitBoard.nextSetBit(dirty, cell + 1))
+            paintCell(cell);
+      }
+      allDirty = false;
+      Arrays.fill(dirty, 0);
+      if (frameStats != null)
+         frameStats.addPaint(System.nanoTime() - start);
+   }
+
+   /**
+    * Paints the numbers along the bottom and left of the board.
+    */
+   private void paintLabels() {
+      gc.setFill(Color.BLACK);
+      gc.setTextAlign(TextAlignment.CENTER);
+      gc.setTextBaseline(VPos.CENTER);
+      for (int i = 1; i <= Board.gridWidth; i++) {
+         gc.fillText(Integer.toString(i), (columnEdges[i] + columnEdges[i + 1]) / 2,
+                 (rowEdges[rows - 1] + rowEdges[rows]) / 2);
+         int row = Board.gridWidth - i + 1;
+         gc.fillText(Integer.toString(i), (columnEdges[0] + columnEdges[1]) / 2,
+                 (rowEdges[row] + rowEdges[row + 1]) / 2);
+      }
+   }
+
+   /**
+    * Paints a tile with everything on it: the tile's image, its highlight, any ships and any rotation button.
+    *
+    * @param cell The BitBoard index of the tile.
+    */
+   private void paintCell(int cell) {
+      int x = BitBoard.xOf(cell);
+      int y = BitBoard.yOf(cell);
+      double left = columnEdges[x + 1];
+      double top = rowEdges[y + 1];
+      double width = columnEdges[x + 2] - left;
+      double height = rowEdges[y + 2] - top;
+
+      gc.save();
+      gc.beginPath();
+      gc.rect(left, top, width, height);
+      gc.clip();
+      gc.setFill(background);
+      gc.fillRect(left, top, width, height);
+      Image image = tileAnimations[x][y] == null ? tileImages[x][y] :
+              AnimationClock.getInstance().getImage(tileAnimations[x][y]);
+      paintCovering(image, left, top, width, height);
+      if (BitBoard.test(highlighted, cell)) {
+         gc.setFill(highlightColor);
+         gc.fillRect(left, top, width, height);
+      }
+      for (int id = 0; id < shipCells.length; id++) {
+         if (shipCovers(id, x, y))
+            paintShip(id);
+      }
+      if (rotations[cell] != null) {
+         gc.save();
+         gc.translate(left + width / 2, top + height / 2);
+         gc.rotate(rotations[cell].getAngle());
+         gc.drawImage(rotateImage, -rotateImage.getWidth() / 2, -rotateImage.getHeight() / 2);
+         gc.restore();
+      }
+      gc.restore();
+   }
+
+   /**
+    * Paints an image scaled to cover a rectangle, cutting off whatever sticks out equally on each side.
+    *
+    * @param image  The image.
+    * @param left   The left of the rectangle.
+    * @param top    The top of the rectangle.
+    * @param width  The width of the rectangle.
+    * @param height The height of the rectangle.
+    */
+   private void paintCovering(Image image, double left, double top, double width, double height) {
+      double scale = Math.max(width / image.getWidth(), height / image.getHeight());
+      double sourceWidth = width / scale;
+      double sourceHeight = height / scale;
+      gc.drawImage(image, (image.getWidth() - sourceWidth) / 2, (image.getHeight() - sourceHeight) / 2,
+              sourceWidth, sourceHeight, left, top, width, height);
+   }
+
+   /**
+    * Paints a ship scaled to fit its cell, turned to face its orientation and flipped when facing left so that it is
+    * never upside down. A ship between tiles is painted part of the way between them, only the part in the cell being
+    * painted shows through the clip.
+    *
+    * @param id The ID of the ship's player.
+    */
+   private void paintShip(int id) {
+      // the ship's tile is one cell in from the edges, after the labels.
+      double column = BitBoard.xOf(shipCells[id]) + shipOffsetX[id] + 1;
+      double row = BitBoard.yOf(shipCells[id]) + shipOffsetY[id] + 1;
+      double left = edgeOf(columnEdges, column);
+      double top = edgeOf(rowEdges, row);
+      double width = edgeOf(columnEdges, column + 1) - left;
+      double height = edgeOf(rowEdges, row + 1) - top;
+      Image image = shipImages[id];
+      double scale = Math.min(width / image.getWidth(), height / image.getHeight());
+      double imageWidth = image.getWidth() * scale;
+      double imageHeight = image.getHeight() * scale;
+      int angle = shipOrientations[id].getAngle();
+      gc.save();
+      gc.translate(left + width / 2, top + height / 2);
+      gc.rotate(angle);
+      if (angle > 180)
+         gc.scale(-1, 1);
+      gc.drawImage(image, -imageWidth / 2, -imageHeight / 2, imageWidth, imageHeight);
+      gc.restore();
+   }
+
+   /**
+    * Finds where a cell would start if it could be part of the way between cells.
+    *
+    * @param edges The edges of the cells.
+    * @param cell  The index of the cell, which may be fractional.
+    * @return The coordinate of its edge.
+    */
+   private double edgeOf(double[] edges, double cell) {
+      int i = Math.max(0, Math.min((int) Math.floor(cell), edges.length - 2));
+      return edges[i] + (cell - i) * (edges[i + 1] - edges[i]);
+   }
+
+   /**
+    * Finds the tile under a point on the canvas.
+    *
+    * @param x The x coordinate on the canvas.
+    * @param y The y coordinate on the canvas.
+    * @return The BitBoard index of the tile, or -1 if the point isn't on a tile.
+    */
+   private int cellAt(double x, double y) {
+      int column = edgeAt(columnEdges, x) - 1;
+      int row = edgeAt(rowEdges, y) - 1;
+      if (column < 0 || column >= Board.gridWidth || row < 0 || row >= Board.gridHeight)
+         return -1;
+      return BitBoard.index(column, row);
+   }
+
+   /**
+    * Finds which of a list of cells a coordinate is in.
+    *
+    * @param edges      The edges of the cells.
+    * @param coordinate The coordinate.
+    * @return The index of the cell, which may be out of range if the coordinate is outside every cell.
+    */
+   private int edgeAt(double[] edges, double coordinate) {
+      int cells = edges.length - 1;
+      double size = edges[cells] / cells;
+      int i = (int) Math.floor(coordinate / size);
+      // the edges are rounded, so the cell worked out from the average size can be one out.
+      while (i > 0 && i <= cells && coordinate < edges[i])
+         i--;
+      while (i >= 0 && i < cells && coordinate >= edges[i + 1])
+         i++;
+      return i;
+   }
+
+   /**
+    * Handles a click on the canvas, a click on a rotation button rotates the ship and a click on any other tile tries
+    * to move there.
+    *
+    * @param event The click.
+    */
+   private void clicked(MouseEvent event) {
+      int cell = cellAt(event.getX(), event.getY());
+      if (cell < 0)
+         return;
+      if (rotations[cell] != null)
+         rotationClicked(rotations[cell]);
+      else
+         tileClicked(board.getGrid()[BitBoard.xOf(cell)][BitBoard.yOf(cell)]);
+   }
+
+   /**
+    * Notes which tile the mouse is over, to show the focus cursor over highlighted tiles.
+    *
+    * @param event The mouse movement.
+    */
+   private void moved(MouseEvent event) {
+      mouseCell = cellAt(event.getX(), event.getY());
+      updateCursor();
+   }
+
+   /**
+    * Shows the focus cursor if the mouse is over a highlighted tile, otherwise the default cursor.
+    */
+   private void updateCursor() {
+      boolean focus = mouseCell >= 0 && BitBoard.test(highlighted, mouseCell);
+      if (focus != focused) {
+         focused = focus;
+         canvas.setCursor(focus ? focusCursor : defaultCursor);
+      }
+   }
+}
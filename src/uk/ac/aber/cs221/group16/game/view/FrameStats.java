@@ -0,0 +1,255 @@
+/*
+* @(#) FrameStats.java 1.0 2017/04/01
+*
+* Copyright (c) 2017 Aberystwyth University.
+* All rights reserved.
+*
+*/
+
+package uk.ac.aber.cs221.group16.game.view;
+
+import javafx.animation.Animation;
+import javafx.animation.AnimationTimer;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.scene.Scene;
+import javafx.util.Duration;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.Arrays;
+
+/**
+ * This class measures how long the game scene takes to draw, so the two {@link Renderer}s can be compared. It is
+ * turned on with {@code --frame-stats} and prints a line every few seconds with:
+ * <ul>
+ * <li>frame: the time between pulses, which is about 16.7 ms when JavaFX keeps up with 60 frames a second and longer
+ * when a pulse's CSS, layout and rendering take too long;</li>
+ * <li>layout: the time spent on CSS and layout in each pulse, which is most of the cost of a scene with many
+ * nodes;</li>
+ * <li>paint: the time a {@link CanvasBoardView} spends painting the board, which happens outside of the pulse;</li>
+ * <li>cpu: the processor time used by the whole game over the time passed, as a percentage of one core.</li>
+ * </ul>
+ * Running it keeps a pulse going every frame, which the scene would otherwise only get when something changes. With
+ * {@code --frame-stats=idle} it doesn't, and instead counts the pulses the scene gets by itself, so the cost of the
+ * board sitting still with only its animated tiles moving can be measured.
+ *
+ * @author Group 16
+ * @version 1.1 Shared animation clock.
+ */
+public class FrameStats extends AnimationTimer {
+
+   // Constants
+   private static final long reportInterval = 5_000_000_000L;
+   // frame times are counted in 0.1 ms buckets up to 100 ms, for the 95th percentile.
+   private static final int bucketsPerMilli = 10;
+   private static final int buckets = 100 * bucketsPerMilli;
+
+   // Instance Variables
+   private final String name;
+   private final Scene scene;
+   private final Runnable layoutStarted = this::layoutStarted;
+   private final Runnable layoutFinished = this::layoutFinished;
+   private final boolean idle;
+   private final Timeline idleReports;
+   private long lastFrame;
+   private long reportStart;
+   private long layoutStart;
+   private long pulses;
+   private long cpuStart;
+   private final Stat frames = new Stat();
+   private final Stat layouts = new Stat();
+   private final Stat paints = new Stat();
+   private final int[] frameCounts = new int[buckets + 1];
+
+   // Constructors
+
+   /**
+    * Sets up the measurement of a scene, which starts with {@link #start()}.
+    *
+    * @param name  The name to print the figures under, e.g. the renderer.
+    * @param scene The scene to measure.
+    * @param idle  True to leave the scene to pulse by itself, rather than forcing a pulse every frame.
+    */
+   public FrameStats(String name, Scene scene, boolean idle) {
+      this.name = name;
+      this.scene = scene;
+      this.idle = idle;
+      idleReports = new Timeline(new KeyFrame(Duration.millis(reportInterval / 1e6), e -> report()));
+      idleReports.setCycleCount(Animation.INDEFINITE);
+   }
+
+   // Public Methods
+
+   @Override
+   public void start() {
+      scene.addPreLayoutPulseListener(layoutStarted);
+      scene.addPostLayoutPulseListener(layoutFinished);
+      reportStart = System.nanoTime();
+      cpuStart = cpuTime();
+      if (idle)
+         idleReports.play();
+      else
+         super.start();
+   }
+
+   /**
+    * Stops measuring, printing the figures since the last report.
+    */
+   @Override
+   public void stop() {
+      super.stop();
+      idleReports.stop();
+      scene.removePreLayoutPulseListener(layoutStarted);
+      scene.removePostLayoutPulseListener(layoutFinished);
+      report();
+   }
+
+   @Override
+   public void handle(long now) {
+      if (lastFrame != 0) {
+         long took = now - lastFrame;
+         frames.add(took);
+         frameCounts[(int) Math.min(took * bucketsPerMilli / 1_000_000, buckets)]++;
+      }
+      lastFrame = now;
+      if (System.nanoTime() - reportStart >= reportInterval)
+         report();
+   }
+
+   /**
+    * Counts the time spent painting outside of the pulse.
+    *
+    * @param nanos The time taken, in nanoseconds.
+    */
+   public void addPaint(long nanos) {
+      paints.add(nanos);
+   }
+
+   // Private Methods
+
+   /**
+    * Notes the start of a pulse's CSS and layout.
+    */
+   private void layoutStarted() {
+      layoutStart = System.nanoTime();
+   }
+
+   /**
+    * Counts the time of a pulse's CSS and layout.
+    */
+   private void layoutFinished() {
+      pulses++;
+      if (layoutStart != 0)
+         layouts.add(System.nanoTime() - layoutStart);
+   }
+
+   /**
+    * Prints the figures since the last report and starts counting again.
+    */
+   private void report() {
+      long now = System.nanoTime();
+      long cpu = cpuTime();
+      double seconds = (now - reportStart) / 1e9;
+      // the JVM may not be able to say how much processor time it has used.
+      String usage = cpu < 0 || seconds <= 0 ? "unknown" : String.format("%.1f%%", (cpu - cpuStart) / 1e7 / seconds);
+      if (idle) {
+         System.out.printf("%s idle: %.1f pulses/s, layout %.3f ms (worst %.2f), paint %.1f/s x %.3f ms " +
+                         "(worst %.2f), cpu %s%n", name, pulses / seconds, layouts.mean(), layouts.worst(),
+                 paints.count / seconds, paints.mean(), paints.worst(), usage);
+      } else if (frames.count > 0) {
+         System.out.printf("%s: %d frames, frame %.2f ms (95th %.1f, worst %.1f), layout %.3f ms (worst %.2f), " +
+                         "paint %d x %.3f ms (worst %.2f), cpu %s%n", name, frames.count, frames.mean(),
+                 percentile(0.95), frames.worst(), layouts.mean(), layouts.worst(), paints.count, paints.mean(),
+                 paints.worst(), usage);
+      }
+      reportStart = now;
+      cpuStart = cpu;
+      pulses = 0;
+      frames.reset();
+      layouts.reset();
+      paints.reset();
+      Arrays.fill(frameCounts, 0);
+   }
+
+   /**
+    * Finds the frame time which a share of the frames took no longer than.
+    *
+    * @param share The share, e.g. 0.95.
+    * @return The time in milliseconds.
+    */
+   private double percentile(double share) {
+      long wanted = (long) Math.ceil(frames.count * share);
+      long seen = 0;
+      for (int i = 0; i <= buckets; i++) {
+         seen += frameCounts[i];
+         if (seen >= wanted)
+            return (double) (i + 1) / bucketsPerMilli;
+      }
+      return frames.worst();
+   }
+
+   // Static Methods
+
+   /**
+    * Gets the processor time the game has used, on all of its threads.
+    *
+    * @return The time in nanoseconds, or -1 if it isn't known.
+    */
+   private static long cpuTime() {
+      OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+      if (os instanceof com.sun.management.OperatingSystemMXBean)
+         return ((com.sun.management.OperatingSystemMXBean) os).getProcessCpuTime();
+      return -1;
+   }
+
+   // Inner Classes
+
+   /**
+    * A count, total and worst of some times.
+    */
+   private static class Stat {
+
+      private long count;
+      private long total;
+      private long worst;
+
+      /**
+       * Counts a time.
+       *
+       * @param nanos The time in nanoseconds.
+       */
+      private void add(long nanos) {
+         count++;
+         total += nanos;
+         worst = Math.max(worst, nanos);
+      }
+
+      /**
+       * Gets the mean time.
+       *
+       * @return The mean in milliseconds, 0 if nothing has been counted.
+       */
+      private double mean() {
+         return count == 0 ? 0 : total / 1e6 / count;
+      }
+
+      /**
+       * Gets the longest time.
+       *
+       * @return The worst in milliseconds.
+       */
+      private double worst() {
+         return worst / 1e6;
+      }
+
+      /**
+       * Forgets everything counted.
+       */
+      private void reset() {
+         count = 0;
+         total = 0;
+         worst = 0;
+      }
+   }
+}
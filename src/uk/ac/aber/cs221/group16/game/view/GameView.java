@@ -0,0 +1,445 @@
+/*
+* @(#) GameView.java 1.0 2017/04/01
+*
+* Copyright (c) 2017 Aberystwyth University.
+* All rights reserved.
+*
+*/
+
+package uk.ac.aber.cs221.group16.game.view;
+
+import javafx.application.Platform;
+import javafx.scene.ImageCursor;
+import javafx.scene.Scene;
+import javafx.scene.layout.*;
+import javafx.stage.Stage;
+import uk.ac.aber.cs221.group16.game.Game;
+import uk.ac.aber.cs221.group16.game.GraphicLoader;
+import uk.ac.aber.cs221.group16.game.Interaction;
+import uk.ac.aber.cs221.group16.game.Trade;
+import uk.ac.aber.cs221.group16.game.bots.Bot;
+import uk.ac.aber.cs221.group16.game.bots.MctsBot;
+import uk.ac.aber.cs221.group16.game.log.Journal;
+import uk.ac.aber.cs221.group16.game.map.BitBoard;
+import uk.ac.aber.cs221.group16.game.map.Board;
+import uk.ac.aber.cs221.group16.game.map.Orientation;
+import uk.ac.aber.cs221.group16.game.players.Player;
+import uk.ac.aber.cs221.group16.game.utils.GameRandom;
+import uk.ac.aber.cs221.group16.game.windows.Choice;
+import uk.ac.aber.cs221.group16.game.windows.GenericMsg;
+import uk.ac.aber.cs221.group16.game.windows.PlayerSelection;
+import uk.ac.aber.cs221.group16.game.windows.StartScreen;
+import uk.ac.aber.cs221.group16.game.windows.TradeWindow;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * This class shows a {@link Game} on the primary stage. It builds the game scene, the board and the side panes for
+ * each player, and answers the game's {@link Interaction} calls with popups. Messages which need no answer are shown
+ * as {@link Notifications} over the board instead, so the game carries on while they are read.
+ * <p>
+ * The game is autosaved to {@link #autosavePath} after every action with a {@link Journal}, so if the program crashes
+ * or is closed part of the way through a game it can be carried on with {@link #resume(Stage)}.
+ * <p>
+ * Players ticked as computers on the {@link StartScreen}, see {@link Player#isComputer()}, are played by an
+ * {@link MctsBot}. A bot thinks on a background thread while the window carries on running, and its moves are animated
+ * the same as a human's.
+ * <p>
+ * The board is drawn by the {@link Renderer} set with {@link #setRenderer(Renderer)}.
+ *
+ * @author Josh Smith
+ * @author Alex Toop
+ * @author Kamyab Sherafat
+ * @author Luke Revill
+ * @version 1.8 Computer seats.
+ */
+public class GameView implements Interaction {
+
+   // Constants
+   public static final Path autosavePath = Paths.get("autosave.journal");
+
+   // Static Variables
+   private static final ExecutorService thinker = Executors.newSingleThreadExecutor(r -> {
+      Thread thread = new Thread(r, "Computer player");
+      thread.setDaemon(true);
+      return thread;
+   });
+
+   // Instance Variables
+   private Game game;
+   private Journal journal;
+   private Bot[] bots;
+   private Stage primaryStage;
+   private Scene gameScene;
+   private BoardView boardView;
+   private PlayerView[] playerViews;
+   private Renderer renderer = Renderer.Nodes;
+   private boolean showFrameStats;
+   private boolean idleFrameStats;
+   private boolean turboComputers;
+   private FrameStats frameStats;
+   private Notifications notifications;
+
+   // Constructors
+
+   /**
+    * Creates a new game with the names given which will be shown on the primary stage.
+    *
+    * @param names        The list of names of players.
+    * @param computers    Whether each player is played by the computer, in the same order as the names.
+    * @param primaryStage The primary stage for the JavaFX application.
+    */
+   public GameView(List<String> names, boolean[] computers, Stage primaryStage) {
+      this.primaryStage = primaryStage;
+      game = new Game(names, computers, this);
+   }
+
+   /**
+    * Creates a view with no game, for {@link #resume(Stage)} to carry on the autosaved game in.
+    *
+    * @param primaryStage The primary stage for the JavaFX application.
+    */
+   private GameView(Stage primaryStage) {
+      this.primaryStage = primaryStage;
+   }
+
+   // Public Methods
+
+   /**
+    * Sets the primaryStage's scene to the gameScene, the gameScene is initialized by {@link #initScene()}. A new game
+    * is started and autosaved, a resumed game carries on with the player whose go it was.
+    */
+   public void start() {
+      initScene();
+      gameScene.setCursor(new ImageCursor(GraphicLoader.getInstance().getDefaultCursor()));
+      primaryStage.setScene(gameScene);
+      makeBots();
+      if (journal == null) {
+         game.start();
+         journal = Journal.start(autosavePath, game);
+      } else {
+         currentPlayerChanged(null, game.getBoard().getCurrentPlayer());
+      }
+      primaryStage.show();
+      primaryStage.requestFocus();
+      Platform.runLater(this::playComputer);
+   }
+
+   /**
+    * Sets how the board is drawn, which takes effect when the game is started.
+    *
+    * @param renderer The renderer.
+    */
+   public void setRenderer(Renderer renderer) {
+      this.renderer = renderer;
+   }
+
+   /**
+    * Sets whether computer players' moves are played straight away, without the ship sailing along the path.
+    *
+    * @param turboComputers True to skip their animations.
+    */
+   public void setTurboComputers(boolean turboComputers) {
+      this.turboComputers = turboComputers;
+   }
+
+   /**
+    * Sets how fast ships sail, see {@link MoveScheduler#setSpeed(double)}.
+    *
+    * @param speed The speed, 1 for normal.
+    */
+   public void setMoveSpeed(double speed) {
+      MoveScheduler.getInstance().setSpeed(speed);
+   }
+
+   /**
+    * Sets whether to print how long frames take to draw while the game is shown, see {@link FrameStats}.
+    *
+    * @param showFrameStats True to print them.
+    * @param idle           True to measure the scene while it is left alone, rather than forcing it to draw every frame.
+    */
+   public void setShowFrameStats(boolean showFrameStats, boolean idle) {
+      this.showFrameStats = showFrameStats;
+      this.idleFrameStats = idle;
+   }
+
+   /**
+    * Stops autosaving, making sure everything is on the disk so the game can be resumed next time.
+    */
+   public void close() {
+      if (frameStats != null)
+         frameStats.stop();
+      frameStats = null;
+      if (boardView != null)
+         boardView.close();
+      if (journal == null)
+         return;
+      try {
+         journal.close();
+      } catch (IOException e) {
+         System.err.println("Autosave failed: " + e);
+      }
+      journal = null;
+   }
+
+   /**
+    * Gets the game being shown.
+    *
+    * @return The game.
+    */
+   public Game getGame() {
+      return game;
+   }
+
+   @Override
+   public void inform(String message) {
+      // make sure any ship which has been moved by the rules is drawn where it is along with the message.
+      if (boardView != null)
+         boardView.syncShips();
+      if (notifications != null)
+         notifications.post(message);
+      else
+         new GenericMsg(primaryStage, message);
+   }
+
+   @Override
+   public boolean engage(Player defender, Player attacker) {
+      Bot bot = getBot(defender);
+      if (bot != null)
+         return think(() -> bot.engage(defender, attacker));
+      return new Choice(primaryStage, defender.getName() + ": A player just tried to sail over you!\n" +
+              "Would you like to engage in combat?", new String[]{"yes", "no"}).getAnswer();
+   }
+
+   @Override
+   public boolean chooseTreasure(Player player, String question) {
+      Bot bot = getBot(player);
+      if (bot != null)
+         return think(() -> bot.chooseTreasure(player));
+      return new Choice(primaryStage, question, new String[]{"Treasure", "Crew Cards"}).getAnswer();
+   }
+
+   @Override
+   public Player selectPlayer(Player chooser, List<Player> candidates, String message) {
+      Bot bot = getBot(chooser);
+      if (bot != null)
+         return think(() -> bot.selectPlayer(chooser, candidates));
+      return new PlayerSelection(primaryStage, candidates, message).getSelectedPlayer();
+   }
+
+   @Override
+   public void trade(Trade trade) {
+      Bot bot = getBot(trade.getPlayer());
+      if (bot != null) {
+         int[][] chosen = think(() -> bot.chooseTrade(trade));
+         if (chosen != null)
+            trade.accept(chosen[0], chosen[1]);
+         return;
+      }
+      new TradeWindow(trade).showAndWait();
+   }
+
+   @Override
+   public void currentPlayerChanged(Player previous, Player current) {
+      if (previous != null)
+         playerViews[previous.getId()].unhighlight();
+      playerViews[current.getId()].highlight();
+      notifications.endTurn();
+      // computer players don't get highlights or rotation buttons.
+      boardView.setInputEnabled(getBot(current) == null);
+   }
+
+   @Override
+   public void gameOver(Player winner) {
+      // there is nothing to resume once the game is won.
+      journal.discard();
+      journal = null;
+      endGameQuery(winner);
+   }
+
+   // Private Methods
+
+   /**
+    * Makes a bot for every computer player.
+    */
+   private void makeBots() {
+      bots = new Bot[Game.numPlayers];
+      for (Player player : game.getPlayers()) {
+         if (player.isComputer())
+            bots[player.getId()] = new MctsBot(new GameRandom(GameRandom.newSeed()));
+      }
+   }
+
+   /**
+    * Gets the bot playing for a player.
+    *
+    * @param player The player.
+    * @return The bot, or null if the player is human.
+    */
+   private Bot getBot(Player player) {
+      return bots == null ? null : bots[player.getId()];
+   }
+
+   /**
+    * Plays the current player's move or rotation if they are a computer, otherwise lets them click on the board.
+    */
+   private void playComputer() {
+      Board board = game.getBoard();
+      Player player = board.getCurrentPlayer();
+      Bot bot = getBot(player);
+      boardView.setInputEnabled(bot == null);
+      boardView.setTurbo(bot != null && turboComputers);
+      if (bot == null || game.isGameOver())
+         return;
+      long[] moves = BitBoard.newMask();
+      if (board.getValidMoves(moves)) {
+         boardView.playMove(think(() -> bot.chooseMove(board, player, moves)));
+      } else {
+         List<Orientation> rotations = board.getValidRotations();
+         if (!rotations.isEmpty())
+            boardView.playRotation(think(() -> bot.chooseRotation(board, player, rotations)));
+      }
+   }
+
+   /**
+    * Asks a bot for a decision on a background thread. The window keeps running until the bot has decided, the same
+    * as while a popup is open.
+    *
+    * @param decision The call to the bot.
+    * @param <T>      The type of the decision.
+    * @return The decision.
+    */
+   private <T> T think(Callable<T> decision) {
+      FutureTask<T> task = new FutureTask<>(decision);
+      Object key = new Object();
+      thinker.execute(() -> {
+         task.run();
+         Platform.runLater(() -> Platform.exitNestedEventLoop(key, null));
+      });
+      Platform.enterNestedEventLoop(key);
+      try {
+         return task.get();
+      } catch (InterruptedException | ExecutionException e) {
+         throw new IllegalStateException("Computer player failed", e);
+      }
+   }
+
+   /**
+    * Handles ending the game and informing the players of who won. Also asks whether they want to play another game
+    * or exit.
+    *
+    * @param winner The winner of the game.
+    */
+   private void endGameQuery(Player winner) {
+      boolean playAgain;
+      playAgain = new Choice(primaryStage, winner.getName() + " Wins! They have obtained "
+              + winner.getHomePort().getTotalValue() + " treasure in " +
+              "their home port!\nWould you like to play again or quit?", new String[]{"Play Again", "Quit"}).getAnswer();
+
+      ArrayList<String> playerNames = new ArrayList<>();
+      boolean[] computers = new boolean[Game.numPlayers];
+      for (Player p : game.getPlayers()) {
+         playerNames.add(p.getName());
+         computers[p.getId()] = p.isComputer();
+      }
+      if (playAgain) {
+         game = new Game(playerNames, computers, this);
+         start();
+      } else {
+         primaryStage.close();
+      }
+   }
+
+   /**
+    * Initializes the {@link #gameScene} for the game. Linking all of the necessary parts such as players and the board
+    * to the UI, with the board drawn by the chosen {@link Renderer}.
+    */
+   private void initScene() {
+      BorderPane uiRootNode = new BorderPane();
+      uiRootNode.getStylesheets().add("css/border_pane_style.css");
+      gameScene = new Scene(uiRootNode, 800, 600);
+
+      // Get Side Panels
+      VBox left = makeSidePane();
+      VBox right = makeSidePane();
+
+      // Add and set up side panels.
+      uiRootNode.setLeft(left);
+      uiRootNode.setRight(right);
+
+      Player[] players = game.getPlayers();
+      playerViews = new PlayerView[players.length];
+      for (int i = 0; i < 4; i++) {
+         playerViews[players[i].getId()] = new PlayerView(players[i], (i < 2) ?
+                 (VBox) left.getChildren().get((i % 2 == 0) ? 0 : 1) :
+                 (VBox) right.getChildren().get((i % 2 == 0) ? 1 : 0), game.getBoard());
+      }
+
+      // Add and set up board.
+      Board board = game.getBoard();
+      if (boardView != null)
+         boardView.close();
+      boardView = renderer.create(board);
+      notifications = new Notifications();
+      uiRootNode.setCenter(new StackPane(boardView.getNode(), notifications.getNode()));
+      if (frameStats != null)
+         frameStats.stop();
+      if (showFrameStats) {
+         frameStats = new FrameStats(renderer.toString(), gameScene, idleFrameStats);
+         boardView.setFrameStats(frameStats);
+         frameStats.start();
+      }
+      // once a game is replaced by the next, its board's actions no longer lead to anything.
+      boardView.setOnAction(() -> {
+         if (game.getBoard() == board)
+            Platform.runLater(this::playComputer);
+      });
+   }
+
+   /**
+    * Makes and returns the side pane containing two gridpanes which occupy the top and bottom half of the VBox.
+    *
+    * @return The VBox containing two grid panes, top at children index 0 and bottom at children index 1
+    */
+   private VBox makeSidePane() {
+      VBox sidePane = new VBox();
+      for (int i = 0; i < 2; i++) {
+         VBox vbox = new VBox();
+         vbox.prefHeightProperty().bind(primaryStage.heightProperty().multiply(0.5));
+         sidePane.getChildren().add(vbox);
+      }
+      sidePane.prefWidthProperty().bind(primaryStage.widthProperty().multiply(0.2));
+      return sidePane;
+   }
+
+   // Static Methods
+
+   /**
+    * Checks whether there is an autosaved game which can be resumed.
+    *
+    * @return True if there is an autosave.
+    */
+   public static boolean canResume() {
+      return Files.exists(autosavePath);
+   }
+
+   /**
+    * Carries on the autosaved game from just after the last action which was finished.
+    *
+    * @param primaryStage The primary stage for the JavaFX application.
+    * @return The view of the game, which is shown with {@link #start()}.
+    * @throws IOException If the autosave can't be read or carried on.
+    */
+   public static GameView resume(Stage primaryStage) throws IOException {
+      GameView view = new GameView(primaryStage);
+      view.journal = Journal.resume(autosavePath, view);
+      view.game = view.journal.getGame();
+      return view;
+   }
+}
@@ -0,0 +1,175 @@
+/*
+* @(#) MoveScheduler.java 1.0 2017/04/01
+*
+* Copyright (c) 2017 Aberystwyth University.
+* All rights reserved.
+*
+*/
+
+package uk.ac.aber.cs221.group16.game.view;
+
+import javafx.animation.AnimationTimer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.DoubleConsumer;
+
+/**
+ * This singleton runs every movement on the board from one {@link AnimationTimer}, which only runs while something is
+ * moving. Each {@link Motion} is told how far through it is on every frame, so ships glide between tiles at the frame
+ * rate instead of jumping a tile at a time.
+ * <p>
+ * A motion started when another finishes carries on from the moment the first one ended rather than the next frame,
+ * so a ship sailing a path of several tiles moves at an even speed. All motions are sped up or slowed down by
+ * {@link #setSpeed(double)}.
+ *
+ * @author Group 16
+ * @version 1.0 Movement scheduler.
+ */
+public class MoveScheduler {
+
+   // Static Variables
+   private static MoveScheduler instance;
+
+   // Instance Variables
+   private final List<Motion> motions = new ArrayList<>();
+   private final AnimationTimer timer = new AnimationTimer() {
+      @Override
+      public void handle(long now) {
+         frame(now);
+      }
+   };
+   private double speed = 1;
+   private boolean running;
+   // the time the motion finishing now ended at, for a motion started by it to carry on from.
+   private long chainStart = -1;
+
+   // Constructors
+
+   /**
+    * This constructor is private so that the scheduler is only made by {@link #getInstance()}.
+    */
+   private MoveScheduler() {
+   }
+
+   // Public Methods
+
+   /**
+    * Starts a motion, which is told it is at the start straight away.
+    *
+    * @param millis     How long the motion takes at normal speed, in milliseconds.
+    * @param onFrame    Told how far through the motion is on each frame, from 0 to 1.
+    * @param onFinished Run once the motion has reached 1.
+    * @return The motion, which can be cancelled.
+    */
+   public Motion play(double millis, DoubleConsumer onFrame, Runnable onFinished) {
+      Motion motion = new Motion((long) (millis * 1_000_000 / speed), onFrame, onFinished);
+      motion.start = chainStart;
+      onFrame.accept(0);
+      motions.add(motion);
+      if (!running) {
+         running = true;
+         timer.start();
+      }
+      return motion;
+   }
+
+   /**
+    * Sets how fast motions play, which affects motions started afterwards.
+    *
+    * @param speed The speed, 1 for normal, 2 for twice as fast.
+    * @throws IllegalArgumentException If the speed isn't above 0.
+    */
+   public void setSpeed(double speed) {
+      if (!(speed > 0))
+         throw new IllegalArgumentException("Speed must be above 0: " + speed);
+      this.speed = speed;
+   }
+
+   /**
+    * Gets how fast motions play.
+    *
+    * @return The speed, 1 for normal.
+    */
+   public double getSpeed() {
+      return speed;
+   }
+
+   // Private Methods
+
+   /**
+    * Moves every motion on to the time of the frame, finishing any which have reached the end.
+    *
+    * @param now The time of the frame in nanoseconds.
+    */
+   private void frame(long now) {
+      for (Motion motion : new ArrayList<>(motions)) {
+         if (motion.cancelled)
+            continue;
+         if (motion.start < 0)
+            motion.start = now;
+         long elapsed = now - motion.start;
+         if (elapsed < motion.duration) {
+            motion.onFrame.accept((double) elapsed / motion.duration);
+            continue;
+         }
+         motion.onFrame.accept(1);
+         motions.remove(motion);
+         chainStart = motion.start + motion.duration;
+         motion.onFinished.run();
+         chainStart = -1;
+      }
+      motions.removeIf(m -> m.cancelled);
+      if (motions.isEmpty()) {
+         running = false;
+         timer.stop();
+      }
+   }
+
+   // Static Methods
+
+   /**
+    * Gets the scheduler, making it the first time it is needed.
+    *
+    * @return The scheduler.
+    */
+   public static MoveScheduler getInstance() {
+      if (instance == null)
+         instance = new MoveScheduler();
+      return instance;
+   }
+
+   // Inner Classes
+
+   /**
+    * Something moving, such as a ship sailing from one tile to the next.
+    */
+   public static class Motion {
+
+      private final long duration;
+      private final DoubleConsumer onFrame;
+      private final Runnable onFinished;
+      private long start;
+      private boolean cancelled;
+
+      /**
+       * Creates a motion which hasn't started yet.
+       *
+       * @param duration   How long it takes, in nanoseconds.
+       * @param onFrame    Told how far through it is on each frame.
+       * @param onFinished Run once it has finished.
+       */
+      private Motion(long duration, DoubleConsumer onFrame, Runnable onFinished) {
+         this.duration = duration;
+         this.onFrame = onFrame;
+         this.onFinished = onFinished;
+      }
+
+      /**
+       * Stops the motion where it is, it isn't told about any more frames and never finishes.
+       */
+      public void cancel() {
+         cancelled = true;
+      }
+   }
+}
@@ -0,0 +1,349 @@
+/*
+* @(#) NodeBoardView.java 1.0 2017/04/01
+*
+* Copyright (c) 2017 Aberystwyth University.
+* All rights reserved.
+*
+*/
+
+package uk.ac.aber.cs221.group16.game.view;
+
+import javafx.scene.ImageCursor;
+import javafx.scene.Node;
+import javafx.scene.control.Label;
+import javafx.scene.image.Image;
+import javafx.scene.layout.*;
+import uk.ac.aber.cs221.group16.game.AnimatedImage;
+import uk.ac.aber.cs221.group16.game.GraphicLoader;
+import uk.ac.aber.cs221.group16.game.map.Board;
+import uk.ac.aber.cs221.group16.game.map.Orientation;
+import uk.ac.aber.cs221.group16.game.map.tiles.Tile;
+import uk.ac.aber.cs221.group16.game.players.Player;
+import uk.ac.aber.cs221.group16.game.players.Ship;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * This class draws the {@link Board} into a GridPane, one StackPane per tile, with the ships, highlights and rotation
+ * buttons as panes on top of the tiles.
+ * <p>
+ * Each frame of the animated tiles is made into a background once, shared by every tile showing it, and the tiles'
+ * backgrounds are swapped together when the {@link AnimationClock} ticks.
+ *
+ * @author Josh Smith
+ * @version 1.4 Movement scheduler.
+ */
+public class NodeBoardView extends BoardView {
+
+   // Instance Variables
+   private GridPane boardPane;
+   private StackPane[][] tilePanes;
+   private Pane[] shipPanes;
+   private ArrayList<StackPane> rotationPanes;
+   private Set<Tile> highlighted;
+   private Map<AnimatedImage, Background[]> frameBackgrounds = new IdentityHashMap<>();
+   private Map<AnimatedImage, List<StackPane>> animatedPanes = new IdentityHashMap<>();
+   private Runnable onTick = this::animationTicked;
+
+   // Constructors
+
+   /**
+    * Initializes the board to work with the UI including pairing each tile and adding the onclick action.
+    *
+    * @param board The board to display.
+    */
+   public NodeBoardView(Board board) {
+      super(board);
+      boardPane = new GridPane();
+      boardPane.getStylesheets().add("/css/center_style.css");
+      //boardPane.setGridLinesVisible(true); for debugging
+      // Add constraints of width and height to each node in the grid.
+      for (int i = 0; i < Board.gridWidth + 2; i++) {
+         ColumnConstraints colCs = new ColumnConstraints();
+         colCs.setPercentWidth(4.54545454545);
+         boardPane.getColumnConstraints().add(colCs);
+
+         RowConstraints rowCs = new RowConstraints();
+         rowCs.setPercentHeight(4.54545454545);
+         boardPane.getRowConstraints().add(rowCs);
+      }
+      labelBoard();
+
+      highlighted = new HashSet<>();
+      tilePanes = new StackPane[Board.gridWidth][Board.gridHeight];
+      for (int x = 0; x < Board.gridWidth; x++) {
+         for (int y = 0; y < Board.gridHeight; y++) {
+            final Tile t = board.getGrid()[x][y];
+            StackPane tilePane = new StackPane();
+            AnimatedImage animation = GraphicLoader.getInstance().getAnimation(t.getImage());
+            if (animation == null) {
+               tilePane.setBackground(tileBackground(t.getImage()));
+            } else {
+               tilePane.setBackground(frameBackgrounds(animation)[0]);
+               animatedPanes.computeIfAbsent(animation, a -> new ArrayList<>()).add(tilePane);
+            }
+            tilePane.setOnMouseClicked((e) -> tileClicked(t));
+            boardPane.add(tilePane, x + 1, y + 1);
+            tilePanes[x][y] = tilePane;
+         }
+      }
+      initShipPanes();
+      initRotatePanes();
+      syncShips();
+      AnimationClock.getInstance().addListener(onTick);
+   }
+
+   // Public Methods
+
+   @Override
+   public Node getNode() {
+      return boardPane;
+   }
+
+   /**
+    * Stops animating the tiles.
+    */
+   @Override
+   public void close() {
+      super.close();
+      AnimationClock.getInstance().removeListener(onTick);
+   }
+
+   /**
+    * Moves each ship's pane onto the tile the ship is on and turns it to face the ship's orientation.
+    */
+   @Override
+   public void syncShips() {
+      for (Player player : board.getPlayers()) {
+         Ship ship = player.getShip();
+         Pane shipPane = shipPanes[player.getId()];
+         StackPane tilePane = tilePanes[ship.getX()][ship.getY()];
+         if (shipPane.getParent() != tilePane) {
+            if (shipPane.getParent() != null) {
+               shipPane.getParent().setViewOrder(0);
+               ((Pane) shipPane.getParent()).getChildren().remove(shipPane);
+            }
+            tilePane.getChildren().add(shipPane);
+            shipPane.setTranslateX(0);
+            shipPane.setTranslateY(0);
+         }
+         Orientation orientation = ship.getOrientation();
+         shipPane.setRotate(orientation.getAngle());
+         if (orientation.getAngle() > 180)
+            shipPane.setStyle("-fx-scale-x: -1;");
+         else
+            shipPane.setStyle("-fx-scale-x: 1;");
+      }
+   }
+
+   // Protected Methods
+
+   @Override
+   protected void showHighlights(Set<Tile> tiles) {
+      clearHighlights();
+      for (Tile tile : tiles) {
+         highlight(tile);
+      }
+   }
+
+   /**
+    * Places the rotate buttons around the currentPlayer's ship and adds the trigger function for click events,
+    * removing any old ones first.
+    *
+    * @param orientations The directions to place buttons for.
+    */
+   @Override
+   protected void showRotations(List<Orientation> orientations) {
+      clearRotationButtons();
+      for (Orientation o : orientations) {
+         int i = rotationIndex(o);
+         Tile tile = rotationTile(o);
+         rotationPanes.get(i).setOnMouseClicked(e -> {
+            rotationClicked(o);
+            // This line is necessary to prevent the parent gridpane consuming the click event and moving the ship.
+            e.consume();
+         });
+         tilePanes[tile.getX()][tile.getY()].getChildren().add(rotationPanes.get(i));
+      }
+   }
+
+   /**
+    * Moves the ship's pane off its tile, bringing the tile in front of the others so that the ship isn't hidden by the
+    * tiles it is passing over.
+    *
+    * @param player The player whose ship it is.
+    * @param dx     How far across to draw it from its tile, in tiles.
+    * @param dy     How far down to draw it from its tile, in tiles.
+    */
+   @Override
+   protected void showShipOffset(Player player, double dx, double dy) {
+      Pane shipPane = shipPanes[player.getId()];
+      Region tilePane = (Region) shipPane.getParent();
+      shipPane.setTranslateX(dx * tilePane.getWidth());
+      shipPane.setTranslateY(dy * tilePane.getHeight());
+      tilePane.setViewOrder(dx == 0 && dy == 0 ? 0 : -1);
+   }
+
+   // Private Methods
+
+   /**
+    * Makes the background of a tile, an image scaled to cover the tile.
+    *
+    * @param image The image.
+    * @return The background.
+    */
+   private Background tileBackground(Image image) {
+      return new Background(new BackgroundImage(image, BackgroundRepeat.NO_REPEAT, BackgroundRepeat.NO_REPEAT,
+              BackgroundPosition.CENTER, new BackgroundSize(100, 100, true, true, false, true)));
+   }
+
+   /**
+    * Gets the backgrounds of the frames of an animation, making them the first time.
+    *
+    * @param animation The animation.
+    * @return A background for each frame.
+    */
+   private Background[] frameBackgrounds(AnimatedImage animation) {
+      return frameBackgrounds.computeIfAbsent(animation, a -> {
+         Background[] backgrounds = new Background[a.getFrameCount()];
+         for (int i = 0; i < backgrounds.length; i++)
+            backgrounds[i] = tileBackground(a.getFrame(i));
+         return backgrounds;
+      });
+   }
+
+   /**
+    * Swaps the backgrounds of the tiles of every animation which has changed frame.
+    */
+   private void animationTicked() {
+      AnimationClock clock = AnimationClock.getInstance();
+      for (Map.Entry<AnimatedImage, List<StackPane>> entry : animatedPanes.entrySet()) {
+         if (!clock.hasChanged(entry.getKey()))
+            continue;
+         Background background = frameBackgrounds(entry.getKey())[clock.getFrame(entry.getKey())];
+         for (StackPane pane : entry.getValue())
+            pane.setBackground(background);
+      }
+   }
+
+   /**
+    * Places labels along the border of the grid to represent the axis. 1..gridSize
+    */
+   private void labelBoard() {
+      for (Integer i = 1; i <= Board.gridWidth; i++) {
+         // Create labels, For some reason we can't just use one label multiple times.
+         Label label1 = new Label(i.toString());
+         Label label2 = new Label(i.toString());
+
+         // set max size of grid pane labels
+         for (int j = 0; j < 2; j++) {
+            ((j > 0) ? label2 : label1).maxHeightProperty().bind(
+                    boardPane.heightProperty().multiply(4.54545454545));
+            ((j > 0) ? label2 : label1).maxWidthProperty().bind(
+                    boardPane.widthProperty().multiply(4.54545454545));
+         }
+
+         // Add labels
+         boardPane.add(label1, i, Board.gridWidth + 1); // bottom
+         boardPane.add(label2, 0, Board.gridWidth - i + 1); // left
+      }
+   }
+
+   /**
+    * Removes the highlight from every highlighted tile.
+    */
+   private void clearHighlights() {
+      for (Tile tile : highlighted) {
+         StackPane tilePane = tilePanes[tile.getX()][tile.getY()];
+         tilePane.getChildren().remove(0);
+         // reset the cursor back to default when unhighliting
+         tilePane.setCursor(new ImageCursor(
+                 GraphicLoader.getInstance().getDefaultCursor()
+         ));
+      }
+      highlighted.clear();
+   }
+
+   /**
+    * Highlights the Tile
+    * Sets the appropriate cursor for highlighted tile
+    *
+    * @param tile The tile to highlight.
+    */
+   private void highlight(Tile tile) {
+      Pane redShift = new Pane();
+
+      // sets a slight tint over the tile
+      redShift.setStyle("-fx-background-color: rgba(255, 0, 0, 0.5);");
+      tilePanes[tile.getX()][tile.getY()].getChildren().add(0, redShift);
+      highlighted.add(tile);
+      // change the cursor
+      redShift.setCursor(new ImageCursor(
+              GraphicLoader.getInstance().getFocusCursor()
+      ));
+   }
+
+   /**
+    * Removes rotate buttons.
+    */
+   private void clearRotationButtons() {
+      for (StackPane pane : rotationPanes) {
+         if (pane.getParent() != null)
+            ((Pane) pane.getParent()).getChildren().remove(pane);
+      }
+   }
+
+   /**
+    * Gets the index of an orientation within {@link Orientation#getAll()}, which is also the index of its rotation
+    * pane.
+    *
+    * @param o The orientation.
+    * @return The index of the orientation.
+    */
+   private int rotationIndex(Orientation o) {
+      Orientation[] all = Orientation.getAll();
+      for (int i = 0; i < all.length; i++) {
+         if (all[i] == o)
+            return i;
+      }
+      return -1;
+   }
+
+   /**
+    * Initializes the rotation panes for use throughout the game, Only needs to be run at the start, once.
+    */
+   private void initRotatePanes() {
+      rotationPanes = new ArrayList<>();
+      Image im = GraphicLoader.getInstance().getRotateTriangle();
+
+      for (Orientation dir : Orientation.getAll()) {
+         StackPane pane = new StackPane();
+         pane.setBackground(new Background(new BackgroundImage(im, BackgroundRepeat.NO_REPEAT,
+                 BackgroundRepeat.NO_REPEAT, BackgroundPosition.CENTER, BackgroundSize.DEFAULT)));
+         pane.setRotate(dir.getAngle());
+         rotationPanes.add(pane);
+      }
+   }
+
+   /**
+    * Initializes a pane for each player's ship, using the ship graphic matching the player's ID.
+    */
+   private void initShipPanes() {
+      Image[] ships = GraphicLoader.getInstance().getShips();
+      shipPanes = new Pane[board.getPlayers().length];
+      for (Player player : board.getPlayers()) {
+         Pane shipPane = new Pane();
+         shipPane.setBackground(new Background(new BackgroundImage(ships[player.getId()], BackgroundRepeat.NO_REPEAT,
+                 BackgroundRepeat.NO_REPEAT, BackgroundPosition.CENTER,
+                 new BackgroundSize(128, 128, false, false, true, false))));
+         shipPane.setPrefWidth(Region.USE_COMPUTED_SIZE);
+         shipPane.setPrefHeight(Region.USE_COMPUTED_SIZE);
+         shipPanes[player.getId()] = shipPane;
+      }
+   }
+}
@@ -0,0 +1,167 @@
+/*
+* @(#) Notifications.java 1.0 2017/04/01
+*
+* Copyright (c) 2017 Aberystwyth University.
+* All rights reserved.
+*
+*/
+
+package uk.ac.aber.cs221.group16.game.view;
+
+import javafx.animation.FadeTransition;
+import javafx.animation.PauseTransition;
+import javafx.geometry.Pos;
+import javafx.scene.Node;
+import javafx.scene.control.Label;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.StackPane;
+import javafx.scene.layout.VBox;
+import javafx.util.Duration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class shows messages from the rules as a stack of notes over the corner of the board, which fade away by
+ * themselves, rather than popups which have to be closed before the game can carry on.
+ * <p>
+ * The messages of a turn are gathered into one note, and a message repeated straight after itself is counted rather
+ * than shown again. A new note is only started if the last one was started long enough ago, anything sooner is added
+ * to the last note, so turns played quickly by computer players share a note rather than flooding the board. Each
+ * note keeps its latest few messages and only a few notes are shown at once.
+ *
+ * @author Group 16
+ * @version 1.0 Notifications.
+ */
+public class Notifications {
+
+   // Constants
+   private static final int maxNotes = 4;
+   private static final int maxMessages = 6;
+   private static final long minGap = 500_000_000L;
+   private static final Duration showFor = Duration.seconds(6);
+   private static final Duration fadeFor = Duration.millis(400);
+
+   // Instance Variables
+   private VBox stack;
+   private Note current;
+   private long lastStarted;
+   private boolean turnEnded = true;
+
+   // Constructors
+
+   /**
+    * Creates an empty stack of notes.
+    */
+   public Notifications() {
+      stack = new VBox();
+      stack.getStyleClass().add("notifications");
+      stack.getStylesheets().add("/css/notifications.css");
+      stack.setAlignment(Pos.TOP_RIGHT);
+      stack.setMaxSize(Region.USE_PREF_SIZE, Region.USE_PREF_SIZE);
+      StackPane.setAlignment(stack, Pos.TOP_RIGHT);
+      // the notes are only to be read, clicks go through them to the board.
+      stack.setMouseTransparent(true);
+   }
+
+   // Public Methods
+
+   /**
+    * Gets the node showing the notes, to be put in a StackPane over the board.
+    *
+    * @return The node.
+    */
+   public Node getNode() {
+      return stack;
+   }
+
+   /**
+    * Shows a message, in the current turn's note if it is still showing.
+    *
+    * @param message The message.
+    */
+   public void post(String message) {
+      String text = message.trim();
+      if (text.isEmpty())
+         return;
+      long now = System.nanoTime();
+      boolean showing = current != null && stack.getChildren().contains(current.label);
+      if (!showing || (turnEnded && now - lastStarted >= minGap)) {
+         current = new Note();
+         stack.getChildren().add(current.label);
+         if (stack.getChildren().size() > maxNotes)
+            stack.getChildren().remove(0);
+         lastStarted = now;
+      }
+      turnEnded = false;
+      current.add(text);
+   }
+
+   /**
+    * Starts a new note for the next message, once the current one has been shown long enough.
+    */
+   public void endTurn() {
+      turnEnded = true;
+   }
+
+   // Inner Classes
+
+   /**
+    * A note of the messages of a turn, which fades away a while after its last message.
+    */
+   private class Note {
+
+      private final Label label = new Label();
+      private final List<String> messages = new ArrayList<>();
+      private final List<Integer> counts = new ArrayList<>();
+      private int dropped;
+      private final PauseTransition wait = new PauseTransition(showFor);
+      private final FadeTransition fade = new FadeTransition(fadeFor, label);
+
+      /**
+       * Creates an empty note, which fades once it has been shown for a while.
+       */
+      private Note() {
+         label.getStyleClass().add("toast");
+         label.setWrapText(true);
+         label.setMaxWidth(320);
+         fade.setToValue(0);
+         wait.setOnFinished(e -> fade.playFromStart());
+         fade.setOnFinished(e -> stack.getChildren().remove(label));
+      }
+
+      /**
+       * Adds a message to the note and shows it for a while longer.
+       *
+       * @param message The message.
+       */
+      private void add(String message) {
+         int last = messages.size() - 1;
+         if (last >= 0 && messages.get(last).equals(message)) {
+            counts.set(last, counts.get(last) + 1);
+         } else {
+            messages.add(message);
+            counts.add(1);
+            if (messages.size() > maxMessages) {
+               messages.remove(0);
+               counts.remove(0);
+               dropped++;
+            }
+         }
+         StringBuilder text = new StringBuilder();
+         if (dropped > 0)
+            text.append("(").append(dropped).append(" earlier)\n");
+         for (int i = 0; i < messages.size(); i++) {
+            if (i > 0)
+               text.append("\n");
+            text.append(messages.get(i));
+            if (counts.get(i) > 1)
+               text.append(" (x").append(counts.get(i)).append(")");
+         }
+         label.setText(text.toString());
+         fade.stop();
+         label.setOpacity(1);
+         wait.playFromStart();
+      }
+   }
+}
@@ -0,0 +1,215 @@
+/*
+* @(#) PlayerView.java 1.0 2017/04/01
+*
+* Copyright (c) 2017 Aberystwyth University.
+* All rights reserved.
+*
+*/
+
+package uk.ac.aber.cs221.group16.game.view;
+
+import javafx.application.Platform;
+import javafx.beans.value.ObservableStringValue;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.ImageCursor;
+import javafx.scene.control.Label;
+import javafx.scene.control.ScrollPane;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.*;
+import uk.ac.aber.cs221.group16.game.Controller;
+import uk.ac.aber.cs221.group16.game.GraphicLoader;
+import uk.ac.aber.cs221.group16.game.map.Board;
+import uk.ac.aber.cs221.group16.game.players.Player;
+import uk.ac.aber.cs221.group16.game.windows.GenericMsg;
+
+import java.util.Comparator;
+
+/**
+ * This class draws a Player's information into one of the side panes, e.g. their name, location, crew and treasure.
+ * <p>
+ * The treasure labels are refreshed once after the rules have finished what they are doing, rather than after each
+ * treasure moves, see {@link #showLater(Label, ObservableStringValue)}.
+ *
+ * @author Luke Revill
+ * @author Josh Smith
+ * @author Kamyab Sherafat
+ * @author Alex Toop
+ * @version 1.2 Computer seats.
+ */
+public class PlayerView {
+
+   // Instance Variables
+   private Player player;
+   private Pane highlightPane, chanceCard, crewCard;
+
+   // Constructors
+
+   /**
+    * Draws the players's information to the screen e.g. Ship, UI details...
+    *
+    * @param player The player to display.
+    * @param pane   The pane to place the Player info onto.
+    * @param board  The board which the game is being played on.
+    */
+   public PlayerView(Player player, VBox pane, Board board) {
+      this.player = player;
+      highlightPane = pane;
+
+      Pane headerPane = new GridPane();
+      headerPane.setBackground(new Background(new BackgroundFill(player.getColor(), CornerRadii.EMPTY, Insets.EMPTY)));
+      headerPane.prefHeightProperty().bind(pane.heightProperty().multiply(0.15));
+      // computer players are marked here rather than in their names.
+      Label playerName = new Label(player.isComputer() ? player.getName() + " (AI)" : player.getName());
+      Label playerLoc = new Label();
+      playerLoc.textProperty().bind(player.getShip().locationStringProperty());
+      Label playerPrt = new Label(player.getHomePort().getName());
+      headerPane.getChildren().addAll(playerName, playerLoc, playerPrt);
+      GridPane.setConstraints(playerName, 0, 0);
+      GridPane.setConstraints(playerLoc, 1, 0);
+      GridPane.setConstraints(playerPrt, 0, 1);
+
+      HBox playerCards = new HBox();
+      playerCards.prefHeightProperty().bind(pane.heightProperty().multiply(0.35));
+
+      GridPane leftWrapper = new GridPane();
+      leftWrapper.prefWidthProperty().bind(playerCards.widthProperty().multiply(0.5));
+      crewCard = new Pane();
+      crewCard.setCursor(new ImageCursor(GraphicLoader.getInstance().getBrokenCursor()));
+      crewCard.prefHeightProperty().bind(leftWrapper.heightProperty().multiply(0.75));
+      crewCard.prefWidthProperty().bind(leftWrapper.widthProperty().multiply(0.50));
+      ImageView crewCardImg = new ImageView(GraphicLoader.getInstance().getCrewCardStack());
+      crewCardImg.fitWidthProperty().bind(crewCard.widthProperty());
+      crewCardImg.fitHeightProperty().bind(crewCard.heightProperty());
+      crewCard.getChildren().add(crewCardImg);
+      // Clicks crew card stack
+      crewCard.setOnMouseClicked(e -> {
+         // ensure its the current player's crew card stack
+         if (board.getCurrentPlayer() == player) {
+            StringBuilder sBuilder = new StringBuilder();
+            player.getCrewCards().stream().sorted(Comparator.reverseOrder())
+                    .forEach(c -> sBuilder.append(c.toString()).append("\n"));
+            sBuilder.append("Move: ").append(player.getMovementDistance()).append(" | Attack: ")
+                    .append(player.getFightingStrength());
+            new GenericMsg(Controller.stage, sBuilder.toString());
+         }
+      });
+      leftWrapper.getChildren().add(crewCard);
+      leftWrapper.setId("left-wrapper");
+
+      GridPane rightWrapper = new GridPane();
+      rightWrapper.prefWidthProperty().bind(playerCards.widthProperty().multiply(0.5));
+      chanceCard = new Pane();
+      chanceCard.setCursor(new ImageCursor(GraphicLoader.getInstance().getBrokenCursor()));
+      chanceCard.prefHeightProperty().bind(rightWrapper.heightProperty().multiply(0.75));
+      chanceCard.prefWidthProperty().bind(rightWrapper.widthProperty().multiply(0.5));
+      ImageView chanceCardImg = new ImageView(GraphicLoader.getInstance().getChanceCardStack());
+      chanceCardImg.fitWidthProperty().bind(chanceCard.widthProperty());
+      chanceCardImg.fitHeightProperty().bind(chanceCard.heightProperty());
+      chanceCard.getChildren().add(chanceCardImg);
+      // Clicks crew card stack
+      chanceCard.setOnMouseClicked(e -> {
+         // ensure its the current player's crew card stack
+         StringBuilder sBuilder = new StringBuilder();
+         if (board.getCurrentPlayer() == player) {
+            if (player.getChanceCards().size() > 0)
+               player.getChanceCards().forEach(c -> sBuilder.append(c.toString()).append("\n"));
+            else
+               sBuilder.append("No Chance Cards in hand!");
+            new GenericMsg(Controller.stage, sBuilder.toString());
+         }
+      });
+      rightWrapper.getChildren().add(chanceCard);
+      rightWrapper.setId("right-wrapper");
+
+      playerCards.getChildren().addAll(leftWrapper, rightWrapper);
+      playerCards.getStylesheets().add("/css/player_cards.css");
+
+      HBox treasureTxt = new HBox();
+      treasureTxt.setAlignment(Pos.CENTER);
+      treasureTxt.prefHeightProperty().bind(pane.heightProperty().multiply(0.1));
+      Label treasureTtlLabel = new Label("Treasure");
+      treasureTxt.getChildren().add(treasureTtlLabel);
+
+      GridPane treasureHmPrt = new GridPane();
+
+      Label homePort = new Label("Home Port:");
+      Label homePortVal = new Label();
+      showLater(homePortVal, player.getHomePort().treasureStringProperty());
+      treasureHmPrt.getChildren().addAll(homePort, homePortVal);
+      GridPane.setConstraints(homePort, 0, 0);
+      GridPane.setConstraints(homePortVal, 0, 1);
+      ScrollPane scrollPaneUp = new ScrollPane(treasureHmPrt);
+      scrollPaneUp.prefHeightProperty().bind(pane.heightProperty().multiply(0.2));
+
+      GridPane treasureShip = new GridPane();
+      Label ship = new Label("Ship:");
+      Label shipVal = new Label();
+      showLater(shipVal, player.getShip().treasureStringProperty());
+      treasureShip.getChildren().addAll(ship, shipVal);
+      GridPane.setConstraints(ship, 0, 0);
+      GridPane.setConstraints(shipVal, 0, 1);
+      ScrollPane scrollPaneDwn = new ScrollPane(treasureShip);
+      scrollPaneDwn.prefHeightProperty().bind(pane.heightProperty().multiply(0.2));
+
+      pane.getChildren().addAll(headerPane, playerCards, treasureTxt, scrollPaneUp, scrollPaneDwn);
+      headerPane.getStyleClass().add("headerPane");
+      treasureHmPrt.getStyleClass().add("treasureHmPrt");
+      treasureShip.getStyleClass().add("treasureShip");
+      scrollPaneDwn.getStyleClass().add("scrollPaneDwn");
+      scrollPaneUp.getStyleClass().add("scrollPaneUp");
+      treasureTxt.getStyleClass().add("treasureTxt");
+      playerCards.getStyleClass().add("playerCards");
+      pane.getStyleClass().add("playerPane");
+      pane.getStylesheets().add("/css/player_pane.css");
+   }
+
+   // Public Methods
+
+   /**
+    * UnHighlights a Player's info window.
+    * Sets the appropriate cursor for player cards.
+    */
+   public void unhighlight() {
+      highlightPane.setStyle("-fx-background-color: silver;");
+      for (int i = 0; i < 2; i++) {
+         ((i > 0) ? crewCard : chanceCard).setCursor(
+                 new ImageCursor(GraphicLoader.getInstance().getBrokenCursor()));
+      }
+   }
+
+   /**
+    * Highlight's a Player's info window.
+    * Sets the appropriate cursor for player cards.
+    */
+   public void highlight() {
+      highlightPane.setStyle("-fx-background-color: white;");
+      for (int i = 0; i < 2; i++) {
+         ((i > 0) ? crewCard : chanceCard).setCursor(
+                 new ImageCursor(GraphicLoader.getInstance().getFocusCursor()));
+      }
+   }
+
+   // Static Methods
+
+   /**
+    * Shows a string in a label, updating the label once the events being handled are done whenever the string changes.
+    * However many times the string changes while the rules run, it is only read once, before the next frame is drawn.
+    *
+    * @param label The label.
+    * @param text  The string to show.
+    */
+   private static void showLater(Label label, ObservableStringValue text) {
+      label.setText(text.get());
+      boolean[] queued = new boolean[1];
+      text.addListener(observable -> {
+         if (queued[0])
+            return;
+         queued[0] = true;
+         Platform.runLater(() -> {
+            queued[0] = false;
+            label.setText(text.get());
+         });
+      });
+   }
+}
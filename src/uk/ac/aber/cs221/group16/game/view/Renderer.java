@@ -0,0 +1,60 @@
+/*
+* @(#) Renderer.java 1.0 2017/04/01
+*
+* Copyright (c) 2017 Aberystwyth University.
+* All rights reserved.
+*
+*/
+
+package uk.ac.aber.cs221.group16.game.view;
+
+import uk.ac.aber.cs221.group16.game.map.Board;
+
+/**
+ * An Enum of the ways the board can be drawn, picked when the program starts with {@code --renderer=nodes} or
+ * {@code --renderer=canvas}.
+ *
+ * @author Group 16
+ * @version 1.0 Canvas renderer.
+ * @see BoardView
+ */
+public enum Renderer {
+   Nodes,
+   Canvas;
+
+   // Public Methods
+
+   /**
+    * Makes a view of a board drawn this way.
+    *
+    * @param board The board to display.
+    * @return The view.
+    */
+   public BoardView create(Board board) {
+      switch (this) {
+         case Canvas:
+            return new CanvasBoardView(board);
+         default:
+            return new NodeBoardView(board);
+      }
+   }
+
+   // Static Methods
+
+   /**
+    * Gets a renderer from its name, ignoring case.
+    *
+    * @param name The name, or null for the default.
+    * @return The renderer, {@link #Nodes} if there is no name.
+    * @throws IllegalArgumentException If there isn't a renderer with the name.
+    */
+   public static Renderer parse(String name) {
+      if (name == null)
+         return Nodes;
+      for (Renderer renderer : values()) {
+         if (renderer.name().equalsIgnoreCase(name))
+            return renderer;
+      }
+      throw new IllegalArgumentException("Unknown renderer: " + name);
+   }
+}
@@ -11,10 +11,10 @@ import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 import javafx.stage.StageStyle;
 import uk.ac.aber.cs221.group16.game.GraphicLoader;
-import uk.ac.aber.cs221.group16.game.map.Board;
 import uk.ac.aber.cs221.group16.game.players.Player;
 
 import java.util.ArrayList;
+import java.util.List;
 
 /**
  * displays a windows to select a player from a list of players
@@ -31,14 +31,13 @@ public class PlayerSelection {
     * Constructor
     *
     * @param owner   owner of the window
-    * @param board   the board to take players from
+    * @param players the players which can be selected
     * @param message message to display to the user
     */
-   public PlayerSelection(Stage owner, Board board, String message) {
+   public PlayerSelection(Stage owner, List<Player> players, String message) {
       stage = new Stage(StageStyle.UNDECORATED);
       stage.initOwner(owner);
-      players = new ArrayList<>();
-      removeCurrentPlayer(board);
+      this.players = new ArrayList<>(players);
       display(message);
    }
 
@@ -46,19 +45,6 @@ public class PlayerSelection {
       return selectedPlayer;
    }
 
-   /**
-    * removes current player from the list of 4 players
-    *
-    * @param board
-    */
-   private void removeCurrentPlayer(Board board) {
-      for (Player player : board.getPlayers()) {
-         if (player != board.getCurrentPlayer()) {
-            players.add(player);
-         }
-      }
-   }
-
    /**
     * displays a window consisting of a message and 3 buttons with
     * the names of the players
@@ -13,12 +13,15 @@ import javafx.scene.ImageCursor;
 import javafx.scene.Node;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
 import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
 import javafx.scene.control.TextField;
 import javafx.scene.image.Image;
 import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyEvent;
 import javafx.scene.layout.GridPane;
+import javafx.scene.layout.HBox;
 import javafx.scene.text.Font;
 import javafx.stage.Stage;
 import javafx.stage.StageStyle;
@@ -29,14 +32,18 @@ import java.util.ArrayList;
 /**
  * This class handles the UI of the starting screen, takes user input for player names
  * checks for validity and holds an arraylist of those names accessible via
- * {@link #getNames()}
+ * {@link #getNames()}. Any player can be ticked as a computer player, which is
+ * given by {@link #getComputers()}. While the names are entered it shows how far
+ * the {@link GraphicLoader} has got loading the board.
  *
  * @author Kamyab Sherafat
+ * @author Group 16
  */
 
 public class StartScreen {
    private GridPane wrapper;
    private ArrayList<String> names;
+   private boolean[] computers;
    Stage stage;
 
    /**
@@ -60,6 +67,16 @@ public class StartScreen {
       return names;
    }
 
+   /**
+    * Gets which players were ticked as computers after the ok button has been
+    * pressed.
+    *
+    * @return Whether each player is a computer, in the same order as the names
+    */
+   public boolean[] getComputers() {
+      return computers;
+   }
+
    /**
     * Displays the start screen window
     */
@@ -79,18 +96,30 @@ public class StartScreen {
       TextField player2 = new TextField("Player 2");
       TextField player3 = new TextField("Player 3");
       TextField player4 = new TextField("Player 4");
+      TextField[] fields = {player1, player2, player3, player4};
+      CheckBox[] computerBoxes = new CheckBox[fields.length];
+      HBox[] entries = new HBox[fields.length];
+      for (int i = 0; i < fields.length; i++) {
+         computerBoxes[i] = new CheckBox("Computer");
+         entries[i] = new HBox(5, fields[i], computerBoxes[i]);
+      }
 
       Button submit = new Button("OK");
+
+      // the graphics carry on loading while the names are entered, the bar goes once they are done.
+      ProgressBar loading = new ProgressBar();
+      loading.progressProperty().bind(GraphicLoader.getInstance().progressProperty());
+      loading.visibleProperty().bind(loading.progressProperty().lessThan(1));
       /*
-       * iteratively goes through all children of the parent, from those that are TextFields
-       * selects the text inside and adds to the names ArrayList
+       * iteratively goes through all of the name fields, selects the text inside
+       * and adds to the names ArrayList, marking computer players
        */
       submit.setOnAction(e -> {
-         for (Node node : wrapper.getChildren()) {
-            if (node instanceof TextField) {
-               if (nameValidator(node)) {
-                  names.add(((TextField) node).getText());
-               }
+         computers = new boolean[fields.length];
+         for (int i = 0; i < fields.length; i++) {
+            if (nameValidator(fields[i])) {
+               names.add(fields[i].getText());
+               computers[i] = computerBoxes[i].isSelected();
             }
          }
          // Names are only added to the names array if they pass the checks,
@@ -111,15 +140,17 @@ public class StartScreen {
       GridPane.setHalignment(help, HPos.RIGHT);
       GridPane.setHalignment(submit, HPos.CENTER);
       wrapper.getChildren().addAll(help, title, pleaseEnterName,
-              player1, player2, player3, player4, submit);
+              entries[0], entries[1], entries[2], entries[3], submit, loading);
       wrapper.setConstraints(help, 2, 0);
       wrapper.setConstraints(title, 1, 1);
       wrapper.setConstraints(pleaseEnterName, 0, 2);
-      wrapper.setConstraints(player1, 0, 3);
-      wrapper.setConstraints(player2, 2, 3);
-      wrapper.setConstraints(player3, 0, 4);
-      wrapper.setConstraints(player4, 2, 4);
+      wrapper.setConstraints(entries[0], 0, 3);
+      wrapper.setConstraints(entries[1], 2, 3);
+      wrapper.setConstraints(entries[2], 0, 4);
+      wrapper.setConstraints(entries[3], 2, 4);
       wrapper.setConstraints(submit, 1, 5);
+      GridPane.setConstraints(loading, 1, 6);
+      GridPane.setHalignment(loading, HPos.CENTER);
       wrapper.setPrefSize(wrapper.USE_COMPUTED_SIZE, wrapper.USE_COMPUTED_SIZE);
       wrapper.getStylesheets().addAll("/css/generic_button.css", "/css/start_screen.css");
 
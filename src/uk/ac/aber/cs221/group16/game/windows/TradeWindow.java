@@ -10,6 +10,7 @@ package uk.ac.aber.cs221.group16.game.windows;
 
 import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.SimpleIntegerProperty;
+import javafx.collections.FXCollections;
 import javafx.event.ActionEvent;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -18,6 +19,7 @@ import javafx.scene.Node;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.CheckBox;
+import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.ScrollPane;
 import javafx.scene.layout.BorderPane;
@@ -26,35 +28,40 @@ import javafx.scene.layout.VBox;
 import javafx.scene.paint.Color;
 import javafx.stage.Stage;
 import javafx.stage.StageStyle;
+import javafx.util.StringConverter;
 import uk.ac.aber.cs221.group16.game.Controller;
 import uk.ac.aber.cs221.group16.game.GraphicLoader;
+import uk.ac.aber.cs221.group16.game.Trade;
+import uk.ac.aber.cs221.group16.game.TradeSearch;
+import uk.ac.aber.cs221.group16.game.TradeSearch.Suggestion;
 import uk.ac.aber.cs221.group16.game.items.Tradable;
-import uk.ac.aber.cs221.group16.game.items.treasures.Treasure;
 import uk.ac.aber.cs221.group16.game.map.tiles.PortTile;
 import uk.ac.aber.cs221.group16.game.players.Player;
+import uk.ac.aber.cs221.group16.game.profiling.TradeWindowEvent;
 
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.HashSet;
+import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
- * This class provides the trading interface
+ * This class provides the trading interface, the rules of the trade itself are in {@link Trade}. The best fair trades
+ * found by a {@link TradeSearch} are offered in a drop down, picking one ticks its items. The window is timed from
+ * being built to being closed as a {@link TradeWindowEvent}.
  *
  * @author Kamyab Sherafat
  * @author Josh Smith
+ * @version 1.3 Flight recorder events.
  */
 public class TradeWindow {
 
    // Instance variables
+   private Trade trade;
    private Player player;
    private PortTile port;
    private Stage window;
    private Label errorLabel;
-
-   private ArrayList<Tradable> playerTradables;
-   private ArrayList<Tradable> portTradables;
+   private TradeWindowEvent event;
 
    private IntegerProperty playerSum = new SimpleIntegerProperty(0);
    private IntegerProperty portSum = new SimpleIntegerProperty(0);
@@ -62,30 +69,33 @@ public class TradeWindow {
    // Constructors
 
    /**
-    * The primary constructor for the TradeWindow class, when provided with a Player and ports, it sets up a popup
-    * window to handle the trading and shows it to the user.
+    * The primary constructor for the TradeWindow class, when provided with a trade, it sets up a popup window to
+    * handle the trading and shows it to the user.
     *
-    * @param player The player who has arrived in the port.
-    * @param port   The port which the player wishes to trade with.
+    * @param trade The trade between the player who has arrived in the port and the port.
     */
-   public TradeWindow(Player player, PortTile port) {
-      this.player = player;
-      this.port = port;
+   public TradeWindow(Trade trade) {
+      this.trade = trade;
+      this.player = trade.getPlayer();
+      this.port = trade.getPort();
 
+      event = new TradeWindowEvent(trade);
       initWindow();
+      event.built();
    }
 
    // Public Methods
 
    public void showAndWait() {
       window.showAndWait();
+      event.commit();
    }
 
    // Private Methods
 
    private void initWindow() {
       Label topTxt = new Label(player.getName() + "  <-->  " + port.getName());
-      HBox top = new HBox(topTxt);
+      VBox top = new VBox(topTxt);
       top.setAlignment(Pos.CENTER);
 
       // Layout setup
@@ -104,19 +114,6 @@ public class TradeWindow {
       HBox middle = new HBox(leftScroll, rightScroll);
       middle.setAlignment(Pos.CENTER);
 
-      // add all of the cards and treasures into lists of tradables.
-      playerTradables = new ArrayList<>(player.getShip().getCargo());
-      playerTradables.addAll(player.getCrewCards());
-      // adds all chance cards which have a value.
-      playerTradables.addAll(player.getChanceCards().stream().filter(c -> c.getValue() > 0).collect(Collectors.toList()));
-
-      portTradables = new ArrayList<>(port.getTreasureSet());
-      portTradables.addAll(port.getCrewCardSet());
-
-      // Sort the Lists
-      playerTradables.sort(Comparator.reverseOrder());
-      portTradables.sort(Comparator.reverseOrder());
-
       // labels for total, binding them to the sum properties.
       Label playerSumLbl = new Label();
       playerSumLbl.textProperty().bind(playerSum.asString());
@@ -132,8 +129,33 @@ public class TradeWindow {
       cancel.setOnAction(event -> window.close());
 
       // add the items as checkboxes into their appropriate panes. Adding events for when toggled to update the labels.
-      addItems(left, playerTradables, playerSum, accept);
-      addItems(right, portTradables, portSum, accept);
+      addItems(left, trade.getPlayerTradables(), playerSum, accept);
+      addItems(right, trade.getPortTradables(), portSum, accept);
+
+      ComboBox<Suggestion> suggestions = new ComboBox<>(FXCollections.observableArrayList(
+              new TradeSearch(trade).search(TradeSearch.defaultLimit)));
+      suggestions.setPromptText(suggestions.getItems().isEmpty() ? "No fair trades" : "Suggested trades");
+      suggestions.setDisable(suggestions.getItems().isEmpty());
+      suggestions.setConverter(new StringConverter<Suggestion>() {
+         @Override
+         public String toString(Suggestion suggestion) {
+            return suggestion == null ? null : describe(suggestion);
+         }
+
+         @Override
+         public Suggestion fromString(String string) {
+            return null;
+         }
+      });
+      suggestions.setOnAction(e -> {
+         Suggestion suggestion = suggestions.getValue();
+         if (suggestion == null)
+            return;
+         select(left.getChildren(), trade.getPlayerTradables(), suggestion.getFromPlayer(), playerSum);
+         select(right.getChildren(), trade.getPortTradables(), suggestion.getFromPort(), portSum);
+         updateAccept(accept);
+      });
+      top.getChildren().add(suggestions);
 
       // putting it all together
       BorderPane bottom = new BorderPane();
@@ -168,7 +190,7 @@ public class TradeWindow {
     * @param sum       The Integer Property to update when the checkboxes are toggled.
     * @param acceptBtn The button which should be disabled if the values do not match.
     */
-   private void addItems(VBox pane, ArrayList<Tradable> tradables, IntegerProperty sum, Button acceptBtn) {
+   private void addItems(VBox pane, List<Tradable> tradables, IntegerProperty sum, Button acceptBtn) {
       for (Tradable tradable : tradables) {
          CheckBox checkBox = new CheckBox(tradable.getType() + "(" + tradable.getValue() + ")");
          checkBox.setOnAction((ActionEvent action) -> {
@@ -177,15 +199,68 @@ public class TradeWindow {
             } else {
                sum.set(sum.getValue() - tradable.getValue());
             }
-            if (playerSum.get() != portSum.get())
-               acceptBtn.setDisable(true);
-            else
-               acceptBtn.setDisable(false);
+            updateAccept(acceptBtn);
          });
          pane.getChildren().add(checkBox);
       }
    }
 
+   /**
+    * Disables the accept button unless both sides of the trade are worth the same.
+    *
+    * @param acceptBtn The accept button.
+    */
+   private void updateAccept(Button acceptBtn) {
+      acceptBtn.setDisable(playerSum.get() != portSum.get());
+   }
+
+   /**
+    * Ticks the checkboxes of some items and unticks the rest, updating the sum of the side to match.
+    *
+    * @param checkBoxes The checkboxes of one side of the trade.
+    * @param tradables  The items the checkboxes were set up from.
+    * @param indexes    The indexes of the items to tick, in ascending order.
+    * @param sum        The Integer Property holding the sum of the side.
+    */
+   private void select(List<Node> checkBoxes, List<Tradable> tradables, int[] indexes, IntegerProperty sum) {
+      int total = 0;
+      int next = 0;
+      for (int i = 0; i < checkBoxes.size(); i++) {
+         boolean selected = next < indexes.length && indexes[next] == i;
+         if (selected) {
+            total += tradables.get(i).getValue();
+            next++;
+         }
+         ((CheckBox) checkBoxes.get(i)).setSelected(selected);
+      }
+      sum.set(total);
+   }
+
+   /**
+    * Describes a suggested trade for the drop down, as the items given for the items taken and the treasure gained.
+    *
+    * @param suggestion The suggested trade.
+    * @return The description.
+    */
+   private String describe(Suggestion suggestion) {
+      return items(trade.getPlayerTradables(), suggestion.getFromPlayer()) + "  for  " +
+              items(trade.getPortTradables(), suggestion.getFromPort()) +
+              String.format("  (%+d treasure)", suggestion.getGain());
+   }
+
+   /**
+    * Lists some items the way their checkboxes are labelled.
+    *
+    * @param tradables The items of one side of the trade.
+    * @param indexes   The indexes of the items to list.
+    * @return The items, separated by commas.
+    */
+   private String items(List<Tradable> tradables, int[] indexes) {
+      return IntStream.of(indexes).mapToObj(tradables::get)
+              .map(tradable -> tradable.getType() + "(" + tradable.getValue() + ")")
+              .collect(Collectors.joining(", "));
+   }
+
    /**
     * Handles the process of a trade.
     *
@@ -196,24 +271,15 @@ public class TradeWindow {
       // Trade sums are equal.
       if (playerSum.get() == portSum.get()) {
          // associate the selected checkboxes with the tradables.
-         HashSet<Tradable> tradedFromPlayer = getSelected(playerCheckBoxes, playerTradables);
-         HashSet<Tradable> tradedFromPort = getSelected(portCheckBoxes, portTradables);
+         int[] tradedFromPlayer = getSelected(playerCheckBoxes);
+         int[] tradedFromPort = getSelected(portCheckBoxes);
 
-         // if the player has the capacity to support the outcome of the trade.
-         if (checkSpaceForTreasure(tradedFromPlayer, tradedFromPort)) {
+         // the trade is only made if the player has the capacity to support the outcome of it.
+         if (trade.accept(tradedFromPlayer, tradedFromPort)) {
+            event.traded();
             this.errorLabel.setVisible(false);
-
-            // trade the items betweeen the players
-            tradedFromPlayer.forEach(item -> {
-               port.addTradable(item);
-               player.removeTradable(item);
-            });
-            tradedFromPort.forEach(item -> {
-               player.addTradable(item);
-               port.removeTradable(item);
-            });
             window.setOpacity(0);
-            if (tradedFromPlayer.size() > 0)
+            if (tradedFromPlayer.length > 0)
                new GenericMsg(Controller.stage, "Trade completed successfully!");
             window.close();
          } else {
@@ -227,47 +293,20 @@ public class TradeWindow {
    }
 
    /**
-    * Checks the two sets of tradables to ensure that the outcome of the trade
-    * will not cause the number of Treasures on the ship to exceed it's
-    * capacity.
+    * Gets the indexes of the selected checkboxes, which are the indexes of the tradables they were set up from.
     *
-    * @param tradedFromPlayer Set of Tradables to go from the player to the port.
-    * @param tradedFromPort   Set of Tradables to go from the port to the player.
-    * @return True if the trade outcome does not cause the ship to have more
-    * treasures than it's capacity allows.
+    * @param checkBoxes The checkboxes which were set up from one of the trade's lists of tradables.
+    * @return The indexes of the selected checkboxes in ascending order.
     */
-   private boolean checkSpaceForTreasure(HashSet<Tradable> tradedFromPlayer,
-                                         HashSet<Tradable> tradedFromPort) {
-      int playerOutcomeTreasures = 0;
-      playerOutcomeTreasures = this.player.getShip().getCargo().size();
-      // subtract the number of treasures that are being sent to the port.
-      playerOutcomeTreasures -= tradedFromPlayer.stream()
-              .filter(t -> t instanceof Treasure).count();
-      // add the number of treasures that are being taken from the port.
-      playerOutcomeTreasures += tradedFromPort.stream()
-              .filter(t -> t instanceof Treasure).count();
-
-      return playerOutcomeTreasures <= player.getShip().getCapacity();
-   }
-
-   /**
-    * Pairs the checkboxes with their appropriate tradable items and returns a set of tradables for the seleted checkboxes
-    *
-    * @param checkBoxes The checkboxes which were initially set up from the tradable list also passed.
-    * @param tradables  The List of tradable items which were initially used to set up the checkboxes passed into this
-    *                   method.
-    * @return A set of Tradable items based on the selected CheckBoxes.
-    */
-   private HashSet<Tradable> getSelected(List<Node> checkBoxes, List<Tradable> tradables) {
-      HashSet<Tradable> tradedItems = new HashSet<>();
+   private int[] getSelected(List<Node> checkBoxes) {
+      int[] selected = new int[checkBoxes.size()];
+      int count = 0;
       for (int i = 0; i < checkBoxes.size(); i++) {
          CheckBox cBox = (CheckBox) checkBoxes.get(i);
          if (cBox.isSelected()) {
-            tradedItems.add(tradables.get(i));
+            selected[count++] = i;
          }
       }
-      return tradedItems;
+      return Arrays.copyOf(selected, count);
    }
 }
-
-
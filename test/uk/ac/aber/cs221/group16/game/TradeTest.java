@@ -0,0 +1,159 @@
+/*
+* @(#) TradeTest.java 1.0 2017/04/01
+*
+* Copyright (c) 2017 Aberystwyth University.
+* All rights reserved.
+*
+*/
+
+package uk.ac.aber.cs221.group16.game;
+
+import org.junit.Before;
+import org.junit.Test;
+import uk.ac.aber.cs221.group16.game.items.Tradable;
+import uk.ac.aber.cs221.group16.game.items.cards.CrewCard;
+import uk.ac.aber.cs221.group16.game.map.tiles.Port;
+import uk.ac.aber.cs221.group16.game.map.tiles.PortTile;
+import uk.ac.aber.cs221.group16.game.players.Player;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests that {@link Trade#accept(int[], int[])} only takes items chosen by valid indexes, so a bot or a crafted log
+ * can't count an item twice to get more than it gives.
+ * <p>
+ * The map and card files are loaded from relative paths, so the tests must be run from the project root.
+ *
+ * @author Group 16
+ * @version 1.0 Checked trade indexes.
+ */
+public class TradeTest {
+
+   // Instance Variables
+   private Game game;
+   private Player player;
+   private List<Tradable> playerTradables;
+
+   // Public Methods
+
+   /**
+    * Starts a game and lists what its first player can offer.
+    */
+   @Before
+   public void setUp() {
+      game = new Game(Arrays.asList("Player 1", "Player 2", "Player 3", "Player 4"), new SilentInteraction(), 2017);
+      game.start();
+      player = game.getPlayers()[0];
+      playerTradables = new Trade(player, new PortTile(Port.Venice, 0, 0), game.getLog()).getPlayerTradables();
+   }
+
+   /**
+    * Checks a trade of items of equal value is made, so the refusals below are down to the indexes.
+    */
+   @Test
+   public void fairTradeIsMade() {
+      PortTile port = portWithCopies(0, 1);
+      Trade trade = new Trade(player, port, game.getLog());
+      assertTrue(trade.accept(new int[]{0, 1}, new int[]{0, 1}));
+      assertTrue(trade.isAccepted());
+   }
+
+   /**
+    * Checks a repeated index is refused rather than counting the item twice, which would give the player two cards
+    * for one.
+    */
+   @Test
+   public void repeatedIndexIsRefused() {
+      PortTile port = portWithCopies(0, 0);
+      Trade trade = new Trade(player, port, game.getLog());
+      int cards = player.getCrewCards().size();
+      assertFalse(trade.accept(new int[]{0, 0}, new int[]{0, 1}));
+      assertFalse(trade.isAccepted());
+      assertEquals(cards, player.getCrewCards().size());
+      assertEquals(2, port.getCrewCardSet().size());
+   }
+
+   /**
+    * Checks indexes outside the lists are refused rather than throwing.
+    */
+   @Test
+   public void outOfRangeIndexIsRefused() {
+      Trade trade = new Trade(player, portWithCopies(0), game.getLog());
+      assertFalse(trade.accept(new int[]{playerTradables.size()}, new int[]{0}));
+      assertFalse(trade.accept(new int[]{0}, new int[]{1}));
+      assertFalse(trade.accept(new int[]{-1}, new int[]{0}));
+      assertFalse(trade.isAccepted());
+   }
+
+   /**
+    * Checks indexes out of order are refused.
+    */
+   @Test
+   public void unsortedIndexesAreRefused() {
+      Trade trade = new Trade(player, portWithCopies(0, 1), game.getLog());
+      assertFalse(trade.accept(new int[]{1, 0}, new int[]{0, 1}));
+      assertFalse(trade.accept(new int[]{0, 1}, new int[]{1, 0}));
+      assertFalse(trade.isAccepted());
+   }
+
+   // Private Methods
+
+   /**
+    * Makes a port holding a copy of some of the player's crew cards.
+    *
+    * @param indexes The indexes of the cards to copy in the player's tradables.
+    * @return The port.
+    */
+   private PortTile portWithCopies(int... indexes) {
+      PortTile port = new PortTile(Port.Venice, 0, 0);
+      for (int i : indexes) {
+         CrewCard card = (CrewCard) playerTradables.get(i);
+         port.addCrewCard(new CrewCard(card.getColor(), card.getValue()));
+      }
+      return port;
+   }
+
+   // Inner Classes
+
+   /**
+    * Ignores every message and always makes the first choice offered.
+    */
+   private static class SilentInteraction implements Interaction {
+
+      @Override
+      public void inform(String message) {
+      }
+
+      @Override
+      public boolean engage(Player defender, Player attacker) {
+         return false;
+      }
+
+      @Override
+      public boolean chooseTreasure(Player player, String question) {
+         return true;
+      }
+
+      @Override
+      public Player selectPlayer(Player chooser, List<Player> candidates, String message) {
+         return candidates.get(0);
+      }
+
+      @Override
+      public void trade(Trade trade) {
+      }
+
+      @Override
+      public void currentPlayerChanged(Player previous, Player current) {
+      }
+
+      @Override
+      public void gameOver(Player winner) {
+      }
+   }
+}
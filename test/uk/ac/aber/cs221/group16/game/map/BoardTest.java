@@ -0,0 +1,131 @@
+/*
+* @(#) BoardTest.java 1.0 2017/04/01
+*
+* Copyright (c) 2017 Aberystwyth University.
+* All rights reserved.
+*
+*/
+
+package uk.ac.aber.cs221.group16.game.map;
+
+import org.junit.Before;
+import org.junit.Test;
+import uk.ac.aber.cs221.group16.game.Game;
+import uk.ac.aber.cs221.group16.game.bots.Bot;
+import uk.ac.aber.cs221.group16.game.bots.BotInteraction;
+import uk.ac.aber.cs221.group16.game.bots.GreedyBot;
+import uk.ac.aber.cs221.group16.game.map.tiles.BayTile;
+import uk.ac.aber.cs221.group16.game.map.tiles.PortTile;
+import uk.ac.aber.cs221.group16.game.map.tiles.Tile;
+import uk.ac.aber.cs221.group16.game.players.Player;
+import uk.ac.aber.cs221.group16.game.states.State;
+import uk.ac.aber.cs221.group16.game.utils.GameRandom;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests when {@link Board#getValidRotations()} lets the current player turn their ship. As in the original rules a
+ * ship is turned in the {@link State#Rotate} state, the one change is that a ship facing land next to Treasure Island,
+ * which can't sail forwards or stay on its own tile, may turn instead of moving rather than being stuck for good.
+ * <p>
+ * The map and card files are loaded from relative paths, so the tests must be run from the project root.
+ *
+ * @author Group 16
+ * @version 1.0 Stuck ships may rotate.
+ */
+public class BoardTest {
+
+   // Instance Variables
+   private Game game;
+   private Board board;
+   private Player player;
+
+   // Public Methods
+
+   /**
+    * Starts a game and gets the first player.
+    */
+   @Before
+   public void setUp() {
+      GameRandom random = new GameRandom(2017);
+      Bot[] bots = new Bot[Game.numPlayers];
+      for (int i = 0; i < bots.length; i++)
+         bots[i] = new GreedyBot(random.split());
+      game = new Game(Arrays.asList("Player 1", "Player 2", "Player 3", "Player 4"), new BotInteraction(bots), 2017);
+      game.start();
+      board = game.getBoard();
+      player = board.getCurrentPlayer();
+   }
+
+   /**
+    * Checks a ship which can move may not turn instead, as in the original rules.
+    */
+   @Test
+   public void shipWhichCanMoveMayNotRotate() {
+      assertEquals(State.Move, game.getState());
+      assertFalse(board.getValidMoves().isEmpty());
+      assertTrue(board.getValidRotations().isEmpty());
+      assertFalse(board.rotate(player.getShip().getOrientation()));
+      assertEquals(player, board.getCurrentPlayer());
+   }
+
+   /**
+    * Checks a ship facing land next to Treasure Island has no moves, may turn to face any sailable tile and that
+    * turning ends the turn.
+    */
+   @Test
+   public void stuckShipMayRotate() {
+      Orientation facingLand = placeFacingLand();
+      assertNotNull("No tile next to Treasure Island faces land", facingLand);
+      assertEquals(State.Move, game.getState());
+      assertTrue(board.getValidMoves().isEmpty());
+
+      List<Orientation> rotations = board.getValidRotations();
+      assertFalse(rotations.isEmpty());
+      assertFalse(rotations.contains(facingLand));
+      Tile tile = player.getShip().getTile();
+      for (Orientation o : rotations)
+         assertTrue(board.getGrid()[tile.getX() + o.getDx()][tile.getY() + o.getDy()].isSailable());
+
+      assertTrue(board.rotate(rotations.get(0)));
+      assertEquals(rotations.get(0), player.getShip().getOrientation());
+      assertNotSame(player, board.getCurrentPlayer());
+   }
+
+   // Private Methods
+
+   /**
+    * Moves the current player's ship to the sea next to Treasure Island, facing a tile it can't sail onto.
+    *
+    * @return The orientation the ship was turned to, or null if there is no such tile.
+    */
+   private Orientation placeFacingLand() {
+      Tile[][] grid = board.getGrid();
+      for (int x = 0; x < Board.gridWidth; x++) {
+         for (int y = 0; y < Board.gridHeight; y++) {
+            Tile tile = grid[x][y];
+            if (!tile.isSailable() || tile instanceof PortTile || tile instanceof BayTile || tile.isOccupied() ||
+                    board.nextToTreasureIsland(x, y) == null)
+               continue;
+            for (Orientation o : Orientation.getAll()) {
+               int aheadX = x + o.getDx();
+               int aheadY = y + o.getDy();
+               if (aheadX < 0 || aheadX >= Board.gridWidth || aheadY < 0 || aheadY >= Board.gridHeight ||
+                       grid[aheadX][aheadY].isSailable())
+                  continue;
+               player.getShip().moveTo(tile, board);
+               player.getShip().setOrientation(o);
+               return o;
+            }
+         }
+      }
+      return null;
+   }
+}